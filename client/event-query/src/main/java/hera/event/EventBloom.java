@@ -0,0 +1,247 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.event;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import hera.api.model.BytesValue;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A bloom of events in a block made of receipt blooms of a node. A node adds a contract address
+ * and an event name of each event into a bloom of {@link #RECEIPT_BITS} bits with
+ * {@link #HASH_COUNT} murmur3 based hashes, so blooms of a block are merged by or. A merged bloom
+ * is folded in half while it's sparse, so that a block of a few events takes a few longs.
+ */
+final class EventBloom {
+
+  protected static final int RECEIPT_BITS = 2048;
+
+  protected static final int RECEIPT_WORDS = RECEIPT_BITS / Long.SIZE;
+
+  protected static final int HASH_COUNT = 3;
+
+  // a bloom which might contain anything. for a receipt whose bloom doesn't agree with its events
+  protected static final long[] ALL = new long[] {-1L};
+
+  protected static final long C1 = 0x87c37b91114253d5L;
+
+  protected static final long C2 = 0x4cf5ad432745937fL;
+
+  private EventBloom() {
+  }
+
+  /**
+   * Make a bloom of a block from its receipts. A receipt bloom is checked against events of a
+   * receipt and a block might contain anything if any of them is missing.
+   *
+   * @param receipts receipts of every transaction in a block
+   * @return a bloom in longs. empty if no event
+   */
+  static long[] of(final Collection<ContractTxReceipt> receipts) {
+    long[] merged = null;
+    for (final ContractTxReceipt receipt : receipts) {
+      if (receipt.getEvents().isEmpty()) {
+        continue;
+      }
+      final long[] bloom = wordsOf(receipt.getBloom());
+      if (null == bloom || !containsAll(bloom, receipt.getEvents())) {
+        return ALL;
+      }
+      if (null == merged) {
+        merged = bloom;
+      } else {
+        for (int i = 0; i < RECEIPT_WORDS; ++i) {
+          merged[i] |= bloom[i];
+        }
+      }
+    }
+    return (null != merged) ? fold(merged) : new long[0];
+  }
+
+  // words of a bloom of a node. null if it's not in a known size
+  protected static long[] wordsOf(final BytesValue bloom) {
+    if (RECEIPT_BITS / Byte.SIZE != bloom.length()) {
+      return null;
+    }
+    final ByteBuffer buffer = bloom.asReadOnlyByteBuffer();
+    final long[] words = new long[RECEIPT_WORDS];
+    for (int i = 0; i < RECEIPT_WORDS; ++i) {
+      words[i] = buffer.getLong();
+    }
+    return words;
+  }
+
+  protected static boolean containsAll(final long[] bloom, final List<Event> events) {
+    for (final Event event : events) {
+      if (!mightContain(bloom, event.getFrom().getBytesValue().getValue())
+          || !mightContain(bloom, event.getName().getBytes(UTF_8))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // a bit of a location in a folded bloom is still set since a size is a power of two
+  protected static long[] fold(final long[] bloom) {
+    long[] folded = bloom;
+    while (folded.length > 1 && bitCount(folded) * 4 <= folded.length * Long.SIZE) {
+      final long[] half = new long[folded.length / 2];
+      for (int i = 0; i < half.length; ++i) {
+        half[i] = folded[i] | folded[i + half.length];
+      }
+      folded = half;
+    }
+    return folded;
+  }
+
+  protected static int bitCount(final long[] bloom) {
+    int count = 0;
+    for (final long word : bloom) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /**
+   * Get keys of a filter all of which must be in a bloom of a matching block. Args are not in a
+   * bloom of a node.
+   *
+   * @param filter an event filter
+   * @return keys of a filter
+   */
+  static List<byte[]> keysOf(final EventFilter filter) {
+    final List<byte[]> keys = new ArrayList<>();
+    keys.add(filter.getContractAddress().getBytesValue().getValue());
+    if (!filter.getEventName().isEmpty()) {
+      keys.add(filter.getEventName().getBytes(UTF_8));
+    }
+    return keys;
+  }
+
+  static boolean mightContainAll(final long[] bloom, final List<byte[]> keys) {
+    if (0 == bloom.length) {
+      return false;
+    }
+    for (final byte[] key : keys) {
+      if (!mightContain(bloom, key)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  protected static void add(final long[] bloom, final byte[] key) {
+    final long[] hashes = baseHashes(key);
+    final int bits = bloom.length * Long.SIZE;
+    for (int i = 0; i < HASH_COUNT; ++i) {
+      final int bit = (int) (location(hashes, i) & (bits - 1));
+      bloom[bit >>> 6] |= 1L << bit;
+    }
+  }
+
+  protected static boolean mightContain(final long[] bloom, final byte[] key) {
+    final long[] hashes = baseHashes(key);
+    final int bits = bloom.length * Long.SIZE;
+    for (int i = 0; i < HASH_COUNT; ++i) {
+      final int bit = (int) (location(hashes, i) & (bits - 1));
+      if (0L == (bloom[bit >>> 6] & (1L << bit))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // same as one of a node
+  protected static long location(final long[] hashes, final int i) {
+    return hashes[i % 2] + i * hashes[2 + (((i + (i % 2)) % 4) / 2)];
+  }
+
+  // murmur3 x64 128 of a key and of a key followed by 1
+  protected static long[] baseHashes(final byte[] key) {
+    final byte[] extended = new byte[key.length + 1];
+    System.arraycopy(key, 0, extended, 0, key.length);
+    extended[key.length] = 1;
+    final long[] first = murmur3(key);
+    final long[] second = murmur3(extended);
+    return new long[] {first[0], first[1], second[0], second[1]};
+  }
+
+  protected static long[] murmur3(final byte[] data) {
+    final ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    long h1 = 0L;
+    long h2 = 0L;
+    final int blocks = data.length / 16;
+    for (int i = 0; i < blocks; ++i) {
+      long k1 = buffer.getLong();
+      long k2 = buffer.getLong();
+      k1 *= C1;
+      k1 = Long.rotateLeft(k1, 31);
+      k1 *= C2;
+      h1 ^= k1;
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+      k2 *= C2;
+      k2 = Long.rotateLeft(k2, 33);
+      k2 *= C1;
+      h2 ^= k2;
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    final int tail = blocks * 16;
+    final int remaining = data.length - tail;
+    long k1 = 0L;
+    long k2 = 0L;
+    for (int i = remaining - 1; i >= 8; --i) {
+      k2 ^= (data[tail + i] & 0xffL) << ((i - 8) * 8);
+    }
+    if (remaining > 8) {
+      k2 *= C2;
+      k2 = Long.rotateLeft(k2, 33);
+      k2 *= C1;
+      h2 ^= k2;
+    }
+    for (int i = Math.min(remaining, 8) - 1; i >= 0; --i) {
+      k1 ^= (data[tail + i] & 0xffL) << (i * 8);
+    }
+    if (remaining > 0) {
+      k1 *= C1;
+      k1 = Long.rotateLeft(k1, 31);
+      k1 *= C2;
+      h1 ^= k1;
+    }
+
+    h1 ^= data.length;
+    h2 ^= data.length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix(h1);
+    h2 = fmix(h2);
+    h1 += h2;
+    h2 += h1;
+    return new long[] {h1, h2};
+  }
+
+  protected static long fmix(final long value) {
+    long k = value;
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+}
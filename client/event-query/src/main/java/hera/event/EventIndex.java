@@ -0,0 +1,211 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.event;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.EventFilter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A bloom index of events over a contiguous range of blocks. A bloom of a block is merged from
+ * receipt blooms of a node and only a block with events takes one, so an index of years of blocks
+ * mostly without an event is small. A block in an indexed range is a candidate of a filter only if
+ * its bloom might contain a contract address and an event name of a filter and a block out of it
+ * is always a candidate.
+ * <p>
+ * It's safe to query while adding blocks from another thread.
+ * </p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class EventIndex {
+
+  protected static final int MAGIC = 0x48524a42; // "HRJB"
+
+  protected static final int VERSION = 2;
+
+  /**
+   * Load an index saved by {@link #save(File)}.
+   *
+   * @param file a file to load
+   * @return a loaded index
+   * @throws IOException on failure or an invalid file
+   */
+  public static EventIndex load(final File file) throws IOException {
+    assertNotNull(file, "File must not null");
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(file)))) {
+      if (MAGIC != in.readInt()) {
+        throw new IOException("Not an event index: " + file);
+      }
+      final int version = in.readInt();
+      if (VERSION != version) {
+        throw new IOException("Unsupported version " + version + " of " + file);
+      }
+      final EventIndex index = new EventIndex();
+      index.firstHeight = in.readLong();
+      index.lastHeight = in.readLong();
+      final int count = in.readInt();
+      for (int i = 0; i < count; ++i) {
+        final long height = in.readLong();
+        final long[] bloom = new long[in.readInt()];
+        for (int j = 0; j < bloom.length; ++j) {
+          bloom[j] = in.readLong();
+        }
+        index.height2Bloom.put(height, bloom);
+      }
+      return index;
+    }
+  }
+
+  protected final ConcurrentNavigableMap<Long, long[]> height2Bloom =
+      new ConcurrentSkipListMap<>();
+
+  // -1 if empty. last one is written after a bloom so that a reader sees a bloom of it
+  protected volatile long firstHeight = -1L;
+  protected volatile long lastHeight = -1L;
+
+  /**
+   * Add receipts of the next block. A block already indexed is ignored.
+   *
+   * @param height   a height of a block. the next one of {@link #getLastHeight()} unless empty
+   * @param receipts receipts of every transaction in a block
+   */
+  public synchronized void add(final long height, final List<ContractTxReceipt> receipts) {
+    assertTrue(height >= 0L, "Height must >= 0");
+    assertNotNull(receipts, "Receipts must not null");
+    if (!isEmpty()) {
+      if (height >= firstHeight && height <= lastHeight) {
+        return;
+      }
+      assertTrue(height == lastHeight + 1,
+          "Height must be the next one of " + lastHeight + " but " + height);
+    } else {
+      firstHeight = height;
+    }
+    final long[] bloom = EventBloom.of(receipts);
+    if (0 != bloom.length) {
+      height2Bloom.put(height, bloom);
+    }
+    lastHeight = height;
+  }
+
+  public boolean isEmpty() {
+    return -1L == lastHeight;
+  }
+
+  /**
+   * Get the first indexed height.
+   *
+   * @return the first height. -1 if empty
+   */
+  public long getFirstHeight() {
+    return firstHeight;
+  }
+
+  /**
+   * Get the last indexed height.
+   *
+   * @return the last height. -1 if empty
+   */
+  public long getLastHeight() {
+    return lastHeight;
+  }
+
+  /**
+   * Get ranges of blocks which might have an event matching a filter. A contract address and an
+   * event name of a filter are used. Its args and block numbers are ignored.
+   *
+   * @param filter     an event filter
+   * @param fromHeight a height to start from (inclusive)
+   * @param toHeight   a height to end with (inclusive)
+   * @return disjoint ranges of [from, to] in ascending order
+   */
+  public List<long[]> getCandidateRanges(final EventFilter filter, final long fromHeight,
+      final long toHeight) {
+    assertNotNull(filter, "Filter must not null");
+    assertTrue(fromHeight <= toHeight, "From height must <= to height");
+    final List<long[]> ranges = new ArrayList<>();
+    final long first = firstHeight;
+    final long last = lastHeight;
+    if (-1L == last || toHeight < first || fromHeight > last) {
+      ranges.add(new long[] {fromHeight, toHeight});
+      return ranges;
+    }
+    if (fromHeight < first) {
+      ranges.add(new long[] {fromHeight, first - 1});
+    }
+    final List<byte[]> keys = EventBloom.keysOf(filter);
+    for (final Map.Entry<Long, long[]> entry : height2Bloom
+        .subMap(Math.max(fromHeight, first), true, Math.min(toHeight, last), true).entrySet()) {
+      if (EventBloom.mightContainAll(entry.getValue(), keys)) {
+        append(ranges, entry.getKey(), entry.getKey());
+      }
+    }
+    if (toHeight > last) {
+      append(ranges, last + 1, toHeight);
+    }
+    return ranges;
+  }
+
+  protected void append(final List<long[]> ranges, final long from, final long to) {
+    if (!ranges.isEmpty()) {
+      final long[] previous = ranges.get(ranges.size() - 1);
+      if (previous[1] + 1 == from) {
+        previous[1] = to;
+        return;
+      }
+    }
+    ranges.add(new long[] {from, to});
+  }
+
+  /**
+   * Save an index into a file. A file is written into a temporary one and moved.
+   *
+   * @param file a file to save
+   * @throws IOException on failure
+   */
+  public synchronized void save(final File file) throws IOException {
+    assertNotNull(file, "File must not null");
+    final File temp = new File(file.getPath() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(temp)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(firstHeight);
+      out.writeLong(lastHeight);
+      out.writeInt(height2Bloom.size());
+      for (final Map.Entry<Long, long[]> entry : height2Bloom.entrySet()) {
+        out.writeLong(entry.getKey());
+        out.writeInt(entry.getValue().length);
+        for (final long word : entry.getValue()) {
+          out.writeLong(word);
+        }
+      }
+    }
+    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+}
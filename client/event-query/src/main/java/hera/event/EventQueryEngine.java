@@ -0,0 +1,511 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.event;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.AergoApi;
+import hera.api.model.Block;
+import hera.api.model.BlockMetadata;
+import hera.api.model.CloseableIterator;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.TxHash;
+import hera.exception.HerajException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+
+/**
+ * A client side event query engine. It indexes blocks into an {@link EventIndex} of receipt blooms
+ * and reads receipts only of candidate blocks of it, so that a query over years of history costs as
+ * many requests as blocks which might have a matching event.
+ * <p>
+ * Blocks are indexed by {@link #index(long, long)} for a history and by
+ * {@link #follow(long, StreamObserver)} as new blocks come in. Indexing reads a receipt of every
+ * transaction once for its bloom. A range out of an index is requested by
+ * {@link hera.api.ContractOperation#listEvents(EventFilter)} as it is. Receipts and events are read
+ * in parallel on an executor.
+ * </p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class EventQueryEngine {
+
+  public static final int DEFAULT_PARALLELISM = 4;
+
+  // a max number of blocks of a single listEvents request
+  public static final int DEFAULT_MAX_RANGE_SIZE = 1000;
+
+  protected static final long KEEP_ALIVE = 1000L; // milliseconds
+
+  public static EventQueryEngineBuilder newBuilder() {
+    return new EventQueryEngineBuilder();
+  }
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final AergoApi aergoApi;
+
+  protected final EventIndex index;
+
+  // max blocks or ranges being read at once
+  protected final int parallelism;
+
+  protected final int maxRangeSize;
+
+  protected final ExecutorService executor;
+
+  EventQueryEngine(final AergoApi aergoApi, final EventIndex index, final int parallelism,
+      final int maxRangeSize, final ExecutorService executor) {
+    assertNotNull(aergoApi, "AergoApi must not null");
+    assertNotNull(index, "Index must not null");
+    assertTrue(parallelism > 0, "Parallelism must be positive");
+    assertTrue(maxRangeSize > 0, "Max range size must be positive");
+    assertNotNull(executor, "Executor must not null");
+    this.aergoApi = aergoApi;
+    this.index = index;
+    this.parallelism = parallelism;
+    this.maxRangeSize = maxRangeSize;
+    this.executor = executor;
+  }
+
+  public EventIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * Index blocks in [fromHeight, toHeight]. Blocks already indexed are skipped. {@code fromHeight}
+   * must be the next one of the last indexed height unless an index is empty. Blocks are streamed
+   * and receipts of {@code parallelism} blocks are read at once.
+   *
+   * @param fromHeight a height to start from (inclusive)
+   * @param toHeight   a height to end with (inclusive)
+   * @return the last indexed height
+   */
+  public long index(final long fromHeight, final long toHeight) {
+    final long start = index.isEmpty() ? fromHeight
+        : Math.max(fromHeight, index.getLastHeight() + 1);
+    if (start > toHeight) {
+      return index.getLastHeight();
+    }
+    // blocks being read in order of a height
+    final Deque<PendingBlock> pendings = new ArrayDeque<>();
+    final CloseableIterator<Block> blocks = aergoApi.getBlockOperation()
+        .getBlocks(start, toHeight);
+    try {
+      while (blocks.hasNext() || !pendings.isEmpty()) {
+        while (blocks.hasNext() && pendings.size() < parallelism) {
+          pendings.add(submitReceipts(blocks.next()));
+        }
+        final PendingBlock head = pendings.poll();
+        index.add(head.height, null != head.receipts ? await(head.receipts)
+            : Collections.<ContractTxReceipt>emptyList());
+      }
+      logger.debug("Indexed up to {}", index.getLastHeight());
+      return index.getLastHeight();
+    } finally {
+      blocks.close();
+      for (final PendingBlock pending : pendings) {
+        if (null != pending.receipts) {
+          pending.receipts.cancel(true);
+        }
+      }
+    }
+  }
+
+  protected PendingBlock submitReceipts(final Block block) {
+    if (block.getTxHashes().isEmpty()) {
+      return new PendingBlock(block.getBlockNumber(), null);
+    }
+    return new PendingBlock(block.getBlockNumber(),
+        executor.submit(new Callable<List<ContractTxReceipt>>() {
+          @Override
+          public List<ContractTxReceipt> call() {
+            return receiptsOf(block);
+          }
+        }));
+  }
+
+  protected List<ContractTxReceipt> receiptsOf(final Block block) {
+    final List<TxHash> txHashes = block.getTxHashes();
+    final List<ContractTxReceipt> receipts = new ArrayList<>(txHashes.size());
+    for (final TxHash txHash : txHashes) {
+      final ContractTxReceipt receipt = aergoApi.getContractOperation()
+          .getContractTxReceipt(txHash);
+      if (null == receipt) {
+        throw new HerajException("No receipt of " + txHash);
+      }
+      receipts.add(receipt);
+    }
+    return receipts;
+  }
+
+  /**
+   * Index new blocks as they come in. Receipts of new blocks are read on an executor rather than a
+   * stream thread. A subscription resumes from the last indexed block on a connection error and a
+   * failed reading is retried from the next one of the last indexed height on the next block.
+   *
+   * @param fromHeight a height to start from unless an index has a later one. a negative one to
+   *                   start from the next new block
+   * @param observer   an observer of the last indexed height. it gets an error which stops
+   *                   following
+   * @return a subscription of blocks
+   */
+  public Subscription<BlockMetadata> follow(final long fromHeight,
+      final StreamObserver<Long> observer) {
+    assertNotNull(observer, "Observer must not null");
+    final long start = index.isEmpty() ? fromHeight
+        : Math.max(fromHeight, index.getLastHeight() + 1);
+    return aergoApi.getBlockOperation().subscribeBlockMetadata(start,
+        new Follower(start, observer));
+  }
+
+  /**
+   * Query events matching a filter in [fromHeight, toHeight] in ascending order. Block numbers of a
+   * filter are ignored. Receipts are read only of candidate blocks of an index, whose events are
+   * matched with a filter here. A range out of an index is requested as it is.
+   *
+   * @param filter     an event filter
+   * @param fromHeight a height to start from (inclusive)
+   * @param toHeight   a height to end with (inclusive)
+   * @return matching events
+   */
+  public List<Event> query(final EventFilter filter, final long fromHeight,
+      final long toHeight) {
+    assertNotNull(filter, "Filter must not null");
+    // an index may grow meanwhile. a block indexed later is just listed as it is
+    final long first = index.getFirstHeight();
+    final long last = index.getLastHeight();
+    final List<Callable<List<Event>>> readings = new ArrayList<>();
+    for (final long[] candidate : index.getCandidateRanges(filter, fromHeight, toHeight)) {
+      if (-1L == last || candidate[1] < first || candidate[0] > last) {
+        addListings(readings, filter, candidate[0], candidate[1]);
+        continue;
+      }
+      if (candidate[0] < first) {
+        addListings(readings, filter, candidate[0], first - 1);
+      }
+      for (long height = Math.max(candidate[0], first); height <= Math.min(candidate[1], last);
+          ++height) {
+        readings.add(newBlockReading(filter, height));
+      }
+      if (candidate[1] > last) {
+        addListings(readings, filter, last + 1, candidate[1]);
+      }
+    }
+    logger.debug("Query {} in {} readings of [{}, {}]", filter, readings.size(), fromHeight,
+        toHeight);
+
+    final Deque<Future<List<Event>>> results = new ArrayDeque<>();
+    try {
+      final List<Event> events = new ArrayList<>();
+      final Iterator<Callable<List<Event>>> it = readings.iterator();
+      while (it.hasNext() || !results.isEmpty()) {
+        while (it.hasNext() && results.size() < parallelism) {
+          results.add(executor.submit(it.next()));
+        }
+        events.addAll(await(results.poll()));
+      }
+      return events;
+    } finally {
+      for (final Future<List<Event>> result : results) {
+        result.cancel(true);
+      }
+    }
+  }
+
+  protected void addListings(final List<Callable<List<Event>>> readings,
+      final EventFilter filter, final long fromHeight, final long toHeight) {
+    for (long from = fromHeight; from <= toHeight; from += maxRangeSize) {
+      final EventFilter rangeFilter = EventFilter.newBuilder(filter.getContractAddress())
+          .eventName(filter.getEventName())
+          .args(filter.getArgs())
+          .fromBlockNumber(from)
+          .toBlockNumber(Math.min(toHeight, from + maxRangeSize - 1))
+          .build();
+      readings.add(new Callable<List<Event>>() {
+        @Override
+        public List<Event> call() {
+          return aergoApi.getContractOperation().listEvents(rangeFilter);
+        }
+      });
+    }
+  }
+
+  protected Callable<List<Event>> newBlockReading(final EventFilter filter, final long height) {
+    return new Callable<List<Event>>() {
+      @Override
+      public List<Event> call() {
+        final List<Event> events = new ArrayList<>();
+        for (final ContractTxReceipt receipt : receiptsOf(
+            aergoApi.getBlockOperation().getBlock(height))) {
+          for (final Event event : receipt.getEvents()) {
+            if (matches(filter, event)) {
+              events.add(event);
+            }
+          }
+        }
+        return events;
+      }
+    };
+  }
+
+  // same as a node does. args of a filter are matched by position
+  protected boolean matches(final EventFilter filter, final Event event) {
+    if (!filter.getContractAddress().equals(event.getFrom())) {
+      return false;
+    }
+    if (!filter.getEventName().isEmpty() && !filter.getEventName().equals(event.getName())) {
+      return false;
+    }
+    final List<Object> args = filter.getArgs();
+    final List<Object> eventArgs = event.getArgs();
+    if (args.size() > eventArgs.size()) {
+      return false;
+    }
+    for (int i = 0; i < args.size(); ++i) {
+      final String arg = normalize(args.get(i));
+      final String eventArg = normalize(eventArgs.get(i));
+      if (null != arg && null != eventArg ? !arg.equals(eventArg)
+          : !Objects.equals(args.get(i), eventArgs.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // a scalar value in the same form as one from json. null if not a scalar
+  protected static String normalize(final Object arg) {
+    if (arg instanceof String) {
+      return "s" + arg;
+    } else if (arg instanceof Number) {
+      try {
+        return "n" + new BigDecimal(arg.toString()).stripTrailingZeros().toPlainString();
+      } catch (NumberFormatException e) {
+        // NaN or infinity
+        return null;
+      }
+    } else if (arg instanceof Boolean) {
+      return "b" + arg;
+    }
+    return null;
+  }
+
+  protected <T> T await(final Future<T> future) {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      throw (cause instanceof RuntimeException) ? (RuntimeException) cause
+          : new HerajException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HerajException(e);
+    }
+  }
+
+  protected static class PendingBlock {
+
+    protected final long height;
+
+    // null if no transaction
+    protected final Future<List<ContractTxReceipt>> receipts;
+
+    PendingBlock(final long height, final Future<List<ContractTxReceipt>> receipts) {
+      this.height = height;
+      this.receipts = receipts;
+    }
+  }
+
+  /**
+   * Indexes blocks up to the latest one on an executor. A single catch-up runs at once.
+   */
+  protected class Follower implements StreamObserver<BlockMetadata> {
+
+    protected final StreamObserver<Long> observer;
+
+    // the first height to index if an index is empty. negative until the first block
+    protected final AtomicLong firstHeight;
+
+    protected final AtomicLong latestHeight = new AtomicLong(-1L);
+
+    protected final AtomicBoolean catchingUp = new AtomicBoolean(false);
+
+    protected final Runnable catchUp = new Runnable() {
+      @Override
+      public void run() {
+        catchUp();
+      }
+    };
+
+    Follower(final long fromHeight, final StreamObserver<Long> observer) {
+      this.firstHeight = new AtomicLong(fromHeight);
+      this.observer = observer;
+    }
+
+    @Override
+    public void onNext(final BlockMetadata blockMetadata) {
+      final long height = blockMetadata.getBlockHeader().getBlockNumber();
+      firstHeight.compareAndSet(-1L, height);
+      latestHeight.set(height);
+      schedule();
+    }
+
+    protected void schedule() {
+      if (!catchingUp.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        executor.execute(catchUp);
+      } catch (RejectedExecutionException e) {
+        catchingUp.set(false);
+        logger.warn("Catching up rejected. Last indexed: {}", index.getLastHeight(), e);
+      }
+    }
+
+    protected void catchUp() {
+      boolean failed = false;
+      try {
+        while (true) {
+          final long to = latestHeight.get();
+          final long from = index.isEmpty() ? firstHeight.get() : index.getLastHeight() + 1;
+          if (from > to) {
+            break;
+          }
+          // on this thread since it's on an executor already
+          try (CloseableIterator<Block> blocks = aergoApi.getBlockOperation()
+              .getBlocks(from, Math.min(to, from + maxRangeSize - 1))) {
+            while (blocks.hasNext()) {
+              final Block block = blocks.next();
+              index.add(block.getBlockNumber(), receiptsOf(block));
+            }
+          }
+          observer.onNext(index.getLastHeight());
+        }
+      } catch (Exception e) {
+        failed = true;
+        logger.warn("Catching up failed. Retry from {} on the next block",
+            index.getLastHeight() + 1, e);
+      } finally {
+        catchingUp.set(false);
+      }
+      // a block may come after the last check
+      if (!failed && latestHeight.get() > index.getLastHeight()) {
+        schedule();
+      }
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      logger.warn("Following blocks failed. Last indexed: {}", index.getLastHeight(), t);
+      observer.onError(t);
+    }
+
+    @Override
+    public void onCompleted() {
+      observer.onCompleted();
+    }
+  }
+
+  public static class EventQueryEngineBuilder implements hera.util.Builder<EventQueryEngine> {
+
+    protected AergoApi aergoApi;
+
+    protected EventIndex index;
+
+    protected int parallelism = DEFAULT_PARALLELISM;
+
+    protected int maxRangeSize = DEFAULT_MAX_RANGE_SIZE;
+
+    protected ExecutorService executor;
+
+    EventQueryEngineBuilder() {
+    }
+
+    public EventQueryEngineBuilder aergoApi(final AergoApi aergoApi) {
+      this.aergoApi = aergoApi;
+      return this;
+    }
+
+    public EventQueryEngineBuilder index(final EventIndex index) {
+      this.index = index;
+      return this;
+    }
+
+    public EventQueryEngineBuilder parallelism(final int parallelism) {
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    public EventQueryEngineBuilder maxRangeSize(final int maxRangeSize) {
+      this.maxRangeSize = maxRangeSize;
+      return this;
+    }
+
+    /**
+     * Set an executor listing events. A default one of {@code parallelism} daemon threads leaves no
+     * thread when idle.
+     *
+     * @param executor an executor
+     * @return an instance of this
+     */
+    public EventQueryEngineBuilder executor(final ExecutorService executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    @Override
+    public EventQueryEngine build() {
+      return new EventQueryEngine(aergoApi, null != index ? index : new EventIndex(),
+          parallelism, maxRangeSize, null != executor ? executor : newDefaultExecutor());
+    }
+
+    protected ExecutorService newDefaultExecutor() {
+      final ThreadPoolExecutor defaultExecutor = new ThreadPoolExecutor(parallelism, parallelism,
+          KEEP_ALIVE, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+          new ThreadFactory() {
+            protected final AtomicInteger count = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+              final Thread thread = new Thread(runnable,
+                  "heraj-event-query-" + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+      defaultExecutor.allowCoreThreadTimeOut(true);
+      return defaultExecutor;
+    }
+
+  }
+
+}
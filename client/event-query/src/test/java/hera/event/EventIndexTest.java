@@ -0,0 +1,142 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.event;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import hera.AbstractTestCase;
+import hera.api.model.BytesValue;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class EventIndexTest extends AbstractTestCase {
+
+  protected final ContractAddress contract =
+      ContractAddress.of("AmJaNDXoPbBRn9XHh9onKbDKuAzj88n5Bzt7KniYA78qUEc5EwBd");
+
+  // a receipt with a bloom in the same form as one of a node
+  static ContractTxReceipt receiptOf(final Event... events) {
+    final long[] bloom = new long[EventBloom.RECEIPT_WORDS];
+    for (final Event event : events) {
+      EventBloom.add(bloom, event.getFrom().getBytesValue().getValue());
+      EventBloom.add(bloom, event.getName().getBytes(UTF_8));
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate(bloom.length * Long.BYTES);
+    for (final long word : bloom) {
+      buffer.putLong(word);
+    }
+    return ContractTxReceipt.newBuilder()
+        .bloom(BytesValue.of(buffer.array()))
+        .events(asList(events))
+        .build();
+  }
+
+  protected Event event(final String name, final Object... args) {
+    return Event.newBuilder().from(contract).name(name).args(asList(args)).build();
+  }
+
+  // events only at 12 and 15 in [10, 19]
+  protected EventIndex newIndex() {
+    final EventIndex index = new EventIndex();
+    for (long height = 10L; height < 20L; ++height) {
+      if (12L == height) {
+        index.add(height, singletonList(receiptOf(event("transfer", "alice", 100))));
+      } else if (15L == height) {
+        index.add(height, asList(new ContractTxReceipt[] {receiptOf(),
+            receiptOf(event("approve", "bob", 1.50))}));
+      } else {
+        index.add(height, Collections.<ContractTxReceipt>emptyList());
+      }
+    }
+    return index;
+  }
+
+  protected void assertRanges(final List<long[]> expected, final List<long[]> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); ++i) {
+      assertArrayEquals(expected.get(i), actual.get(i));
+    }
+  }
+
+  @Test
+  public void shouldSkipBlocksNotMatching() {
+    // given
+    final EventIndex index = newIndex();
+
+    // then
+    assertRanges(asList(new long[] {12L, 12L}), index.getCandidateRanges(
+        EventFilter.newBuilder(contract).eventName("transfer").build(), 10L, 19L));
+    // args are not in a bloom
+    assertRanges(asList(new long[] {12L, 12L}), index.getCandidateRanges(
+        EventFilter.newBuilder(contract).eventName("transfer").args("carol").build(),
+        10L, 19L));
+    assertRanges(asList(new long[] {15L, 15L}), index.getCandidateRanges(
+        EventFilter.newBuilder(contract).eventName("approve").build(), 10L, 19L));
+    assertRanges(Collections.<long[]>emptyList(), index.getCandidateRanges(
+        EventFilter.newBuilder(contract).eventName("mint").build(), 10L, 19L));
+    assertRanges(asList(new long[] {12L, 12L}, new long[] {15L, 15L}),
+        index.getCandidateRanges(EventFilter.newBuilder(contract).build(), 10L, 19L));
+  }
+
+  @Test
+  public void shouldKeepBlockOfUnmatchedBloomAsCandidate() {
+    // given
+    final EventIndex index = new EventIndex();
+    index.add(0L, singletonList(ContractTxReceipt.newBuilder()
+        .events(singletonList(event("transfer")))
+        .build()));
+    final ContractTxReceipt other = receiptOf(event("approve"));
+    index.add(1L, singletonList(ContractTxReceipt.newBuilder()
+        .bloom(other.getBloom())
+        .events(singletonList(event("transfer")))
+        .build()));
+
+    // then
+    assertRanges(asList(new long[] {0L, 1L}), index.getCandidateRanges(
+        EventFilter.newBuilder(contract).eventName("mint").build(), 0L, 1L));
+  }
+
+  @Test
+  public void shouldKeepUnindexedRangesAsCandidates() {
+    // given
+    final EventIndex index = newIndex();
+
+    // then
+    assertRanges(asList(new long[] {5L, 9L}, new long[] {12L, 12L}, new long[] {20L, 25L}),
+        index.getCandidateRanges(EventFilter.newBuilder(contract).eventName("transfer").build(),
+            5L, 25L));
+    assertRanges(asList(new long[] {30L, 40L}), index.getCandidateRanges(
+        EventFilter.newBuilder(contract).build(), 30L, 40L));
+  }
+
+  @Test
+  public void shouldLoadSavedIndex() throws Exception {
+    // given
+    final EventIndex index = newIndex();
+    final File file = new File(Files.createTempDirectory("heraj").toFile(), "events.idx");
+    index.save(file);
+
+    // then
+    final EventIndex loaded = EventIndex.load(file);
+    assertEquals(10L, loaded.getFirstHeight());
+    assertEquals(19L, loaded.getLastHeight());
+    final EventFilter filter = EventFilter.newBuilder(contract).eventName("approve").build();
+    assertRanges(index.getCandidateRanges(filter, 0L, 30L),
+        loaded.getCandidateRanges(filter, 0L, 30L));
+  }
+
+}
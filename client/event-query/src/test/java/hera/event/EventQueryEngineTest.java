@@ -0,0 +1,261 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.event;
+
+import static hera.event.EventIndexTest.receiptOf;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.api.AergoApi;
+import hera.api.BlockOperation;
+import hera.api.ContractOperation;
+import hera.api.model.Block;
+import hera.api.model.BlockHeader;
+import hera.api.model.BlockMetadata;
+import hera.api.model.BytesValue;
+import hera.api.model.CloseableIterator;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.TxHash;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class EventQueryEngineTest extends AbstractTestCase {
+
+  protected final ContractAddress contract =
+      ContractAddress.of("AmJaNDXoPbBRn9XHh9onKbDKuAzj88n5Bzt7KniYA78qUEc5EwBd");
+
+  protected Event event(final long height, final String name, final Object... args) {
+    return Event.newBuilder().from(contract).name(name).args(asList(args))
+        .blockNumber(height).build();
+  }
+
+  // a tx hash of a block at a height
+  protected TxHash txHashOf(final long height) {
+    return TxHash.of(BytesValue.of(ByteBuffer.allocate(Long.BYTES).putLong(height).array()));
+  }
+
+  protected Block blockOf(final long height, final boolean withTx) {
+    final Block block = mock(Block.class);
+    when(block.getBlockNumber()).thenReturn(height);
+    when(block.getTxHashes()).thenReturn(withTx ? singletonList(txHashOf(height))
+        : Collections.<TxHash>emptyList());
+    return block;
+  }
+
+  protected CloseableIterator<Block> iteratorOf(final List<Block> blocks,
+      final AtomicBoolean closed) {
+    return new CloseableIterator<Block>() {
+      protected int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < blocks.size();
+      }
+
+      @Override
+      public Block next() {
+        return blocks.get(next++);
+      }
+
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    };
+  }
+
+  @Test
+  public void shouldReadReceiptsOnlyOfCandidateBlocks() {
+    // given
+    final EventIndex index = new EventIndex();
+    for (long height = 0L; height < 100L; ++height) {
+      index.add(height, 50L == height
+          ? singletonList(receiptOf(event(height, "transfer", "alice")))
+          : Collections.<ContractTxReceipt>emptyList());
+    }
+    final BlockOperation blockOperation = mock(BlockOperation.class);
+    when(blockOperation.getBlock(anyLong())).thenAnswer(new Answer<Block>() {
+      @Override
+      public Block answer(final InvocationOnMock invocation) {
+        return blockOf(invocation.<Long>getArgument(0), true);
+      }
+    });
+    final ContractOperation contractOperation = mock(ContractOperation.class);
+    when(contractOperation.getContractTxReceipt(txHashOf(50L))).thenReturn(
+        receiptOf(event(50L, "transfer", "alice"), event(50L, "transfer", "bob", 1.50),
+            event(50L, "approve", "bob")));
+    when(contractOperation.listEvents(any(EventFilter.class)))
+        .thenAnswer(new Answer<List<Event>>() {
+          @Override
+          public List<Event> answer(final InvocationOnMock invocation) {
+            final EventFilter filter = invocation.getArgument(0);
+            return singletonList(event(filter.getFromBlockNumber(), "transfer", "bob"));
+          }
+        });
+    final AergoApi aergoApi = mock(AergoApi.class);
+    when(aergoApi.getBlockOperation()).thenReturn(blockOperation);
+    when(aergoApi.getContractOperation()).thenReturn(contractOperation);
+    final EventQueryEngine engine = EventQueryEngine.newBuilder()
+        .aergoApi(aergoApi)
+        .index(index)
+        .maxRangeSize(10)
+        .build();
+
+    // then
+    final List<Event> events = engine.query(
+        EventFilter.newBuilder(contract).eventName("transfer").args("bob", 1.5).build(),
+        0L, 119L);
+    // receipts of 50 and [100, 119] in two ranges
+    verify(blockOperation, times(1)).getBlock(anyLong());
+    verify(blockOperation).getBlock(50L);
+    verify(contractOperation, times(2)).listEvents(any(EventFilter.class));
+    assertEquals(3, events.size());
+    assertEquals(50L, events.get(0).getBlockNumber());
+    assertEquals("bob", events.get(0).getArgs().get(0));
+    assertEquals(100L, events.get(1).getBlockNumber());
+    assertEquals(110L, events.get(2).getBlockNumber());
+  }
+
+  @Test
+  public void shouldIndexFromReceiptBloomsOfStreamedBlocks() {
+    // given
+    final List<Block> blocks = new ArrayList<>();
+    for (long height = 0L; height < 25L; ++height) {
+      blocks.add(blockOf(height, 0L != height % 2L));
+    }
+    final AtomicBoolean closed = new AtomicBoolean(false);
+    final BlockOperation blockOperation = mock(BlockOperation.class);
+    when(blockOperation.getBlocks(0L, 24L)).thenReturn(iteratorOf(blocks, closed));
+    final ContractOperation contractOperation = mock(ContractOperation.class);
+    when(contractOperation.getContractTxReceipt(any(TxHash.class)))
+        .thenAnswer(new Answer<ContractTxReceipt>() {
+          @Override
+          public ContractTxReceipt answer(final InvocationOnMock invocation) {
+            final TxHash txHash = invocation.getArgument(0);
+            final long height = txHash.getBytesValue().asReadOnlyByteBuffer().getLong();
+            return 0L == height % 7L ? receiptOf(event(height, "transfer")) : receiptOf();
+          }
+        });
+    final AergoApi aergoApi = mock(AergoApi.class);
+    when(aergoApi.getBlockOperation()).thenReturn(blockOperation);
+    when(aergoApi.getContractOperation()).thenReturn(contractOperation);
+    final EventQueryEngine engine = EventQueryEngine.newBuilder()
+        .aergoApi(aergoApi)
+        .parallelism(2)
+        .build();
+
+    // then
+    assertEquals(24L, engine.index(0L, 24L));
+    assertTrue(closed.get());
+    // only blocks with a transaction
+    verify(contractOperation, times(12)).getContractTxReceipt(any(TxHash.class));
+    verify(contractOperation, never()).listEvents(any(EventFilter.class));
+    final List<long[]> ranges = engine.getIndex().getCandidateRanges(
+        EventFilter.newBuilder(contract).eventName("transfer").build(), 0L, 24L);
+    assertEquals(2, ranges.size());
+    assertEquals(7L, ranges.get(0)[0]);
+    assertEquals(21L, ranges.get(1)[1]);
+  }
+
+  @Test
+  public void shouldFollowOnExecutorAndReportError() throws Exception {
+    // given
+    final BlockOperation blockOperation = mock(BlockOperation.class);
+    final List<StreamObserver<BlockMetadata>> lives = new ArrayList<>();
+    when(blockOperation.subscribeBlockMetadata(eq(-1L),
+        ArgumentMatchers.<StreamObserver<BlockMetadata>>any()))
+        .thenAnswer(new Answer<Subscription<BlockMetadata>>() {
+          @Override
+          public Subscription<BlockMetadata> answer(final InvocationOnMock invocation) {
+            lives.add(invocation.<StreamObserver<BlockMetadata>>getArgument(1));
+            return null;
+          }
+        });
+    final List<Block> blocks = new ArrayList<>();
+    blocks.add(blockOf(10L, false));
+    blocks.add(blockOf(11L, false));
+    when(blockOperation.getBlocks(10L, 11L))
+        .thenReturn(iteratorOf(blocks, new AtomicBoolean(false)));
+    final ContractOperation contractOperation = mock(ContractOperation.class);
+    final AergoApi aergoApi = mock(AergoApi.class);
+    when(aergoApi.getContractOperation()).thenReturn(contractOperation);
+    when(aergoApi.getBlockOperation()).thenReturn(blockOperation);
+    final List<Runnable> tasks = new ArrayList<>();
+    final ExecutorService executor = mock(ExecutorService.class);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) {
+        tasks.add(invocation.<Runnable>getArgument(0));
+        return null;
+      }
+    }).when(executor).execute(any(Runnable.class));
+    final EventQueryEngine engine = EventQueryEngine.newBuilder()
+        .aergoApi(aergoApi)
+        .executor(executor)
+        .build();
+    final List<Long> indexed = new ArrayList<>();
+    final List<Throwable> errors = new ArrayList<>();
+    engine.follow(-1L, new StreamObserver<Long>() {
+      @Override
+      public void onNext(final Long height) {
+        indexed.add(height);
+      }
+
+      @Override
+      public void onError(final Throwable t) {
+        errors.add(t);
+      }
+
+      @Override
+      public void onCompleted() {
+      }
+    });
+    final StreamObserver<BlockMetadata> live = lives.get(0);
+
+    // then
+    live.onNext(metadataOf(10L));
+    live.onNext(metadataOf(11L));
+    verify(blockOperation, never()).getBlocks(anyLong(), anyLong());
+    assertEquals(1, tasks.size());
+    tasks.get(0).run();
+    assertEquals(singletonList(11L), indexed);
+    assertEquals(10L, engine.getIndex().getFirstHeight());
+    verify(contractOperation, never()).getContractTxReceipt(any(TxHash.class));
+    live.onError(new IllegalStateException());
+    assertEquals(1, errors.size());
+  }
+
+  protected BlockMetadata metadataOf(final long height) {
+    return BlockMetadata.newBuilder()
+        .blockHeader(BlockHeader.newBuilder().blockNumber(height).build())
+        .build();
+  }
+
+}
@@ -0,0 +1,483 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.export;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.AergoApi;
+import hera.api.model.Block;
+import hera.api.model.CloseableIterator;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.FetchControl;
+import hera.api.model.Transaction;
+import hera.api.model.TxHash;
+import hera.api.model.TxReceipt;
+import hera.exception.HerajException;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+
+/**
+ * An exporter of a chain into columnar files for analytics. Blocks are read by
+ * {@link hera.api.BlockOperation#getBlocks(long, long, FetchControl)} and receipts and events of
+ * their transactions by {@link hera.api.TransactionOperation} and
+ * {@link hera.api.ContractOperation}.
+ * <p>
+ * A chain is partitioned by a height into {@code partitionSize} blocks. A partition is written into
+ * a directory {@code height=<first height of a partition>} with a file of each
+ * {@link ExportTable} and partitions are written in parallel. Rows are streamed into files row
+ * group by row group and receipts of up to {@code parallelism * prefetchDepth} transactions are
+ * fetched in parallel ahead of writing them. A checkpoint keeps the height up to
+ * which every partition is written, so that an interrupted export resumes from the partition of the
+ * next height. A partition written again replaces the previous files.
+ * </p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class ChainExporter {
+
+  public static final String CHECKPOINT_FILE = "_checkpoint";
+
+  public static final String PARTITION_PREFIX = "height=";
+
+  public static final long DEFAULT_PARTITION_SIZE = 10000L;
+
+  public static final int DEFAULT_WRITER_COUNT = 2;
+
+  // fetches of writers are added up so it's less than a default one
+  public static final FetchControl DEFAULT_FETCH_CONTROL = FetchControl.newBuilder()
+      .parallelism(4)
+      .prefetchDepth(32)
+      .build();
+
+  public static ChainExporterBuilder newBuilder() {
+    return new ChainExporterBuilder();
+  }
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final AergoApi aergoApi;
+
+  protected final File directory;
+
+  protected final long partitionSize;
+
+  // max partitions written at once
+  protected final int writerCount;
+
+  // of each partition
+  protected final FetchControl fetchControl;
+
+  protected final boolean receiptIncluded;
+
+  // events are read from receipts so they need receipts to be included
+  protected final boolean eventIncluded;
+
+  ChainExporter(final AergoApi aergoApi, final File directory, final long partitionSize,
+      final int writerCount, final FetchControl fetchControl, final boolean receiptIncluded,
+      final boolean eventIncluded) {
+    assertNotNull(aergoApi, "AergoApi must not null");
+    assertNotNull(directory, "Directory must not null");
+    assertTrue(partitionSize > 0L, "Partition size must be positive");
+    assertTrue(writerCount > 0, "Writer count must be positive");
+    assertNotNull(fetchControl, "FetchControl must not null");
+    assertTrue(receiptIncluded || !eventIncluded, "Events need receipts to be included");
+    this.aergoApi = aergoApi;
+    this.directory = directory;
+    this.partitionSize = partitionSize;
+    this.writerCount = writerCount;
+    this.fetchControl = fetchControl;
+    this.receiptIncluded = receiptIncluded;
+    this.eventIncluded = eventIncluded;
+  }
+
+  /**
+   * Export blocks in [fromHeight, toHeight]. A height over the best one is not exported. If a
+   * checkpoint exists, it resumes from the partition of the next height of it. {@code fromHeight}
+   * must be the same with an interrupted one to resume it.
+   *
+   * @param fromHeight a height to start from (inclusive)
+   * @param toHeight   a height to end with (inclusive)
+   * @return the height up to which every block is exported
+   * @throws IOException on failure of writing a file
+   */
+  public long export(final long fromHeight, final long toHeight) throws IOException {
+    assertTrue(fromHeight >= 0L, "From height must >= 0");
+    assertTrue(fromHeight <= toHeight, "From height must <= to height");
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot make a directory " + directory);
+    }
+    final long bestHeight = aergoApi.getBlockchainOperation().getBlockchainStatus()
+        .getBestHeight();
+    final long end = Math.min(toHeight, bestHeight);
+
+    final ExportCheckpoint checkpoint = new ExportCheckpoint(new File(directory, CHECKPOINT_FILE));
+    final Long exported = checkpoint.load();
+    long start = fromHeight;
+    if (null != exported && exported >= fromHeight) {
+      // a partition of the next height may be written partially. write it all again
+      start = Math.max(fromHeight, partitionStart(exported + 1));
+    }
+    long exportedHeight = start - 1;
+    if (start > end) {
+      logger.info("Nothing to export in [{}, {}]. exported: {}", fromHeight, end, exported);
+      return null != exported ? exported : exportedHeight;
+    }
+    logger.info("Export [{}, {}] into {}", start, end, directory);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(writerCount);
+    final CompletionService<long[]> completion = new ExecutorCompletionService<>(executor);
+    // shared by writers like fetches of blocks
+    final ExecutorService receiptExecutor = receiptIncluded
+        ? Executors.newFixedThreadPool(writerCount * fetchControl.getParallelism()) : null;
+    try {
+      int partitionCount = 0;
+      for (long from = start; from <= end; from = partitionStart(from) + partitionSize) {
+        final long partitionFrom = from;
+        final long partitionTo = Math.min(end, partitionStart(from) + partitionSize - 1);
+        completion.submit(new Callable<long[]>() {
+          @Override
+          public long[] call() throws Exception {
+            exportPartition(partitionFrom, partitionTo, receiptExecutor);
+            return new long[] {partitionFrom, partitionTo};
+          }
+        });
+        ++partitionCount;
+      }
+
+      // partitions may be done out of order. a checkpoint moves over contiguous ones only
+      final Map<Long, Long> done = new TreeMap<>();
+      for (int i = 0; i < partitionCount; ++i) {
+        final long[] range = await(completion.take());
+        done.put(range[0], range[1]);
+        while (done.containsKey(exportedHeight + 1)) {
+          exportedHeight = done.remove(exportedHeight + 1);
+          checkpoint.save(exportedHeight);
+        }
+        logger.debug("Exported up to {}", exportedHeight);
+      }
+      logger.info("Exported [{}, {}]", start, exportedHeight);
+      return exportedHeight;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HerajException(e);
+    } finally {
+      executor.shutdownNow();
+      if (null != receiptExecutor) {
+        receiptExecutor.shutdownNow();
+      }
+    }
+  }
+
+  protected <T> T await(final Future<T> future) throws IOException, InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw (cause instanceof RuntimeException) ? (RuntimeException) cause
+          : new HerajException(cause);
+    }
+  }
+
+  protected long partitionStart(final long height) {
+    return height - height % partitionSize;
+  }
+
+  /**
+   * Get a directory of a partition including a height.
+   *
+   * @param height a height
+   * @return a partition directory
+   */
+  public File getPartitionDirectory(final long height) {
+    return new File(directory, PARTITION_PREFIX + partitionStart(height));
+  }
+
+  protected void exportPartition(final long from, final long to,
+      final ExecutorService receiptExecutor) throws IOException, InterruptedException {
+    logger.debug("Export partition [{}, {}]", from, to);
+    final File partitionDirectory = getPartitionDirectory(from);
+    if (!partitionDirectory.isDirectory() && !partitionDirectory.mkdirs()) {
+      throw new IOException("Cannot make a directory " + partitionDirectory);
+    }
+
+    final Map<ExportTable, ColumnarFileWriter> table2Writer = new EnumMap<>(ExportTable.class);
+    // blocks whose receipts are being fetched in order of a height
+    final Deque<PendingBlock> pending = new ArrayDeque<>();
+    CloseableIterator<Block> blocks = null;
+    boolean written = false;
+    try {
+      for (final ExportTable table : ExportTable.values()) {
+        table2Writer.put(table, new ColumnarFileWriter(
+            new File(partitionDirectory, table.getFileName()), table.getColumns()));
+      }
+
+      final int maxPendingReceipts = fetchControl.getParallelism()
+          * fetchControl.getPrefetchDepth();
+      int pendingReceipts = 0;
+      long expected = from;
+      blocks = aergoApi.getBlockOperation().getBlocks(from, to, fetchControl);
+      while (blocks.hasNext()) {
+        final Block block = blocks.next();
+        if (Thread.currentThread().isInterrupted()) {
+          throw new HerajException("Export of partition [" + from + ", " + to + "] interrupted");
+        }
+        if (expected != block.getBlockNumber()) {
+          throw new HerajException(
+              "Expected block " + expected + " but " + block.getBlockNumber());
+        }
+        final PendingBlock pendingBlock = new PendingBlock(block, fetchReceipts(block,
+            receiptExecutor));
+        pending.add(pendingBlock);
+        pendingReceipts += pendingBlock.receipts.size();
+        while (pending.size() > fetchControl.getPrefetchDepth()
+            || pendingReceipts > maxPendingReceipts) {
+          final PendingBlock head = pending.poll();
+          pendingReceipts -= head.receipts.size();
+          addBlock(table2Writer, head);
+        }
+        ++expected;
+      }
+      if (expected != to + 1) {
+        throw new HerajException("Missing block at " + expected);
+      }
+      while (!pending.isEmpty()) {
+        addBlock(table2Writer, pending.poll());
+      }
+
+      for (final ColumnarFileWriter writer : table2Writer.values()) {
+        writer.close();
+      }
+      written = true;
+    } finally {
+      if (null != blocks) {
+        blocks.close();
+      }
+      if (!written) {
+        for (final PendingBlock pendingBlock : pending) {
+          for (final Future<FetchedReceipt> receipt : pendingBlock.receipts) {
+            receipt.cancel(true);
+          }
+        }
+        for (final ColumnarFileWriter writer : table2Writer.values()) {
+          writer.abort();
+        }
+      }
+    }
+  }
+
+  protected List<Future<FetchedReceipt>> fetchReceipts(final Block block,
+      final ExecutorService receiptExecutor) {
+    if (!receiptIncluded) {
+      return Collections.emptyList();
+    }
+    final List<Transaction> transactions = block.getTransactions();
+    final List<Future<FetchedReceipt>> receipts = new ArrayList<>(transactions.size());
+    for (final Transaction transaction : transactions) {
+      final TxHash txHash = transaction.getHash();
+      receipts.add(receiptExecutor.submit(new Callable<FetchedReceipt>() {
+        @Override
+        public FetchedReceipt call() {
+          return fetchReceipt(block.getBlockNumber(), txHash);
+        }
+      }));
+    }
+    return receipts;
+  }
+
+  protected FetchedReceipt fetchReceipt(final long height, final TxHash txHash) {
+    final TxReceipt receipt;
+    final List<Event> events;
+    if (eventIncluded) {
+      final ContractTxReceipt contractTxReceipt = aergoApi.getContractOperation()
+          .getContractTxReceipt(txHash);
+      receipt = (null != contractTxReceipt) ? contractTxReceipt.getTxReceipt() : null;
+      events = (null != contractTxReceipt) ? contractTxReceipt.getEvents()
+          : Collections.<Event>emptyList();
+    } else {
+      receipt = aergoApi.getTransactionOperation().getTxReceipt(txHash);
+      events = Collections.emptyList();
+    }
+    if (null == receipt) {
+      throw new HerajException("No receipt of " + txHash + " at " + height);
+    }
+    return new FetchedReceipt(receipt, events);
+  }
+
+  protected void addBlock(final Map<ExportTable, ColumnarFileWriter> table2Writer,
+      final PendingBlock pendingBlock) throws IOException, InterruptedException {
+    final Block block = pendingBlock.block;
+    final long height = block.getBlockNumber();
+    table2Writer.get(ExportTable.BLOCKS).addRow(
+        height,
+        block.getHash().getBytesValue(),
+        block.getPreviousHash().getBytesValue(),
+        block.getTimestamp(),
+        block.getTxCount(),
+        block.getCoinbaseAccount().getEncoded(),
+        block.getPublicKey(),
+        block.getRootHash().getBytesValue(),
+        block.getTxRootHash().getBytesValue(),
+        block.getReceiptRootHash().getBytesValue());
+
+    final List<Transaction> transactions = block.getTransactions();
+    for (int index = 0; index < transactions.size(); ++index) {
+      final Transaction transaction = transactions.get(index);
+      table2Writer.get(ExportTable.TRANSACTIONS).addRow(
+          height,
+          index,
+          transaction.getHash().getBytesValue(),
+          transaction.getTxType().name(),
+          transaction.getSender().getEncoded(),
+          transaction.getRecipient().getEncoded(),
+          transaction.getAmount().getValue().toString(),
+          transaction.getNonce(),
+          transaction.getFee().getLimit(),
+          transaction.getFee().getPrice().getValue().toString(),
+          transaction.getPayload());
+      if (receiptIncluded) {
+        addReceipt(table2Writer, height, index, transaction.getHash(),
+            await(pendingBlock.receipts.get(index)));
+      }
+    }
+  }
+
+  protected void addReceipt(final Map<ExportTable, ColumnarFileWriter> table2Writer,
+      final long height, final int index, final TxHash txHash, final FetchedReceipt fetched)
+      throws IOException {
+    final TxReceipt receipt = fetched.receipt;
+    table2Writer.get(ExportTable.RECEIPTS).addRow(
+        height,
+        index,
+        txHash.getBytesValue(),
+        receipt.getStatus(),
+        receipt.getResult(),
+        receipt.getAccountAddress().getEncoded(),
+        receipt.getFeeUsed().getValue().toString(),
+        receipt.getGasUsed(),
+        receipt.isFeeDelegation() ? 1L : 0L);
+    for (final Event event : fetched.events) {
+      table2Writer.get(ExportTable.EVENTS).addRow(
+          height,
+          index,
+          txHash.getBytesValue(),
+          event.getIndex(),
+          event.getFrom().getEncoded(),
+          event.getName(),
+          String.valueOf(event.getArgs()));
+    }
+  }
+
+  protected static class PendingBlock {
+
+    protected final Block block;
+
+    // of each transaction. empty if receipts are not included
+    protected final List<Future<FetchedReceipt>> receipts;
+
+    PendingBlock(final Block block, final List<Future<FetchedReceipt>> receipts) {
+      this.block = block;
+      this.receipts = receipts;
+    }
+  }
+
+  protected static class FetchedReceipt {
+
+    protected final TxReceipt receipt;
+
+    protected final List<Event> events;
+
+    FetchedReceipt(final TxReceipt receipt, final List<Event> events) {
+      this.receipt = receipt;
+      this.events = events;
+    }
+  }
+
+  public static class ChainExporterBuilder implements hera.util.Builder<ChainExporter> {
+
+    protected AergoApi aergoApi;
+
+    protected File directory;
+
+    protected long partitionSize = DEFAULT_PARTITION_SIZE;
+
+    protected int writerCount = DEFAULT_WRITER_COUNT;
+
+    protected FetchControl fetchControl = DEFAULT_FETCH_CONTROL;
+
+    protected boolean receiptIncluded = true;
+
+    protected boolean eventIncluded = true;
+
+    ChainExporterBuilder() {
+    }
+
+    public ChainExporterBuilder aergoApi(final AergoApi aergoApi) {
+      this.aergoApi = aergoApi;
+      return this;
+    }
+
+    public ChainExporterBuilder directory(final File directory) {
+      this.directory = directory;
+      return this;
+    }
+
+    public ChainExporterBuilder partitionSize(final long partitionSize) {
+      this.partitionSize = partitionSize;
+      return this;
+    }
+
+    public ChainExporterBuilder writerCount(final int writerCount) {
+      this.writerCount = writerCount;
+      return this;
+    }
+
+    public ChainExporterBuilder fetchControl(final FetchControl fetchControl) {
+      this.fetchControl = fetchControl;
+      return this;
+    }
+
+    public ChainExporterBuilder receiptIncluded(final boolean receiptIncluded) {
+      this.receiptIncluded = receiptIncluded;
+      return this;
+    }
+
+    public ChainExporterBuilder eventIncluded(final boolean eventIncluded) {
+      this.eventIncluded = eventIncluded;
+      return this;
+    }
+
+    @Override
+    public ChainExporter build() {
+      return new ChainExporter(aergoApi, directory, partitionSize, writerCount, fetchControl,
+          receiptIncluded, eventIncluded);
+    }
+
+  }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.export;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+public class Column {
+
+  public static Column of(final String name, final ColumnType type) {
+    return new Column(name, type);
+  }
+
+  protected final String name;
+
+  protected final ColumnType type;
+
+  Column(final String name, final ColumnType type) {
+    assertNotNull(name, "Name must not null");
+    assertNotNull(type, "Type must not null");
+    this.name = name;
+    this.type = type;
+  }
+
+}
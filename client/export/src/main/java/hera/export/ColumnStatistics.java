@@ -0,0 +1,34 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.export;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Min/max values of a column. They're kept in a header of a file so that a reader can skip a file
+ * without inflating any column.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+public class ColumnStatistics {
+
+  // Long for LONG, String for STRING
+  protected final Object min;
+
+  protected final Object max;
+
+  ColumnStatistics(final Object min, final Object max) {
+    this.min = min;
+    this.max = max;
+  }
+
+}
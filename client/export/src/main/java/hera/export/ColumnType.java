@@ -0,0 +1,28 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.export;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A type of a column in a columnar file.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public enum ColumnType {
+  /**
+   * A signed 64 bits integer. It keeps min/max statistics.
+   */
+  LONG,
+  /**
+   * A utf-8 string. It keeps min/max statistics in lexicographic order.
+   */
+  STRING,
+  /**
+   * A raw bytes like a hash. It keeps no statistics.
+   */
+  BYTES
+}
@@ -0,0 +1,281 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.export;
+
+import static hera.export.ColumnarFileWriter.MAGIC;
+import static hera.export.ColumnarFileWriter.VERSION;
+import static hera.util.ValidationUtils.assertNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.BytesValue;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A reader of a file written by {@link ColumnarFileWriter}. Only a header and a footer are read on
+ * opening and a column is inflated row group by row group on reading it.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class ColumnarFileReader {
+
+  // footer offset (long) | magic (int)
+  protected static final long TRAILER_LENGTH = 12L;
+
+  /**
+   * Open a columnar file.
+   *
+   * @param file a file to read
+   * @return a reader of a file
+   * @throws IOException on failure or an invalid file
+   */
+  public static ColumnarFileReader open(final File file) throws IOException {
+    assertNotNull(file, "File must not null");
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      final long length = raf.length();
+      if (length < TRAILER_LENGTH + 12L) {
+        throw new IOException("Not a columnar file: " + file);
+      }
+      final DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Channels.newInputStream(raf.getChannel())));
+      if (MAGIC != in.readInt()) {
+        throw new IOException("Not a columnar file: " + file);
+      }
+      final int version = in.readInt();
+      if (VERSION != version) {
+        throw new IOException("Unsupported version " + version + " of " + file);
+      }
+      final int columnCount = in.readInt();
+      final List<Column> columns = new ArrayList<>(columnCount);
+      for (int i = 0; i < columnCount; ++i) {
+        final byte[] name = readBytes(in);
+        columns.add(Column.of(new String(name, UTF_8), ColumnType.values()[in.readByte()]));
+      }
+
+      raf.seek(length - TRAILER_LENGTH);
+      final long footerOffset = raf.readLong();
+      if (MAGIC != raf.readInt()) {
+        throw new IOException("Columnar file " + file + " is truncated");
+      }
+      raf.seek(footerOffset);
+      final DataInputStream footer = new DataInputStream(
+          new BufferedInputStream(Channels.newInputStream(raf.getChannel())));
+      final int rowCount = footer.readInt();
+      final int rowGroupCount = footer.readInt();
+      final List<ColumnHeader> headers = new ArrayList<>(columnCount);
+      for (final Column column : columns) {
+        headers.add(new ColumnHeader(column, rowGroupCount));
+      }
+      final int[] rowGroupRowCounts = new int[rowGroupCount];
+      for (int group = 0; group < rowGroupCount; ++group) {
+        rowGroupRowCounts[group] = footer.readInt();
+        for (final ColumnHeader header : headers) {
+          header.offsets[group] = footer.readLong();
+          header.rawLengths[group] = footer.readInt();
+          header.compressedLengths[group] = footer.readInt();
+        }
+      }
+      for (final ColumnHeader header : headers) {
+        if (footer.readBoolean()) {
+          if (ColumnType.LONG == header.column.getType()) {
+            header.statistics = new ColumnStatistics(footer.readLong(), footer.readLong());
+          } else {
+            final byte[] min = readBytes(footer);
+            final byte[] max = readBytes(footer);
+            header.statistics = new ColumnStatistics(new String(min, UTF_8),
+                new String(max, UTF_8));
+          }
+        }
+      }
+      return new ColumnarFileReader(file, rowCount, rowGroupRowCounts, headers);
+    }
+  }
+
+  protected static byte[] readBytes(final DataInputStream in) throws IOException {
+    final byte[] value = new byte[in.readInt()];
+    in.readFully(value);
+    return value;
+  }
+
+  protected final File file;
+
+  protected final int rowCount;
+
+  protected final int[] rowGroupRowCounts;
+
+  protected final List<ColumnHeader> headers;
+
+  protected ColumnarFileReader(final File file, final int rowCount,
+      final int[] rowGroupRowCounts, final List<ColumnHeader> headers) {
+    this.file = file;
+    this.rowCount = rowCount;
+    this.rowGroupRowCounts = rowGroupRowCounts;
+    this.headers = headers;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Get columns of a file.
+   *
+   * @return columns in order
+   */
+  public List<Column> getColumns() {
+    final List<Column> columns = new ArrayList<>(headers.size());
+    for (final ColumnHeader header : headers) {
+      columns.add(header.column);
+    }
+    return unmodifiableList(columns);
+  }
+
+  /**
+   * Get statistics of a column.
+   *
+   * @param name a column name
+   * @return statistics. null if a column has none
+   */
+  public ColumnStatistics getStatistics(final String name) {
+    return header(name, null).statistics;
+  }
+
+  /**
+   * Read a column of {@link ColumnType#LONG}.
+   *
+   * @param name a column name
+   * @return values in order of rows
+   * @throws IOException on failure
+   */
+  public long[] readLongs(final String name) throws IOException {
+    final ColumnHeader header = header(name, ColumnType.LONG);
+    final long[] values = new long[rowCount];
+    int index = 0;
+    for (int group = 0; group < rowGroupRowCounts.length; ++group) {
+      final DataInputStream in = inflate(header, group);
+      for (int i = 0; i < rowGroupRowCounts[group]; ++i) {
+        values[index++] = in.readLong();
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Read a column of {@link ColumnType#STRING}.
+   *
+   * @param name a column name
+   * @return values in order of rows
+   * @throws IOException on failure
+   */
+  public List<String> readStrings(final String name) throws IOException {
+    final ColumnHeader header = header(name, ColumnType.STRING);
+    final List<String> values = new ArrayList<>(rowCount);
+    for (int group = 0; group < rowGroupRowCounts.length; ++group) {
+      final DataInputStream in = inflate(header, group);
+      for (int i = 0; i < rowGroupRowCounts[group]; ++i) {
+        values.add(new String(readBytes(in), UTF_8));
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Read a column of {@link ColumnType#BYTES}.
+   *
+   * @param name a column name
+   * @return values in order of rows
+   * @throws IOException on failure
+   */
+  public List<BytesValue> readBytesValues(final String name) throws IOException {
+    final ColumnHeader header = header(name, ColumnType.BYTES);
+    final List<BytesValue> values = new ArrayList<>(rowCount);
+    for (int group = 0; group < rowGroupRowCounts.length; ++group) {
+      final DataInputStream in = inflate(header, group);
+      for (int i = 0; i < rowGroupRowCounts[group]; ++i) {
+        values.add(BytesValue.of(readBytes(in)));
+      }
+    }
+    return values;
+  }
+
+  protected ColumnHeader header(final String name, final ColumnType type) {
+    for (final ColumnHeader header : headers) {
+      if (header.column.getName().equals(name)) {
+        if (null != type && type != header.column.getType()) {
+          throw new IllegalArgumentException(
+              "Column " + name + " is " + header.column.getType() + " not " + type);
+        }
+        return header;
+      }
+    }
+    throw new IllegalArgumentException("No column " + name + " in " + file);
+  }
+
+  protected DataInputStream inflate(final ColumnHeader header, final int group)
+      throws IOException {
+    final byte[] compressed = new byte[header.compressedLengths[group]];
+    try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+      in.seek(header.offsets[group]);
+      in.readFully(compressed);
+    }
+    final byte[] raw = new byte[header.rawLengths[group]];
+    final Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      int inflated = 0;
+      while (inflated < raw.length && !inflater.finished()) {
+        final int read = inflater.inflate(raw, inflated, raw.length - inflated);
+        if (0 == read && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        inflated += read;
+      }
+      if (inflated != raw.length) {
+        throw new IOException("Column " + header.column.getName() + " of " + file
+            + " is truncated");
+      }
+    } catch (DataFormatException e) {
+      throw new IOException(e);
+    } finally {
+      inflater.end();
+    }
+    return new DataInputStream(new ByteArrayInputStream(raw));
+  }
+
+  private static class ColumnHeader {
+
+    protected final Column column;
+
+    // null if a column has none
+    protected ColumnStatistics statistics;
+
+    // of each row group
+    protected final long[] offsets;
+
+    protected final int[] rawLengths;
+
+    protected final int[] compressedLengths;
+
+    ColumnHeader(final Column column, final int rowGroupCount) {
+      this.column = column;
+      this.offsets = new long[rowGroupCount];
+      this.rawLengths = new int[rowGroupCount];
+      this.compressedLengths = new int[rowGroupCount];
+    }
+  }
+
+}
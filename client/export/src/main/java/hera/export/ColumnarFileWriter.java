@@ -0,0 +1,366 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.export;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.BytesValue;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import org.slf4j.Logger;
+
+/**
+ * A writer of a columnar file. Rows are kept in memory column by column until they reach
+ * {@link #DEFAULT_ROW_GROUP_SIZE} raw bytes and then flushed as a row group into a temporary file.
+ * So memory is bounded by a row group whatever a number of rows is. On {@link #close()}, a footer
+ * is written and a temporary file is moved to a file so that a reader never sees a partial file.
+ * A file is laid out as below in big endian.
+ * <pre>
+ * magic (int) | version (int) | column count (int) | (name (string) | type (byte)) * column count
+ * row group * row group count
+ *   deflated column data * column count
+ * footer
+ *   row count (int) | row group count (int)
+ *   (row count (int) | (offset (long) | raw length (int) | compressed length (int))
+ *     * column count) * row group count
+ *   (has statistics (boolean) | [min | max]) * column count
+ * footer offset (long) | magic (int)
+ * </pre>
+ * A string is a length (int) and utf-8 bytes and so is a bytes value with raw bytes. Offsets and
+ * statistics are in a footer so that a reader can read statistics or a single column without
+ * inflating the others.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class ColumnarFileWriter implements Closeable {
+
+  public static final int MAGIC = 0x48524a43; // "HRJC"
+
+  public static final int VERSION = 2;
+
+  // in raw bytes of all columns
+  public static final int DEFAULT_ROW_GROUP_SIZE = 4 * 1024 * 1024;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final File file;
+
+  protected final File temp;
+
+  protected final List<Column> columns;
+
+  protected final List<ColumnBuffer> buffers;
+
+  protected final int rowGroupSize;
+
+  protected final DataOutputStream out;
+
+  // a position of out. DataOutputStream#size() overflows over 2GB
+  protected long position = 0L;
+
+  protected final List<RowGroup> rowGroups = new ArrayList<>();
+
+  protected int rowCount = 0;
+
+  // in a current row group
+  protected int bufferedRowCount = 0;
+
+  protected boolean closed = false;
+
+  /**
+   * Create a writer of columns into a file.
+   *
+   * @param file    a file to write
+   * @param columns columns of a file
+   * @throws IOException on failure of opening a temporary file
+   */
+  public ColumnarFileWriter(final File file, final List<Column> columns) throws IOException {
+    this(file, columns, DEFAULT_ROW_GROUP_SIZE);
+  }
+
+  /**
+   * Create a writer of columns into a file.
+   *
+   * @param file         a file to write
+   * @param columns      columns of a file
+   * @param rowGroupSize raw bytes of rows to flush at once
+   * @throws IOException on failure of opening a temporary file
+   */
+  public ColumnarFileWriter(final File file, final List<Column> columns, final int rowGroupSize)
+      throws IOException {
+    assertNotNull(file, "File must not null");
+    assertNotNull(columns, "Columns must not null");
+    assertTrue(!columns.isEmpty(), "Columns must not empty");
+    assertTrue(0 < rowGroupSize, "Row group size must be positive");
+    this.file = file;
+    this.temp = new File(file.getPath() + ".tmp");
+    this.columns = unmodifiableList(new ArrayList<>(columns));
+    this.buffers = new ArrayList<>(columns.size());
+    for (final Column column : columns) {
+      this.buffers.add(new ColumnBuffer(column.getType()));
+    }
+    this.rowGroupSize = rowGroupSize;
+    this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+    try {
+      writeInt(MAGIC);
+      writeInt(VERSION);
+      writeInt(columns.size());
+      for (final Column column : columns) {
+        final byte[] name = column.getName().getBytes(UTF_8);
+        writeInt(name.length);
+        out.write(name);
+        out.writeByte(column.getType().ordinal());
+        position += name.length + 1L;
+      }
+    } catch (IOException e) {
+      abort();
+      throw e;
+    }
+  }
+
+  /**
+   * Add a row. A value of {@link ColumnType#LONG} is a {@link Number}, {@link ColumnType#STRING}
+   * is a {@link String} and {@link ColumnType#BYTES} is a {@link BytesValue} or a byte array.
+   *
+   * @param values values in order of columns
+   * @throws IOException on failure of flushing a row group
+   */
+  public void addRow(final Object... values) throws IOException {
+    assertTrue(!closed, "Writer is closed");
+    assertNotNull(values, "Values must not null");
+    assertTrue(values.length == columns.size(),
+        "Values must have " + columns.size() + " elements but " + values.length);
+    long buffered = 0L;
+    for (int i = 0; i < values.length; ++i) {
+      assertNotNull(values[i], "Value of " + columns.get(i).getName() + " must not null");
+      final ColumnBuffer buffer = buffers.get(i);
+      buffer.add(values[i]);
+      buffered += buffer.raw.size();
+    }
+    ++rowCount;
+    ++bufferedRowCount;
+    if (buffered >= rowGroupSize) {
+      flushRowGroup();
+    }
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public List<Column> getColumns() {
+    return columns;
+  }
+
+  protected void flushRowGroup() throws IOException {
+    if (0 == bufferedRowCount && !rowGroups.isEmpty()) {
+      return;
+    }
+    final RowGroup rowGroup = new RowGroup(bufferedRowCount, columns.size());
+    for (int i = 0; i < buffers.size(); ++i) {
+      final ColumnBuffer buffer = buffers.get(i);
+      final byte[] compressed = buffer.compress();
+      rowGroup.offsets[i] = position;
+      rowGroup.rawLengths[i] = buffer.raw.size();
+      rowGroup.compressedLengths[i] = compressed.length;
+      out.write(compressed);
+      position += compressed.length;
+      buffer.raw.reset();
+    }
+    rowGroups.add(rowGroup);
+    logger.trace("Flushed a row group of {} rows to {}", bufferedRowCount, temp);
+    bufferedRowCount = 0;
+  }
+
+  /**
+   * Flush rows left and move a written file to a file. Use {@link #abort()} to discard it on a
+   * failure.
+   *
+   * @throws IOException on failure
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    try {
+      flushRowGroup();
+      final long footerOffset = position;
+      out.writeInt(rowCount);
+      out.writeInt(rowGroups.size());
+      for (final RowGroup rowGroup : rowGroups) {
+        out.writeInt(rowGroup.rowCount);
+        for (int i = 0; i < columns.size(); ++i) {
+          out.writeLong(rowGroup.offsets[i]);
+          out.writeInt(rowGroup.rawLengths[i]);
+          out.writeInt(rowGroup.compressedLengths[i]);
+        }
+      }
+      for (final ColumnBuffer buffer : buffers) {
+        buffer.writeStatistics(out);
+      }
+      out.writeLong(footerOffset);
+      out.writeInt(MAGIC);
+      out.close();
+    } catch (IOException | RuntimeException e) {
+      abort();
+      throw e;
+    }
+    closed = true;
+    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    logger.debug("Wrote {} rows of {} columns in {} row groups to {}", rowCount, columns.size(),
+        rowGroups.size(), file);
+  }
+
+  /**
+   * Discard a written file. A previous file is left as it is.
+   */
+  public void abort() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      out.close();
+    } catch (IOException e) {
+      logger.debug("Fail to close {} by {}", temp, e.toString());
+    }
+    if (temp.exists() && !temp.delete()) {
+      logger.debug("Fail to delete {}", temp);
+    }
+  }
+
+  protected void writeInt(final int value) throws IOException {
+    out.writeInt(value);
+    position += 4L;
+  }
+
+  protected static void writeString(final DataOutputStream out, final String value)
+      throws IOException {
+    writeBytes(out, value.getBytes(UTF_8));
+  }
+
+  protected static void writeBytes(final DataOutputStream out, final byte[] value)
+      throws IOException {
+    out.writeInt(value.length);
+    out.write(value);
+  }
+
+  private static class RowGroup {
+
+    protected final int rowCount;
+
+    protected final long[] offsets;
+
+    protected final int[] rawLengths;
+
+    protected final int[] compressedLengths;
+
+    RowGroup(final int rowCount, final int columnCount) {
+      this.rowCount = rowCount;
+      this.offsets = new long[columnCount];
+      this.rawLengths = new int[columnCount];
+      this.compressedLengths = new int[columnCount];
+    }
+  }
+
+  private static class ColumnBuffer {
+
+    protected final ColumnType type;
+
+    protected final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+
+    protected final DataOutputStream out = new DataOutputStream(raw);
+
+    // of LONG. statistics are of all row groups
+    protected long minLong = Long.MAX_VALUE;
+    protected long maxLong = Long.MIN_VALUE;
+
+    // of STRING
+    protected String minString;
+    protected String maxString;
+
+    protected boolean empty = true;
+
+    ColumnBuffer(final ColumnType type) {
+      this.type = type;
+    }
+
+    void add(final Object value) throws IOException {
+      switch (type) {
+        case LONG:
+          final long longValue = ((Number) value).longValue();
+          out.writeLong(longValue);
+          minLong = Math.min(minLong, longValue);
+          maxLong = Math.max(maxLong, longValue);
+          break;
+        case STRING:
+          final String stringValue = (String) value;
+          writeString(out, stringValue);
+          if (empty || stringValue.compareTo(minString) < 0) {
+            minString = stringValue;
+          }
+          if (empty || stringValue.compareTo(maxString) > 0) {
+            maxString = stringValue;
+          }
+          break;
+        default:
+          if (value instanceof BytesValue) {
+            out.writeInt(((BytesValue) value).length());
+            ((BytesValue) value).writeTo(out);
+          } else {
+            writeBytes(out, (byte[]) value);
+          }
+          break;
+      }
+      empty = false;
+    }
+
+    void writeStatistics(final DataOutputStream header) throws IOException {
+      final boolean hasStatistics = !empty && ColumnType.BYTES != type;
+      header.writeBoolean(hasStatistics);
+      if (!hasStatistics) {
+        return;
+      }
+      if (ColumnType.LONG == type) {
+        header.writeLong(minLong);
+        header.writeLong(maxLong);
+      } else {
+        writeString(header, minString);
+        writeString(header, maxString);
+      }
+    }
+
+    byte[] compress() throws IOException {
+      final ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.size() / 2 + 16);
+      final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+      try (DeflaterOutputStream deflating = new DeflaterOutputStream(compressed, deflater)) {
+        raw.writeTo(deflating);
+      } finally {
+        deflater.end();
+      }
+      return compressed.toByteArray();
+    }
+  }
+
+}
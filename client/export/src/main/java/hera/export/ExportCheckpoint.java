@@ -0,0 +1,53 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.export;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A checkpoint of an export keeping the height up to which every block is exported. It's replaced
+ * atomically so that a crash leaves either the previous one or the new one.
+ */
+class ExportCheckpoint {
+
+  protected final File file;
+
+  ExportCheckpoint(final File file) {
+    assertNotNull(file, "File must not null");
+    this.file = file;
+  }
+
+  /**
+   * Load an exported height.
+   *
+   * @return an exported height. null if nothing is exported
+   * @throws IOException on failure
+   */
+  Long load() throws IOException {
+    if (!file.exists()) {
+      return null;
+    }
+    final String saved = new String(Files.readAllBytes(file.toPath()), UTF_8).trim();
+    try {
+      return Long.parseLong(saved);
+    } catch (NumberFormatException e) {
+      throw new IOException("Invalid checkpoint " + file + ": " + saved, e);
+    }
+  }
+
+  void save(final long exportedHeight) throws IOException {
+    final File temp = new File(file.getPath() + ".tmp");
+    Files.write(temp.toPath(), Long.toString(exportedHeight).getBytes(UTF_8));
+    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+}
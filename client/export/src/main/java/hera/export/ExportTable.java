@@ -0,0 +1,89 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.export;
+
+import static hera.export.ColumnType.BYTES;
+import static hera.export.ColumnType.LONG;
+import static hera.export.ColumnType.STRING;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.List;
+
+/**
+ * Tables exported by {@link ChainExporter}. Each one is a file named {@link #getFileName()} in a
+ * partition directory. An amount of aer is a decimal string since it may overflow a long.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public enum ExportTable {
+
+  BLOCKS("blocks", asList(
+      Column.of("height", LONG),
+      Column.of("hash", BYTES),
+      Column.of("previous_hash", BYTES),
+      Column.of("timestamp", LONG),
+      Column.of("tx_count", LONG),
+      Column.of("coinbase_account", STRING),
+      Column.of("public_key", BYTES),
+      Column.of("root_hash", BYTES),
+      Column.of("tx_root_hash", BYTES),
+      Column.of("receipt_root_hash", BYTES))),
+
+  TRANSACTIONS("transactions", asList(
+      Column.of("block_height", LONG),
+      Column.of("tx_index", LONG),
+      Column.of("hash", BYTES),
+      Column.of("tx_type", STRING),
+      Column.of("sender", STRING),
+      Column.of("recipient", STRING),
+      Column.of("amount", STRING),
+      Column.of("nonce", LONG),
+      Column.of("fee_limit", LONG),
+      Column.of("fee_price", STRING),
+      Column.of("payload", BYTES))),
+
+  RECEIPTS("receipts", asList(
+      Column.of("block_height", LONG),
+      Column.of("tx_index", LONG),
+      Column.of("tx_hash", BYTES),
+      Column.of("status", STRING),
+      Column.of("result", STRING),
+      Column.of("contract_address", STRING),
+      Column.of("fee_used", STRING),
+      Column.of("gas_used", LONG),
+      Column.of("fee_delegation", LONG))),
+
+  EVENTS("events", asList(
+      Column.of("block_height", LONG),
+      Column.of("tx_index", LONG),
+      Column.of("tx_hash", BYTES),
+      Column.of("event_index", LONG),
+      Column.of("contract_address", STRING),
+      Column.of("name", STRING),
+      Column.of("args", STRING)));
+
+  public static final String FILE_EXTENSION = ".hcol";
+
+  private final String name;
+
+  private final List<Column> columns;
+
+  ExportTable(final String name, final List<Column> columns) {
+    this.name = name;
+    this.columns = unmodifiableList(columns);
+  }
+
+  public String getFileName() {
+    return name + FILE_EXTENSION;
+  }
+
+  public List<Column> getColumns() {
+    return columns;
+  }
+
+}
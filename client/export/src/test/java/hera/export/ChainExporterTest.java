@@ -0,0 +1,244 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.export;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.api.AergoApi;
+import hera.api.BlockOperation;
+import hera.api.BlockchainOperation;
+import hera.api.ContractOperation;
+import hera.api.model.AccountAddress;
+import hera.api.model.Aer.Unit;
+import hera.api.model.Block;
+import hera.api.model.BlockHeader;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.CloseableIterator;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.Fee;
+import hera.api.model.FetchControl;
+import hera.api.model.RawTransaction;
+import hera.api.model.Signature;
+import hera.api.model.Transaction;
+import hera.api.model.TxHash;
+import hera.api.model.TxReceipt;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ChainExporterTest extends AbstractTestCase {
+
+  protected final BlockOperation blockOperation = mock(BlockOperation.class);
+
+  protected final ContractOperation contractOperation = mock(ContractOperation.class);
+
+  protected static final AccountAddress ACCOUNT =
+      AccountAddress.of("AmJaNDXoPbBRn9XHh9onKbDKuAzj88n5Bzt7KniYA78qUEc5EwBd");
+
+  protected static final ContractAddress CONTRACT =
+      ContractAddress.of("AmJaNDXoPbBRn9XHh9onKbDKuAzj88n5Bzt7KniYA78qUEc5EwBd");
+
+  protected AergoApi mockApi(final long bestHeight) {
+    return mockApi(bestHeight, 0);
+  }
+
+  protected static TxHash txHash(final long height, final int index) {
+    return TxHash.of(BytesValue.of(new byte[] {(byte) height, (byte) index}));
+  }
+
+  protected static Transaction transaction(final long height, final int index) {
+    final RawTransaction rawTransaction = RawTransaction.newBuilder()
+        .chainIdHash(ChainIdHash.EMPTY)
+        .from(ACCOUNT)
+        .to(ACCOUNT)
+        .amount("1", Unit.AER)
+        .nonce(height * 10 + index)
+        .fee(Fee.of(5))
+        .payload(BytesValue.EMPTY)
+        .build();
+    return Transaction.newBuilder()
+        .rawTransaction(rawTransaction)
+        .signature(Signature.EMPTY)
+        .hash(txHash(height, index))
+        .build();
+  }
+
+  // each block has txCount transactions. a receipt of each has an event per its index
+  protected AergoApi mockApi(final long bestHeight, final int txCount) {
+    final BlockchainOperation blockchainOperation = mock(BlockchainOperation.class);
+    when(blockchainOperation.getBlockchainStatus())
+        .thenReturn(BlockchainStatus.newBuilder().bestHeight(bestHeight).build());
+    when(blockOperation.getBlocks(anyLong(), anyLong(), any(FetchControl.class)))
+        .thenAnswer(new Answer<CloseableIterator<Block>>() {
+          @Override
+          public CloseableIterator<Block> answer(final InvocationOnMock invocation) {
+            final long from = invocation.getArgument(0);
+            final long to = invocation.getArgument(1);
+            final List<Block> blocks = new ArrayList<>();
+            for (long height = from; height <= to; ++height) {
+              final List<Transaction> transactions = new ArrayList<>();
+              for (int index = 0; index < txCount; ++index) {
+                transactions.add(transaction(height, index));
+              }
+              blocks.add(Block.newBuilder()
+                  .blockHeader(BlockHeader.newBuilder().blockNumber(height).build())
+                  .transactions(transactions)
+                  .build());
+            }
+            final Iterator<Block> iterator = blocks.iterator();
+            return new CloseableIterator<Block>() {
+              @Override
+              public boolean hasNext() {
+                return iterator.hasNext();
+              }
+
+              @Override
+              public Block next() {
+                return iterator.next();
+              }
+
+              @Override
+              public void close() {
+              }
+            };
+          }
+        });
+    when(contractOperation.getContractTxReceipt(any(TxHash.class)))
+        .thenAnswer(new Answer<ContractTxReceipt>() {
+          @Override
+          public ContractTxReceipt answer(final InvocationOnMock invocation) {
+            final TxHash txHash = invocation.getArgument(0);
+            final int index = txHash.getBytesValue().getValue()[1];
+            final List<Event> events = new ArrayList<>();
+            for (int i = 0; i < index; ++i) {
+              events.add(Event.newBuilder()
+                  .from(CONTRACT)
+                  .name("transfer")
+                  .index(i)
+                  .txHash(txHash)
+                  .build());
+            }
+            return ContractTxReceipt.newBuilder()
+                .txReceipt(TxReceipt.newBuilder()
+                    .txHash(txHash)
+                    .status("SUCCESS")
+                    .gasUsed(100L + index)
+                    .build())
+                .events(events)
+                .build();
+          }
+        });
+    final AergoApi aergoApi = mock(AergoApi.class);
+    when(aergoApi.getBlockchainOperation()).thenReturn(blockchainOperation);
+    when(aergoApi.getBlockOperation()).thenReturn(blockOperation);
+    when(aergoApi.getContractOperation()).thenReturn(contractOperation);
+    return aergoApi;
+  }
+
+  @Test
+  public void shouldExportInPartitions() throws Exception {
+    // given
+    final File directory = Files.createTempDirectory("heraj").toFile();
+    final ChainExporter exporter = ChainExporter.newBuilder()
+        .aergoApi(mockApi(25L))
+        .directory(directory)
+        .partitionSize(10L)
+        .writerCount(2)
+        .build();
+
+    // then
+    assertEquals(25L, exporter.export(5L, 100L));
+    final ColumnarFileReader first = ColumnarFileReader.open(
+        new File(exporter.getPartitionDirectory(5L), ExportTable.BLOCKS.getFileName()));
+    assertArrayEquals(new long[] {5L, 6L, 7L, 8L, 9L}, first.readLongs("height"));
+    final ColumnarFileReader last = ColumnarFileReader.open(
+        new File(exporter.getPartitionDirectory(25L), ExportTable.BLOCKS.getFileName()));
+    assertEquals(new ColumnStatistics(20L, 25L), last.getStatistics("height"));
+    assertTrue(new File(exporter.getPartitionDirectory(15L),
+        ExportTable.EVENTS.getFileName()).exists());
+    assertEquals(25L, (long) new ExportCheckpoint(
+        new File(directory, ChainExporter.CHECKPOINT_FILE)).load());
+  }
+
+  @Test
+  public void shouldExportTransactionsWithReceiptsAndEvents() throws Exception {
+    // given
+    final File directory = Files.createTempDirectory("heraj").toFile();
+    final ChainExporter exporter = ChainExporter.newBuilder()
+        .aergoApi(mockApi(9L, 3))
+        .directory(directory)
+        .partitionSize(5L)
+        .fetchControl(FetchControl.newBuilder().parallelism(2).prefetchDepth(1).build())
+        .build();
+
+    // then
+    assertEquals(9L, exporter.export(0L, 9L));
+    final File partition = exporter.getPartitionDirectory(5L);
+    final ColumnarFileReader transactions = ColumnarFileReader.open(
+        new File(partition, ExportTable.TRANSACTIONS.getFileName()));
+    assertEquals(15, transactions.getRowCount());
+    assertEquals(new ColumnStatistics(50L, 92L), transactions.getStatistics("nonce"));
+
+    // receipts are written in order of transactions though fetched in parallel
+    final ColumnarFileReader receipts = ColumnarFileReader.open(
+        new File(partition, ExportTable.RECEIPTS.getFileName()));
+    assertArrayEquals(new long[] {5L, 5L, 5L, 6L, 6L, 6L, 7L, 7L, 7L, 8L, 8L, 8L, 9L, 9L, 9L},
+        receipts.readLongs("block_height"));
+    final List<BytesValue> receiptTxHashes = receipts.readBytesValues("tx_hash");
+    for (int i = 0; i < receiptTxHashes.size(); ++i) {
+      assertEquals(txHash(5 + i / 3, i % 3).getBytesValue(), receiptTxHashes.get(i));
+    }
+    assertEquals(new ColumnStatistics(100L, 102L), receipts.getStatistics("gas_used"));
+
+    // a transaction of index n has n events
+    final ColumnarFileReader events = ColumnarFileReader.open(
+        new File(partition, ExportTable.EVENTS.getFileName()));
+    assertEquals(15, events.getRowCount());
+    assertArrayEquals(new long[] {1L, 2L, 2L, 1L, 2L, 2L, 1L, 2L, 2L, 1L, 2L, 2L, 1L, 2L, 2L},
+        events.readLongs("tx_index"));
+    assertEquals(new ColumnStatistics("transfer", "transfer"),
+        events.getStatistics("name"));
+    verify(contractOperation, times(30)).getContractTxReceipt(any(TxHash.class));
+  }
+
+  @Test
+  public void shouldResumeFromPartitionOfCheckpoint() throws Exception {
+    // given
+    final File directory = Files.createTempDirectory("heraj").toFile();
+    new ExportCheckpoint(new File(directory, ChainExporter.CHECKPOINT_FILE)).save(13L);
+    final ChainExporter exporter = ChainExporter.newBuilder()
+        .aergoApi(mockApi(29L))
+        .directory(directory)
+        .partitionSize(10L)
+        .build();
+
+    // then
+    assertEquals(29L, exporter.export(0L, 29L));
+    verify(blockOperation, never()).getBlocks(eq(0L), anyLong(), any(FetchControl.class));
+    verify(blockOperation).getBlocks(eq(10L), eq(19L), any(FetchControl.class));
+    verify(blockOperation).getBlocks(eq(20L), eq(29L), any(FetchControl.class));
+  }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.export;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import hera.AbstractTestCase;
+import hera.api.model.BytesValue;
+import java.io.File;
+import java.nio.file.Files;
+import org.junit.Test;
+
+public class ColumnarFileTest extends AbstractTestCase {
+
+  @Test
+  public void shouldReadWrittenColumns() throws Exception {
+    // given
+    final File file = new File(Files.createTempDirectory("heraj").toFile(), "test.hcol");
+    final ColumnarFileWriter writer = new ColumnarFileWriter(file, asList(
+        Column.of("height", ColumnType.LONG),
+        Column.of("name", ColumnType.STRING),
+        Column.of("hash", ColumnType.BYTES)));
+    writer.addRow(3L, "bob", BytesValue.of(new byte[] {1, 2}));
+    writer.addRow(1, "alice", new byte[] {3});
+    writer.addRow(7L, "", BytesValue.EMPTY);
+    writer.close();
+
+    // then
+    final ColumnarFileReader reader = ColumnarFileReader.open(file);
+    assertEquals(3, reader.getRowCount());
+    assertEquals(writer.getColumns(), reader.getColumns());
+    assertArrayEquals(new long[] {3L, 1L, 7L}, reader.readLongs("height"));
+    assertEquals(asList("bob", "alice", ""), reader.readStrings("name"));
+    assertEquals(asList(BytesValue.of(new byte[] {1, 2}), BytesValue.of(new byte[] {3}),
+        BytesValue.EMPTY), reader.readBytesValues("hash"));
+    assertEquals(new ColumnStatistics(1L, 7L), reader.getStatistics("height"));
+    assertEquals(new ColumnStatistics("", "bob"), reader.getStatistics("name"));
+    assertNull(reader.getStatistics("hash"));
+  }
+
+  @Test
+  public void shouldWriteNoRow() throws Exception {
+    // given
+    final File file = new File(Files.createTempDirectory("heraj").toFile(), "empty.hcol");
+    new ColumnarFileWriter(file, ExportTable.EVENTS.getColumns()).close();
+
+    // then
+    final ColumnarFileReader reader = ColumnarFileReader.open(file);
+    assertEquals(0, reader.getRowCount());
+    assertEquals(0, reader.readLongs("block_height").length);
+    assertNull(reader.getStatistics("block_height"));
+  }
+
+  @Test
+  public void shouldReadColumnsOverRowGroups() throws Exception {
+    // given
+    final File file = new File(Files.createTempDirectory("heraj").toFile(), "groups.hcol");
+    // a row group is flushed every 4 rows of 8 + 4 + 1 bytes
+    final ColumnarFileWriter writer = new ColumnarFileWriter(file, asList(
+        Column.of("height", ColumnType.LONG),
+        Column.of("name", ColumnType.STRING)), 52);
+    final long[] heights = new long[10];
+    for (int i = 0; i < heights.length; ++i) {
+      heights[i] = 100L - i;
+      writer.addRow(heights[i], String.valueOf(i));
+    }
+    writer.close();
+
+    // then
+    final ColumnarFileReader reader = ColumnarFileReader.open(file);
+    assertEquals(10, reader.getRowCount());
+    assertArrayEquals(heights, reader.readLongs("height"));
+    assertEquals(asList("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"),
+        reader.readStrings("name"));
+    assertEquals(new ColumnStatistics(91L, 100L), reader.getStatistics("height"));
+    assertEquals(new ColumnStatistics("0", "9"), reader.getStatistics("name"));
+  }
+
+  @Test
+  public void shouldLeaveNoFileOnAbort() throws Exception {
+    // given
+    final File file = new File(Files.createTempDirectory("heraj").toFile(), "aborted.hcol");
+    final ColumnarFileWriter writer = new ColumnarFileWriter(file,
+        ExportTable.BLOCKS.getColumns());
+    writer.abort();
+
+    // then
+    assertFalse(file.exists());
+    assertEquals(0, file.getParentFile().list().length);
+  }
+
+}
@@ -9,6 +9,7 @@ import hera.annotation.ApiStability;
 import hera.api.model.AccountAddress;
 import hera.api.model.Aer;
 import hera.api.model.BytesValue;
+import hera.api.model.CommitResult;
 import hera.api.model.ContractAddress;
 import hera.api.model.ContractDefinition;
 import hera.api.model.ContractInvocation;
@@ -183,6 +184,15 @@ public interface TransactionApi {
    */
   TxHash commit(Transaction signedTransaction);
 
+  /**
+   * Commit signed transactions in a single request. Unlike a single commit, a nonce is not
+   * refreshed on failure since each transaction already holds its own one.
+   *
+   * @param signedTransactions signed transactions
+   * @return commit results in the same order as {@code signedTransactions}
+   */
+  List<CommitResult> commit(List<Transaction> signedTransactions);
+
   /**
    * Deploy smart contract.
    *
@@ -5,6 +5,7 @@
 package hera.wallet;
 
 import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -19,6 +20,7 @@ import hera.api.TransactionOperation;
 import hera.api.model.AccountAddress;
 import hera.api.model.Aer;
 import hera.api.model.BytesValue;
+import hera.api.model.CommitResult;
 import hera.api.model.ContractAddress;
 import hera.api.model.ContractDefinition;
 import hera.api.model.ContractInvocation;
@@ -32,6 +34,8 @@ import hera.client.TxRequester;
 import hera.key.AergoKey;
 import hera.key.AergoKeyGenerator;
 import hera.key.Signer;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
 
@@ -306,4 +310,23 @@ public class TransactionApiImplTest extends AbstractTestCase {
     assertNotNull(contractTxHash);
   }
 
+  @Test
+  public void testCommitBatch() {
+    // given
+    final TransactionOperation mockOperation = mock(TransactionOperation.class);
+    final List<CommitResult> expected = Arrays.asList(CommitResult.newBuilder().build());
+    when(mockOperation.commit(ArgumentMatchers.<Transaction>anyList()))
+        .thenReturn(expected);
+    final AergoClient mockClient = mock(AergoClient.class);
+    when(mockClient.getTransactionOperation()).thenReturn(mockOperation);
+    final ClientProvider mockClientProvider = mock(ClientProvider.class);
+    when(mockClientProvider.getClient()).thenReturn(mockClient);
+
+    // then
+    final AergoKey signer = new AergoKeyGenerator().create();
+    final TransactionApi transactionApi = new TransactionApiImpl(mockClientProvider, signer,
+        txRequester);
+    assertEquals(expected, transactionApi.commit(Arrays.asList(anyTransaction)));
+  }
+
 }
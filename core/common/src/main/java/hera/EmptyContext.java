@@ -38,7 +38,7 @@ public class EmptyContext implements Context {
     assertNotNull(key, "Key must not null");
     assertNotNull(value, "Value must not null");
     logger.trace("New context with parent: {}, key: {}, value: {}", this, key, value);
-    return new ContextConc(this, key, value);
+    return new SlotContext(scope).withValue(key, value);
   }
 
   @Override
@@ -57,7 +57,7 @@ public class EmptyContext implements Context {
   public Context withScope(final String scope) {
     assertNotNull(scope, "Scope must not null");
     logger.trace("New context with parent: {}, scope: {}", this, scope);
-    return new ContextConc(this, scope);
+    return new SlotContext(scope);
   }
 
   @Override
@@ -8,18 +8,41 @@ import static hera.util.ValidationUtils.assertNotNull;
 
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+/**
+ * A key of a {@link Context}. Each key is registered with a dense slot on its creation so that a
+ * context can keep values in an array. Equal keys share the same slot. A key is meant to be a
+ * constant and a slot is never released.
+ */
 @ApiAudience.Public
 @ApiStability.Unstable
 @ToString
 @EqualsAndHashCode
 public class Key<ValueT> {
 
+  // slots under it are kept in direct fields of a context
+  static final int HOT_SLOTS = 4;
+
+  // (name, value class) -> slot
+  private static final ConcurrentMap<List<Object>, Integer> id2Slot = new ConcurrentHashMap<>();
+
+  private static final ConcurrentMap<Integer, Key<?>> slot2Key = new ConcurrentHashMap<>();
+
+  // guarded by id2Slot
+  private static int nextHotSlot = 0;
+  private static int nextSlot = HOT_SLOTS;
+
   /**
-   * Create a {@code Key} instance.
+   * Create a {@code Key} instance. The first key of each {@code name} and {@code valueClass} takes
+   * a new slot permanently, which also widens a chunk table of a context holding its value. Keep a
+   * key as a constant and don't make one from a dynamic name (eg. per request).
    *
    * @param name       an name of key
    * @param valueClass a class of value
@@ -27,7 +50,46 @@ public class Key<ValueT> {
    * @return a key instance
    */
   public static <T> Key<T> of(final String name, final Class<T> valueClass) {
-    return new Key<>(name, valueClass);
+    return register(name, valueClass, false);
+  }
+
+  /**
+   * Create a {@code Key} instance looked up on every request (eg. a client). Only a few of them
+   * are kept in direct fields of a context and the others are just like {@link #of(String, Class)}.
+   *
+   * @param name       an name of key
+   * @param valueClass a class of value
+   * @param <T>        a type of value
+   * @return a key instance
+   */
+  @ApiAudience.Private
+  public static <T> Key<T> hot(final String name, final Class<T> valueClass) {
+    return register(name, valueClass, true);
+  }
+
+  static Key<?> ofSlot(final int slot) {
+    return slot2Key.get(slot);
+  }
+
+  private static <T> Key<T> register(final String name, final Class<T> valueClass,
+      final boolean hot) {
+    assertNotNull(name, "Name must not null");
+    assertNotNull(valueClass, "Value class must not null");
+    final List<Object> id = Arrays.<Object>asList(name, valueClass);
+    Integer slot = id2Slot.get(id);
+    if (null == slot) {
+      synchronized (id2Slot) {
+        slot = id2Slot.get(id);
+        if (null == slot) {
+          slot = (hot && nextHotSlot < HOT_SLOTS) ? nextHotSlot++ : nextSlot++;
+          final Key<T> key = new Key<>(name, valueClass, slot);
+          slot2Key.put(slot, key);
+          id2Slot.put(id, slot);
+          return key;
+        }
+      }
+    }
+    return new Key<>(name, valueClass, slot);
   }
 
   @Getter
@@ -36,11 +98,16 @@ public class Key<ValueT> {
   @Getter
   protected final Class<ValueT> valueClass;
 
-  private Key(final String name, final Class<ValueT> valueClass) {
-    assertNotNull(name, "Name must not null");
-    assertNotNull(valueClass, "Value class must not null");
+  // same for equal keys
+  @Getter
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  protected final int slot;
+
+  private Key(final String name, final Class<ValueT> valueClass, final int slot) {
     this.name = name;
     this.valueClass = valueClass;
+    this.slot = slot;
   }
 
 }
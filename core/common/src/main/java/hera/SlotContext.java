@@ -0,0 +1,182 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+
+/**
+ * An immutable context keeping values by a slot of a {@link Key}. A value of a hot key is kept in
+ * a direct field and the others in fixed size chunks of an array. A new context shares every chunk
+ * with its parent except the one it changes, so {@link #withValue(Key, Object)} copies at most a
+ * chunk and a chunk table instead of all the values. {@link #withScope(String)} shares everything.
+ */
+class SlotContext implements Context {
+
+  protected static final int CHUNK_BITS = 4;
+
+  protected static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+  protected static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  protected static final Object[][] NO_CHUNK = new Object[0][];
+
+  // a context is created on every request. don't look up a logger each time
+  protected static final Logger logger = getLogger(SlotContext.class);
+
+  protected final String scope;
+
+  // values of hot keys
+  protected final Object hot0;
+  protected final Object hot1;
+  protected final Object hot2;
+  protected final Object hot3;
+
+  // values of the other keys. a chunk may be null if it has no value
+  protected final Object[][] chunks;
+
+  SlotContext(final String scope) {
+    this(scope, null, null, null, null, NO_CHUNK);
+  }
+
+  protected SlotContext(final String scope, final Object hot0, final Object hot1,
+      final Object hot2, final Object hot3, final Object[][] chunks) {
+    this.scope = scope;
+    this.hot0 = hot0;
+    this.hot1 = hot1;
+    this.hot2 = hot2;
+    this.hot3 = hot3;
+    this.chunks = chunks;
+  }
+
+  @Override
+  public <T> Context withValue(final Key<T> key, final T value) {
+    assertNotNull(key, "Key must not null");
+    assertNotNull(value, "Value must not null");
+    logger.trace("New context with parent: {}, key: {}, value: {}", this, key, value);
+    final int slot = key.getSlot();
+    switch (slot) {
+      case 0:
+        return new SlotContext(scope, value, hot1, hot2, hot3, chunks);
+      case 1:
+        return new SlotContext(scope, hot0, value, hot2, hot3, chunks);
+      case 2:
+        return new SlotContext(scope, hot0, hot1, value, hot3, chunks);
+      case 3:
+        return new SlotContext(scope, hot0, hot1, hot2, value, chunks);
+      default:
+        break;
+    }
+
+    final int index = slot - Key.HOT_SLOTS;
+    final int chunkIndex = index >>> CHUNK_BITS;
+    final Object[][] newChunks = Arrays.copyOf(chunks, Math.max(chunks.length, chunkIndex + 1));
+    final Object[] chunk = newChunks[chunkIndex];
+    final Object[] newChunk = (null == chunk) ? new Object[CHUNK_SIZE] : chunk.clone();
+    newChunk[index & CHUNK_MASK] = value;
+    newChunks[chunkIndex] = newChunk;
+    return new SlotContext(scope, hot0, hot1, hot2, hot3, newChunks);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T get(final Key<T> key) {
+    assertNotNull(key, "Key must not null");
+    return (T) valueOf(key.getSlot());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T getOrDefault(final Key<T> key, final T defaultValue) {
+    assertNotNull(key, "Key must not null");
+    final T value = (T) valueOf(key.getSlot());
+    return null != value ? value : defaultValue;
+  }
+
+  protected Object valueOf(final int slot) {
+    switch (slot) {
+      case 0:
+        return hot0;
+      case 1:
+        return hot1;
+      case 2:
+        return hot2;
+      case 3:
+        return hot3;
+      default:
+        break;
+    }
+    final int index = slot - Key.HOT_SLOTS;
+    final int chunkIndex = index >>> CHUNK_BITS;
+    if (chunkIndex >= chunks.length) {
+      return null;
+    }
+    final Object[] chunk = chunks[chunkIndex];
+    return (null == chunk) ? null : chunk[index & CHUNK_MASK];
+  }
+
+  @Override
+  public Context withScope(final String scope) {
+    assertNotNull(scope, "Scope must not null");
+    logger.trace("New context with parent: {}, scope: {}", this, scope);
+    return new SlotContext(scope, hot0, hot1, hot2, hot3, chunks);
+  }
+
+  @Override
+  public String getScope() {
+    return this.scope;
+  }
+
+  protected Map<Integer, Object> toSlot2Value() {
+    final Map<Integer, Object> slot2Value = new LinkedHashMap<>();
+    final int slots = Key.HOT_SLOTS + chunks.length * CHUNK_SIZE;
+    for (int slot = 0; slot < slots; ++slot) {
+      final Object value = valueOf(slot);
+      if (null != value) {
+        slot2Value.put(slot, value);
+      }
+    }
+    return slot2Value;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof SlotContext)) {
+      return false;
+    }
+    final SlotContext other = (SlotContext) obj;
+    return scope.equals(other.scope) && toSlot2Value().equals(other.toSlot2Value());
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * scope.hashCode() + toSlot2Value().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("SlotContext(scope=").append(scope)
+        .append(", key2Value={");
+    boolean first = true;
+    for (final Map.Entry<Integer, Object> entry : toSlot2Value().entrySet()) {
+      if (!first) {
+        sb.append(", ");
+      }
+      first = false;
+      final Key<?> key = Key.ofSlot(entry.getKey());
+      sb.append(null != key ? key.getName() : entry.getKey()).append('=').append(entry.getValue());
+    }
+    return sb.append("})").toString();
+  }
+
+}
@@ -9,6 +9,10 @@ import hera.annotation.ApiStability;
 import hera.api.model.Block;
 import hera.api.model.BlockHash;
 import hera.api.model.BlockMetadata;
+import hera.api.model.CloseableIterator;
+import hera.api.model.FetchControl;
+import hera.api.model.FlowControl;
+import hera.api.model.FlowControlledSubscription;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import java.util.List;
@@ -108,4 +112,105 @@ public interface BlockOperation {
    */
   Subscription<Block> subscribeBlock(StreamObserver<Block> observer);
 
+  /**
+   * Subscribe block metadata stream from a height. A subscription is resumed from the last
+   * delivered one on a connection error and blocks missed meanwhile are backfilled, so that an
+   * observer gets block metadata in order without a gap or a duplicate.
+   *
+   * @param fromHeight a height of the first block metadata to deliver. a negative one to start
+   *                   from the next new block
+   * @param observer   a stream observer which is invoked on block metadata
+   * @return a block subscription
+   */
+  @ApiStability.Unstable
+  Subscription<BlockMetadata> subscribeBlockMetadata(long fromHeight,
+      StreamObserver<BlockMetadata> observer);
+
+  /**
+   * Subscribe block stream from a height. A subscription is resumed from the last delivered one
+   * on a connection error and blocks missed meanwhile are backfilled, so that an observer gets
+   * blocks in order without a gap or a duplicate.
+   *
+   * @param fromHeight a height of the first block to deliver. a negative one to start from the
+   *                   next new block
+   * @param observer   a stream observer which is invoked on block
+   * @return a block subscription
+   */
+  @ApiStability.Unstable
+  Subscription<Block> subscribeBlock(long fromHeight, StreamObserver<Block> observer);
+
+  /**
+   * Get blocks in a range of heights in ascending order. Blocks are fetched ahead in parallel with
+   * a default {@link FetchControl}. An iteration ends on the last height or the first missing
+   * block. Close an iterator abandoned before its end.
+   *
+   * @param fromHeight a height to start from (inclusive)
+   * @param toHeight   a height to end with (inclusive)
+   * @return an iterator of blocks
+   */
+  @ApiStability.Unstable
+  CloseableIterator<Block> getBlocks(long fromHeight, long toHeight);
+
+  /**
+   * Get blocks in a range of heights in ascending order. An iteration ends on the last height or
+   * the first missing block. Close an iterator abandoned before its end.
+   *
+   * @param fromHeight   a height to start from (inclusive)
+   * @param toHeight     a height to end with (inclusive)
+   * @param fetchControl a control of parallel fetching
+   * @return an iterator of blocks
+   */
+  @ApiStability.Unstable
+  CloseableIterator<Block> getBlocks(long fromHeight, long toHeight, FetchControl fetchControl);
+
+  /**
+   * Deliver blocks in a range of heights in ascending order with a default {@link FetchControl}.
+   * An observer is completed on the last height or the first missing block.
+   *
+   * @param fromHeight a height to start from (inclusive)
+   * @param toHeight   a height to end with (inclusive)
+   * @param observer   a stream observer which is invoked on block
+   * @return a subscription stopping a delivery
+   */
+  @ApiStability.Unstable
+  Subscription<Block> getBlocks(long fromHeight, long toHeight, StreamObserver<Block> observer);
+
+  /**
+   * Deliver blocks in a range of heights in ascending order. An observer is completed on the last
+   * height or the first missing block.
+   *
+   * @param fromHeight   a height to start from (inclusive)
+   * @param toHeight     a height to end with (inclusive)
+   * @param fetchControl a control of parallel fetching
+   * @param observer     a stream observer which is invoked on block
+   * @return a subscription stopping a delivery
+   */
+  @ApiStability.Unstable
+  Subscription<Block> getBlocks(long fromHeight, long toHeight, FetchControl fetchControl,
+      StreamObserver<Block> observer);
+
+  /**
+   * Subscribe block metadata stream with a flow control. Nothing is delivered to an observer until
+   * {@link FlowControlledSubscription#request(long)} is called.
+   *
+   * @param observer    a stream observer which is invoked on new block metadata
+   * @param flowControl a flow control of a subscription
+   * @return a flow controlled block subscription
+   */
+  @ApiStability.Unstable
+  FlowControlledSubscription<BlockMetadata> subscribeBlockMetadata(
+      StreamObserver<BlockMetadata> observer, FlowControl flowControl);
+
+  /**
+   * Subscribe block stream with a flow control. Nothing is delivered to an observer until
+   * {@link FlowControlledSubscription#request(long)} is called.
+   *
+   * @param observer    a stream observer which is invoked on new block
+   * @param flowControl a flow control of a subscription
+   * @return a flow controlled block subscription
+   */
+  @ApiStability.Unstable
+  FlowControlledSubscription<Block> subscribeBlock(StreamObserver<Block> observer,
+      FlowControl flowControl);
+
 }
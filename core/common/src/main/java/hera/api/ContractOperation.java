@@ -7,6 +7,7 @@ package hera.api;
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
 import hera.api.model.Account;
+import hera.api.model.CloseableIterator;
 import hera.api.model.ContractAddress;
 import hera.api.model.ContractDefinition;
 import hera.api.model.ContractInterface;
@@ -17,6 +18,9 @@ import hera.api.model.ContractTxReceipt;
 import hera.api.model.Event;
 import hera.api.model.EventFilter;
 import hera.api.model.Fee;
+import hera.api.model.FetchControl;
+import hera.api.model.FlowControl;
+import hera.api.model.FlowControlledSubscription;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.api.model.TxHash;
@@ -208,6 +212,18 @@ public interface ContractOperation {
    */
   List<Event> listEvents(EventFilter filter);
 
+  /**
+   * List events of a large block range of an event filter. A range is split into chunks of an
+   * adaptive size listed in parallel, and events are delivered in order of a filter. A recent
+   * block count of a filter is not supported. Close an iterator abandoned before its end.
+   *
+   * @param filter       an event filter with a block range
+   * @param fetchControl a control of parallel listing. its prefetch depth is in chunks
+   * @return an iterator of events
+   */
+  @ApiStability.Unstable
+  CloseableIterator<Event> listEvents(EventFilter filter, FetchControl fetchControl);
+
   /**
    * Subscribe event corresponding to an event filter.
    *
@@ -217,4 +233,32 @@ public interface ContractOperation {
    */
   Subscription<Event> subscribeEvent(EventFilter filter, StreamObserver<Event> observer);
 
+  /**
+   * Subscribe event corresponding to an event filter from a block number. Events from a block
+   * number up to the best block are replayed first and new events follow as they come in. A
+   * subscription is resumed from the last delivered one on a connection error, so that an observer
+   * gets events in order without a gap or a duplicate. Block numbers of a filter are ignored.
+   *
+   * @param filter          an event filter
+   * @param fromBlockNumber a block number to replay from
+   * @param observer        a stream observer which is invoked on event
+   * @return a subscription
+   */
+  @ApiStability.Unstable
+  Subscription<Event> subscribeEvent(EventFilter filter, long fromBlockNumber,
+      StreamObserver<Event> observer);
+
+  /**
+   * Subscribe event corresponding to an event filter with a flow control. Nothing is delivered to
+   * an observer until {@link FlowControlledSubscription#request(long)} is called.
+   *
+   * @param filter      an event filter
+   * @param observer    a stream observer which is invoked on event
+   * @param flowControl a flow control of a subscription
+   * @return a flow controlled subscription
+   */
+  @ApiStability.Unstable
+  FlowControlledSubscription<Event> subscribeEvent(EventFilter filter,
+      StreamObserver<Event> observer, FlowControl flowControl);
+
 }
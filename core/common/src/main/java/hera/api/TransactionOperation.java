@@ -9,12 +9,14 @@ import hera.annotation.ApiStability;
 import hera.api.model.AccountAddress;
 import hera.api.model.Aer;
 import hera.api.model.BytesValue;
+import hera.api.model.CommitResult;
 import hera.api.model.Fee;
 import hera.api.model.Name;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
 import hera.key.Signer;
+import java.util.List;
 
 /**
  * Provide transaction related operations.
@@ -49,6 +51,18 @@ public interface TransactionOperation {
    */
   TxHash commit(Transaction transaction);
 
+  /**
+   * Commit signed transactions in a single request of each node. Transactions of a sender are
+   * committed to a single node in order. A rejected transaction doesn't make the whole request
+   * fail and neither does a failed request to one of nodes once another one has committed, in
+   * which case transactions of a failed one get {@code INTERNAL_ERROR}. Check a status of each
+   * result instead.
+   *
+   * @param transactions signed transactions to commit
+   * @return commit results in the same order as {@code transactions}
+   */
+  List<CommitResult> commit(List<Transaction> transactions);
+
   /**
    * Send aergo.
    *
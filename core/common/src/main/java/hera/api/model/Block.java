@@ -5,10 +5,12 @@
 package hera.api.model;
 
 import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
 import static java.util.Collections.unmodifiableList;
 
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import lombok.Builder;
@@ -21,8 +23,8 @@ import lombok.ToString;
 @ApiAudience.Public
 @ApiStability.Unstable
 @Getter
-@ToString
-@EqualsAndHashCode
+@ToString(exclude = {"txHashes", "serializedSize"})
+@EqualsAndHashCode(exclude = {"txHashes", "serializedSize"})
 @Builder(builderMethodName = "newBuilder")
 public class Block {
 
@@ -41,14 +43,54 @@ public class Block {
   protected final List<Transaction> transactions = unmodifiableList(
       Collections.<Transaction>emptyList());
 
+  // hashes of transactions in order. null to get them from transactions
+  protected final List<TxHash> txHashes;
+
+  // bytes of a serialized block it's converted from. 0 if unknown
+  @Default
+  protected final long serializedSize = 0L;
+
   Block(final BlockHash blockHash, final BlockHeader blockHeader,
-      final List<Transaction> transactions) {
+      final List<Transaction> transactions, final List<TxHash> txHashes,
+      final long serializedSize) {
     assertNotNull(blockHash, "The blockHash must not null");
     assertNotNull(blockHeader, "The blockHeader must not null");
     assertNotNull(transactions, "The transactions must not null");
+    if (null != txHashes) {
+      assertTrue(transactions.size() == txHashes.size(),
+          "The txHashes must have the same size with the transactions");
+    }
     this.hash = blockHash;
     this.blockHeader = blockHeader;
     this.transactions = unmodifiableList(transactions);
+    this.txHashes = (null != txHashes) ? unmodifiableList(txHashes) : null;
+    this.serializedSize = serializedSize;
+  }
+
+  /**
+   * Get a number of transactions. It needs no transaction to be converted.
+   *
+   * @return a number of transactions
+   */
+  public int getTxCount() {
+    return transactions.size();
+  }
+
+  /**
+   * Get hashes of transactions in order. It needs no transaction to be converted if a block is
+   * given them on building.
+   *
+   * @return hashes of transactions
+   */
+  public List<TxHash> getTxHashes() {
+    if (null != txHashes) {
+      return txHashes;
+    }
+    final List<TxHash> hashes = new ArrayList<>(transactions.size());
+    for (final Transaction transaction : transactions) {
+      hashes.add(transaction.getHash());
+    }
+    return unmodifiableList(hashes);
   }
 
   public BytesValue getChainId() {
@@ -13,8 +13,12 @@ import hera.api.encode.Decoder;
 import hera.api.encode.Encoder;
 import hera.exception.HerajException;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
 import java.util.Arrays;
 
 @ApiAudience.Public
@@ -44,6 +48,19 @@ public class BytesValue {
     return new BytesValue(encoded, decoder);
   }
 
+  /**
+   * Create {@code BytesValue} sharing a raw bytes array without copying it. A caller must not
+   * modify it afterwards.
+   *
+   * @param bytes a raw bytes value not modified by anyone
+   * @return created {@link BytesValue}
+   */
+  @ApiAudience.Private
+  public static BytesValue wrap(final byte[] bytes) {
+    assertNotNull(bytes, "Raw bytes must not null");
+    return new BytesValue(bytes, false);
+  }
+
   protected transient int hash;
 
   protected final byte[] value;
@@ -54,8 +71,12 @@ public class BytesValue {
    * @param bytes a raw bytes value
    */
   public BytesValue(final byte[] bytes) {
+    this(bytes, true);
+  }
+
+  protected BytesValue(final byte[] bytes, final boolean copy) {
     assertNotNull(bytes, "Raw bytes must not null");
-    this.value = Arrays.copyOf(bytes, bytes.length);
+    this.value = copy ? Arrays.copyOf(bytes, bytes.length) : bytes;
   }
 
   /**
@@ -75,13 +96,49 @@ public class BytesValue {
   }
 
   public InputStream getInputStream() {
-    return new ByteArrayInputStream(getValue());
+    return new ByteArrayInputStream(value);
   }
 
+  /**
+   * Get a copy of a raw bytes value. Prefer {@link #asReadOnlyByteBuffer()} or
+   * {@code writeTo(...)} if a copy isn't needed.
+   *
+   * @return a copy of a raw bytes value
+   */
   public byte[] getValue() {
     return Arrays.copyOf(value, value.length);
   }
 
+  /**
+   * Get a read-only view of a raw bytes value. Nothing is copied.
+   *
+   * @return a read-only byte buffer
+   */
+  public ByteBuffer asReadOnlyByteBuffer() {
+    return ByteBuffer.wrap(value).asReadOnlyBuffer();
+  }
+
+  /**
+   * Write a raw bytes value to an output stream without copying it.
+   *
+   * @param outputStream an output stream
+   * @throws IOException on writing failure
+   */
+  public void writeTo(final OutputStream outputStream) throws IOException {
+    assertNotNull(outputStream, "Output stream must not null");
+    outputStream.write(value, 0, value.length);
+  }
+
+  /**
+   * Update a message digest with a raw bytes value without copying it.
+   *
+   * @param messageDigest a message digest
+   */
+  public void writeTo(final MessageDigest messageDigest) {
+    assertNotNull(messageDigest, "Message digest must not null");
+    messageDigest.update(value, 0, value.length);
+  }
+
   public int length() {
     return value.length;
   }
@@ -0,0 +1,29 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * An iterator holding resources like fetches ahead until it's exhausted or closed. Close an
+ * iterator abandoned before its end.
+ *
+ * @param <T> a type of an element
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+  /**
+   * Stop iterating and release resources. An element fetched ahead is discarded. This method is
+   * idempotent.
+   */
+  @Override
+  void close();
+
+}
@@ -0,0 +1,67 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.util.StringUtils;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * A result of committing a single transaction. A batch commit returns one of it per transaction
+ * in the order they were sent.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder(builderMethodName = "newBuilder")
+public class CommitResult {
+
+  /**
+   * A commit status of a transaction. It has the same constants as
+   * {@code hera.exception.CommitException.CommitStatus}.
+   */
+  public enum CommitStatus {
+    OK,
+    NONCE_TOO_LOW,
+    TX_ALREADY_EXISTS,
+    TX_INVALID_HASH,
+    TX_INVALID_SIGNATURE,
+    TX_INVALID_FORMAT,
+    INSUFFICIENT_BALANCE,
+    TX_HAS_SAME_NONCE,
+    INTERNAL_ERROR,
+    UNRECOGNIZED
+  }
+
+  @NonNull
+  @Default
+  protected final TxHash hash = TxHash.EMPTY;
+
+  @NonNull
+  @Default
+  protected final CommitStatus status = CommitStatus.UNRECOGNIZED;
+
+  @NonNull
+  @Default
+  protected final String detail = StringUtils.EMPTY_STRING;
+
+  /**
+   * Whether a transaction is accepted by a node or not.
+   *
+   * @return true if accepted
+   */
+  public boolean isOk() {
+    return CommitStatus.OK == status;
+  }
+
+}
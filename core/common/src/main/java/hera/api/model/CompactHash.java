@@ -0,0 +1,169 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.encode.Encoder;
+import java.nio.ByteBuffer;
+
+/**
+ * A 32 bytes hash kept in four long values. It takes a single object of 48 bytes while a
+ * {@link Hash} takes three objects, and compares and hashes in constant time. Use it to keep lots
+ * of tx or block hashes in memory with {@link hera.util.CompactHashSet} or
+ * {@link hera.util.CompactHashMap}.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public final class CompactHash implements Comparable<CompactHash> {
+
+  /**
+   * A length of a hash in bytes.
+   */
+  public static final int LENGTH = 32;
+
+  /**
+   * Create {@code CompactHash} with a hash.
+   *
+   * @param hash a hash of {@link #LENGTH} bytes
+   * @return created {@link CompactHash}
+   */
+  public static CompactHash of(final Hash hash) {
+    assertNotNull(hash, "Hash must not null");
+    return of(hash.getBytesValue());
+  }
+
+  /**
+   * Create {@code CompactHash} with a bytes value.
+   *
+   * @param bytesValue a bytes value of {@link #LENGTH} bytes
+   * @return created {@link CompactHash}
+   */
+  public static CompactHash of(final BytesValue bytesValue) {
+    assertNotNull(bytesValue, "Bytes value must not null");
+    assertTrue(LENGTH == bytesValue.length(), "Hash must be " + LENGTH + " bytes");
+    final ByteBuffer buffer = bytesValue.asReadOnlyByteBuffer();
+    return new CompactHash(buffer.getLong(), buffer.getLong(), buffer.getLong(),
+        buffer.getLong());
+  }
+
+  /**
+   * Create {@code CompactHash} with a raw bytes array.
+   *
+   * @param bytes a raw bytes of {@link #LENGTH} bytes
+   * @return created {@link CompactHash}
+   */
+  public static CompactHash of(final byte[] bytes) {
+    assertNotNull(bytes, "Raw bytes must not null");
+    assertTrue(LENGTH == bytes.length, "Hash must be " + LENGTH + " bytes");
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    return new CompactHash(buffer.getLong(), buffer.getLong(), buffer.getLong(),
+        buffer.getLong());
+  }
+
+  // in big endian
+  protected final long word0;
+  protected final long word1;
+  protected final long word2;
+  protected final long word3;
+
+  /**
+   * Create {@code CompactHash} with long values in big endian.
+   *
+   * @param word0 the 1st 8 bytes
+   * @param word1 the 2nd 8 bytes
+   * @param word2 the 3rd 8 bytes
+   * @param word3 the 4th 8 bytes
+   */
+  public CompactHash(final long word0, final long word1, final long word2, final long word3) {
+    this.word0 = word0;
+    this.word1 = word1;
+    this.word2 = word2;
+    this.word3 = word3;
+  }
+
+  /**
+   * Get the {@code index}-th 8 bytes in big endian.
+   *
+   * @param index an index in [0, 4)
+   * @return a long value
+   */
+  public long getWord(final int index) {
+    switch (index) {
+      case 0:
+        return word0;
+      case 1:
+        return word1;
+      case 2:
+        return word2;
+      case 3:
+        return word3;
+      default:
+        throw new IndexOutOfBoundsException("Word index must be in [0, 4): " + index);
+    }
+  }
+
+  public BytesValue toBytesValue() {
+    final byte[] raw = new byte[LENGTH];
+    ByteBuffer.wrap(raw).putLong(word0).putLong(word1).putLong(word2).putLong(word3);
+    return BytesValue.wrap(raw);
+  }
+
+  public Hash toHash() {
+    return Hash.of(toBytesValue());
+  }
+
+  public TxHash toTxHash() {
+    return TxHash.of(toBytesValue());
+  }
+
+  public BlockHash toBlockHash() {
+    return BlockHash.of(toBytesValue());
+  }
+
+  @Override
+  public int compareTo(final CompactHash other) {
+    int result = Long.compareUnsigned(word0, other.word0);
+    if (0 == result) {
+      result = Long.compareUnsigned(word1, other.word1);
+    }
+    if (0 == result) {
+      result = Long.compareUnsigned(word2, other.word2);
+    }
+    if (0 == result) {
+      result = Long.compareUnsigned(word3, other.word3);
+    }
+    return result;
+  }
+
+  @Override
+  public int hashCode() {
+    // bytes of a hash are uniformly distributed already
+    final long folded = word0 ^ word1 ^ word2 ^ word3;
+    return (int) (folded ^ (folded >>> 32));
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CompactHash)) {
+      return false;
+    }
+    final CompactHash other = (CompactHash) obj;
+    return word0 == other.word0 && word1 == other.word1 && word2 == other.word2
+        && word3 == other.word3;
+  }
+
+  @Override
+  public String toString() {
+    return toBytesValue().getEncoded(Encoder.Base58);
+  }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A control of fetching a range of blocks. Blocks are fetched ahead in parallel and delivered in
+ * order of a height. A fetched block is kept until delivered so that a memory is bounded by
+ * {@link #getPrefetchDepth()} and {@link #getMaxInFlightBytes()}.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+public class FetchControl {
+
+  public static final int DEFAULT_PARALLELISM = 8;
+
+  public static final int DEFAULT_PREFETCH_DEPTH = 64;
+
+  public static final long DEFAULT_MAX_IN_FLIGHT_BYTES = 64L * 1024L * 1024L;
+
+  public static FetchControlBuilder newBuilder() {
+    return new FetchControlBuilder();
+  }
+
+  // max requests running at once
+  protected final int parallelism;
+
+  // max blocks fetched or being fetched but not delivered
+  protected final int prefetchDepth;
+
+  // max estimated bytes of blocks fetched or being fetched but not delivered. the next block to
+  // deliver is always fetched even if it's over
+  protected final long maxInFlightBytes;
+
+  FetchControl(final int parallelism, final int prefetchDepth, final long maxInFlightBytes) {
+    assertTrue(parallelism > 0, "Parallelism must be positive");
+    assertTrue(prefetchDepth >= parallelism, "Prefetch depth must >= parallelism");
+    assertTrue(maxInFlightBytes > 0L, "Max in flight bytes must be positive");
+    this.parallelism = parallelism;
+    this.prefetchDepth = prefetchDepth;
+    this.maxInFlightBytes = maxInFlightBytes;
+  }
+
+  public static class FetchControlBuilder implements hera.util.Builder<FetchControl> {
+
+    protected int parallelism = DEFAULT_PARALLELISM;
+
+    protected int prefetchDepth = DEFAULT_PREFETCH_DEPTH;
+
+    protected long maxInFlightBytes = DEFAULT_MAX_IN_FLIGHT_BYTES;
+
+    FetchControlBuilder() {
+    }
+
+    public FetchControlBuilder parallelism(final int parallelism) {
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    public FetchControlBuilder prefetchDepth(final int prefetchDepth) {
+      this.prefetchDepth = prefetchDepth;
+      return this;
+    }
+
+    public FetchControlBuilder maxInFlightBytes(final long maxInFlightBytes) {
+      this.maxInFlightBytes = maxInFlightBytes;
+      return this;
+    }
+
+    @Override
+    public FetchControl build() {
+      return new FetchControl(parallelism, prefetchDepth, maxInFlightBytes);
+    }
+
+  }
+
+}
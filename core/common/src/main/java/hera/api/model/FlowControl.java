@@ -0,0 +1,102 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.concurrent.Executor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A flow control of a subscription. Messages are received into a bounded buffer and delivered to
+ * an observer only as much as requested by {@link FlowControlledSubscription#request(long)}.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+public class FlowControl {
+
+  /**
+   * A policy on a full buffer.
+   */
+  public enum OverflowPolicy {
+    /**
+     * Stop receiving until an observer requests more. A server is slowed down.
+     */
+    BLOCK,
+    /**
+     * Keep receiving and drop the oldest message in a buffer.
+     */
+    DROP_OLDEST,
+    /**
+     * Fail a subscription with {@link hera.exception.HerajException}.
+     */
+    FAIL
+  }
+
+  public static final int DEFAULT_BUFFER_SIZE = 256;
+
+  public static FlowControlBuilder newBuilder() {
+    return new FlowControlBuilder();
+  }
+
+  // max messages received but not delivered
+  protected final int bufferSize;
+
+  protected final OverflowPolicy overflowPolicy;
+
+  // an executor converting and delivering messages. null to use a shared one
+  protected final Executor executor;
+
+  FlowControl(final int bufferSize, final OverflowPolicy overflowPolicy,
+      final Executor executor) {
+    assertTrue(bufferSize > 0, "Buffer size must be positive");
+    assertNotNull(overflowPolicy, "Overflow policy must not null");
+    this.bufferSize = bufferSize;
+    this.overflowPolicy = overflowPolicy;
+    this.executor = executor;
+  }
+
+  public static class FlowControlBuilder implements hera.util.Builder<FlowControl> {
+
+    protected int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    protected OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    protected Executor executor;
+
+    FlowControlBuilder() {
+    }
+
+    public FlowControlBuilder bufferSize(final int bufferSize) {
+      this.bufferSize = bufferSize;
+      return this;
+    }
+
+    public FlowControlBuilder overflowPolicy(final OverflowPolicy overflowPolicy) {
+      this.overflowPolicy = overflowPolicy;
+      return this;
+    }
+
+    public FlowControlBuilder executor(final Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    @Override
+    public FlowControl build() {
+      return new FlowControl(bufferSize, overflowPolicy, executor);
+    }
+
+  }
+
+}
@@ -0,0 +1,26 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A subscription delivering messages only as much as requested. Nothing is delivered until the
+ * first {@link #request(long)}.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface FlowControlledSubscription<T> extends Subscription<T> {
+
+  /**
+   * Request {@code count} more messages. It's added to the demand not delivered yet. This method
+   * is thread-safe.
+   *
+   * @param count a number of messages. {@link Long#MAX_VALUE} for unbounded
+   */
+  void request(long count);
+
+}
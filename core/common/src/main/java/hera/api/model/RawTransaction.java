@@ -154,7 +154,7 @@ public class RawTransaction {
       dataOut.flush();
       dataOut.close();
       final byte[] digested = digest(raw.toByteArray());
-      return TxHash.of(BytesValue.of(digested));
+      return TxHash.of(BytesValue.wrap(digested));
     } catch (final IOException e) {
       throw new HerajException(e);
     }
@@ -170,11 +170,11 @@ public class RawTransaction {
     try {
       final ByteArrayOutputStream raw = new ByteArrayOutputStream();
       final LittleEndianDataOutputStream dataOut = makeStream(raw);
-      dataOut.write(signature.getSign().getValue());
+      signature.getSign().writeTo(dataOut);
       dataOut.flush();
       dataOut.close();
       final byte[] digested = digest(raw.toByteArray());
-      return TxHash.of(BytesValue.of(digested));
+      return TxHash.of(BytesValue.wrap(digested));
     } catch (final IOException e) {
       throw new HerajException(e);
     }
@@ -185,14 +185,14 @@ public class RawTransaction {
     final LittleEndianDataOutputStream dataOut = new LittleEndianDataOutputStream(raw);
     // WARNING : follow the stream order with server
     dataOut.writeLong(getNonce());
-    dataOut.write(getSender().getBytesValue().getValue());
-    dataOut.write(getRecipient().getBytesValue().getValue());
+    getSender().getBytesValue().writeTo(dataOut);
+    getRecipient().getBytesValue().writeTo(dataOut);
     dataOut.write(positiveToByteArray(getAmount().getValue()));
-    dataOut.write(getPayload().getValue());
+    getPayload().writeTo(dataOut);
     dataOut.writeLong(getFee().getLimit());
     dataOut.write(positiveToByteArray(getFee().getPrice().getValue()));
     dataOut.writeInt(getTxType().getIntValue());
-    dataOut.write(getChainIdHash().getBytesValue().getValue());
+    getChainIdHash().getBytesValue().writeTo(dataOut);
     return dataOut;
   }
 
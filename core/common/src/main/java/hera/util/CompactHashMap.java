@@ -0,0 +1,116 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.CompactHash;
+import java.util.Iterator;
+
+/**
+ * A map keyed by {@link CompactHash} keeping keys in a flat long array. It doesn't allow a null
+ * value. Not thread-safe.
+ *
+ * @param <V> a type of a value
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class CompactHashMap<V> extends CompactHashTable {
+
+  public CompactHashMap() {
+    this(0);
+  }
+
+  /**
+   * Create a map holding {@code expectedSize} entries without resizing.
+   *
+   * @param expectedSize an expected number of entries
+   */
+  public CompactHashMap(final int expectedSize) {
+    super(expectedSize, true);
+  }
+
+  /**
+   * Put a value with a key.
+   *
+   * @param key   a key
+   * @param value a value
+   * @return a previous value of the key. null if none
+   */
+  @SuppressWarnings("unchecked")
+  public V put(final CompactHash key, final V value) {
+    assertNotNull(key, "Key must not null");
+    assertNotNull(value, "Value must not null");
+    if (isZero(key)) {
+      final V previous = (V) zeroValue;
+      putZero(value);
+      return previous;
+    }
+    final int found = find(key);
+    if (found >= 0) {
+      final V previous = (V) values[found];
+      values[found] = value;
+      return previous;
+    }
+    insertAt(-found - 1, key, value);
+    return null;
+  }
+
+  /**
+   * Get a value of a key.
+   *
+   * @param key a key
+   * @return a value. null if none
+   */
+  @SuppressWarnings("unchecked")
+  public V get(final CompactHash key) {
+    return (V) get0(key);
+  }
+
+  public boolean containsKey(final CompactHash key) {
+    return containsKey0(key);
+  }
+
+  /**
+   * Remove a key.
+   *
+   * @param key a key
+   * @return a removed value. null if none
+   */
+  @SuppressWarnings("unchecked")
+  public V remove(final CompactHash key) {
+    assertNotNull(key, "Key must not null");
+    if (isZero(key)) {
+      final V previous = (V) zeroValue;
+      removeZero();
+      return previous;
+    }
+    final int slot = find(key);
+    if (slot < 0) {
+      return null;
+    }
+    // read before a removal shifts a following entry into the slot
+    final V previous = (V) values[slot];
+    removeAt(slot);
+    return previous;
+  }
+
+  /**
+   * Get keys of a map. A key is made on each step of an iteration.
+   *
+   * @return keys
+   */
+  public Iterable<CompactHash> keys() {
+    return new Iterable<CompactHash>() {
+      @Override
+      public Iterator<CompactHash> iterator() {
+        return keyIterator();
+      }
+    };
+  }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.CompactHash;
+import java.util.Iterator;
+
+/**
+ * A set of {@link CompactHash} keeping hashes in a flat long array. It takes 32 bytes a hash with a
+ * free slot overhead while {@code HashSet<TxHash>} takes about 150 bytes a hash. Not thread-safe.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class CompactHashSet extends CompactHashTable implements Iterable<CompactHash> {
+
+  public CompactHashSet() {
+    this(0);
+  }
+
+  /**
+   * Create a set holding {@code expectedSize} hashes without resizing.
+   *
+   * @param expectedSize an expected number of hashes
+   */
+  public CompactHashSet(final int expectedSize) {
+    super(expectedSize, false);
+  }
+
+  /**
+   * Add a hash.
+   *
+   * @param hash a hash
+   * @return whether a set didn't contain the hash
+   */
+  public boolean add(final CompactHash hash) {
+    return put0(hash, null);
+  }
+
+  public boolean contains(final CompactHash hash) {
+    return containsKey0(hash);
+  }
+
+  /**
+   * Remove a hash.
+   *
+   * @param hash a hash
+   * @return whether a set contained the hash
+   */
+  public boolean remove(final CompactHash hash) {
+    return remove0(hash);
+  }
+
+  @Override
+  public Iterator<CompactHash> iterator() {
+    return keyIterator();
+  }
+
+}
@@ -0,0 +1,329 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.api.model.CompactHash;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An open addressing hash table keeping {@link CompactHash} keys in a flat long array. A slot takes
+ * four longs and a slot of all zero words is a free one. An all zero key is kept out of the array
+ * with a flag. Collisions are resolved by linear probing and a removal shifts following entries
+ * back instead of leaving a tombstone.
+ */
+abstract class CompactHashTable {
+
+  protected static final int WORDS = 4;
+
+  protected static final int MIN_CAPACITY = 16;
+
+  protected static final int MAX_CAPACITY = 1 << 28;
+
+  // golden ratio to spread the folded words
+  protected static final long SPREAD = 0x9E3779B97F4A7C15L;
+
+  protected long[] keys;
+
+  // null if no value is kept
+  protected Object[] values;
+
+  protected boolean hasZeroKey;
+
+  protected Object zeroValue;
+
+  protected int size;
+
+  protected int mask;
+
+  protected int threshold;
+
+  protected final boolean withValue;
+
+  protected CompactHashTable(final int expectedSize, final boolean withValue) {
+    assertTrue(expectedSize >= 0, "Expected size must >= 0");
+    this.withValue = withValue;
+    allocate(capacityFor(expectedSize));
+  }
+
+  protected static int capacityFor(final int expectedSize) {
+    // keep load factor under 0.75
+    final long required = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+    assertTrue(required <= MAX_CAPACITY, "Expected size is too large: " + expectedSize);
+    return Integer.highestOneBit((int) required - 1) << 1;
+  }
+
+  protected void allocate(final int capacity) {
+    this.keys = new long[capacity * WORDS];
+    this.values = withValue ? new Object[capacity] : null;
+    this.mask = capacity - 1;
+    this.threshold = capacity / 4 * 3;
+  }
+
+  protected int home(final long word0, final long word1, final long word2, final long word3) {
+    final long folded = (word0 ^ word1 ^ word2 ^ word3) * SPREAD;
+    return (int) (folded >>> 32) & mask;
+  }
+
+  protected static boolean isZero(final CompactHash key) {
+    return 0L == key.getWord(0) && 0L == key.getWord(1) && 0L == key.getWord(2)
+        && 0L == key.getWord(3);
+  }
+
+  protected boolean isFree(final int slot) {
+    final int offset = slot * WORDS;
+    return 0L == keys[offset] && 0L == keys[offset + 1] && 0L == keys[offset + 2]
+        && 0L == keys[offset + 3];
+  }
+
+  /**
+   * Find a slot of a non zero key.
+   *
+   * @param key a key
+   * @return a slot of the key if exists. Otherwise, {@code -(free slot) - 1}
+   */
+  protected int find(final CompactHash key) {
+    final long word0 = key.getWord(0);
+    final long word1 = key.getWord(1);
+    final long word2 = key.getWord(2);
+    final long word3 = key.getWord(3);
+    int slot = home(word0, word1, word2, word3);
+    while (true) {
+      final int offset = slot * WORDS;
+      if (keys[offset] == word0 && keys[offset + 1] == word1 && keys[offset + 2] == word2
+          && keys[offset + 3] == word3) {
+        return slot;
+      }
+      if (isFree(slot)) {
+        return -slot - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  protected boolean containsKey0(final CompactHash key) {
+    assertNotNull(key, "Key must not null");
+    return isZero(key) ? hasZeroKey : find(key) >= 0;
+  }
+
+  protected Object get0(final CompactHash key) {
+    assertNotNull(key, "Key must not null");
+    if (isZero(key)) {
+      return zeroValue;
+    }
+    final int slot = find(key);
+    return (slot >= 0 && withValue) ? values[slot] : null;
+  }
+
+  /**
+   * Put a key with a value.
+   *
+   * @param key   a key
+   * @param value a value. Ignored if no value is kept
+   * @return whether the key is newly added
+   */
+  protected boolean put0(final CompactHash key, final Object value) {
+    assertNotNull(key, "Key must not null");
+    if (isZero(key)) {
+      return putZero(value);
+    }
+    final int found = find(key);
+    if (found >= 0) {
+      if (withValue) {
+        values[found] = value;
+      }
+      return false;
+    }
+    insertAt(-found - 1, key, value);
+    return true;
+  }
+
+  protected boolean putZero(final Object value) {
+    final boolean added = !hasZeroKey;
+    hasZeroKey = true;
+    zeroValue = value;
+    if (added) {
+      ++size;
+    }
+    return added;
+  }
+
+  /**
+   * Insert a non zero key into a free slot found by {@link #find(CompactHash)}.
+   *
+   * @param slot  a free slot
+   * @param key   a key
+   * @param value a value. Ignored if no value is kept
+   */
+  protected void insertAt(final int slot, final CompactHash key, final Object value) {
+    final int offset = slot * WORDS;
+    keys[offset] = key.getWord(0);
+    keys[offset + 1] = key.getWord(1);
+    keys[offset + 2] = key.getWord(2);
+    keys[offset + 3] = key.getWord(3);
+    if (withValue) {
+      values[slot] = value;
+    }
+    ++size;
+    if (size > threshold) {
+      rehash();
+    }
+  }
+
+  /**
+   * Remove a key.
+   *
+   * @param key a key
+   * @return whether the key existed
+   */
+  protected boolean remove0(final CompactHash key) {
+    assertNotNull(key, "Key must not null");
+    if (isZero(key)) {
+      return removeZero();
+    }
+    final int slot = find(key);
+    if (slot < 0) {
+      return false;
+    }
+    removeAt(slot);
+    return true;
+  }
+
+  protected boolean removeZero() {
+    final boolean removed = hasZeroKey;
+    hasZeroKey = false;
+    zeroValue = null;
+    if (removed) {
+      --size;
+    }
+    return removed;
+  }
+
+  protected void removeAt(final int slot) {
+    shiftBack(slot);
+    --size;
+  }
+
+  // move entries of the same cluster into a freed slot so that probing needs no tombstone
+  protected void shiftBack(final int removed) {
+    int free = removed;
+    int slot = (free + 1) & mask;
+    while (!isFree(slot)) {
+      final int offset = slot * WORDS;
+      final int home = home(keys[offset], keys[offset + 1], keys[offset + 2], keys[offset + 3]);
+      // movable if its home is not in (free, slot] cyclically
+      if (((slot - home) & mask) >= ((slot - free) & mask)) {
+        System.arraycopy(keys, offset, keys, free * WORDS, WORDS);
+        if (withValue) {
+          values[free] = values[slot];
+        }
+        free = slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    Arrays.fill(keys, free * WORDS, free * WORDS + WORDS, 0L);
+    if (withValue) {
+      values[free] = null;
+    }
+  }
+
+  protected void rehash() {
+    final int capacity = keys.length / WORDS;
+    assertTrue(capacity < MAX_CAPACITY, "Table is too large");
+    final long[] oldKeys = keys;
+    final Object[] oldValues = values;
+    allocate(capacity << 1);
+    for (int oldSlot = 0; oldSlot < capacity; ++oldSlot) {
+      final int oldOffset = oldSlot * WORDS;
+      final long word0 = oldKeys[oldOffset];
+      final long word1 = oldKeys[oldOffset + 1];
+      final long word2 = oldKeys[oldOffset + 2];
+      final long word3 = oldKeys[oldOffset + 3];
+      if (0L == word0 && 0L == word1 && 0L == word2 && 0L == word3) {
+        continue;
+      }
+      int slot = home(word0, word1, word2, word3);
+      while (!isFree(slot)) {
+        slot = (slot + 1) & mask;
+      }
+      System.arraycopy(oldKeys, oldOffset, keys, slot * WORDS, WORDS);
+      if (withValue) {
+        values[slot] = oldValues[oldSlot];
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return 0 == size;
+  }
+
+  /**
+   * Remove all the entries. A capacity is kept.
+   */
+  public void clear() {
+    Arrays.fill(keys, 0L);
+    if (withValue) {
+      Arrays.fill(values, null);
+    }
+    hasZeroKey = false;
+    zeroValue = null;
+    size = 0;
+  }
+
+  /**
+   * Iterate keys. A key is made on each step. Modifying a table while iterating gives an undefined
+   * result.
+   *
+   * @return a key iterator
+   */
+  protected Iterator<CompactHash> keyIterator() {
+    return new Iterator<CompactHash>() {
+
+      // a slot to look next. capacity means the zero key
+      protected int next = advance(0);
+
+      protected int advance(final int from) {
+        final int capacity = keys.length / WORDS;
+        int slot = from;
+        while (slot < capacity && isFree(slot)) {
+          ++slot;
+        }
+        if (slot == capacity && !hasZeroKey) {
+          ++slot;
+        }
+        return slot;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next <= keys.length / WORDS;
+      }
+
+      @Override
+      public CompactHash next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final int slot = next;
+        next = advance(slot + 1);
+        if (slot == keys.length / WORDS) {
+          return new CompactHash(0L, 0L, 0L, 0L);
+        }
+        final int offset = slot * WORDS;
+        return new CompactHash(keys[offset], keys[offset + 1], keys[offset + 2],
+            keys[offset + 3]);
+      }
+    };
+  }
+
+}
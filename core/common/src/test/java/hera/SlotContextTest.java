@@ -0,0 +1,98 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class SlotContextTest extends AbstractTestCase {
+
+  protected final Context root = new SlotContext(randomUUID().toString());
+
+  @Test
+  public void testWithValue() {
+    final Key<String> parentKey = Key.of(randomUUID().toString(), String.class);
+    final String parentValue = randomUUID().toString();
+    final Context parent = root.withValue(parentKey, parentValue);
+    final Key<String> childKey = Key.of(randomUUID().toString(), String.class);
+    final String childValue = randomUUID().toString();
+    final Context child = parent.withValue(childKey, childValue);
+    assertEquals(parentValue, child.get(parentKey));
+    assertEquals(childValue, child.get(childKey));
+    assertNull(parent.get(childKey));
+  }
+
+  @Test
+  public void shouldKeepParentUnchanged() {
+    final Key<String> key = Key.of(randomUUID().toString(), String.class);
+    final String parentValue = randomUUID().toString();
+    final Context parent = root.withValue(key, parentValue);
+    final String childValue = randomUUID().toString();
+    final Context child = parent.withValue(key, childValue);
+    assertEquals(parentValue, parent.get(key));
+    assertEquals(childValue, child.get(key));
+  }
+
+  @Test
+  public void shouldKeepValuesOverManyChunks() {
+    final List<Key<Integer>> keys = new ArrayList<>();
+    Context context = root;
+    for (int i = 0; i < 5 * SlotContext.CHUNK_SIZE; ++i) {
+      final Key<Integer> key = Key.of(randomUUID().toString(), Integer.class);
+      keys.add(key);
+      context = context.withValue(key, i);
+    }
+    for (int i = 0; i < keys.size(); ++i) {
+      assertEquals(Integer.valueOf(i), context.get(keys.get(i)));
+    }
+  }
+
+  @Test
+  public void shouldShareSlotOfEqualKeys() {
+    final String name = randomUUID().toString();
+    final Key<String> key = Key.of(name, String.class);
+    final String expected = randomUUID().toString();
+    final Context context = root.withValue(key, expected);
+    assertEquals(key.getSlot(), Key.of(name, String.class).getSlot());
+    assertEquals(expected, context.get(Key.of(name, String.class)));
+  }
+
+  @Test
+  public void testHotKey() {
+    final Key<String> key = Key.hot(randomUUID().toString(), String.class);
+    final String expected = randomUUID().toString();
+    final Context context = root.withValue(key, expected);
+    assertEquals(expected, context.get(key));
+    assertNull(root.get(key));
+  }
+
+  @Test
+  public void testGetOrDefault() {
+    final Key<String> key = Key.of(randomUUID().toString(), String.class);
+    final Context context = root.withValue(key, randomUUID().toString());
+    final Key<String> nokey = Key.of(randomUUID().toString(), String.class);
+    final String expected = randomUUID().toString();
+    final String actual = context.getOrDefault(nokey, expected);
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void testWithScope() {
+    final Key<String> key = Key.of(randomUUID().toString(), String.class);
+    final String value = randomUUID().toString();
+    final Context context = root.withValue(key, value);
+    final String expected = randomUUID().toString();
+    final Context newContext = context.withScope(expected);
+    assertEquals(expected, newContext.getScope());
+    assertSame(value, newContext.get(key));
+  }
+
+}
@@ -5,8 +5,13 @@
 package hera.api.model;
 
 import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import org.junit.Test;
 
@@ -33,4 +38,33 @@ public class BytesValueTest {
     assertEquals(value1, value2);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testAsReadOnlyByteBuffer() {
+    final byte[] raw = randomUUID().toString().getBytes();
+    final BytesValue value = BytesValue.wrap(raw);
+
+    final ByteBuffer buffer = value.asReadOnlyByteBuffer();
+    assertTrue(buffer.isReadOnly());
+    final byte[] read = new byte[buffer.remaining()];
+    buffer.get(read);
+    assertArrayEquals(raw, read);
+    assertEquals(raw.length, value.asReadOnlyByteBuffer().remaining());
+  }
+
+  @Test
+  public void testWriteTo() throws Exception {
+    final byte[] raw = randomUUID().toString().getBytes();
+    final BytesValue value = BytesValue.of(raw);
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    value.writeTo(out);
+    assertArrayEquals(raw, out.toByteArray());
+
+    final MessageDigest expected = MessageDigest.getInstance("SHA-256");
+    expected.update(raw);
+    final MessageDigest actual = MessageDigest.getInstance("SHA-256");
+    value.writeTo(actual);
+    assertArrayEquals(expected.digest(), actual.digest());
+  }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class CompactHashTest {
+
+  @Test
+  public void shouldConvertToAndFromHash() {
+    // given
+    final byte[] raw = new byte[CompactHash.LENGTH];
+    new Random().nextBytes(raw);
+    final TxHash txHash = TxHash.of(BytesValue.of(raw));
+
+    // then
+    final CompactHash compactHash = CompactHash.of(txHash);
+    assertEquals(txHash, compactHash.toTxHash());
+    assertEquals(compactHash, CompactHash.of(raw));
+    assertEquals(txHash.toString(), compactHash.toString());
+  }
+
+  @Test
+  public void shouldCompareInUnsignedOrder() {
+    // given
+    final CompactHash low = new CompactHash(1L, 0L, 0L, 0L);
+    final CompactHash high = new CompactHash(-1L, 0L, 0L, 0L);
+
+    // then
+    assertTrue(low.compareTo(high) < 0);
+    assertTrue(high.compareTo(low) > 0);
+    assertEquals(0, low.compareTo(new CompactHash(1L, 0L, 0L, 0L)));
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.model.CompactHash;
+import org.junit.Test;
+
+public class CompactHashMapTest extends AbstractTestCase {
+
+  @Test
+  public void shouldPutAndGetOverResize() {
+    // given
+    final CompactHashMap<Long> map = new CompactHashMap<>();
+    for (long i = 0; i < 1000; ++i) {
+      assertNull(map.put(new CompactHash(i, 0L, 0L, i), i));
+    }
+
+    // then
+    assertEquals(1000, map.size());
+    for (long i = 0; i < 1000; ++i) {
+      assertEquals(Long.valueOf(i), map.get(new CompactHash(i, 0L, 0L, i)));
+    }
+    assertEquals(Long.valueOf(7L), map.put(new CompactHash(7L, 0L, 0L, 7L), 70L));
+    assertEquals(Long.valueOf(70L), map.get(new CompactHash(7L, 0L, 0L, 7L)));
+    int count = 0;
+    for (final CompactHash key : map.keys()) {
+      assertTrue(map.containsKey(key));
+      ++count;
+    }
+    assertEquals(1000, count);
+  }
+
+  @Test
+  public void shouldRemove() {
+    // given
+    final CompactHashMap<String> map = new CompactHashMap<>();
+    final CompactHash zero = new CompactHash(0L, 0L, 0L, 0L);
+    final CompactHash key = new CompactHash(1L, 2L, 3L, 4L);
+    map.put(zero, "zero");
+    map.put(key, "key");
+
+    // then
+    assertEquals("zero", map.remove(zero));
+    assertEquals("key", map.remove(key));
+    assertNull(map.remove(key));
+    assertFalse(map.containsKey(key));
+    assertTrue(map.isEmpty());
+  }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.model.CompactHash;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class CompactHashSetTest extends AbstractTestCase {
+
+  protected final Random random = new Random(1L);
+
+  protected CompactHash randomHash() {
+    return new CompactHash(random.nextLong(), random.nextLong(), random.nextLong(),
+        random.nextLong());
+  }
+
+  @Test
+  public void shouldAddAndContainOverResize() {
+    // given
+    final CompactHashSet set = new CompactHashSet();
+    final Set<CompactHash> expected = new HashSet<>();
+    for (int i = 0; i < 10000; ++i) {
+      final CompactHash hash = randomHash();
+      assertTrue(set.add(hash));
+      expected.add(hash);
+    }
+
+    // then
+    assertEquals(expected.size(), set.size());
+    for (final CompactHash hash : expected) {
+      assertTrue(set.contains(hash));
+      assertFalse(set.add(hash));
+    }
+    assertFalse(set.contains(randomHash()));
+    final Set<CompactHash> iterated = new HashSet<>();
+    for (final CompactHash hash : set) {
+      iterated.add(hash);
+    }
+    assertEquals(expected, iterated);
+  }
+
+  @Test
+  public void shouldKeepOthersReachableOnRemove() {
+    // given
+    final CompactHashSet set = new CompactHashSet();
+    final Set<CompactHash> expected = new HashSet<>();
+    // same folded words to collide
+    for (long i = 1; i <= 100; ++i) {
+      final CompactHash hash = new CompactHash(i, i, 0L, 0L);
+      set.add(hash);
+      expected.add(hash);
+    }
+    for (long i = 1; i <= 100; i += 2) {
+      final CompactHash hash = new CompactHash(i, i, 0L, 0L);
+      assertTrue(set.remove(hash));
+      expected.remove(hash);
+    }
+
+    // then
+    assertEquals(expected.size(), set.size());
+    for (final CompactHash hash : expected) {
+      assertTrue(set.contains(hash));
+    }
+    assertFalse(set.contains(new CompactHash(1L, 1L, 0L, 0L)));
+    assertFalse(set.remove(new CompactHash(1L, 1L, 0L, 0L)));
+  }
+
+  @Test
+  public void shouldHandleZeroHash() {
+    // given
+    final CompactHashSet set = new CompactHashSet();
+    final CompactHash zero = new CompactHash(0L, 0L, 0L, 0L);
+
+    // then
+    assertFalse(set.contains(zero));
+    assertTrue(set.add(zero));
+    assertTrue(set.contains(zero));
+    assertEquals(1, set.size());
+    assertEquals(zero, set.iterator().next());
+    assertTrue(set.remove(zero));
+    assertTrue(set.isEmpty());
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Collections.singletonList;
+
+import hera.Context;
+import hera.RequestMethod;
+import hera.api.model.BlockHash;
+import hera.api.model.BytesValue;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A dispatch overhead of a request from a template to a request method. A request method is an
+ * in-process stub returning a constant, so that no byte hits a wire. Run it with a gc profiler
+ * (eg. {@code -prof gc}) to see allocations per request.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DispatchBenchmark {
+
+  protected static final Object RESPONSE = new Object();
+
+  protected static final RequestMethod<Object> STUB = new RequestMethod<Object>() {
+
+    @Override
+    public String getName() {
+      return Methods.BLOCK_BY_HASH;
+    }
+
+    @Override
+    protected Object runInternal(final List<Object> parameters) {
+      return RESPONSE;
+    }
+  };
+
+  protected static class StubTemplate extends AbstractTemplate {
+
+    StubTemplate(final Context context) {
+      super(new UnmodifiableContextStorage(context));
+    }
+
+    Object request(final Object parameter) {
+      return request(STUB, singletonList(parameter));
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Plain {
+
+    protected StubTemplate template;
+
+    protected final BlockHash blockHash = BlockHash.of(BytesValue.of(new byte[32]));
+
+    @Setup(Level.Trial)
+    public synchronized void setUp() {
+      template = new StubTemplate(new AergoClientBuilder()
+          .withEndpoint("localhost:7845")
+          .initContext());
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Resilient {
+
+    protected StubTemplate template;
+
+    protected final BlockHash blockHash = BlockHash.of(BytesValue.of(new byte[32]));
+
+    @Setup(Level.Trial)
+    public synchronized void setUp() {
+      template = new StubTemplate(new AergoClientBuilder()
+          .withEndpoint("localhost:7845")
+          .withTimeout(3L, TimeUnit.SECONDS)
+          .withRetry(2, 100L, TimeUnit.MILLISECONDS)
+          .initContext());
+    }
+  }
+
+  @Benchmark
+  public Object dispatch(final Plain plain) {
+    return plain.template.request(plain.blockHash);
+  }
+
+  @Benchmark
+  public Object dispatchWithTimeoutAndRetry(final Resilient resilient) {
+    return resilient.template.request(resilient.blockHash);
+  }
+
+}
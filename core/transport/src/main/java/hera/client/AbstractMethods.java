@@ -5,15 +5,24 @@
 package hera.client;
 
 import static hera.client.ClientContextKeys.GRPC_CLIENT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_DEADLINE;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ROUTING_KEY;
 import static hera.client.ClientContextKeys.GRPC_VALUE_CHAIN_ID_HASH_HOLDER;
+import static hera.client.ClientContextKeys.GRPC_VALUE_METRICS_RECORDER;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import hera.Context;
 import hera.ContextHolder;
 import hera.api.model.ChainIdHash;
 import hera.exception.HerajException;
+import io.grpc.Deadline;
+import io.grpc.StatusRuntimeException;
+import java.util.List;
 import org.slf4j.Logger;
 import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
 
 abstract class AbstractMethods {
@@ -27,7 +36,66 @@ abstract class AbstractMethods {
       throw new HerajException("No grpc client in context");
     }
     logger.trace("GrpcClient: {}", grpcClient);
-    return grpcClient.getBlockingStub();
+    final AergoRPCServiceBlockingStub blockingStub = grpcClient.getBlockingStub();
+    final Deadline deadline = current.get(GRPC_REQUEST_DEADLINE);
+    return null != deadline ? blockingStub.withDeadline(deadline) : blockingStub;
+  }
+
+  /**
+   * Get a blocking stub to an endpoint bound to a {@code routingKey}. Requests with the same
+   * routing key (eg. a sender of a transaction) are sent to the same endpoint so that they are
+   * handled in order.
+   *
+   * @param routingKey a routing key
+   * @return a blocking stub
+   */
+  protected AergoRPCServiceBlockingStub getBlockingStub(final Object routingKey) {
+    if (null == routingKey) {
+      return getBlockingStub();
+    }
+    final Context current = ContextHolder.current();
+    ContextHolder.attach(current.withValue(GRPC_REQUEST_ROUTING_KEY, routingKey));
+    try {
+      return getBlockingStub();
+    } finally {
+      ContextHolder.attach(current);
+    }
+  }
+
+  /**
+   * Resolve an endpoint which requests with a {@code routingKey} are sent to.
+   *
+   * @param routingKey a routing key
+   * @return an endpoint bound to a routing key
+   */
+  protected GrpcEndpoint resolveEndpoint(final Object routingKey) {
+    final Context current = ContextHolder.current();
+    final GrpcClient grpcClient = current.get(GRPC_CLIENT);
+    if (null == grpcClient) {
+      throw new HerajException("No grpc client in context");
+    }
+    ContextHolder.attach(current.withValue(GRPC_REQUEST_ROUTING_KEY, routingKey));
+    try {
+      return grpcClient.selectEndpoint();
+    } finally {
+      ContextHolder.attach(current);
+    }
+  }
+
+  /**
+   * Get a blocking stub to an endpoint resolved by {@link #resolveEndpoint(Object)}.
+   *
+   * @param endpoint an endpoint
+   * @return a blocking stub
+   */
+  protected AergoRPCServiceBlockingStub getBlockingStubTo(final GrpcEndpoint endpoint) {
+    final Context current = ContextHolder.current();
+    ContextHolder.attach(current.withValue(GRPC_REQUEST_ENDPOINT, endpoint));
+    try {
+      return getBlockingStub();
+    } finally {
+      ContextHolder.attach(current);
+    }
   }
 
   protected AergoRPCServiceStub getStreamStub() {
@@ -40,6 +108,15 @@ abstract class AbstractMethods {
     return grpcClient.getStreamStub();
   }
 
+  /**
+   * Get a metrics recorder of a client.
+   *
+   * @return a metrics recorder. null if no metrics
+   */
+  protected MetricsRecorder getMetricsRecorder() {
+    return ContextHolder.current().get(GRPC_VALUE_METRICS_RECORDER);
+  }
+
   protected ChainIdHash getChainIdHash() {
     final Context current = ContextHolder.current();
     final ChainIdHashHolder chainIdHashHolder = current.get(GRPC_VALUE_CHAIN_ID_HASH_HOLDER);
@@ -50,4 +127,95 @@ abstract class AbstractMethods {
     return chainIdHashHolder.get();
   }
 
+  /**
+   * A request method making a single unary grpc call. A request and a response are converted by
+   * the same code whether a call is made on a blocking stub or on a future stub, so that
+   * {@link AsyncAergoClientImpl} shares them with a blocking client.
+   *
+   * @param <T>     a domain model type
+   * @param <ReqT>  a grpc request type
+   * @param <RespT> a grpc response type
+   */
+  protected abstract class UnaryRequestMethod<T, ReqT, RespT> extends TracedRequestMethod<T> {
+
+    /**
+     * Convert parameters into a grpc request.
+     *
+     * @param parameters validated parameters
+     * @return a grpc request
+     */
+    protected abstract ReqT toRpcRequest(List<Object> parameters);
+
+    protected abstract RespT call(AergoRPCServiceBlockingStub blockingStub, ReqT request);
+
+    protected abstract ListenableFuture<RespT> callAsync(AergoRPCServiceFutureStub futureStub,
+        ReqT request);
+
+    /**
+     * Convert a grpc response into a domain model.
+     *
+     * @param parameters validated parameters
+     * @param response   a grpc response
+     * @return a domain model
+     */
+    protected abstract T toDomainModel(List<Object> parameters, RespT response);
+
+    /**
+     * Get a key to route a request by.
+     *
+     * @param parameters validated parameters
+     * @return a routing key. null if any endpoint is fine
+     */
+    protected Object getRoutingKey(final List<Object> parameters) {
+      return null;
+    }
+
+    /**
+     * Get a part of an error message meaning no corresponding one.
+     *
+     * @return a not found message. null if every error is a failure
+     */
+    protected String getNotFoundMessage() {
+      return null;
+    }
+
+    /**
+     * Validate parameters and convert them into a grpc request for an asynchronous call.
+     *
+     * @param parameters parameters
+     * @return a grpc request
+     */
+    ReqT prepare(final List<Object> parameters) {
+      validate(parameters);
+      onValidated();
+      return toRpcRequest(parameters);
+    }
+
+    /**
+     * Check if an error of a call means no corresponding one.
+     *
+     * @param error an error of a call
+     * @return whether it means no corresponding one
+     */
+    boolean isNotFound(final Throwable error) {
+      final String notFoundMessage = getNotFoundMessage();
+      return null != notFoundMessage && error instanceof StatusRuntimeException
+          && null != error.getMessage() && error.getMessage().contains(notFoundMessage);
+    }
+
+    @Override
+    protected T runInternal(final List<Object> parameters) throws Exception {
+      final ReqT request = toRpcRequest(parameters);
+      try {
+        final RespT response = call(getBlockingStub(getRoutingKey(parameters)), request);
+        return toDomainModel(parameters, response);
+      } catch (StatusRuntimeException e) {
+        if (!isNotFound(e)) {
+          throw e;
+        }
+        return null;
+      }
+    }
+  }
+
 }
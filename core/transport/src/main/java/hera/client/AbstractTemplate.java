@@ -4,6 +4,7 @@
 
 package hera.client;
 
+import static hera.client.ClientContextKeys.GRPC_VALUE_RESPONSE_CACHE;
 import static hera.util.ValidationUtils.assertNotNull;
 import static java.util.Collections.emptyList;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -13,14 +14,27 @@ import hera.ContextHolder;
 import hera.ContextStorage;
 import hera.RequestMethod;
 import hera.Requester;
+import hera.api.function.Function1;
 import hera.exception.HerajException;
 import hera.exception.TransportExceptionConverter;
 import hera.util.ExceptionConverter;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 
 abstract class AbstractTemplate {
 
+  // for an immutable response like a block by hash
+  protected static final Function1<Object, Boolean> ALWAYS_CACHEABLE =
+      new Function1<Object, Boolean>() {
+        @Override
+        public Boolean apply(final Object response) {
+          return true;
+        }
+      };
+
   protected final transient Logger logger = getLogger(getClass());
 
   // not final for test
@@ -31,6 +45,9 @@ abstract class AbstractTemplate {
 
   protected final ContextStorage<Context> contextStorage;
 
+  // replaced when a context of a storage is changed
+  protected volatile ScopedContexts scopedContexts;
+
   AbstractTemplate(final ContextStorage<Context> contextStorage) {
     assertNotNull(contextStorage, "ContextStorage must not null");
     this.contextStorage = contextStorage;
@@ -41,18 +58,83 @@ abstract class AbstractTemplate {
   }
 
   protected <R> R request(final RequestMethod<R> requestMethod, final List<Object> parameters) {
-    try {
-      final Context context = contextStorage.get()
-          .withScope(requestMethod.getName());
+    final Context context = scopedContext(requestMethod.getName());
+    // restore rather than remove so that a thread local entry is reused on the next request
+    final Context previous = ContextHolder.attach(context);
+    if (logger.isTraceEnabled()) {
       logger.trace("Attach context {} to Thread {}", context, Thread.currentThread());
-      ContextHolder.attach(context);
+    }
+    try {
       return requester.request(requestMethod.toInvocation(parameters));
     } catch (Exception e) {
       throw exceptionConverter.convert(e);
     } finally {
-      final Context removed = ContextHolder.remove();
-      logger.trace("Remove context {} from Thread {}", removed, Thread.currentThread());
+      ContextHolder.attach(previous);
+      if (logger.isTraceEnabled()) {
+        logger.trace("Restore context {} to Thread {}", previous, Thread.currentThread());
+      }
     }
   }
 
+  /**
+   * Get a context of a storage with a scope. It's made once per a scope and reused as long as a
+   * context of a storage is the same.
+   *
+   * @param scope a scope
+   * @return a scoped context
+   */
+  protected Context scopedContext(final String scope) {
+    final Context base = contextStorage.get();
+    ScopedContexts scoped = this.scopedContexts;
+    if (null == scoped || scoped.base != base) {
+      scoped = new ScopedContexts(base);
+      this.scopedContexts = scoped;
+    }
+    Context context = scoped.scope2Context.get(scope);
+    if (null == context) {
+      context = base.withScope(scope);
+      scoped.scope2Context.put(scope, context);
+    }
+    return context;
+  }
+
+  /**
+   * Request through a response cache if configured. A non null response is cached only if it's
+   * immutable by {@code cacheable}.
+   *
+   * @param requestMethod a request method
+   * @param parameters    parameters of a request
+   * @param cacheable     a function deciding whether a response can be cached
+   * @param <R>           a response type
+   * @return a cached response or a requested one
+   */
+  @SuppressWarnings("unchecked")
+  protected <R> R cachedRequest(final RequestMethod<R> requestMethod,
+      final List<Object> parameters, final Function1<? super R, Boolean> cacheable) {
+    final ResponseCache cache = contextStorage.get().get(GRPC_VALUE_RESPONSE_CACHE);
+    if (null == cache) {
+      return request(requestMethod, parameters);
+    }
+
+    final String name = requestMethod.getName();
+    final Object cached = cache.get(name, parameters);
+    if (null != cached) {
+      logger.trace("Cache hit on {} with {}", name, parameters);
+      return (R) cached;
+    }
+    final R response = request(requestMethod, parameters);
+    if (null != response && cacheable.apply(response)) {
+      cache.put(name, parameters, response);
+    }
+    return response;
+  }
+
+  @RequiredArgsConstructor
+  private static class ScopedContexts {
+
+    protected final Context base;
+
+    protected final Map<String, Context> scope2Context = new ConcurrentHashMap<>();
+  }
+
 }
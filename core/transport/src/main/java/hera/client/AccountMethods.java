@@ -16,6 +16,7 @@ import static hera.client.Methods.ACCOUNT_VOTESOF;
 import static hera.client.Methods.ACCOUNT_VOTETX;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.protobuf.ByteString;
 import hera.RequestMethod;
 import hera.api.model.AccountAddress;
@@ -46,6 +47,8 @@ import java.util.LinkedList;
 import java.util.List;
 import lombok.Getter;
 import org.slf4j.Logger;
+import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.Blockchain;
 import types.Rpc;
 
@@ -71,37 +74,55 @@ class AccountMethods extends AbstractMethods {
   protected final TransactionMethods transactionMethods = new TransactionMethods();
 
   @Getter
-  protected final RequestMethod<AccountState> accountState = new RequestMethod<AccountState>() {
+  protected final RequestMethod<AccountState> accountState =
+      new UnaryRequestMethod<AccountState, Rpc.SingleBytes, Blockchain.State>() {
 
-    @Getter
-    protected final String name = ACCOUNT_STATE;
+        @Getter
+        protected final String name = ACCOUNT_STATE;
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, AccountAddress.class);
-    }
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, AccountAddress.class);
+        }
 
-    @Override
-    protected AccountState runInternal(final List<Object> parameters) throws Exception {
-      final AccountAddress accountAddress = (AccountAddress) parameters.get(0);
-      logger.debug("GetState with address: {}", accountAddress);
+        @Override
+        protected Rpc.SingleBytes toRpcRequest(final List<Object> parameters) {
+          final AccountAddress accountAddress = (AccountAddress) parameters.get(0);
+          logger.debug("GetState with address: {}", accountAddress);
 
-      final Rpc.SingleBytes rpcAddress = Rpc.SingleBytes.newBuilder()
-          .setValue(accountAddressConverter.convertToRpcModel(accountAddress))
-          .build();
-      logger.trace("AergoService getstate arg: {}", rpcAddress);
+          final Rpc.SingleBytes rpcAddress = Rpc.SingleBytes.newBuilder()
+              .setValue(accountAddressConverter.convertToRpcModel(accountAddress))
+              .build();
+          logger.trace("AergoService getstate arg: {}", rpcAddress);
+          return rpcAddress;
+        }
 
-      final Blockchain.State rpcState = getBlockingStub().getState(rpcAddress);
-      final AccountState withoutAddress = accountStateConverter.convertToDomainModel(rpcState);
-      return AccountState.newBuilder().address(accountAddress)
-          .nonce(withoutAddress.getNonce())
-          .balance(withoutAddress.getBalance())
-          .build();
-    }
-  };
+        @Override
+        protected Blockchain.State call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.SingleBytes rpcAddress) {
+          return blockingStub.getState(rpcAddress);
+        }
+
+        @Override
+        protected ListenableFuture<Blockchain.State> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.SingleBytes rpcAddress) {
+          return futureStub.getState(rpcAddress);
+        }
+
+        @Override
+        protected AccountState toDomainModel(final List<Object> parameters,
+            final Blockchain.State rpcState) {
+          final AccountAddress accountAddress = (AccountAddress) parameters.get(0);
+          final AccountState withoutAddress = accountStateConverter.convertToDomainModel(rpcState);
+          return AccountState.newBuilder().address(accountAddress)
+              .nonce(withoutAddress.getNonce())
+              .balance(withoutAddress.getBalance())
+              .build();
+        }
+      };
 
   @Getter
-  protected final RequestMethod<TxHash> createNameTx = new RequestMethod<TxHash>() {
+  protected final RequestMethod<TxHash> createNameTx = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = ACCOUNT_CREATENAMETX;
@@ -132,7 +153,7 @@ class AccountMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<TxHash> updateNameTx = new RequestMethod<TxHash>() {
+  protected final RequestMethod<TxHash> updateNameTx = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = ACCOUNT_UPDATENAMETX;
@@ -168,40 +189,41 @@ class AccountMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<AccountAddress> nameOwner = new RequestMethod<AccountAddress>() {
+  protected final RequestMethod<AccountAddress> nameOwner =
+      new TracedRequestMethod<AccountAddress>() {
 
-    @Getter
-    protected final String name = ACCOUNT_NAMEOWNER;
+        @Getter
+        protected final String name = ACCOUNT_NAMEOWNER;
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, Name.class);
-      validateType(parameters, 1, Long.class);
-      validateValue(((Long) parameters.get(1)) >= 0, "Block number must >= 0");
-    }
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, Name.class);
+          validateType(parameters, 1, Long.class);
+          validateValue(((Long) parameters.get(1)) >= 0, "Block number must >= 0");
+        }
 
-    @Override
-    protected AccountAddress runInternal(final List<Object> parameters) throws Exception {
-      final Name name = (Name) parameters.get(0);
-      final long blockNumber = (long) parameters.get(1);
-      logger.debug("Get name owner with name: {}, blockNumber: {}", name, blockNumber);
-
-      final Rpc.Name rpcName = Rpc.Name.newBuilder()
-          .setName(name.getValue())
-          .setBlockNo(blockNumber)
-          .build();
-      logger.trace("AergoService getNameInfo arg: {}", rpcName);
+        @Override
+        protected AccountAddress runInternal(final List<Object> parameters) throws Exception {
+          final Name name = (Name) parameters.get(0);
+          final long blockNumber = (long) parameters.get(1);
+          logger.debug("Get name owner with name: {}, blockNumber: {}", name, blockNumber);
+
+          final Rpc.Name rpcName = Rpc.Name.newBuilder()
+              .setName(name.getValue())
+              .setBlockNo(blockNumber)
+              .build();
+          logger.trace("AergoService getNameInfo arg: {}", rpcName);
 
-      final Rpc.NameInfo rpcNameInfo = getBlockingStub().getNameInfo(rpcName);
-      final AccountAddress converted = accountAddressConverter
-          .convertToDomainModel(rpcNameInfo.getOwner());
-      return BytesValue.EMPTY.equals(converted.getBytesValue()) ? null : converted;
-    }
+          final Rpc.NameInfo rpcNameInfo = getBlockingStub().getNameInfo(rpcName);
+          final AccountAddress converted = accountAddressConverter
+              .convertToDomainModel(rpcNameInfo.getOwner());
+          return BytesValue.EMPTY.equals(converted.getBytesValue()) ? null : converted;
+        }
 
-  };
+      };
 
   @Getter
-  protected final RequestMethod<TxHash> stakeTx = new RequestMethod<TxHash>() {
+  protected final RequestMethod<TxHash> stakeTx = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = ACCOUNT_STAKETX;
@@ -233,7 +255,7 @@ class AccountMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<TxHash> unstakeTx = new RequestMethod<TxHash>() {
+  protected final RequestMethod<TxHash> unstakeTx = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = ACCOUNT_UNSTAKETX;
@@ -266,7 +288,7 @@ class AccountMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<StakeInfo> stakeInfo = new RequestMethod<StakeInfo>() {
+  protected final RequestMethod<StakeInfo> stakeInfo = new TracedRequestMethod<StakeInfo>() {
 
     @Getter
     protected final String name = ACCOUNT_STAKEINFO;
@@ -297,7 +319,7 @@ class AccountMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<TxHash> voteTx = new RequestMethod<TxHash>() {
+  protected final RequestMethod<TxHash> voteTx = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = ACCOUNT_VOTETX;
@@ -335,7 +357,7 @@ class AccountMethods extends AbstractMethods {
 
   @Getter
   protected final RequestMethod<List<ElectedCandidate>> listElected =
-      new RequestMethod<List<ElectedCandidate>>() {
+      new TracedRequestMethod<List<ElectedCandidate>>() {
 
         @Getter
         protected final String name = ACCOUNT_LIST_ELECTED;
@@ -372,30 +394,32 @@ class AccountMethods extends AbstractMethods {
       };
 
   @Getter
-  protected final RequestMethod<AccountTotalVote> voteOf = new RequestMethod<AccountTotalVote>() {
+  protected final RequestMethod<AccountTotalVote> voteOf =
+      new TracedRequestMethod<AccountTotalVote>() {
 
-    @Getter
-    protected final String name = ACCOUNT_VOTESOF;
+        @Getter
+        protected final String name = ACCOUNT_VOTESOF;
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, AccountAddress.class);
-    }
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, AccountAddress.class);
+        }
 
-    @Override
-    protected AccountTotalVote runInternal(final List<Object> parameters) throws Exception {
-      final AccountAddress accountAddress = (AccountAddress) parameters.get(0);
-      logger.debug("Get votes with address: {}", accountAddress);
+        @Override
+        protected AccountTotalVote runInternal(final List<Object> parameters) throws Exception {
+          final AccountAddress accountAddress = (AccountAddress) parameters.get(0);
+          logger.debug("Get votes with address: {}", accountAddress);
 
-      final Rpc.AccountAddress rpcAddress = Rpc.AccountAddress.newBuilder()
-          .setValue(accountAddressConverter.convertToRpcModel(accountAddress))
-          .build();
-      logger.trace("AergoService getAccountVotes arg: {}", rpcAddress);
+          final Rpc.AccountAddress rpcAddress = Rpc.AccountAddress.newBuilder()
+              .setValue(accountAddressConverter.convertToRpcModel(accountAddress))
+              .build();
+          logger.trace("AergoService getAccountVotes arg: {}", rpcAddress);
 
-      final Rpc.AccountVoteInfo rpcAccountVoteTotal = getBlockingStub().getAccountVotes(rpcAddress);
-      return accountTotalVoteConverter.convertToDomainModel(rpcAccountVoteTotal);
-    }
+          final Rpc.AccountVoteInfo rpcAccountVoteTotal =
+              getBlockingStub().getAccountVotes(rpcAddress);
+          return accountTotalVoteConverter.convertToDomainModel(rpcAccountVoteTotal);
+        }
 
-  };
+      };
 
 }
@@ -4,6 +4,8 @@
 
 package hera.client;
 
+import static java.util.Collections.singletonList;
+
 import hera.Context;
 import hera.ContextStorage;
 import hera.api.AccountOperation;
@@ -38,7 +40,7 @@ class AccountTemplate extends AbstractTemplate implements AccountOperation {
 
   @Override
   public AccountState getState(final AccountAddress address) {
-    return request(accountMethods.getAccountState(), Arrays.<Object>asList(address));
+    return request(accountMethods.getAccountState(), singletonList(address));
   }
 
   @Override
@@ -131,7 +133,7 @@ class AccountTemplate extends AbstractTemplate implements AccountOperation {
 
   @Override
   public StakeInfo getStakeInfo(AccountAddress accountAddress) {
-    return request(accountMethods.getStakeInfo(), Arrays.<Object>asList(accountAddress));
+    return request(accountMethods.getStakeInfo(), singletonList(accountAddress));
   }
 
   @Override
@@ -148,7 +150,7 @@ class AccountTemplate extends AbstractTemplate implements AccountOperation {
 
   @Override
   public AccountTotalVote getVotesOf(final AccountAddress accountAddress) {
-    return request(accountMethods.getVoteOf(), Arrays.<Object>asList(accountAddress));
+    return request(accountMethods.getVoteOf(), singletonList(accountAddress));
   }
 
   @Override
@@ -28,6 +28,13 @@ public interface AergoClient extends AergoApi, Closeable {
    */
   void cacheChainIdHash(ChainIdHash chainIdHash);
 
+  /**
+   * Get statistics of a response cache. {@link CacheStats#EMPTY} if no cache is configured.
+   *
+   * @return cache statistics
+   */
+  CacheStats getCacheStats();
+
   void close();
 
 }
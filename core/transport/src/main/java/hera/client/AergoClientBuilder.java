@@ -5,12 +5,27 @@
 package hera.client;
 
 import static hera.client.ClientContextKeys.GRPC_CLIENT;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_CHANNEL_POOL;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_ENDPOINT;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_ENDPOINTS;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_HEALTH_CHECK;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_LOAD_BALANCE_POLICY;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_NEGOTIATION;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_STRATEGY;
 import static hera.client.ClientContextKeys.GRPC_FAILOVER_HANDLER_CHAIN;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_CIRCUIT_BREAKER;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_HEDGING;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_METRICS;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_RETRY_POLICY;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_SINGLE_FLIGHT;
 import static hera.client.ClientContextKeys.GRPC_REQUEST_TIMEOUT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TRACING;
 import static hera.client.ClientContextKeys.GRPC_VALUE_CHAIN_ID_HASH_HOLDER;
+import static hera.client.ClientContextKeys.GRPC_VALUE_METRICS_RECORDER;
+import static hera.client.ClientContextKeys.GRPC_VALUE_RESPONSE_CACHE;
+import static hera.client.ClientContextKeys.GRPC_VALUE_RETRY_BUDGET;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import hera.Context;
@@ -25,7 +40,6 @@ import hera.exception.HerajException;
 import hera.strategy.NettyConnectStrategy;
 import hera.strategy.OkHttpConnectStrategy;
 import hera.strategy.PlainTextChannelStrategy;
-import hera.strategy.TimeoutStrategy;
 import hera.strategy.TlsChannelStrategy;
 import java.io.FileInputStream;
 import java.io.InputStream;
@@ -46,6 +60,32 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
   protected final Map<Object, Object> key2Value = new HashMap<>();
   protected final List<ComparableFailoverHandler> failoverHandlers = new ArrayList<>();
 
+  // null if no default timeout
+  protected Time timeout;
+  protected final Map<String, Time> method2Timeout = new HashMap<>();
+
+  // null if no retry
+  protected RetryPolicy retryPolicy;
+  protected double retryBudgetRatio = 0.1d;
+  protected int retryBudgetMaxTokens = 100;
+
+  // null if no circuit breaker
+  protected CircuitBreakerConfig circuitBreakerConfig;
+  protected final List<CircuitBreakerListener> circuitBreakerListeners = new ArrayList<>();
+
+  // 0 if no response cache
+  protected long cacheMaxWeight = 0L;
+
+  // requests in flight are shared only within a client
+  protected boolean requestCoalescing = false;
+
+  // null if no metrics. a recorder is shared but a strategy is made for each client
+  protected MetricsRecorder metricsRecorder;
+
+  // null if no hedging. a strategy owns threads so it's made for each client
+  protected Time hedgingMinDelay;
+  protected double hedgingPercentile;
+
   {
     // add built-in holders
     key2Value.put(GRPC_VALUE_CHAIN_ID_HASH_HOLDER, new ChainIdHashHolder());
@@ -66,6 +106,154 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
     return this;
   }
 
+  /**
+   * Provide endpoints of aergo servers. eg. {@code localhost:7845}. Requests are spread across
+   * healthy ones by a {@link LoadBalancePolicy} while commits from the same account are always
+   * sent to the same endpoint. It overrides {@link #withEndpoint(String)}.
+   *
+   * @param endpoints aergo chain server endpoints
+   * @return an instance of this
+   */
+  public AergoClientBuilder withEndpoints(final String... endpoints) {
+    assertNotNull(endpoints, "Endpoints must not null");
+    if (0 == endpoints.length) {
+      throw new HerajException("Endpoints must not empty");
+    }
+    final List<HostnameAndPort> hostnameAndPorts = new ArrayList<>(endpoints.length);
+    for (final String endpoint : endpoints) {
+      assertNotNull(endpoint, "Endpoint must not null");
+      hostnameAndPorts.add(HostnameAndPort.of(endpoint));
+    }
+    this.key2Value.put(GRPC_CONNECTION_ENDPOINTS, hostnameAndPorts);
+    return this;
+  }
+
+  /**
+   * Use a load balance policy for multiple endpoints. Default is {@link RoundRobinPolicy}.
+   *
+   * @param loadBalancePolicy a load balance policy
+   * @return an instance of this
+   * @see RoundRobinPolicy
+   * @see LeastOutstandingPolicy
+   * @see EwmaLatencyPolicy
+   */
+  public AergoClientBuilder withLoadBalancePolicy(final LoadBalancePolicy loadBalancePolicy) {
+    assertNotNull(loadBalancePolicy, "Load balance policy must not null");
+    this.key2Value.put(GRPC_CONNECTION_LOAD_BALANCE_POLICY, loadBalancePolicy);
+    return this;
+  }
+
+  /**
+   * Use a pool of channels for each endpoint. A request is sent on a channel with the least calls
+   * in flight. A new channel is opened lazily when every channel has {@code maxCallsPerChannel}
+   * calls in flight (eg. a max concurrent streams of a server), and a channel opened that way is
+   * closed after being idle for {@code idleTimeout}. Default is a single channel per endpoint.
+   *
+   * @param maxChannels        a max number of channels per endpoint
+   * @param maxCallsPerChannel a number of calls in flight to open a new channel
+   * @param idleTimeout        an idle time to close a channel
+   * @param unit               a time unit of {@code idleTimeout}
+   * @return an instance of this
+   */
+  public AergoClientBuilder withChannelPool(final int maxChannels, final int maxCallsPerChannel,
+      final long idleTimeout, final TimeUnit unit) {
+    this.key2Value.put(GRPC_CONNECTION_CHANNEL_POOL,
+        new ChannelPoolConfig(maxChannels, maxCallsPerChannel, Time.of(idleTimeout, unit)));
+    return this;
+  }
+
+  /**
+   * Check health of every endpoint in background with {@code blockchain} and {@code nodeState}. An
+   * endpoint failing a check or behind the best one by more than {@code maxHeightLag} blocks is
+   * excluded from a selection, and a read failed by an unavailable node ({@code UNAVAILABLE} or
+   * {@code ABORTED}) is re-issued on the best scored endpoint within a retry budget if any.
+   *
+   * @param interval     an interval between checks
+   * @param unit         a time unit of {@code interval}
+   * @param maxHeightLag a max number of blocks an endpoint can be behind
+   * @return an instance of this
+   */
+  public AergoClientBuilder withHealthCheck(final long interval, final TimeUnit unit,
+      final long maxHeightLag) {
+    this.key2Value.put(GRPC_CONNECTION_HEALTH_CHECK,
+        new HealthCheckConfig(Time.of(interval, unit), maxHeightLag));
+    for (final ComparableFailoverHandler failoverHandler : this.failoverHandlers) {
+      if (failoverHandler instanceof HealthScoredFailoverHandler) {
+        return this;
+      }
+    }
+    this.failoverHandlers.add(new HealthScoredFailoverHandler());
+    return this;
+  }
+
+  /**
+   * Hedge an idempotent read request (eg. {@code getBlock}, {@code getReceipt} or {@code query}).
+   * If a request has not answered within a {@code percentile} latency of its method, a duplicate
+   * is sent to another endpoint and a faster one is taken. A latency is measured automatically
+   * and hedging starts after enough requests. It has no effect with a single endpoint.
+   *
+   * @param percentile a latency percentile in (0, 1) to hedge after (eg. 0.95)
+   * @param minDelay   a min delay before hedging
+   * @param unit       a time unit of {@code minDelay}
+   * @return an instance of this
+   */
+  public AergoClientBuilder withHedging(final double percentile, final long minDelay,
+      final TimeUnit unit) {
+    assertTrue(0.0d < percentile && percentile < 1.0d, "Percentile must be in (0, 1)");
+    assertNotNull(unit, "Time unit must not null");
+    this.hedgingPercentile = percentile;
+    this.hedgingMinDelay = Time.of(minDelay, unit);
+    return this;
+  }
+
+  /**
+   * Coalesce concurrent read requests with the same method and parameters (eg. {@code getState} of
+   * the same account). Only the first one is sent and the others share its response. A response is
+   * not cached after a request completes.
+   *
+   * @return an instance of this
+   */
+  public AergoClientBuilder withRequestCoalescing() {
+    this.requestCoalescing = true;
+    return this;
+  }
+
+  /**
+   * Guard each endpoint with a circuit breaker per method group (eg. block, transaction). A breaker
+   * opens when a failure rate of the latest {@code windowSize} calls reaches
+   * {@code failureRateThreshold}. While it's open, a request goes to another endpoint or fails
+   * fast with {@link hera.exception.CircuitBreakerOpenException}. After {@code openDuration}, a few
+   * trial calls decide whether to close it. Only {@code UNAVAILABLE} and {@code INTERNAL} count as
+   * a failure.
+   *
+   * @param windowSize           a number of the latest calls to calculate a failure rate with
+   * @param failureRateThreshold a failure rate in (0, 1] to open a breaker
+   * @param openDuration         a duration a breaker stays open
+   * @param unit                 a time unit of {@code openDuration}
+   * @return an instance of this
+   */
+  public AergoClientBuilder withCircuitBreaker(final int windowSize,
+      final double failureRateThreshold, final long openDuration, final TimeUnit unit) {
+    final CircuitBreakerConfig defaultConfig = CircuitBreakerConfig.DEFAULT;
+    this.circuitBreakerConfig = new CircuitBreakerConfig(windowSize,
+        Math.min(windowSize, defaultConfig.getMinCalls()), failureRateThreshold,
+        Time.of(openDuration, unit), defaultConfig.getHalfOpenCalls());
+    return this;
+  }
+
+  /**
+   * Add a listener notified on a state transition of a circuit breaker. It has no effect without
+   * {@link #withCircuitBreaker(int, double, long, TimeUnit)}.
+   *
+   * @param listener a circuit breaker listener
+   * @return an instance of this
+   */
+  public AergoClientBuilder withCircuitBreakerListener(final CircuitBreakerListener listener) {
+    assertNotNull(listener, "Listener must not null");
+    this.circuitBreakerListeners.add(listener);
+    return this;
+  }
+
   @Override
   public AergoClientBuilder withNonBlockingConnect() {
     this.key2Value.put(GRPC_CONNECTION_STRATEGY, new NettyConnectStrategy());
@@ -108,13 +296,123 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
 
   @Override
   public AergoClientBuilder withTimeout(final long timeout, final TimeUnit unit) {
-    this.key2Value.put(GRPC_REQUEST_TIMEOUT, new TimeoutStrategy(Time.of(timeout, unit)));
+    this.timeout = Time.of(timeout, unit);
+    return this;
+  }
+
+  /**
+   * Set a timeout of a specific request method. It overrides a default one set by
+   * {@link #withTimeout(long, TimeUnit)}. A timeout is applied as a grpc deadline on each call.
+   *
+   * @param methodName a request method name. See {@link Methods}
+   * @param timeout    a timeout
+   * @param unit       a time unit of {@code timeout}
+   * @return an instance of this
+   */
+  public AergoClientBuilder withTimeout(final String methodName, final long timeout,
+      final TimeUnit unit) {
+    assertNotNull(methodName, "Method name must not null");
+    this.method2Timeout.put(methodName, Time.of(timeout, unit));
     return this;
   }
 
   @Override
   public AergoClientBuilder withRetry(int count, long interval, TimeUnit unit) {
-    this.failoverHandlers.add(new JustRetryFailoverHandler(count, Time.of(interval, unit)));
+    this.retryPolicy = (0 < count)
+        ? RetryPolicy.of(count, Time.of(Math.max(0L, interval), unit)) : null;
+    return this;
+  }
+
+  /**
+   * Retry a request failed with a retryable grpc status (eg. {@code UNAVAILABLE}) up to
+   * {@code count} times. A delay between retries grows exponentially with jitter from
+   * {@code baseInterval} up to {@code maxInterval}.
+   *
+   * @param count        a max retry count
+   * @param baseInterval a base interval
+   * @param maxInterval  a max interval
+   * @param unit         a time unit of intervals
+   * @return an instance of this
+   */
+  public AergoClientBuilder withRetry(final int count, final long baseInterval,
+      final long maxInterval, final TimeUnit unit) {
+    this.retryPolicy = (0 < count) ? new RetryPolicy(count, Time.of(baseInterval, unit),
+        Time.of(maxInterval, unit), RetryPolicy.DEFAULT_RETRYABLE_CODES) : null;
+    return this;
+  }
+
+  /**
+   * Limit retries of a client to a {@code ratio} of successful requests. Each success earns
+   * {@code ratio} retry up to {@code maxTokens}. Default is 0.1 and 100.
+   *
+   * @param ratio     a ratio of retries to successes
+   * @param maxTokens a max number of retries saved
+   * @return an instance of this
+   */
+  public AergoClientBuilder withRetryBudget(final double ratio, final int maxTokens) {
+    assertTrue(0.0d < ratio, "Ratio must be positive");
+    assertTrue(0 < maxTokens, "Max tokens must be positive");
+    this.retryBudgetRatio = ratio;
+    this.retryBudgetMaxTokens = maxTokens;
+    return this;
+  }
+
+  /**
+   * Cache immutable responses up to {@code maxWeight} bytes: a block and its metadata by hash, a
+   * transaction confirmed in a block and a receipt. A least recently used one is evicted first. A
+   * weight is estimated from a size of a response (eg. payloads of transactions in a block). A
+   * response by height or a transaction in a mempool is never cached. Statistics are available by
+   * {@link AergoClient#getCacheStats()}.
+   *
+   * @param maxWeight a max weight of cached responses in bytes
+   * @return an instance of this
+   */
+  public AergoClientBuilder withCache(final long maxWeight) {
+    assertTrue(0L < maxWeight, "Max weight must be positive");
+    this.cacheMaxWeight = maxWeight;
+    return this;
+  }
+
+  /**
+   * Record client side metrics on a recorder: a latency, an in-flight count and a failure of every
+   * attempt of a request, retries and failovers, bytes of grpc messages and a lag and a buffer
+   * depth of a flow controlled subscription. Use {@link DefaultMetricsRecorder} and take a
+   * snapshot by {@link DefaultMetricsRecorder#getSnapshot()}, or plug in a custom one.
+   *
+   * @param metricsRecorder a metrics recorder
+   * @return an instance of this
+   */
+  public AergoClientBuilder withMetrics(final MetricsRecorder metricsRecorder) {
+    assertNotNull(metricsRecorder, "Metrics recorder must not null");
+    this.metricsRecorder = metricsRecorder;
+    return this;
+  }
+
+  /**
+   * Trace a ratio of requests on a tracer. See {@link #withTracing(RequestTracer, TraceSampler)}.
+   *
+   * @param requestTracer a request tracer
+   * @param sampleRatio   a ratio of requests to trace in [0, 1]
+   * @return an instance of this
+   */
+  public AergoClientBuilder withTracing(final RequestTracer requestTracer,
+      final double sampleRatio) {
+    return withTracing(requestTracer, new RatioTraceSampler(sampleRatio));
+  }
+
+  /**
+   * Trace requests sampled by a sampler on a tracer. A trace has a span of each phase of every
+   * attempt: validating parameters, converting a request, queueing for a transport, a network round
+   * trip and converting a response. Handling a failure by failover handlers is a span of its own.
+   * So a slow request can be told whether it's slow by converters, a failover chain or a node.
+   *
+   * @param requestTracer a request tracer
+   * @param traceSampler  a trace sampler
+   * @return an instance of this
+   */
+  public AergoClientBuilder withTracing(final RequestTracer requestTracer,
+      final TraceSampler traceSampler) {
+    this.key2Value.put(GRPC_REQUEST_TRACING, new TracingStrategy(requestTracer, traceSampler));
     return this;
   }
 
@@ -130,6 +428,18 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
     return new AergoClientImpl(contextStorage);
   }
 
+  /**
+   * Build {@link AsyncAergoClient} with the current context.
+   *
+   * @return {@link AsyncAergoClient}
+   */
+  public AsyncAergoClient buildAsync() {
+    final Context context = initContext();
+    logger.trace("Init context: {}", context);
+    final ContextStorage<Context> contextStorage = new UnmodifiableContextStorage(context);
+    return new AsyncAergoClientImpl(contextStorage);
+  }
+
   @SuppressWarnings("unchecked")
   protected Context initContext() {
     Context context = EmptyContext.getInstance();
@@ -140,8 +450,42 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
       context = context.withValue(key, entry.getValue());
     }
 
+    // request timeout as grpc deadline
+    if (null != timeout || !method2Timeout.isEmpty()) {
+      context = context.withValue(GRPC_REQUEST_TIMEOUT,
+          new DeadlineStrategy(timeout, method2Timeout));
+    }
+
+    if (null != hedgingMinDelay) {
+      context = context.withValue(GRPC_REQUEST_HEDGING,
+          new HedgingStrategy(hedgingPercentile, hedgingMinDelay));
+    }
+
+    if (null != circuitBreakerConfig) {
+      context = context.withValue(GRPC_REQUEST_CIRCUIT_BREAKER,
+          new CircuitBreakerStrategy(circuitBreakerConfig, circuitBreakerListeners));
+    }
+
     // failover handlers have priority
-    final FailoverHandlerChain failoverHandlerChain = new FailoverHandlerChain(failoverHandlers);
+    final List<ComparableFailoverHandler> handlers = new ArrayList<>(failoverHandlers);
+    if (null != retryPolicy) {
+      handlers.add(new JustRetryFailoverHandler(retryPolicy));
+      context = context.withValue(GRPC_REQUEST_RETRY_POLICY, retryPolicy);
+      // a budget is shared by all requests of a client
+      context = context.withValue(GRPC_VALUE_RETRY_BUDGET,
+          new RetryBudget(retryBudgetRatio, retryBudgetMaxTokens));
+    }
+    if (0L < cacheMaxWeight) {
+      context = context.withValue(GRPC_VALUE_RESPONSE_CACHE, new ResponseCache(cacheMaxWeight));
+    }
+    if (requestCoalescing) {
+      context = context.withValue(GRPC_REQUEST_SINGLE_FLIGHT, new SingleFlight());
+    }
+    if (null != metricsRecorder) {
+      context = context.withValue(GRPC_VALUE_METRICS_RECORDER, metricsRecorder);
+      context = context.withValue(GRPC_REQUEST_METRICS, new MetricsStrategy(metricsRecorder));
+    }
+    final FailoverHandlerChain failoverHandlerChain = new FailoverHandlerChain(handlers);
     context = context.withValue(GRPC_FAILOVER_HANDLER_CHAIN, failoverHandlerChain);
 
     // init grpc client
@@ -6,7 +6,9 @@
 package hera.client;
 
 import static hera.client.ClientContextKeys.GRPC_CLIENT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_HEDGING;
 import static hera.client.ClientContextKeys.GRPC_VALUE_CHAIN_ID_HASH_HOLDER;
+import static hera.client.ClientContextKeys.GRPC_VALUE_RESPONSE_CACHE;
 import static hera.util.ValidationUtils.assertNotNull;
 
 import hera.Context;
@@ -19,6 +21,7 @@ import hera.api.KeyStoreOperation;
 import hera.api.TransactionOperation;
 import hera.api.model.ChainIdHash;
 import hera.exception.HerajException;
+import hera.strategy.InvocationStrategy;
 import lombok.Getter;
 
 class AergoClientImpl implements AergoClient {
@@ -69,10 +72,20 @@ class AergoClientImpl implements AergoClient {
     chainIdHashHolder.put(chainIdHash);
   }
 
+  @Override
+  public CacheStats getCacheStats() {
+    final ResponseCache responseCache = contextStorage.get().get(GRPC_VALUE_RESPONSE_CACHE);
+    return null == responseCache ? CacheStats.EMPTY : responseCache.getStats();
+  }
+
   @Override
   public void close() {
     try {
       final Context context = contextStorage.get();
+      final InvocationStrategy hedging = context.get(GRPC_REQUEST_HEDGING);
+      if (hedging instanceof HedgingStrategy) {
+        ((HedgingStrategy) hedging).close();
+      }
       final GrpcClient grpcClient = context.get(GRPC_CLIENT);
       if (null == grpcClient) {
         throw new HerajException("No grpc client");
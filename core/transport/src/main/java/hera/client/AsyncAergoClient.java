@@ -0,0 +1,152 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockMetadata;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractInterface;
+import hera.api.model.ContractInvocation;
+import hera.api.model.ContractResult;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.Transaction;
+import hera.api.model.TxHash;
+import hera.api.model.TxReceipt;
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A non-blocking aergo client. Every operation returns immediately with a
+ * {@link CompletableFuture} which is completed by the grpc transport thread once a response
+ * arrives. Completion callbacks run on that thread, so do not block in them.
+ *
+ * <p>
+ * Requests are converted by the same code as the ones of {@link AergoClient}. Metrics, circuit
+ * breakers, tracing, a timeout and a retry policy configured on {@link AergoClientBuilder} apply
+ * to every attempt, while hedging and request coalescing apply to {@link AergoClient} only.
+ * </p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface AsyncAergoClient extends Closeable {
+
+  /**
+   * Get account state.
+   *
+   * @param accountAddress an account address
+   * @return a future of an account state
+   */
+  CompletableFuture<AccountState> getAccountState(AccountAddress accountAddress);
+
+  /**
+   * Get blockchain status.
+   *
+   * @return a future of a blockchain status
+   */
+  CompletableFuture<BlockchainStatus> getBlockchainStatus();
+
+  /**
+   * Get block metadata. The future is completed with null if no corresponding one.
+   *
+   * @param blockHash a block hash
+   * @return a future of a block metadata
+   */
+  CompletableFuture<BlockMetadata> getBlockMetadata(BlockHash blockHash);
+
+  /**
+   * Get block metadata. The future is completed with null if no corresponding one.
+   *
+   * @param height a block height
+   * @return a future of a block metadata
+   */
+  CompletableFuture<BlockMetadata> getBlockMetadata(long height);
+
+  /**
+   * Get block. The future is completed with null if no corresponding one.
+   *
+   * @param blockHash a block hash
+   * @return a future of a block
+   */
+  CompletableFuture<Block> getBlock(BlockHash blockHash);
+
+  /**
+   * Get block. The future is completed with null if no corresponding one.
+   *
+   * @param height a block height
+   * @return a future of a block
+   */
+  CompletableFuture<Block> getBlock(long height);
+
+  /**
+   * Get transaction. A transaction in a block is looked up first and then the one in a mempool.
+   * The future is completed with null if no corresponding one.
+   *
+   * @param txHash a transaction hash
+   * @return a future of a transaction
+   */
+  CompletableFuture<Transaction> getTransaction(TxHash txHash);
+
+  /**
+   * Get tx receipt. The future is completed with null if no corresponding one.
+   *
+   * @param txHash a transaction hash
+   * @return a future of a tx receipt
+   */
+  CompletableFuture<TxReceipt> getTxReceipt(TxHash txHash);
+
+  /**
+   * Get contract tx receipt. The future is completed with null if no corresponding one.
+   *
+   * @param txHash a contract transaction hash
+   * @return a future of a contract tx receipt
+   */
+  CompletableFuture<ContractTxReceipt> getContractTxReceipt(TxHash txHash);
+
+  /**
+   * Get contract interface. The future is completed with null if no corresponding one.
+   *
+   * @param contractAddress a contract address
+   * @return a future of a contract interface
+   */
+  CompletableFuture<ContractInterface> getContractInterface(ContractAddress contractAddress);
+
+  /**
+   * Query a smart contract.
+   *
+   * @param contractInvocation a contract invocation
+   * @return a future of a contract result
+   */
+  CompletableFuture<ContractResult> query(ContractInvocation contractInvocation);
+
+  /**
+   * List events with a filter.
+   *
+   * @param filter an event filter
+   * @return a future of events
+   */
+  CompletableFuture<List<Event>> listEvents(EventFilter filter);
+
+  /**
+   * Commit a signed transaction. The future is completed exceptionally with
+   * {@link hera.exception.CommitException} if the node rejects it.
+   *
+   * @param transaction a signed transaction
+   * @return a future of a transaction hash
+   */
+  CompletableFuture<TxHash> commit(Transaction transaction);
+
+  @Override
+  void close();
+
+}
@@ -0,0 +1,491 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.client.ClientContextKeys.GRPC_CLIENT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ATTEMPT_TRACE;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_CIRCUIT_BREAKER;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT_GUARD;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_HEDGING;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_METRICS;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_RETRY_POLICY;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ROUTING_KEY;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TIMEOUT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TRACING;
+import static hera.client.ClientContextKeys.GRPC_VALUE_RETRY_BUDGET;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.Context;
+import hera.ContextHolder;
+import hera.ContextStorage;
+import hera.RequestMethod;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockMetadata;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractInterface;
+import hera.api.model.ContractInvocation;
+import hera.api.model.ContractResult;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.Time;
+import hera.api.model.Transaction;
+import hera.api.model.TxHash;
+import hera.api.model.TxReceipt;
+import hera.exception.HerajException;
+import hera.exception.TransportExceptionConverter;
+import hera.strategy.InvocationStrategy;
+import hera.util.ExceptionConverter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import lombok.Getter;
+import org.slf4j.Logger;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
+
+class AsyncAergoClientImpl implements AsyncAergoClient {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ExceptionConverter<HerajException> exceptionConverter =
+      new TransportExceptionConverter();
+
+  protected final AccountMethods accountMethods = new AccountMethods();
+
+  protected final BlockchainMethods blockchainMethods = new BlockchainMethods();
+
+  protected final BlockMethods blockMethods = new BlockMethods();
+
+  protected final TransactionMethods transactionMethods = new TransactionMethods();
+
+  protected final ContractMethods contractMethods = new ContractMethods();
+
+  protected final ContextStorage<Context> contextStorage;
+
+  // created lazily on the first retry
+  protected volatile ScheduledExecutorService retryScheduler;
+
+  AsyncAergoClientImpl(final ContextStorage<Context> contextStorage) {
+    assertNotNull(contextStorage, "ContextStorage must not null");
+    this.contextStorage = contextStorage;
+  }
+
+  @Override
+  public CompletableFuture<AccountState> getAccountState(final AccountAddress accountAddress) {
+    assertNotNull(accountAddress, "Account address must not null");
+    return request(accountMethods.getAccountState(), Arrays.<Object>asList(accountAddress));
+  }
+
+  @Override
+  public CompletableFuture<BlockchainStatus> getBlockchainStatus() {
+    return request(blockchainMethods.getBlockchainStatus(), Collections.<Object>emptyList());
+  }
+
+  @Override
+  public CompletableFuture<BlockMetadata> getBlockMetadata(final BlockHash blockHash) {
+    assertNotNull(blockHash, "Block hash must not null");
+    return request(blockMethods.getBlockMetadataByHash(), Arrays.<Object>asList(blockHash));
+  }
+
+  @Override
+  public CompletableFuture<BlockMetadata> getBlockMetadata(final long height) {
+    assertTrue(height >= 0, "Height must >= 0");
+    return request(blockMethods.getBlockMetadataByHeight(), Arrays.<Object>asList(height));
+  }
+
+  @Override
+  public CompletableFuture<Block> getBlock(final BlockHash blockHash) {
+    assertNotNull(blockHash, "Block hash must not null");
+    return request(blockMethods.getBlockByHash(), Arrays.<Object>asList(blockHash));
+  }
+
+  @Override
+  public CompletableFuture<Block> getBlock(final long height) {
+    assertTrue(height >= 0, "Height must >= 0");
+    return request(blockMethods.getBlockByHeight(), Arrays.<Object>asList(height));
+  }
+
+  @Override
+  public CompletableFuture<Transaction> getTransaction(final TxHash txHash) {
+    assertNotNull(txHash, "Tx hash must not null");
+    final List<Object> parameters = Arrays.<Object>asList(txHash);
+    // fallback to mempool only when there is no one in a block
+    return request(transactionMethods.getTransactionInBlock(), parameters).thenCompose(
+        new Function<Transaction, CompletionStage<Transaction>>() {
+          @Override
+          public CompletionStage<Transaction> apply(final Transaction transaction) {
+            if (null != transaction) {
+              return CompletableFuture.completedFuture(transaction);
+            }
+            return request(transactionMethods.getTransactionInMemPool(), parameters);
+          }
+        });
+  }
+
+  @Override
+  public CompletableFuture<TxReceipt> getTxReceipt(final TxHash txHash) {
+    assertNotNull(txHash, "Tx hash must not null");
+    return request(transactionMethods.getTxReceipt(), Arrays.<Object>asList(txHash));
+  }
+
+  @Override
+  public CompletableFuture<ContractTxReceipt> getContractTxReceipt(final TxHash txHash) {
+    assertNotNull(txHash, "Tx hash must not null");
+    return request(contractMethods.getContractTxReceipt(), Arrays.<Object>asList(txHash));
+  }
+
+  @Override
+  public CompletableFuture<ContractInterface> getContractInterface(
+      final ContractAddress contractAddress) {
+    assertNotNull(contractAddress, "Contract address must not null");
+    return request(contractMethods.getContractInterface(),
+        Arrays.<Object>asList(contractAddress));
+  }
+
+  @Override
+  public CompletableFuture<ContractResult> query(final ContractInvocation contractInvocation) {
+    assertNotNull(contractInvocation, "Contract invocation must not null");
+    return request(contractMethods.getQuery(), Arrays.<Object>asList(contractInvocation));
+  }
+
+  @Override
+  public CompletableFuture<List<Event>> listEvents(final EventFilter filter) {
+    assertNotNull(filter, "Event filter must not null");
+    return request(contractMethods.getListEvent(), Arrays.<Object>asList(filter));
+  }
+
+  @Override
+  public CompletableFuture<TxHash> commit(final Transaction transaction) {
+    assertNotNull(transaction, "Transaction must not null");
+    // routed by a sender to keep nonce order on a single node
+    return request(transactionMethods.getCommit(), Arrays.<Object>asList(transaction));
+  }
+
+  @Override
+  public void close() {
+    if (null != retryScheduler) {
+      retryScheduler.shutdownNow();
+    }
+    final InvocationStrategy hedging = contextStorage.get().get(GRPC_REQUEST_HEDGING);
+    if (hedging instanceof HedgingStrategy) {
+      ((HedgingStrategy) hedging).close();
+    }
+    try {
+      getGrpcClient(contextStorage.get()).close();
+    } catch (HerajException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HerajException(e);
+    }
+  }
+
+  /**
+   * Make a request of a request method shared with a blocking client on a future stub. A request
+   * is validated and converted once by the first attempt on a caller thread and a response is
+   * converted on a thread completing a grpc call.
+   *
+   * @param requestMethod a request method making a single unary call
+   * @param parameters    parameters of a request
+   * @param <T>           a domain model type
+   * @return a completable future of a domain model
+   */
+  protected <T> CompletableFuture<T> request(final RequestMethod<T> requestMethod,
+      final List<Object> parameters) {
+    if (!(requestMethod instanceof AbstractMethods.UnaryRequestMethod)) {
+      return failedFuture(new HerajException("Not an unary request method: " + requestMethod));
+    }
+    return requestUnary((AbstractMethods.UnaryRequestMethod<T, ?, ?>) requestMethod, parameters);
+  }
+
+  protected <T, ReqT, RespT> CompletableFuture<T> requestUnary(
+      final AbstractMethods.UnaryRequestMethod<T, ReqT, RespT> requestMethod,
+      final List<Object> parameters) {
+    final AsyncRequest<T, ReqT, RespT> asyncRequest =
+        new AsyncRequest<>(contextStorage.get(), requestMethod, parameters);
+    asyncRequest.attempt();
+    return asyncRequest.getFuture();
+  }
+
+  protected GrpcClient getGrpcClient(final Context context) {
+    final GrpcClient grpcClient = context.get(GRPC_CLIENT);
+    if (null == grpcClient) {
+      throw new HerajException("No grpc client in context");
+    }
+    return grpcClient;
+  }
+
+  protected ScheduledExecutorService getRetryScheduler() {
+    if (null == retryScheduler) {
+      synchronized (this) {
+        if (null == retryScheduler) {
+          retryScheduler = Executors.newSingleThreadScheduledExecutor(
+              new DaemonThreadFactory("heraj-async-retry"));
+        }
+      }
+    }
+    return retryScheduler;
+  }
+
+  protected <T> CompletableFuture<T> failedFuture(final Throwable e) {
+    final CompletableFuture<T> failed = new CompletableFuture<>();
+    failed.completeExceptionally(exceptionConverter.convert(e));
+    return failed;
+  }
+
+  /**
+   * A request in flight. Every attempt is recorded on a {@link MetricsRecorder}, guarded by a
+   * {@link CircuitBreakerStrategy} and traced by a {@link TracingStrategy} as a blocking request
+   * decorated by them is. If a {@link RetryPolicy} is configured, an attempt failed with a
+   * retryable status is made again after a backoff as long as a {@link RetryBudget} allows.
+   * Attempts are made one after another, so a state of retries is touched by one thread at once.
+   */
+  private class AsyncRequest<T, ReqT, RespT> {
+
+    protected final Context context;
+
+    protected final AbstractMethods.UnaryRequestMethod<T, ReqT, RespT> requestMethod;
+
+    protected final String methodName;
+
+    protected final List<Object> parameters;
+
+    // validated and converted on the first attempt. null until then
+    protected ReqT request;
+
+    protected final RetryPolicy retryPolicy;
+
+    protected final RetryBudget retryBudget;
+
+    protected final MetricsRecorder metricsRecorder;
+
+    protected final CircuitBreakerStrategy circuitBreaker;
+
+    protected final TracingStrategy tracing;
+
+    protected final TraceRecorder recorder;
+
+    // a future of an attempt in flight
+    protected final AtomicReference<ListenableFuture<RespT>> current = new AtomicReference<>();
+
+    @Getter
+    protected final CompletableFuture<T> future = new CompletableFuture<T>() {
+      @Override
+      public boolean cancel(final boolean mayInterruptIfRunning) {
+        final ListenableFuture<RespT> inFlight = current.get();
+        if (null != inFlight) {
+          inFlight.cancel(mayInterruptIfRunning);
+        }
+        return super.cancel(mayInterruptIfRunning);
+      }
+    };
+
+    protected int retried = 0;
+
+    protected long previousDelay = 0L;
+
+    // in System.nanoTime(). -1 if never failed
+    protected long failoverStartedAt = -1L;
+
+    AsyncRequest(final Context context,
+        final AbstractMethods.UnaryRequestMethod<T, ReqT, RespT> requestMethod,
+        final List<Object> parameters) {
+      this.context = context;
+      this.requestMethod = requestMethod;
+      this.methodName = requestMethod.getName();
+      this.parameters = parameters;
+      this.retryPolicy = context.get(GRPC_REQUEST_RETRY_POLICY);
+      this.retryBudget = context.get(GRPC_VALUE_RETRY_BUDGET);
+      final InvocationStrategy metrics = context.get(GRPC_REQUEST_METRICS);
+      this.metricsRecorder = (metrics instanceof MetricsStrategy)
+          ? ((MetricsStrategy) metrics).getMetricsRecorder() : null;
+      final InvocationStrategy breaker = context.get(GRPC_REQUEST_CIRCUIT_BREAKER);
+      this.circuitBreaker = (breaker instanceof CircuitBreakerStrategy)
+          ? (CircuitBreakerStrategy) breaker : null;
+      this.tracing = context.get(GRPC_REQUEST_TRACING);
+      this.recorder = (null != tracing) ? tracing.startTrace(methodName) : null;
+    }
+
+    void attempt() {
+      if (future.isDone()) {
+        return;
+      }
+      final AttemptTrace attemptTrace = (null != recorder) ? recorder.newAttempt() : null;
+      final CircuitBreakerStrategy.Guard guard = (null != circuitBreaker)
+          ? circuitBreaker.newGuard(methodName) : null;
+      if (null != metricsRecorder) {
+        metricsRecorder.onRequestStart(methodName);
+      }
+      final long startedAt = System.nanoTime();
+      final ListenableFuture<RespT> listenableFuture;
+      try {
+        listenableFuture = call(guard, attemptTrace);
+      } catch (Throwable e) {
+        onAttemptEnd(startedAt, guard, attemptTrace, e);
+        complete(null, exceptionConverter.convert(e));
+        return;
+      }
+      current.set(listenableFuture);
+      if (future.isCancelled()) {
+        listenableFuture.cancel(false);
+      }
+      // added even if cancelled to end an attempt
+      Futures.addCallback(listenableFuture, new FutureCallback<RespT>() {
+        @Override
+        public void onSuccess(final RespT response) {
+          T value = null;
+          Throwable error = null;
+          try {
+            value = requestMethod.toDomainModel(parameters, response);
+          } catch (Throwable e) {
+            error = e;
+          }
+          onAttemptEnd(startedAt, guard, attemptTrace, error);
+          if (null == error && null != retryBudget) {
+            retryBudget.onSuccess();
+          }
+          complete(value, (null != error) ? exceptionConverter.convert(error) : null);
+        }
+
+        @Override
+        public void onFailure(final Throwable t) {
+          if (requestMethod.isNotFound(t)) {
+            // an endpoint has answered there is no corresponding one
+            onAttemptEnd(startedAt, guard, attemptTrace, null);
+            if (null != retryBudget) {
+              retryBudget.onSuccess();
+            }
+            complete(null, null);
+            return;
+          }
+          onAttemptEnd(startedAt, guard, attemptTrace, t);
+          if (!retry(t)) {
+            complete(null, exceptionConverter.convert(t));
+          }
+        }
+      }, directExecutor());
+    }
+
+    // selects an endpoint and makes a call with a context of an attempt
+    protected ListenableFuture<RespT> call(final EndpointGuard guard,
+        final AttemptTrace attemptTrace) {
+      final Object routingKey = requestMethod.getRoutingKey(parameters);
+      Context attempt = context;
+      if (null != routingKey) {
+        attempt = attempt.withValue(GRPC_REQUEST_ROUTING_KEY, routingKey);
+      }
+      if (null != guard) {
+        attempt = attempt.withValue(GRPC_REQUEST_ENDPOINT_GUARD, guard);
+      }
+      if (null != attemptTrace) {
+        attempt = attempt.withValue(GRPC_REQUEST_ATTEMPT_TRACE, attemptTrace);
+      }
+      // grpc client reads connection configuration from an attached context on lazy init
+      final Context previous = ContextHolder.attach(attempt);
+      try {
+        if (null == request) {
+          request = requestMethod.prepare(parameters);
+        }
+        return requestMethod.callAsync(withTimeout(getGrpcClient(context).getFutureStub()),
+            request);
+      } finally {
+        ContextHolder.attach(previous);
+      }
+    }
+
+    protected AergoRPCServiceFutureStub withTimeout(final AergoRPCServiceFutureStub futureStub) {
+      final InvocationStrategy timeoutStrategy = context.get(GRPC_REQUEST_TIMEOUT);
+      if (!(timeoutStrategy instanceof DeadlineStrategy)) {
+        return futureStub;
+      }
+      final Time timeout = ((DeadlineStrategy) timeoutStrategy).getTimeout(methodName);
+      return null != timeout ? futureStub.withDeadlineAfter(timeout.getValue(), timeout.getUnit())
+          : futureStub;
+    }
+
+    protected void onAttemptEnd(final long startedAt, final CircuitBreakerStrategy.Guard guard,
+        final AttemptTrace attemptTrace, final Throwable error) {
+      if (null != guard) {
+        if (null == error) {
+          guard.onSuccess();
+        } else {
+          guard.onError((error instanceof Exception) ? (Exception) error
+              : new HerajException(error));
+        }
+      }
+      if (null != metricsRecorder) {
+        metricsRecorder.onRequestEnd(methodName, System.nanoTime() - startedAt, error);
+      }
+      if (null != attemptTrace) {
+        attemptTrace.finish();
+      }
+    }
+
+    protected boolean retry(final Throwable error) {
+      if (null == retryPolicy || retried >= retryPolicy.getMaxRetries() || future.isDone()
+          || !retryPolicy.isRetryable(error)
+          || (null != retryBudget && !retryBudget.tryAcquire())) {
+        return false;
+      }
+      final long delay = retryPolicy.nextDelay(previousDelay);
+      logger.debug("Retry async request after {}ms ({}/{}) by {}", delay, retried + 1,
+          retryPolicy.getMaxRetries(), error.toString());
+      if (failoverStartedAt < 0L) {
+        failoverStartedAt = System.nanoTime();
+      }
+      ++retried;
+      previousDelay = delay;
+      if (null != metricsRecorder) {
+        metricsRecorder.onRetry(methodName);
+      }
+      try {
+        getRetryScheduler().schedule(new Runnable() {
+          @Override
+          public void run() {
+            attempt();
+          }
+        }, delay, TimeUnit.MILLISECONDS);
+        return true;
+      } catch (RejectedExecutionException e) {
+        // closed while retrying
+        logger.debug("Retry rejected by {}", e.toString());
+        return false;
+      }
+    }
+
+    protected void complete(final T value, final Throwable error) {
+      // a trace is finished first so that it's recorded once a caller gets a result
+      if (null != recorder && !future.isDone()) {
+        if (0L <= failoverStartedAt) {
+          recorder.addSpan(TracePhase.FAILOVER, -1, failoverStartedAt, System.nanoTime());
+        }
+        tracing.finishTrace(recorder, null == error);
+      }
+      if (null == error) {
+        future.complete(value);
+      } else {
+        future.completeExceptionally(error);
+      }
+    }
+  }
+
+}
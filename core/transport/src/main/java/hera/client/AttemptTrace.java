@@ -0,0 +1,74 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+/**
+ * Marks of an attempt of a sampled request. Validation is marked by a {@link TracedRequestMethod}
+ * and marks of a call are set by a {@link TracingInterceptor} on grpc threads. They're turned into
+ * spans on {@link #finish()}. If an attempt makes more than one call, the first one starts and the
+ * last one ends a network phase.
+ */
+class AttemptTrace {
+
+  protected final TraceRecorder recorder;
+
+  protected final int attempt;
+
+  protected final long startedAt = System.nanoTime();
+
+  // in System.nanoTime(). -1 if not reached
+  protected volatile long validatedAt = -1L;
+  protected volatile long callStartedAt = -1L;
+  protected volatile long streamCreatedAt = -1L;
+  protected volatile long closedAt = -1L;
+
+  AttemptTrace(final TraceRecorder recorder, final int attempt) {
+    this.recorder = recorder;
+    this.attempt = attempt;
+  }
+
+  void onValidated() {
+    if (validatedAt < 0L) {
+      validatedAt = System.nanoTime();
+    }
+  }
+
+  void onCallStarted() {
+    if (callStartedAt < 0L) {
+      callStartedAt = System.nanoTime();
+    }
+  }
+
+  void onStreamCreated() {
+    if (streamCreatedAt < 0L) {
+      streamCreatedAt = System.nanoTime();
+    }
+  }
+
+  void onClosed() {
+    closedAt = System.nanoTime();
+  }
+
+  /**
+   * Finish an attempt and add spans of reached phases to a recorder.
+   */
+  void finish() {
+    final long finishedAt = System.nanoTime();
+    final long validated = validatedAt;
+    final long callStarted = callStartedAt;
+    final long streamCreated = streamCreatedAt;
+    final long closed = closedAt;
+    recorder.addSpan(TracePhase.VALIDATION, attempt, startedAt, validated);
+    // a retried asynchronous attempt reuses a request validated and converted once
+    recorder.addSpan(TracePhase.REQUEST_CONVERSION, attempt,
+        (0L <= validated) ? validated : startedAt, callStarted);
+    // a call closed without a stream has waited until it's closed
+    recorder.addSpan(TracePhase.QUEUEING, attempt, callStarted,
+        (0L <= streamCreated) ? streamCreated : closed);
+    recorder.addSpan(TracePhase.NETWORK, attempt, streamCreated, closed);
+    recorder.addSpan(TracePhase.RESPONSE_CONVERSION, attempt, closed, finishedAt);
+  }
+
+}
@@ -12,13 +12,18 @@ import static hera.client.Methods.BLOCK_METADATA_BY_HASH;
 import static hera.client.Methods.BLOCK_METADATA_BY_HEIGHT;
 import static hera.client.Methods.BLOCK_SUBSCRIBE_BLOCK;
 import static hera.client.Methods.BLOCK_SUBSCRIBE_BLOCKMETADATA;
+import static hera.client.Methods.BLOCK_SUBSCRIBE_BLOCKMETADATA_FLOW_CONTROLLED;
+import static hera.client.Methods.BLOCK_SUBSCRIBE_BLOCK_FLOW_CONTROLLED;
 import static hera.util.TransportUtils.copyFrom;
 import static java.util.Collections.emptyList;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import hera.RequestMethod;
 import hera.api.model.Block;
 import hera.api.model.BlockHash;
 import hera.api.model.BlockMetadata;
+import hera.api.model.FlowControl;
+import hera.api.model.FlowControlledSubscription;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.transport.BlockConverterFactory;
@@ -30,6 +35,8 @@ import io.grpc.StatusRuntimeException;
 import java.util.LinkedList;
 import java.util.List;
 import lombok.Getter;
+import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.Blockchain;
 import types.Rpc;
 
@@ -43,18 +50,21 @@ class BlockMethods extends AbstractMethods {
 
   @Getter
   protected final RequestMethod<BlockMetadata> blockMetadataByHash =
-      new RequestMethod<BlockMetadata>() {
+      new UnaryRequestMethod<BlockMetadata, Rpc.SingleBytes, Rpc.BlockMetadata>() {
 
         @Getter
         protected final String name = BLOCK_METADATA_BY_HASH;
 
+        @Getter
+        protected final String notFoundMessage = "not found";
+
         @Override
         protected void validate(final List<Object> parameters) {
           validateType(parameters, 0, BlockHash.class);
         }
 
         @Override
-        protected BlockMetadata runInternal(final List<Object> parameters) {
+        protected Rpc.SingleBytes toRpcRequest(final List<Object> parameters) {
           final BlockHash blockHash = (BlockHash) parameters.get(0);
           logger.debug("Get block metadata with hash: {}", blockHash);
 
@@ -62,27 +72,38 @@ class BlockMethods extends AbstractMethods {
               .setValue(copyFrom(blockHash.getBytesValue()))
               .build();
           logger.trace("AergoService getBlockMetadata arg: {}", rpcBlockHash);
+          return rpcBlockHash;
+        }
 
-          try {
-            final Rpc.BlockMetadata rpcBlockMetadata = getBlockingStub()
-                .getBlockMetadata(rpcBlockHash);
-            return blockMetadataConverter.convertToDomainModel(rpcBlockMetadata);
-          } catch (StatusRuntimeException e) {
-            if (!e.getMessage().contains("not found")) {
-              throw e;
-            }
-            return null;
-          }
+        @Override
+        protected Rpc.BlockMetadata call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.SingleBytes rpcBlockHash) {
+          return blockingStub.getBlockMetadata(rpcBlockHash);
+        }
+
+        @Override
+        protected ListenableFuture<Rpc.BlockMetadata> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.SingleBytes rpcBlockHash) {
+          return futureStub.getBlockMetadata(rpcBlockHash);
+        }
+
+        @Override
+        protected BlockMetadata toDomainModel(final List<Object> parameters,
+            final Rpc.BlockMetadata rpcBlockMetadata) {
+          return blockMetadataConverter.convertToDomainModel(rpcBlockMetadata);
         }
       };
 
   @Getter
   protected final RequestMethod<BlockMetadata> blockMetadataByHeight =
-      new RequestMethod<BlockMetadata>() {
+      new UnaryRequestMethod<BlockMetadata, Rpc.SingleBytes, Rpc.BlockMetadata>() {
 
         @Getter
         protected final String name = BLOCK_METADATA_BY_HEIGHT;
 
+        @Getter
+        protected final String notFoundMessage = "not found";
+
         @Override
         protected void validate(final List<Object> parameters) {
           validateType(parameters, 0, Long.class);
@@ -90,7 +111,7 @@ class BlockMethods extends AbstractMethods {
         }
 
         @Override
-        protected BlockMetadata runInternal(final List<Object> parameters) throws Exception {
+        protected Rpc.SingleBytes toRpcRequest(final List<Object> parameters) {
           final long height = (long) parameters.get(0);
           logger.debug("Get block metadata with height: {}", height);
 
@@ -98,24 +119,32 @@ class BlockMethods extends AbstractMethods {
               .setValue(copyFrom(height))
               .build();
           logger.trace("AergoService getBlockMetadata arg: {}", rpcHeight);
+          return rpcHeight;
+        }
 
-          try {
-            final Rpc.BlockMetadata rpcBlockMetadata = getBlockingStub()
-                .getBlockMetadata(rpcHeight);
-            return blockMetadataConverter.convertToDomainModel(rpcBlockMetadata);
-          } catch (StatusRuntimeException e) {
-            if (!e.getMessage().contains("not found")) {
-              throw e;
-            }
-            return null;
-          }
+        @Override
+        protected Rpc.BlockMetadata call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.SingleBytes rpcHeight) {
+          return blockingStub.getBlockMetadata(rpcHeight);
+        }
+
+        @Override
+        protected ListenableFuture<Rpc.BlockMetadata> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.SingleBytes rpcHeight) {
+          return futureStub.getBlockMetadata(rpcHeight);
+        }
+
+        @Override
+        protected BlockMetadata toDomainModel(final List<Object> parameters,
+            final Rpc.BlockMetadata rpcBlockMetadata) {
+          return blockMetadataConverter.convertToDomainModel(rpcBlockMetadata);
         }
 
       };
 
   @Getter
   protected final RequestMethod<List<BlockMetadata>> listBlockMetadatasByHash =
-      new RequestMethod<List<BlockMetadata>>() {
+      new TracedRequestMethod<List<BlockMetadata>>() {
 
         @Getter
         protected final String name = BLOCK_LIST_METADATAS_BY_HASH;
@@ -159,7 +188,7 @@ class BlockMethods extends AbstractMethods {
 
   @Getter
   protected final RequestMethod<List<BlockMetadata>> listBlockMetadatasByHeight =
-      new RequestMethod<List<BlockMetadata>>() {
+      new TracedRequestMethod<List<BlockMetadata>>() {
 
         @Getter
         protected final String name = BLOCK_LIST_METADATAS_BY_HEIGHT;
@@ -203,78 +232,104 @@ class BlockMethods extends AbstractMethods {
       };
 
   @Getter
-  protected final RequestMethod<Block> blockByHash = new RequestMethod<Block>() {
+  protected final RequestMethod<Block> blockByHash =
+      new UnaryRequestMethod<Block, Rpc.SingleBytes, Blockchain.Block>() {
 
-    @Getter
-    protected final String name = BLOCK_BY_HASH;
+        @Getter
+        protected final String name = BLOCK_BY_HASH;
+
+        @Getter
+        protected final String notFoundMessage = "not found";
+
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, BlockHash.class);
+        }
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, BlockHash.class);
-    }
+        @Override
+        protected Rpc.SingleBytes toRpcRequest(final List<Object> parameters) {
+          final BlockHash blockHash = (BlockHash) parameters.get(0);
+          logger.debug("Get block with hash: {}", blockHash);
+
+          final Rpc.SingleBytes rpcBlockHash = Rpc.SingleBytes.newBuilder()
+              .setValue(copyFrom(blockHash.getBytesValue()))
+              .build();
+          logger.trace("AergoService getBlock arg: {}", rpcBlockHash);
+          return rpcBlockHash;
+        }
 
-    @Override
-    protected Block runInternal(final List<Object> parameters) throws Exception {
-      final BlockHash blockHash = (BlockHash) parameters.get(0);
-      logger.debug("Get block with hash: {}", blockHash);
+        @Override
+        protected Blockchain.Block call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.SingleBytes rpcBlockHash) {
+          return blockingStub.getBlock(rpcBlockHash);
+        }
 
-      final Rpc.SingleBytes rpcBlockHash = Rpc.SingleBytes.newBuilder()
-          .setValue(copyFrom(blockHash.getBytesValue()))
-          .build();
-      logger.trace("AergoService getBlock arg: {}", rpcBlockHash);
+        @Override
+        protected ListenableFuture<Blockchain.Block> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.SingleBytes rpcBlockHash) {
+          return futureStub.getBlock(rpcBlockHash);
+        }
 
-      try {
-        final Blockchain.Block rpcBlock = getBlockingStub().getBlock(rpcBlockHash);
-        return blockConverter.convertToDomainModel(rpcBlock);
-      } catch (StatusRuntimeException e) {
-        if (!e.getMessage().contains("not found")) {
-          throw e;
+        @Override
+        protected Block toDomainModel(final List<Object> parameters,
+            final Blockchain.Block rpcBlock) {
+          return blockConverter.convertToDomainModel(rpcBlock);
         }
-        return null;
-      }
-    }
 
-  };
+      };
 
   @Getter
-  protected final RequestMethod<Block> blockByHeight = new RequestMethod<Block>() {
+  protected final RequestMethod<Block> blockByHeight =
+      new UnaryRequestMethod<Block, Rpc.SingleBytes, Blockchain.Block>() {
+
+        @Getter
+        protected final String name = BLOCK_BY_HEIGHT;
+
+        @Getter
+        protected final String notFoundMessage = "not found";
+
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, Long.class);
+          validateValue(((long) parameters.get(0)) >= 0, "Height must >= 0");
+        }
 
-    @Getter
-    protected final String name = BLOCK_BY_HEIGHT;
+        @Override
+        protected Rpc.SingleBytes toRpcRequest(final List<Object> parameters) {
+          final long height = (long) parameters.get(0);
+          logger.debug("Get block with height: {}", height);
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, Long.class);
-      validateValue(((long) parameters.get(0)) >= 0, "Height must >= 0");
-    }
+          final Rpc.SingleBytes rpcHeight = Rpc.SingleBytes.newBuilder()
+              .setValue(copyFrom(height))
+              .build();
+          logger.trace("AergoService getBlock arg: {}", rpcHeight);
+          return rpcHeight;
+        }
 
-    @Override
-    protected Block runInternal(final List<Object> parameters) throws Exception {
-      final long height = (long) parameters.get(0);
-      logger.debug("Get block with height: {}", height);
+        @Override
+        protected Blockchain.Block call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.SingleBytes rpcHeight) {
+          return blockingStub.getBlock(rpcHeight);
+        }
 
-      final Rpc.SingleBytes rpcHeight = Rpc.SingleBytes.newBuilder()
-          .setValue(copyFrom(height))
-          .build();
-      logger.trace("AergoService getBlock arg: {}", rpcHeight);
+        @Override
+        protected ListenableFuture<Blockchain.Block> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.SingleBytes rpcHeight) {
+          return futureStub.getBlock(rpcHeight);
+        }
 
-      try {
-        final Blockchain.Block rpcBlock = getBlockingStub().getBlock(rpcHeight);
-        return blockConverter.convertToDomainModel(rpcBlock);
-      } catch (StatusRuntimeException e) {
-        if (!e.getMessage().contains("not found")) {
-          throw e;
+        @Override
+        protected Block toDomainModel(final List<Object> parameters,
+            final Blockchain.Block rpcBlock) {
+          return blockConverter.convertToDomainModel(rpcBlock);
         }
-        return null;
-      }
-    }
 
-  };
+      };
 
 
   @Getter
   protected final RequestMethod<Subscription<BlockMetadata>> subscribeBlockMetadata =
-      new RequestMethod<Subscription<BlockMetadata>>() {
+      new TracedRequestMethod<Subscription<BlockMetadata>>() {
 
         @Getter
         protected final String name = BLOCK_SUBSCRIBE_BLOCKMETADATA;
@@ -309,7 +364,7 @@ class BlockMethods extends AbstractMethods {
 
   @Getter
   protected final RequestMethod<Subscription<Block>> subscribeBlock =
-      new RequestMethod<Subscription<Block>>() {
+      new TracedRequestMethod<Subscription<Block>>() {
 
         @Getter
         protected final String name = BLOCK_SUBSCRIBE_BLOCK;
@@ -342,4 +397,83 @@ class BlockMethods extends AbstractMethods {
         }
       };
 
+  @Getter
+  protected final RequestMethod<FlowControlledSubscription<BlockMetadata>>
+      subscribeBlockMetadataWithFlowControl =
+      new TracedRequestMethod<FlowControlledSubscription<BlockMetadata>>() {
+
+        @Getter
+        protected final String name = BLOCK_SUBSCRIBE_BLOCKMETADATA_FLOW_CONTROLLED;
+
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, StreamObserver.class);
+          validateType(parameters, 1, FlowControl.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected FlowControlledSubscription<BlockMetadata> runInternal(
+            final List<Object> parameters) throws Exception {
+          final StreamObserver<BlockMetadata> observer = (StreamObserver<BlockMetadata>) parameters
+              .get(0);
+          final FlowControl flowControl = (FlowControl) parameters.get(1);
+          logger.debug("Subscribe block metadata stream with observer: {}, flow control: {}",
+              observer, flowControl);
+
+          final Context.CancellableContext cancellableContext = Context.current()
+              .withCancellation();
+          final Rpc.Empty blockMetadataStreamRequest = Rpc.Empty.newBuilder().build();
+          final FlowControlledStreamObserver<Rpc.Empty, Rpc.BlockMetadata, BlockMetadata> adaptor =
+              new FlowControlledStreamObserver<>(cancellableContext, observer,
+                  blockMetadataConverter, flowControl, getName(), getMetricsRecorder());
+          cancellableContext.run(new Runnable() {
+            @Override
+            public void run() {
+              getStreamStub().listBlockMetadataStream(blockMetadataStreamRequest, adaptor);
+            }
+          });
+          return adaptor;
+        }
+      };
+
+  @Getter
+  protected final RequestMethod<FlowControlledSubscription<Block>> subscribeBlockWithFlowControl =
+      new TracedRequestMethod<FlowControlledSubscription<Block>>() {
+
+        @Getter
+        protected final String name = BLOCK_SUBSCRIBE_BLOCK_FLOW_CONTROLLED;
+
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, StreamObserver.class);
+          validateType(parameters, 1, FlowControl.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected FlowControlledSubscription<Block> runInternal(final List<Object> parameters)
+            throws Exception {
+          final StreamObserver<Block> observer = (StreamObserver<Block>) parameters
+              .get(0);
+          final FlowControl flowControl = (FlowControl) parameters.get(1);
+          logger.debug("Subscribe block stream with observer: {}, flow control: {}", observer,
+              flowControl);
+
+          final Context.CancellableContext cancellableContext = Context.current()
+              .withCancellation();
+          final Rpc.Empty blockStreamRequest = Rpc.Empty.newBuilder().build();
+          final FlowControlledStreamObserver<Rpc.Empty, Blockchain.Block, Block> adaptor =
+              new FlowControlledStreamObserver<>(cancellableContext, observer, blockConverter,
+                  flowControl, getName(), getMetricsRecorder());
+          cancellableContext.run(new Runnable() {
+            @Override
+            public void run() {
+              getStreamStub().listBlockStream(blockStreamRequest, adaptor);
+            }
+          });
+          return adaptor;
+        }
+      };
+
 }
@@ -0,0 +1,251 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.api.function.Function1;
+import hera.api.model.CloseableIterator;
+import hera.api.model.FetchControl;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.exception.HerajException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+
+/**
+ * An iterator of blocks in a range of heights in ascending order. Blocks ahead of the next one are
+ * fetched in parallel by {@link FetchControl} and reordered by a height. A new fetch is issued only
+ * on taking a block so that a slow consumer holds at most {@code prefetchDepth} blocks and about
+ * {@code maxInFlightBytes} bytes of them.
+ * <p>
+ * An iteration ends on the last height or the first missing block. An iterator abandoned before it
+ * must be closed to stop fetches ahead. It's not thread-safe.
+ * </p>
+ *
+ * @param <T> a type of a block
+ */
+class BlockRangeFetcher<T> implements CloseableIterator<T> {
+
+  protected static final long KEEP_ALIVE = 1000L; // milliseconds
+
+  // delivers blocks to observers. a thread is busy as long as a delivery
+  protected static final ExecutorService DELIVERER =
+      Executors.newCachedThreadPool(new DaemonThreadFactory("heraj-block-delivery"));
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  // fetches a block at a height. null if not exists
+  protected final Function1<Long, T> fetcher;
+
+  // estimates bytes of a block
+  protected final Function1<T, Long> weigher;
+
+  protected final long toHeight;
+
+  protected final FetchControl fetchControl;
+
+  protected final ThreadPoolExecutor executor;
+
+  protected final Map<Long, Future<T>> height2Fetch = new HashMap<>();
+
+  protected long nextToIssue;
+
+  protected long nextToDeliver;
+
+  // of delivered blocks to estimate one being fetched
+  protected long deliveredWeight = 0L;
+  protected long deliveredCount = 0L;
+
+  protected T peeked;
+
+  protected boolean finished = false;
+
+  /**
+   * Create a fetcher of blocks in [fromHeight, toHeight].
+   *
+   * @param fromHeight   a height to start from (inclusive)
+   * @param toHeight     a height to end with (inclusive)
+   * @param fetcher      a function fetching a block at a height. null if not exists
+   * @param weigher      a function estimating bytes of a block
+   * @param fetchControl a fetch control
+   */
+  BlockRangeFetcher(final long fromHeight, final long toHeight, final Function1<Long, T> fetcher,
+      final Function1<T, Long> weigher, final FetchControl fetchControl) {
+    assertTrue(fromHeight >= 0L, "From height must >= 0");
+    assertTrue(fromHeight <= toHeight, "From height must <= to height");
+    assertNotNull(fetcher, "Fetcher must not null");
+    assertNotNull(weigher, "Weigher must not null");
+    assertNotNull(fetchControl, "FetchControl must not null");
+    this.toHeight = toHeight;
+    this.fetcher = fetcher;
+    this.weigher = weigher;
+    this.fetchControl = fetchControl;
+    this.nextToIssue = fromHeight;
+    this.nextToDeliver = fromHeight;
+    final int parallelism = fetchControl.getParallelism();
+    this.executor = new ThreadPoolExecutor(parallelism, parallelism, KEEP_ALIVE,
+        TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+        new DaemonThreadFactory("heraj-block-fetch"));
+    // an abandoned iterator leaves no thread
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (null == peeked && !finished) {
+      peeked = take();
+    }
+    return null != peeked;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final T next = peeked;
+    peeked = null;
+    return next;
+  }
+
+  protected T take() {
+    if (nextToDeliver > toHeight) {
+      close();
+      return null;
+    }
+    issue();
+    final T block = await(height2Fetch.remove(nextToDeliver));
+    if (null == block) {
+      logger.debug("No block at {}. Stop fetching", nextToDeliver);
+      close();
+      return null;
+    }
+    ++nextToDeliver;
+    deliveredWeight += weigher.apply(block);
+    ++deliveredCount;
+    issue();
+    return block;
+  }
+
+  protected void issue() {
+    while (nextToIssue <= toHeight && height2Fetch.size() < fetchControl.getPrefetchDepth()
+        && (height2Fetch.isEmpty() || inFlightWeight() < fetchControl.getMaxInFlightBytes())) {
+      final long height = nextToIssue++;
+      height2Fetch.put(height, executor.submit(new Callable<T>() {
+        @Override
+        public T call() {
+          return fetcher.apply(height);
+        }
+      }));
+    }
+  }
+
+  // a fetched block weighs its own and a fetching one weighs an average of delivered ones
+  protected long inFlightWeight() {
+    final long average = (0L == deliveredCount) ? ResponseCache.BLOCK_HEADER_WEIGHT
+        : deliveredWeight / deliveredCount;
+    long weight = 0L;
+    for (final Future<T> fetch : height2Fetch.values()) {
+      weight += average;
+      if (fetch.isDone()) {
+        try {
+          final T block = fetch.get();
+          if (null != block) {
+            weight += weigher.apply(block) - average;
+          }
+        } catch (Exception e) {
+          // thrown on delivery
+        }
+      }
+    }
+    return weight;
+  }
+
+  protected T await(final Future<T> fetch) {
+    try {
+      return fetch.get();
+    } catch (ExecutionException e) {
+      close();
+      final Throwable cause = e.getCause();
+      throw (cause instanceof RuntimeException) ? (RuntimeException) cause
+          : new HerajException(cause);
+    } catch (InterruptedException e) {
+      close();
+      Thread.currentThread().interrupt();
+      throw new HerajException(e);
+    }
+  }
+
+  /**
+   * Stop fetching. Blocks being fetched are discarded.
+   */
+  @Override
+  public void close() {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    for (final Future<T> fetch : height2Fetch.values()) {
+      fetch.cancel(true);
+    }
+    height2Fetch.clear();
+    executor.shutdownNow();
+  }
+
+  /**
+   * Deliver blocks to an observer on a background thread.
+   *
+   * @param observer an observer
+   * @return a subscription stopping a delivery
+   */
+  Subscription<T> deliverTo(final StreamObserver<T> observer) {
+    assertNotNull(observer, "Observer must not null");
+    final Future<?> delivery = DELIVERER.submit(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          while (!Thread.currentThread().isInterrupted() && hasNext()) {
+            observer.onNext(next());
+          }
+        } catch (Exception e) {
+          if (!Thread.currentThread().isInterrupted()) {
+            observer.onError(e);
+          }
+          return;
+        } finally {
+          close();
+        }
+        if (!Thread.currentThread().isInterrupted()) {
+          observer.onCompleted();
+        }
+      }
+    });
+    return new Subscription<T>() {
+      @Override
+      public void unsubscribe() {
+        delivery.cancel(true);
+      }
+
+      @Override
+      public boolean isUnsubscribed() {
+        return delivery.isCancelled();
+      }
+    };
+  }
+
+}
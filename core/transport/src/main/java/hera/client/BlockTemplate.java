@@ -4,33 +4,83 @@
 
 package hera.client;
 
+import static java.util.Collections.singletonList;
+
 import hera.Context;
 import hera.ContextStorage;
 import hera.api.BlockOperation;
+import hera.api.function.Function1;
+import hera.api.function.Function2;
 import hera.api.model.Block;
 import hera.api.model.BlockHash;
 import hera.api.model.BlockMetadata;
+import hera.api.model.CloseableIterator;
+import hera.api.model.FetchControl;
+import hera.api.model.FlowControl;
+import hera.api.model.FlowControlledSubscription;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 class BlockTemplate extends AbstractTemplate implements BlockOperation {
 
+  // a max number of blocks fetched at once on backfilling
+  protected static final int BACKFILL_BATCH_SIZE = 100;
+
+  // fetches blocks of a backfill in parallel
+  protected static final FetchControl BACKFILL_FETCH_CONTROL = FetchControl.newBuilder().build();
+
+  // a live stream of a resumable subscription. a block is requested one by one
+  protected static final FlowControl LIVE_FLOW_CONTROL = FlowControl.newBuilder().build();
+
   protected final BlockMethods blockMethods = new BlockMethods();
 
+  protected final Function1<BlockMetadata, Long> blockMetadataHeight =
+      new Function1<BlockMetadata, Long>() {
+        @Override
+        public Long apply(final BlockMetadata blockMetadata) {
+          return blockMetadata.getBlockHeader().getBlockNumber();
+        }
+      };
+
+  protected final Function1<Long, Block> blockFetcher = new Function1<Long, Block>() {
+    @Override
+    public Block apply(final Long height) {
+      return getBlock(height);
+    }
+  };
+
+  protected final Function1<Block, Long> blockWeigher = new Function1<Block, Long>() {
+    @Override
+    public Long apply(final Block block) {
+      return ResponseCache.weighBlock(block);
+    }
+  };
+
+  protected final Function1<Block, Long> blockHeight = new Function1<Block, Long>() {
+    @Override
+    public Long apply(final Block block) {
+      return block.getBlockNumber();
+    }
+  };
+
   BlockTemplate(final ContextStorage<Context> contextStorage) {
     super(contextStorage);
   }
 
   @Override
   public BlockMetadata getBlockMetadata(final BlockHash blockHash) {
-    return request(blockMethods.getBlockMetadataByHash(), Arrays.<Object>asList(blockHash));
+    return cachedRequest(blockMethods.getBlockMetadataByHash(), singletonList(blockHash),
+        ALWAYS_CACHEABLE);
   }
 
   @Override
   public BlockMetadata getBlockMetadata(final long height) {
-    return request(blockMethods.getBlockMetadataByHeight(), Arrays.<Object>asList(height));
+    return request(blockMethods.getBlockMetadataByHeight(), singletonList(height));
   }
 
   @Override
@@ -47,12 +97,13 @@ class BlockTemplate extends AbstractTemplate implements BlockOperation {
 
   @Override
   public Block getBlock(final BlockHash blockHash) {
-    return request(blockMethods.getBlockByHash(), Arrays.<Object>asList(blockHash));
+    return cachedRequest(blockMethods.getBlockByHash(), singletonList(blockHash),
+        ALWAYS_CACHEABLE);
   }
 
   @Override
   public Block getBlock(final long height) {
-    return request(blockMethods.getBlockByHeight(), Arrays.<Object>asList(height));
+    return request(blockMethods.getBlockByHeight(), singletonList(height));
   }
 
   @Override
@@ -64,7 +115,7 @@ class BlockTemplate extends AbstractTemplate implements BlockOperation {
   @Override
   public Subscription<BlockMetadata> subscribeBlockMetadata(
       final StreamObserver<BlockMetadata> observer) {
-    return request(blockMethods.getSubscribeBlockMetadata(), Arrays.<Object>asList(observer));
+    return request(blockMethods.getSubscribeBlockMetadata(), singletonList(observer));
   }
 
   @Override
@@ -74,7 +125,127 @@ class BlockTemplate extends AbstractTemplate implements BlockOperation {
 
   @Override
   public Subscription<Block> subscribeBlock(final StreamObserver<Block> observer) {
-    return request(blockMethods.getSubscribeBlock(), Arrays.<Object>asList(observer));
+    return request(blockMethods.getSubscribeBlock(), singletonList(observer));
+  }
+
+  @Override
+  public Subscription<BlockMetadata> subscribeBlockMetadata(final long fromHeight,
+      final StreamObserver<BlockMetadata> observer) {
+    final ResumableBlockSubscription<BlockMetadata> subscription =
+        new ResumableBlockSubscription<>(observer, fromHeight,
+            new Function1<StreamObserver<BlockMetadata>,
+                FlowControlledSubscription<BlockMetadata>>() {
+              @Override
+              public FlowControlledSubscription<BlockMetadata> apply(
+                  final StreamObserver<BlockMetadata> liveObserver) {
+                return subscribeBlockMetadata(liveObserver, LIVE_FLOW_CONTROL);
+              }
+            },
+            new Function2<Long, Long, List<BlockMetadata>>() {
+              @Override
+              public List<BlockMetadata> apply(final Long from, final Long to) {
+                return listBlockMetadatasInRange(from, to);
+              }
+            }, blockMetadataHeight);
+    subscription.start();
+    return subscription;
+  }
+
+  @Override
+  public Subscription<Block> subscribeBlock(final long fromHeight,
+      final StreamObserver<Block> observer) {
+    final ResumableBlockSubscription<Block> subscription =
+        new ResumableBlockSubscription<>(observer, fromHeight,
+            new Function1<StreamObserver<Block>, FlowControlledSubscription<Block>>() {
+              @Override
+              public FlowControlledSubscription<Block> apply(
+                  final StreamObserver<Block> liveObserver) {
+                return subscribeBlock(liveObserver, LIVE_FLOW_CONTROL);
+              }
+            },
+            new Function2<Long, Long, List<Block>>() {
+              @Override
+              public List<Block> apply(final Long from, final Long to) {
+                return listBlocksInRange(from, to);
+              }
+            }, blockHeight);
+    subscription.start();
+    return subscription;
+  }
+
+  // block metadatas in [from, to] in ascending order. at most BACKFILL_BATCH_SIZE ones
+  protected List<BlockMetadata> listBlockMetadatasInRange(final long from, final long to) {
+    final long end = Math.min(to, from + BACKFILL_BATCH_SIZE - 1);
+    if (from == end) {
+      final BlockMetadata blockMetadata = getBlockMetadata(from);
+      return null != blockMetadata ? singletonList(blockMetadata)
+          : Collections.<BlockMetadata>emptyList();
+    }
+    // listed downward from the height
+    final List<BlockMetadata> listed = new ArrayList<>(
+        listBlockMetadatas(end, (int) (end - from + 1)));
+    Collections.sort(listed, new Comparator<BlockMetadata>() {
+      @Override
+      public int compare(final BlockMetadata left, final BlockMetadata right) {
+        return Long.compare(blockMetadataHeight.apply(left), blockMetadataHeight.apply(right));
+      }
+    });
+    return listed;
+  }
+
+  // blocks in [from, to] in ascending order fetched in parallel. stops on the first missing one
+  protected List<Block> listBlocksInRange(final long from, final long to) {
+    final long end = Math.min(to, from + BACKFILL_BATCH_SIZE - 1);
+    final List<Block> blocks = new ArrayList<>((int) (end - from + 1));
+    final BlockRangeFetcher<Block> fetcher = new BlockRangeFetcher<>(from, end, blockFetcher,
+        blockWeigher, BACKFILL_FETCH_CONTROL);
+    try {
+      while (fetcher.hasNext()) {
+        blocks.add(fetcher.next());
+      }
+    } finally {
+      fetcher.close();
+    }
+    return blocks;
+  }
+
+  @Override
+  public CloseableIterator<Block> getBlocks(final long fromHeight, final long toHeight) {
+    return getBlocks(fromHeight, toHeight, FetchControl.newBuilder().build());
+  }
+
+  @Override
+  public CloseableIterator<Block> getBlocks(final long fromHeight, final long toHeight,
+      final FetchControl fetchControl) {
+    return new BlockRangeFetcher<>(fromHeight, toHeight, blockFetcher, blockWeigher,
+        fetchControl);
+  }
+
+  @Override
+  public Subscription<Block> getBlocks(final long fromHeight, final long toHeight,
+      final StreamObserver<Block> observer) {
+    return getBlocks(fromHeight, toHeight, FetchControl.newBuilder().build(), observer);
+  }
+
+  @Override
+  public Subscription<Block> getBlocks(final long fromHeight, final long toHeight,
+      final FetchControl fetchControl, final StreamObserver<Block> observer) {
+    return new BlockRangeFetcher<>(fromHeight, toHeight, blockFetcher, blockWeigher,
+        fetchControl).deliverTo(observer);
+  }
+
+  @Override
+  public FlowControlledSubscription<BlockMetadata> subscribeBlockMetadata(
+      final StreamObserver<BlockMetadata> observer, final FlowControl flowControl) {
+    return request(blockMethods.getSubscribeBlockMetadataWithFlowControl(),
+        Arrays.<Object>asList(observer, flowControl));
+  }
+
+  @Override
+  public FlowControlledSubscription<Block> subscribeBlock(final StreamObserver<Block> observer,
+      final FlowControl flowControl) {
+    return request(blockMethods.getSubscribeBlockWithFlowControl(),
+        Arrays.<Object>asList(observer, flowControl));
   }
 
 }
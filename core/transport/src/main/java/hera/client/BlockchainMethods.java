@@ -14,6 +14,7 @@ import static hera.client.Methods.BLOCKCHAIN_SERVERINFO;
 import static hera.util.TransportUtils.copyFrom;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.protobuf.ByteString;
 import hera.RequestMethod;
 import hera.api.model.AccountAddress;
@@ -41,6 +42,8 @@ import java.util.LinkedList;
 import java.util.List;
 import lombok.Getter;
 import org.slf4j.Logger;
+import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.Metric;
 import types.Rpc;
 
@@ -76,25 +79,41 @@ class BlockchainMethods extends AbstractMethods {
 
   @Getter
   protected final RequestMethod<BlockchainStatus> blockchainStatus =
-      new RequestMethod<BlockchainStatus>() {
+      new UnaryRequestMethod<BlockchainStatus, Rpc.Empty, Rpc.BlockchainStatus>() {
 
         @Getter
         protected final String name = BLOCKCHAIN_BLOCKCHAINSTATUS;
 
         @Override
-        protected BlockchainStatus runInternal(final List<Object> parameters) throws Exception {
+        protected Rpc.Empty toRpcRequest(final List<Object> parameters) {
           logger.debug("Get blockchain status");
 
           final Rpc.Empty empty = Rpc.Empty.newBuilder().build();
           logger.trace("AergoService blockchain arg: {}", empty);
+          return empty;
+        }
+
+        @Override
+        protected Rpc.BlockchainStatus call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.Empty empty) {
+          return blockingStub.blockchain(empty);
+        }
 
-          final Rpc.BlockchainStatus rpcBlockchainStatus = getBlockingStub().blockchain(empty);
+        @Override
+        protected ListenableFuture<Rpc.BlockchainStatus> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.Empty empty) {
+          return futureStub.blockchain(empty);
+        }
+
+        @Override
+        protected BlockchainStatus toDomainModel(final List<Object> parameters,
+            final Rpc.BlockchainStatus rpcBlockchainStatus) {
           return blockchainConverter.convertToDomainModel(rpcBlockchainStatus);
         }
       };
 
   @Getter
-  protected final RequestMethod<ChainInfo> chainInfo = new RequestMethod<ChainInfo>() {
+  protected final RequestMethod<ChainInfo> chainInfo = new TracedRequestMethod<ChainInfo>() {
 
     @Getter
     protected final String name = BLOCKCHAIN_CHAININFO;
@@ -112,7 +131,7 @@ class BlockchainMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<ChainStats> chainStats = new RequestMethod<ChainStats>() {
+  protected final RequestMethod<ChainStats> chainStats = new TracedRequestMethod<ChainStats>() {
 
     @Getter
     protected final String name = BLOCKCHAIN_CHAINSTATS;
@@ -130,7 +149,7 @@ class BlockchainMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<List<Peer>> listPeers = new RequestMethod<List<Peer>>() {
+  protected final RequestMethod<List<Peer>> listPeers = new TracedRequestMethod<List<Peer>>() {
 
     @Getter
     protected final String name = BLOCKCHAIN_LIST_PEERS;
@@ -165,7 +184,7 @@ class BlockchainMethods extends AbstractMethods {
 
   @Getter
   protected final RequestMethod<List<PeerMetric>> listPeersMetrics =
-      new RequestMethod<List<PeerMetric>>() {
+      new TracedRequestMethod<List<PeerMetric>>() {
 
         @Getter
         protected final String name = BLOCKCHAIN_PEERMETRICS;
@@ -189,7 +208,7 @@ class BlockchainMethods extends AbstractMethods {
       };
 
   @Getter
-  protected final RequestMethod<ServerInfo> serverInfo = new RequestMethod<ServerInfo>() {
+  protected final RequestMethod<ServerInfo> serverInfo = new TracedRequestMethod<ServerInfo>() {
 
     @Getter
     protected final String name = BLOCKCHAIN_SERVERINFO;
@@ -216,7 +235,7 @@ class BlockchainMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<NodeStatus> nodeStatus = new RequestMethod<NodeStatus>() {
+  protected final RequestMethod<NodeStatus> nodeStatus = new TracedRequestMethod<NodeStatus>() {
 
     @Getter
     protected final String name = BLOCKCHAIN_NODESTATUS;
@@ -4,6 +4,8 @@
 
 package hera.client;
 
+import static java.util.Collections.singletonList;
+
 import hera.Context;
 import hera.ContextStorage;
 import hera.api.BlockchainOperation;
@@ -63,7 +65,7 @@ class BlockchainTemplate extends AbstractTemplate implements BlockchainOperation
 
   @Override
   public ServerInfo getServerInfo(final List<String> categories) {
-    return request(blockchainMethods.getServerInfo(), Arrays.<Object>asList(categories));
+    return request(blockchainMethods.getServerInfo(), singletonList(categories));
   }
 
   @Override
@@ -0,0 +1,52 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A snapshot of statistics of a response cache.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class CacheStats {
+
+  public static final CacheStats EMPTY = new CacheStats(0L, 0L, 0L, 0, 0L, 0L);
+
+  protected final long hitCount;
+
+  protected final long missCount;
+
+  protected final long evictionCount;
+
+  // number of entries
+  protected final int size;
+
+  // estimated weight of entries in bytes
+  protected final long weight;
+
+  protected final long maxWeight;
+
+  /**
+   * Get a ratio of hits to all lookups.
+   *
+   * @return a hit rate in [0, 1]. 0 if no lookup
+   */
+  public double getHitRate() {
+    final long requestCount = hitCount + missCount;
+    return 0L == requestCount ? 0.0d : ((double) hitCount) / requestCount;
+  }
+
+}
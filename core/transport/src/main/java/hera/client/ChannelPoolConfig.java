@@ -0,0 +1,42 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.api.model.Time;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+class ChannelPoolConfig {
+
+  static final ChannelPoolConfig DEFAULT = new ChannelPoolConfig(1, 100,
+      Time.of(60L, TimeUnit.SECONDS));
+
+  // max channels per endpoint
+  protected final int maxSize;
+
+  // a new channel is opened when every channel has this many calls in flight
+  protected final int maxCallsPerChannel;
+
+  // a channel over the first one is closed after being idle for this time
+  protected final Time idleTimeout;
+
+  ChannelPoolConfig(final int maxSize, final int maxCallsPerChannel, final Time idleTimeout) {
+    assertTrue(maxSize >= 1, "Max pool size must >= 1");
+    assertTrue(maxCallsPerChannel >= 1, "Max calls per channel must >= 1");
+    assertNotNull(idleTimeout, "Idle timeout must not null");
+    this.maxSize = maxSize;
+    this.maxCallsPerChannel = maxCallsPerChannel;
+    this.idleTimeout = idleTimeout;
+  }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.List;
+import lombok.Getter;
+import org.slf4j.Logger;
+
+/**
+ * A circuit breaker of a method group on an endpoint. It opens when a failure rate of the latest
+ * calls reaches a threshold, and a request fails fast while it's open. After an open duration, it
+ * goes half open and lets a few trial calls through. It's closed if all of them succeed, or opened
+ * again on any failure.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class CircuitBreaker {
+
+  /**
+   * A state of a circuit breaker.
+   */
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final GrpcEndpoint endpoint;
+
+  @Getter
+  protected final String group;
+
+  protected final CircuitBreakerConfig config;
+
+  protected final long openDurationNanos;
+
+  protected final List<CircuitBreakerListener> listeners;
+
+  // guarded by this. a ring of the latest outcomes, true on failure
+  protected final boolean[] window;
+  protected int next = 0;
+  protected int calls = 0;
+  protected int failures = 0;
+
+  // guarded by this
+  protected State state = State.CLOSED;
+  protected long openedAt;
+  protected int trialPermits;
+  protected int trialSuccesses;
+
+  CircuitBreaker(final GrpcEndpoint endpoint, final String group,
+      final CircuitBreakerConfig config, final List<CircuitBreakerListener> listeners) {
+    assertNotNull(endpoint, "Endpoint must not null");
+    assertNotNull(group, "Group must not null");
+    assertNotNull(config, "Circuit breaker config must not null");
+    assertNotNull(listeners, "Listeners must not null");
+    this.endpoint = endpoint;
+    this.group = group;
+    this.config = config;
+    this.openDurationNanos = config.getOpenDuration().toNanoseconds();
+    this.listeners = listeners;
+    this.window = new boolean[config.getWindowSize()];
+  }
+
+  /**
+   * Get a current state.
+   *
+   * @return a state
+   */
+  public synchronized State getState() {
+    return state;
+  }
+
+  /**
+   * Get a failure rate of the latest calls in a window.
+   *
+   * @return a failure rate in [0, 1]. 0 if no call
+   */
+  public synchronized double getFailureRate() {
+    return 0 == calls ? 0.0d : ((double) failures) / calls;
+  }
+
+  /**
+   * Acquire a permission of a call. A caller must report its outcome with one of
+   * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+   *
+   * @return whether a call is permitted or not
+   */
+  boolean tryAcquire() {
+    State from = null;
+    final boolean permitted;
+    synchronized (this) {
+      if (State.OPEN == state && (System.nanoTime() - openedAt) >= openDurationNanos) {
+        from = transitTo(State.HALF_OPEN);
+      }
+      if (State.CLOSED == state) {
+        permitted = true;
+      } else if (State.HALF_OPEN == state && 0 < trialPermits) {
+        --trialPermits;
+        permitted = true;
+      } else {
+        permitted = false;
+      }
+    }
+    notifyTransition(from, State.HALF_OPEN);
+    return permitted;
+  }
+
+  void onSuccess() {
+    State from = null;
+    synchronized (this) {
+      if (State.CLOSED == state) {
+        record(false);
+      } else if (State.HALF_OPEN == state) {
+        ++trialSuccesses;
+        if (trialSuccesses >= config.getHalfOpenCalls()) {
+          from = transitTo(State.CLOSED);
+        }
+      }
+    }
+    notifyTransition(from, State.CLOSED);
+  }
+
+  void onFailure() {
+    State from = null;
+    synchronized (this) {
+      if (State.CLOSED == state) {
+        record(true);
+        if (calls >= config.getMinCalls()
+            && ((double) failures) / calls >= config.getFailureRateThreshold()) {
+          from = transitTo(State.OPEN);
+        }
+      } else if (State.HALF_OPEN == state) {
+        from = transitTo(State.OPEN);
+      }
+    }
+    notifyTransition(from, State.OPEN);
+  }
+
+  /**
+   * Report a call which is neither a success nor a failure of an endpoint (eg. cancelled).
+   */
+  synchronized void onIgnored() {
+    if (State.HALF_OPEN == state) {
+      ++trialPermits;
+    }
+  }
+
+  // guarded by this
+  protected void record(final boolean failure) {
+    if (calls == window.length) {
+      if (window[next]) {
+        --failures;
+      }
+    } else {
+      ++calls;
+    }
+    window[next] = failure;
+    if (failure) {
+      ++failures;
+    }
+    next = (next + 1) % window.length;
+  }
+
+  // guarded by this
+  protected State transitTo(final State to) {
+    final State from = state;
+    state = to;
+    switch (to) {
+      case OPEN:
+        openedAt = System.nanoTime();
+        break;
+      case HALF_OPEN:
+        trialPermits = config.getHalfOpenCalls();
+        trialSuccesses = 0;
+        break;
+      default:
+        next = 0;
+        calls = 0;
+        failures = 0;
+        break;
+    }
+    return from;
+  }
+
+  protected void notifyTransition(final State from, final State to) {
+    if (null == from) {
+      return;
+    }
+    logger.info("Circuit breaker of {} on {}: {} -> {}", group, endpoint.getHostnameAndPort(),
+        from, to);
+    for (final CircuitBreakerListener listener : listeners) {
+      try {
+        listener.onStateTransition(this, from, to);
+      } catch (Exception e) {
+        logger.debug("Circuit breaker listener failed by {}", e.toString());
+      }
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("CircuitBreaker(endpoint=%s, group=%s, state=%s, failureRate=%.2f)",
+        endpoint.getHostnameAndPort(), group, state, getFailureRate());
+  }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.api.model.Time;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+class CircuitBreakerConfig {
+
+  static final CircuitBreakerConfig DEFAULT = new CircuitBreakerConfig(100, 10, 0.5d,
+      Time.of(5L, TimeUnit.SECONDS), 3);
+
+  // a number of the latest calls to calculate a failure rate with
+  protected final int windowSize;
+
+  // a breaker doesn't open until this number of calls is in a window
+  protected final int minCalls;
+
+  // a breaker opens when a failure rate in a window reaches it
+  protected final double failureRateThreshold;
+
+  // a breaker stays open for it before allowing trial calls
+  protected final Time openDuration;
+
+  // a number of trial calls in half open. all of them must succeed to close a breaker
+  protected final int halfOpenCalls;
+
+  CircuitBreakerConfig(final int windowSize, final int minCalls,
+      final double failureRateThreshold, final Time openDuration, final int halfOpenCalls) {
+    assertTrue(0 < windowSize, "Window size must be positive");
+    assertTrue(0 < minCalls && minCalls <= windowSize, "Min calls must be in [1, window size]");
+    assertTrue(0.0d < failureRateThreshold && failureRateThreshold <= 1.0d,
+        "Failure rate threshold must be in (0, 1]");
+    assertNotNull(openDuration, "Open duration must not null");
+    assertTrue(0 < halfOpenCalls, "Half open calls must be positive");
+    this.windowSize = windowSize;
+    this.minCalls = minCalls;
+    this.failureRateThreshold = failureRateThreshold;
+    this.openDuration = openDuration;
+    this.halfOpenCalls = halfOpenCalls;
+  }
+
+}
@@ -0,0 +1,28 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A listener notified on a state transition of a {@link CircuitBreaker}. It's called on a thread
+ * completing a request, so it must not block.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface CircuitBreakerListener {
+
+  /**
+   * Called when a circuit breaker changes its state.
+   *
+   * @param circuitBreaker a circuit breaker
+   * @param from           a previous state
+   * @param to             a new state
+   */
+  void onStateTransition(CircuitBreaker circuitBreaker, CircuitBreaker.State from,
+      CircuitBreaker.State to);
+
+}
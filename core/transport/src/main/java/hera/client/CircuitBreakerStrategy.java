@@ -0,0 +1,239 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT_GUARD;
+import static hera.util.ValidationUtils.assertNotNull;
+import static java.util.Collections.unmodifiableList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.Context;
+import hera.ContextHolder;
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.exception.CircuitBreakerOpenException;
+import hera.strategy.InvocationStrategy;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * An invocation strategy guarding each endpoint with a {@link CircuitBreaker} per method group. A
+ * method group is a prefix of a method name (eg. {@code heraj.block}), so that a node rejecting
+ * transactions can still serve blocks.
+ * <p>
+ * A request is guarded by an {@link EndpointGuard} consulted on an endpoint selection. If a
+ * breaker of a selected endpoint is open, a request is diverted to another one unless an endpoint
+ * is pinned. If there is no endpoint to go, it fails fast with {@link CircuitBreakerOpenException}
+ * without sleeping in a failover. Only {@code UNAVAILABLE} and {@code INTERNAL} count as a
+ * failure. {@code DEADLINE_EXCEEDED} and {@code RESOURCE_EXHAUSTED} are often caused by a request
+ * too large (eg. an event range which {@link EventRangeFetcher} splits on them), so they are
+ * ignored rather than opening a circuit of a healthy node.
+ * </p>
+ */
+@ToString
+class CircuitBreakerStrategy implements InvocationStrategy {
+
+  @ToString.Exclude
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final CircuitBreakerConfig config;
+
+  @ToString.Exclude
+  protected final List<CircuitBreakerListener> listeners;
+
+  @ToString.Exclude
+  protected final Map<GrpcEndpoint, Map<String, CircuitBreaker>> endpoint2Breakers =
+      new ConcurrentHashMap<>();
+
+  CircuitBreakerStrategy(final CircuitBreakerConfig config,
+      final List<CircuitBreakerListener> listeners) {
+    assertNotNull(config, "Circuit breaker config must not null");
+    assertNotNull(listeners, "Listeners must not null");
+    this.config = config;
+    this.listeners = unmodifiableList(new ArrayList<>(listeners));
+  }
+
+  @Override
+  public <T> Invocation<T> apply(final Invocation<T> invocation) {
+    assertNotNull(invocation, "Invocation must not null");
+    return new CircuitBreakerInvocation<>(invocation);
+  }
+
+  /**
+   * Get a circuit breaker of a method group on an endpoint.
+   *
+   * @param endpoint an endpoint
+   * @param group    a method group
+   * @return a circuit breaker
+   */
+  CircuitBreaker getCircuitBreaker(final GrpcEndpoint endpoint, final String group) {
+    Map<String, CircuitBreaker> group2Breaker = endpoint2Breakers.get(endpoint);
+    if (null == group2Breaker) {
+      final Map<String, CircuitBreaker> created = new ConcurrentHashMap<>();
+      group2Breaker = endpoint2Breakers.putIfAbsent(endpoint, created);
+      if (null == group2Breaker) {
+        group2Breaker = created;
+      }
+    }
+    CircuitBreaker breaker = group2Breaker.get(group);
+    if (null == breaker) {
+      final CircuitBreaker created = new CircuitBreaker(endpoint, group, config, listeners);
+      breaker = group2Breaker.putIfAbsent(group, created);
+      if (null == breaker) {
+        breaker = created;
+      }
+    }
+    return breaker;
+  }
+
+  /**
+   * Make a guard of a single request. It's attached as
+   * {@link ClientContextKeys#GRPC_REQUEST_ENDPOINT_GUARD} while selecting an endpoint and told an
+   * outcome of a request once it's done.
+   *
+   * @param methodName a request method name
+   * @return a guard of a request
+   */
+  Guard newGuard(final String methodName) {
+    return new Guard(groupOf(methodName));
+  }
+
+  protected String groupOf(final String methodName) {
+    // heraj.block.by.height -> heraj.block
+    final int first = methodName.indexOf('.');
+    final int second = (0 <= first) ? methodName.indexOf('.', first + 1) : -1;
+    return (0 <= second) ? methodName.substring(0, second) : methodName;
+  }
+
+  protected void onError(final CircuitBreaker breaker, final Exception error) {
+    if (!(error instanceof StatusRuntimeException)) {
+      // failed before or after a call. no news about an endpoint
+      breaker.onIgnored();
+      return;
+    }
+    final Status.Code code = ((StatusRuntimeException) error).getStatus().getCode();
+    if (Status.Code.UNAVAILABLE == code || Status.Code.INTERNAL == code) {
+      breaker.onFailure();
+    } else if (Status.Code.CANCELLED == code || Status.Code.DEADLINE_EXCEEDED == code
+        || Status.Code.RESOURCE_EXHAUSTED == code) {
+      // eg. a loser of hedging or a request too large
+      breaker.onIgnored();
+    } else {
+      // an endpoint has answered with an application error
+      breaker.onSuccess();
+    }
+  }
+
+  @ToString
+  private class CircuitBreakerInvocation<T> implements Invocation<T> {
+
+    protected final Invocation<T> delegate;
+
+    CircuitBreakerInvocation(final Invocation<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public RequestMethod<T> getRequestMethod() {
+      return delegate.getRequestMethod();
+    }
+
+    @Override
+    public List<Object> getParameters() {
+      return delegate.getParameters();
+    }
+
+    @Override
+    public T invoke() throws Exception {
+      final Context current = ContextHolder.current();
+      if (null != current.get(GRPC_REQUEST_ENDPOINT_GUARD)) {
+        // guarded by an outer request already
+        return delegate.invoke();
+      }
+
+      final Guard guard = newGuard(getRequestMethod().getName());
+      ContextHolder.attach(current.withValue(GRPC_REQUEST_ENDPOINT_GUARD, guard));
+      try {
+        final T value = delegate.invoke();
+        guard.onSuccess();
+        return value;
+      } catch (Exception e) {
+        guard.onError(e);
+        throw e;
+      } finally {
+        ContextHolder.attach(current);
+      }
+    }
+
+    @Override
+    public Invocation<T> withParameters(final List<Object> parameters) {
+      assertNotNull(parameters, "Parameters must not null");
+      return new CircuitBreakerInvocation<>(delegate.withParameters(parameters));
+    }
+  }
+
+  class Guard implements EndpointGuard {
+
+    protected final String group;
+
+    // breakers which have permitted a call of this request
+    protected final Map<GrpcEndpoint, CircuitBreaker> acquired = new LinkedHashMap<>();
+
+    Guard(final String group) {
+      this.group = group;
+    }
+
+    @Override
+    public synchronized GrpcEndpoint guard(final GrpcEndpoint selected,
+        final List<GrpcEndpoint> alternatives) {
+      if (tryAcquire(selected)) {
+        return selected;
+      }
+      for (final GrpcEndpoint alternative : alternatives) {
+        if (alternative != selected && tryAcquire(alternative)) {
+          logger.debug("Circuit of {} on {} is open. Use {} instead", group, selected,
+              alternative);
+          return alternative;
+        }
+      }
+      throw new CircuitBreakerOpenException(String.format("Circuit breaker of %s on %s is open",
+          group, selected.getHostnameAndPort()));
+    }
+
+    protected boolean tryAcquire(final GrpcEndpoint endpoint) {
+      if (acquired.containsKey(endpoint)) {
+        return true;
+      }
+      final CircuitBreaker breaker = getCircuitBreaker(endpoint, group);
+      if (!breaker.tryAcquire()) {
+        return false;
+      }
+      acquired.put(endpoint, breaker);
+      return true;
+    }
+
+    synchronized void onSuccess() {
+      for (final CircuitBreaker breaker : acquired.values()) {
+        breaker.onSuccess();
+      }
+    }
+
+    synchronized void onError(final Exception error) {
+      for (final CircuitBreaker breaker : acquired.values()) {
+        CircuitBreakerStrategy.this.onError(breaker, error);
+      }
+    }
+  }
+
+}
@@ -84,8 +84,9 @@ public interface ClientConfiguer<ConfiguerT> {
   ConfiguerT withTimeout(long timeout, TimeUnit unit);
 
   /**
-   * If fails with non-connection error, after {@code interval} {@code count} times. Default retry
-   * count : 0, default retry interval : 5000 milliseconds.
+   * If fails with a retryable grpc status (eg. {@code UNAVAILABLE}), retry up to {@code count}
+   * times. A delay between retries grows exponentially with jitter from {@code interval} up to 10
+   * times of it capped by 30 seconds. Default retry count : 0.
    *
    * @param count    a retry count. If it is less than 0, set as 0
    * @param interval an interval value. If it's less than 0, set as 0
@@ -10,6 +10,8 @@ import hera.api.model.HostnameAndPort;
 import hera.strategy.ConnectStrategy;
 import hera.strategy.InvocationStrategy;
 import hera.strategy.SecurityConfigurationStrategy;
+import io.grpc.Deadline;
+import java.util.List;
 
 abstract class ClientContextKeys {
 
@@ -18,6 +20,14 @@ abstract class ClientContextKeys {
   public static final Key<HostnameAndPort> GRPC_CONNECTION_ENDPOINT = Key
       .of("GRPC_CONNECTION_ENDPOINT", HostnameAndPort.class);
 
+  // list of HostnameAndPort. overrides GRPC_CONNECTION_ENDPOINT if exists
+  @SuppressWarnings("rawtypes")
+  public static final Key<List> GRPC_CONNECTION_ENDPOINTS = Key
+      .of("GRPC_CONNECTION_ENDPOINTS", List.class);
+
+  public static final Key<LoadBalancePolicy> GRPC_CONNECTION_LOAD_BALANCE_POLICY = Key
+      .of("GRPC_CONNECTION_LOAD_BALANCE_POLICY", LoadBalancePolicy.class);
+
   @SuppressWarnings("rawtypes")
   public static final Key<ConnectStrategy> GRPC_CONNECTION_STRATEGY = Key
       .of("GRPC_CONNECTION_STRATEGY", ConnectStrategy.class);
@@ -25,8 +35,14 @@ abstract class ClientContextKeys {
   public static final Key<SecurityConfigurationStrategy> GRPC_CONNECTION_NEGOTIATION = Key
       .of("GRPC_CONNECTION_NEGOTIATION", SecurityConfigurationStrategy.class);
 
+  public static final Key<ChannelPoolConfig> GRPC_CONNECTION_CHANNEL_POOL = Key
+      .of("GRPC_CONNECTION_CHANNEL_POOL", ChannelPoolConfig.class);
+
+  public static final Key<HealthCheckConfig> GRPC_CONNECTION_HEALTH_CHECK = Key
+      .of("GRPC_CONNECTION_HEALTH_CHECK", HealthCheckConfig.class);
+
   @SuppressWarnings("rawtypes")
-  public static final Key<GrpcClient> GRPC_CLIENT = Key.of("GRPC_CLIENT", GrpcClient.class);
+  public static final Key<GrpcClient> GRPC_CLIENT = Key.hot("GRPC_CLIENT", GrpcClient.class);
 
 
 
@@ -35,12 +51,63 @@ abstract class ClientContextKeys {
   public static final Key<InvocationStrategy> GRPC_REQUEST_TIMEOUT = Key
       .of("GRPC_REQUEST_TIMEOUT", InvocationStrategy.class);
 
+  public static final Key<Deadline> GRPC_REQUEST_DEADLINE = Key
+      .hot("GRPC_REQUEST_DEADLINE", Deadline.class);
+
+  // requests with the same routing key go to the same endpoint
+  public static final Key<Object> GRPC_REQUEST_ROUTING_KEY = Key
+      .of("GRPC_REQUEST_ROUTING_KEY", Object.class);
+
+  public static final Key<RetryPolicy> GRPC_REQUEST_RETRY_POLICY = Key
+      .of("GRPC_REQUEST_RETRY_POLICY", RetryPolicy.class);
+
+  public static final Key<InvocationStrategy> GRPC_REQUEST_HEDGING = Key
+      .of("GRPC_REQUEST_HEDGING", InvocationStrategy.class);
+
+  // concurrent read requests with the same parameters share a response
+  public static final Key<SingleFlight> GRPC_REQUEST_SINGLE_FLIGHT = Key
+      .of("GRPC_REQUEST_SINGLE_FLIGHT", SingleFlight.class);
+
+  // a request is sent to this endpoint regardless of a routing key or a load balance policy
+  public static final Key<GrpcEndpoint> GRPC_REQUEST_ENDPOINT = Key
+      .of("GRPC_REQUEST_ENDPOINT", GrpcEndpoint.class);
+
+  public static final Key<EndpointGuard> GRPC_REQUEST_ENDPOINT_GUARD = Key
+      .of("GRPC_REQUEST_ENDPOINT_GUARD", EndpointGuard.class);
+
+  public static final Key<InvocationStrategy> GRPC_REQUEST_CIRCUIT_BREAKER = Key
+      .of("GRPC_REQUEST_CIRCUIT_BREAKER", InvocationStrategy.class);
+
+  public static final Key<InvocationStrategy> GRPC_REQUEST_METRICS = Key
+      .of("GRPC_REQUEST_METRICS", InvocationStrategy.class);
+
+  public static final Key<TracingStrategy> GRPC_REQUEST_TRACING = Key
+      .of("GRPC_REQUEST_TRACING", TracingStrategy.class);
+
+  // a recorder of a sampled request and a trace of its attempt being invoked
+  public static final Key<TraceRecorder> GRPC_REQUEST_TRACE = Key
+      .of("GRPC_REQUEST_TRACE", TraceRecorder.class);
+
+  public static final Key<AttemptTrace> GRPC_REQUEST_ATTEMPT_TRACE = Key
+      .of("GRPC_REQUEST_ATTEMPT_TRACE", AttemptTrace.class);
+
 
 
   /* value holders */
 
   public static final Key<ChainIdHashHolder> GRPC_VALUE_CHAIN_ID_HASH_HOLDER = Key
-      .of("GRPC_VALUE_CHAIN_ID_HASH_HOLDER", ChainIdHashHolder.class);
+      .hot("GRPC_VALUE_CHAIN_ID_HASH_HOLDER", ChainIdHashHolder.class);
+
+  public static final Key<RetryBudget> GRPC_VALUE_RETRY_BUDGET = Key
+      .hot("GRPC_VALUE_RETRY_BUDGET", RetryBudget.class);
+
+  // immutable responses like a block by hash are served from it
+  public static final Key<ResponseCache> GRPC_VALUE_RESPONSE_CACHE = Key
+      .of("GRPC_VALUE_RESPONSE_CACHE", ResponseCache.class);
+
+  // retries, failovers, bytes and subscriptions are recorded on it
+  public static final Key<MetricsRecorder> GRPC_VALUE_METRICS_RECORDER = Key
+      .of("GRPC_VALUE_METRICS_RECORDER", MetricsRecorder.class);
 
 
 
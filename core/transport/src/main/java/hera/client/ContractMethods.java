@@ -11,10 +11,12 @@ import static hera.client.Methods.CONTRACT_LIST_EVENT;
 import static hera.client.Methods.CONTRACT_QUERY;
 import static hera.client.Methods.CONTRACT_REDEPLOYTX;
 import static hera.client.Methods.CONTRACT_SUBSCRIBE_EVENT;
+import static hera.client.Methods.CONTRACT_SUBSCRIBE_EVENT_FLOW_CONTROLLED;
 import static hera.client.Methods.CONTRACT_TXRECEIPT;
 import static hera.util.TransportUtils.copyFrom;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.protobuf.ByteString;
 import hera.RequestMethod;
 import hera.api.model.AccountAddress;
@@ -28,6 +30,8 @@ import hera.api.model.ContractTxReceipt;
 import hera.api.model.Event;
 import hera.api.model.EventFilter;
 import hera.api.model.Fee;
+import hera.api.model.FlowControl;
+import hera.api.model.FlowControlledSubscription;
 import hera.api.model.RawTransaction;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
@@ -47,12 +51,13 @@ import hera.transport.EventConverterFactory;
 import hera.transport.EventFilterConverterFactory;
 import hera.transport.ModelConverter;
 import io.grpc.Context;
-import io.grpc.StatusRuntimeException;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import lombok.Getter;
 import org.slf4j.Logger;
+import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.Blockchain;
 import types.Rpc;
 
@@ -85,18 +90,21 @@ class ContractMethods extends AbstractMethods {
 
   @Getter
   protected final RequestMethod<ContractTxReceipt> contractTxReceipt =
-      new RequestMethod<ContractTxReceipt>() {
+      new UnaryRequestMethod<ContractTxReceipt, Rpc.SingleBytes, Blockchain.Receipt>() {
 
         @Getter
         protected final String name = CONTRACT_TXRECEIPT;
 
+        @Getter
+        protected final String notFoundMessage = "not found";
+
         @Override
         protected void validate(final List<Object> parameters) {
           validateType(parameters, 0, TxHash.class);
         }
 
         @Override
-        protected ContractTxReceipt runInternal(final List<Object> parameters) throws Exception {
+        protected Rpc.SingleBytes toRpcRequest(final List<Object> parameters) {
           final TxHash txHash = (TxHash) parameters.get(0);
           logger.debug("Get receipt with txHash: {}", txHash);
 
@@ -104,33 +112,45 @@ class ContractMethods extends AbstractMethods {
               .setValue(copyFrom(txHash.getBytesValue()))
               .build();
           logger.trace("AergoService getReceipt arg: {}", rpcDeployTxHash);
+          return rpcDeployTxHash;
+        }
 
-          try {
-            final Blockchain.Receipt rpcReceipt = getBlockingStub().getReceipt(rpcDeployTxHash);
-            return receiptConverter.convertToDomainModel(rpcReceipt);
-          } catch (StatusRuntimeException e) {
-            if (!e.getMessage().contains("not found")) {
-              throw e;
-            }
-            return null;
-          }
+        @Override
+        protected Blockchain.Receipt call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.SingleBytes rpcDeployTxHash) {
+          return blockingStub.getReceipt(rpcDeployTxHash);
+        }
+
+        @Override
+        protected ListenableFuture<Blockchain.Receipt> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.SingleBytes rpcDeployTxHash) {
+          return futureStub.getReceipt(rpcDeployTxHash);
+        }
+
+        @Override
+        protected ContractTxReceipt toDomainModel(final List<Object> parameters,
+            final Blockchain.Receipt rpcReceipt) {
+          return receiptConverter.convertToDomainModel(rpcReceipt);
         }
       };
 
   @Getter
   protected final RequestMethod<ContractInterface> contractInterface =
-      new RequestMethod<ContractInterface>() {
+      new UnaryRequestMethod<ContractInterface, Rpc.SingleBytes, Blockchain.ABI>() {
 
         @Getter
         protected final String name = CONTRACT_INTERFACE;
 
+        @Getter
+        protected final String notFoundMessage = "cannot find contract";
+
         @Override
         protected void validate(final List<Object> parameters) {
           validateType(parameters, 0, ContractAddress.class);
         }
 
         @Override
-        protected ContractInterface runInternal(final List<Object> parameters) throws Exception {
+        protected Rpc.SingleBytes toRpcRequest(final List<Object> parameters) {
           final ContractAddress contractAddress = (ContractAddress) parameters.get(0);
           logger.debug("Get contract interface with contract address: {}", contractAddress);
 
@@ -138,30 +158,40 @@ class ContractMethods extends AbstractMethods {
               .setValue(accountAddressConverter.convertToRpcModel(contractAddress))
               .build();
           logger.trace("AergoService getABI arg: {}", rpcContractAddress);
+          return rpcContractAddress;
+        }
 
-          try {
-            final Blockchain.ABI rpcAbi = getBlockingStub().getABI(rpcContractAddress);
-            final ContractInterface withoutAddress =
-                contractInterfaceConverter.convertToDomainModel(rpcAbi);
-            return ContractInterface.newBuilder()
-                .address(contractAddress)
-                .version(withoutAddress.getVersion())
-                .language(withoutAddress.getLanguage())
-                .functions(withoutAddress.getFunctions())
-                .stateVariables(withoutAddress.getStateVariables())
-                .build();
-          } catch (StatusRuntimeException e) {
-            if (!e.getMessage().contains("cannot find contract")) {
-              throw e;
-            }
-            return null;
-          }
+        @Override
+        protected Blockchain.ABI call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.SingleBytes rpcContractAddress) {
+          return blockingStub.getABI(rpcContractAddress);
+        }
+
+        @Override
+        protected ListenableFuture<Blockchain.ABI> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.SingleBytes rpcContractAddress) {
+          return futureStub.getABI(rpcContractAddress);
+        }
+
+        @Override
+        protected ContractInterface toDomainModel(final List<Object> parameters,
+            final Blockchain.ABI rpcAbi) {
+          final ContractAddress contractAddress = (ContractAddress) parameters.get(0);
+          final ContractInterface withoutAddress =
+              contractInterfaceConverter.convertToDomainModel(rpcAbi);
+          return ContractInterface.newBuilder()
+              .address(contractAddress)
+              .version(withoutAddress.getVersion())
+              .language(withoutAddress.getLanguage())
+              .functions(withoutAddress.getFunctions())
+              .stateVariables(withoutAddress.getStateVariables())
+              .build();
         }
 
       };
 
   @Getter
-  protected final RequestMethod<TxHash> deployTx = new RequestMethod<TxHash>() {
+  protected final RequestMethod<TxHash> deployTx = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = CONTRACT_DEPLOYTX;
@@ -197,7 +227,7 @@ class ContractMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<TxHash> redeployTx = new RequestMethod<TxHash>() {
+  protected final RequestMethod<TxHash> redeployTx = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = CONTRACT_REDEPLOYTX;
@@ -236,7 +266,7 @@ class ContractMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<TxHash> executeTx = new RequestMethod<TxHash>() {
+  protected final RequestMethod<TxHash> executeTx = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = CONTRACT_EXECUTETX;
@@ -271,69 +301,104 @@ class ContractMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<ContractResult> query = new RequestMethod<ContractResult>() {
+  protected final RequestMethod<ContractResult> query =
+      new UnaryRequestMethod<ContractResult, Blockchain.Query, Rpc.SingleBytes>() {
 
-    @Getter
-    protected final String name = CONTRACT_QUERY;
+        @Getter
+        protected final String name = CONTRACT_QUERY;
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, ContractInvocation.class);
-    }
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, ContractInvocation.class);
+        }
 
-    @Override
-    protected ContractResult runInternal(final List<Object> parameters) throws Exception {
-      final ContractInvocation contractInvocation = (ContractInvocation) parameters.get(0);
-      logger.debug("Query contract with invocation: {}", contractInvocation);
-
-      final ByteString rpcContractAddress = accountAddressConverter
-          .convertToRpcModel(contractInvocation.getAddress());
-      final BytesValue rpcContractInvocation =
-          payloadConverter.convertToPayload(contractInvocation);
-      final Blockchain.Query rpcQuery = Blockchain.Query.newBuilder()
-          .setContractAddress(rpcContractAddress)
-          .setQueryinfo(copyFrom(rpcContractInvocation))
-          .build();
-      logger.trace("AergoService queryContract arg: {}", rpcQuery);
+        @Override
+        protected Blockchain.Query toRpcRequest(final List<Object> parameters) {
+          final ContractInvocation contractInvocation = (ContractInvocation) parameters.get(0);
+          logger.debug("Query contract with invocation: {}", contractInvocation);
+
+          final ByteString rpcContractAddress = accountAddressConverter
+              .convertToRpcModel(contractInvocation.getAddress());
+          final BytesValue rpcContractInvocation =
+              payloadConverter.convertToPayload(contractInvocation);
+          final Blockchain.Query rpcQuery = Blockchain.Query.newBuilder()
+              .setContractAddress(rpcContractAddress)
+              .setQueryinfo(copyFrom(rpcContractInvocation))
+              .build();
+          logger.trace("AergoService queryContract arg: {}", rpcQuery);
+          return rpcQuery;
+        }
 
-      final Rpc.SingleBytes rawQueryResult = getBlockingStub().queryContract(rpcQuery);
-      return contractResultConverter.convertToDomainModel(rawQueryResult);
-    }
-  };
+        @Override
+        protected Rpc.SingleBytes call(final AergoRPCServiceBlockingStub blockingStub,
+            final Blockchain.Query rpcQuery) {
+          return blockingStub.queryContract(rpcQuery);
+        }
+
+        @Override
+        protected ListenableFuture<Rpc.SingleBytes> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Blockchain.Query rpcQuery) {
+          return futureStub.queryContract(rpcQuery);
+        }
+
+        @Override
+        protected ContractResult toDomainModel(final List<Object> parameters,
+            final Rpc.SingleBytes rawQueryResult) {
+          return contractResultConverter.convertToDomainModel(rawQueryResult);
+        }
+      };
 
   @Getter
-  protected final RequestMethod<List<Event>> listEvent = new RequestMethod<List<Event>>() {
+  protected final RequestMethod<List<Event>> listEvent =
+      new UnaryRequestMethod<List<Event>, Blockchain.FilterInfo, Rpc.EventList>() {
 
-    @Getter
-    protected final String name = CONTRACT_LIST_EVENT;
+        @Getter
+        protected final String name = CONTRACT_LIST_EVENT;
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, EventFilter.class);
-    }
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, EventFilter.class);
+        }
 
-    @Override
-    protected List<Event> runInternal(final List<Object> parameters) throws Exception {
-      final EventFilter eventFilter = (EventFilter) parameters.get(0);
-      logger.debug("List event with filter: {}", eventFilter);
-
-      final Blockchain.FilterInfo rpcEventFilter =
-          eventFilterConverter.convertToRpcModel(eventFilter);
-      logger.trace("AergoService listEvents arg: {}", rpcEventFilter);
-
-      final Rpc.EventList rpcEventList = getBlockingStub().listEvents(rpcEventFilter);
-      final List<Event> domainEvents = new LinkedList<>();
-      for (final Blockchain.Event rpcEvent : rpcEventList.getEventsList()) {
-        domainEvents.add(eventConverter.convertToDomainModel(rpcEvent));
-      }
-      return domainEvents;
-    }
+        @Override
+        protected Blockchain.FilterInfo toRpcRequest(final List<Object> parameters) {
+          final EventFilter eventFilter = (EventFilter) parameters.get(0);
+          logger.debug("List event with filter: {}", eventFilter);
 
-  };
+          final Blockchain.FilterInfo rpcEventFilter =
+              eventFilterConverter.convertToRpcModel(eventFilter);
+          logger.trace("AergoService listEvents arg: {}", rpcEventFilter);
+          return rpcEventFilter;
+        }
+
+        @Override
+        protected Rpc.EventList call(final AergoRPCServiceBlockingStub blockingStub,
+            final Blockchain.FilterInfo rpcEventFilter) {
+          return blockingStub.listEvents(rpcEventFilter);
+        }
+
+        @Override
+        protected ListenableFuture<Rpc.EventList> callAsync(
+            final AergoRPCServiceFutureStub futureStub,
+            final Blockchain.FilterInfo rpcEventFilter) {
+          return futureStub.listEvents(rpcEventFilter);
+        }
+
+        @Override
+        protected List<Event> toDomainModel(final List<Object> parameters,
+            final Rpc.EventList rpcEventList) {
+          final List<Event> domainEvents = new LinkedList<>();
+          for (final Blockchain.Event rpcEvent : rpcEventList.getEventsList()) {
+            domainEvents.add(eventConverter.convertToDomainModel(rpcEvent));
+          }
+          return domainEvents;
+        }
+
+      };
 
   @Getter
   protected final RequestMethod<Subscription<Event>> subscribeEvent =
-      new RequestMethod<Subscription<Event>>() {
+      new TracedRequestMethod<Subscription<Event>>() {
 
         @Getter
         protected final String name = CONTRACT_SUBSCRIBE_EVENT;
@@ -371,4 +436,49 @@ class ContractMethods extends AbstractMethods {
 
       };
 
+  @Getter
+  protected final RequestMethod<FlowControlledSubscription<Event>> subscribeEventWithFlowControl =
+      new TracedRequestMethod<FlowControlledSubscription<Event>>() {
+
+        @Getter
+        protected final String name = CONTRACT_SUBSCRIBE_EVENT_FLOW_CONTROLLED;
+
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, EventFilter.class);
+          validateType(parameters, 1, StreamObserver.class);
+          validateType(parameters, 2, FlowControl.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected FlowControlledSubscription<Event> runInternal(final List<Object> parameters)
+            throws Exception {
+          final EventFilter eventFilter = (EventFilter) parameters.get(0);
+          final StreamObserver<Event> streamObserver = (StreamObserver<Event>) parameters.get(1);
+          final FlowControl flowControl = (FlowControl) parameters.get(2);
+          logger.debug("Event subsribe with filter: {}, observer: {}, flow control: {}",
+              eventFilter, streamObserver, flowControl);
+
+          final Blockchain.FilterInfo filterInfo = eventFilterConverter
+              .convertToRpcModel(eventFilter);
+          logger.trace("Rpc filter: {}", filterInfo);
+          final Context.CancellableContext cancellableContext =
+              Context.current().withCancellation();
+          final FlowControlledStreamObserver<Blockchain.FilterInfo, Blockchain.Event, Event>
+              adaptor = new FlowControlledStreamObserver<>(cancellableContext, streamObserver,
+              eventConverter, flowControl, getName(), getMetricsRecorder());
+          cancellableContext.run(new Runnable() {
+
+            @Override
+            public void run() {
+              getStreamStub().listEventStream(filterInfo, adaptor);
+            }
+          });
+
+          return adaptor;
+        }
+
+      };
+
 }
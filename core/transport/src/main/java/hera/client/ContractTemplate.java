@@ -4,10 +4,17 @@
 
 package hera.client;
 
+import static java.util.Collections.singletonList;
+
 import hera.Context;
 import hera.ContextStorage;
 import hera.api.ContractOperation;
+import hera.api.function.Function0;
+import hera.api.function.Function1;
+import hera.api.function.Function2;
 import hera.api.model.Account;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.CloseableIterator;
 import hera.api.model.ContractAddress;
 import hera.api.model.ContractDefinition;
 import hera.api.model.ContractInterface;
@@ -18,6 +25,9 @@ import hera.api.model.ContractTxReceipt;
 import hera.api.model.Event;
 import hera.api.model.EventFilter;
 import hera.api.model.Fee;
+import hera.api.model.FetchControl;
+import hera.api.model.FlowControl;
+import hera.api.model.FlowControlledSubscription;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.api.model.TxHash;
@@ -29,6 +39,8 @@ class ContractTemplate extends AbstractTemplate implements ContractOperation {
 
   protected final ContractMethods contractMethods = new ContractMethods();
 
+  protected final BlockchainMethods blockchainMethods = new BlockchainMethods();
+
   ContractTemplate(final ContextStorage<Context> contextStorage) {
     super(contextStorage);
   }
@@ -40,7 +52,9 @@ class ContractTemplate extends AbstractTemplate implements ContractOperation {
 
   @Override
   public ContractTxReceipt getContractTxReceipt(final TxHash txHash) {
-    return request(contractMethods.getContractTxReceipt(), Arrays.<Object>asList(txHash));
+    // a receipt exists only for a transaction in a block
+    return cachedRequest(contractMethods.getContractTxReceipt(), singletonList(txHash),
+        ALWAYS_CACHEABLE);
   }
 
   @Override
@@ -84,7 +98,7 @@ class ContractTemplate extends AbstractTemplate implements ContractOperation {
 
   @Override
   public ContractInterface getContractInterface(final ContractAddress contractAddress) {
-    return request(contractMethods.getContractInterface(), Arrays.<Object>asList(contractAddress));
+    return request(contractMethods.getContractInterface(), singletonList(contractAddress));
   }
 
   @Override
@@ -114,12 +128,23 @@ class ContractTemplate extends AbstractTemplate implements ContractOperation {
 
   @Override
   public ContractResult query(final ContractInvocation contractInvocation) {
-    return request(contractMethods.getQuery(), Arrays.<Object>asList(contractInvocation));
+    return request(contractMethods.getQuery(), singletonList(contractInvocation));
   }
 
   @Override
   public List<Event> listEvents(final EventFilter filter) {
-    return request(contractMethods.getListEvent(), Arrays.<Object>asList(filter));
+    return request(contractMethods.getListEvent(), singletonList(filter));
+  }
+
+  @Override
+  public CloseableIterator<Event> listEvents(final EventFilter filter,
+      final FetchControl fetchControl) {
+    return new EventRangeFetcher(filter, new Function1<EventFilter, List<Event>>() {
+      @Override
+      public List<Event> apply(final EventFilter chunkFilter) {
+        return listEvents(chunkFilter);
+      }
+    }, fetchControl);
   }
 
   @Override
@@ -128,4 +153,45 @@ class ContractTemplate extends AbstractTemplate implements ContractOperation {
     return request(contractMethods.getSubscribeEvent(), Arrays.asList(filter, observer));
   }
 
+  @Override
+  public Subscription<Event> subscribeEvent(final EventFilter filter, final long fromBlockNumber,
+      final StreamObserver<Event> observer) {
+    final ResumableEventSubscription subscription = new ResumableEventSubscription(observer,
+        fromBlockNumber,
+        new Function1<StreamObserver<Event>, Subscription<Event>>() {
+          @Override
+          public Subscription<Event> apply(final StreamObserver<Event> liveObserver) {
+            return subscribeEvent(filter, liveObserver);
+          }
+        },
+        new Function2<Long, Long, CloseableIterator<Event>>() {
+          @Override
+          public CloseableIterator<Event> apply(final Long from, final Long to) {
+            final EventFilter rangeFilter = EventFilter.newBuilder(filter.getContractAddress())
+                .eventName(filter.getEventName())
+                .args(filter.getArgs())
+                .fromBlockNumber(from)
+                .toBlockNumber(to)
+                .build();
+            return listEvents(rangeFilter, FetchControl.newBuilder().build());
+          }
+        },
+        new Function0<Long>() {
+          @Override
+          public Long apply() {
+            final BlockchainStatus status = request(blockchainMethods.getBlockchainStatus());
+            return status.getBestHeight();
+          }
+        });
+    subscription.start();
+    return subscription;
+  }
+
+  @Override
+  public FlowControlledSubscription<Event> subscribeEvent(final EventFilter filter,
+      final StreamObserver<Event> observer, final FlowControl flowControl) {
+    return request(contractMethods.getSubscribeEventWithFlowControl(),
+        Arrays.asList(filter, observer, flowControl));
+  }
+
 }
@@ -0,0 +1,34 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread factory making daemon threads so that a background work of a client never blocks a jvm
+ * from shutting down.
+ */
+class DaemonThreadFactory implements ThreadFactory {
+
+  protected final String prefix;
+
+  protected final AtomicInteger sequence = new AtomicInteger(0);
+
+  DaemonThreadFactory(final String prefix) {
+    assertNotNull(prefix, "Prefix must not null");
+    this.prefix = prefix;
+  }
+
+  @Override
+  public Thread newThread(final Runnable runnable) {
+    final Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+}
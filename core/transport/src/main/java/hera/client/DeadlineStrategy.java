@@ -0,0 +1,130 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_REQUEST_DEADLINE;
+import static hera.util.ValidationUtils.assertNotNull;
+import static java.util.Collections.unmodifiableMap;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.Context;
+import hera.ContextHolder;
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.api.model.Time;
+import hera.strategy.InvocationStrategy;
+import io.grpc.Deadline;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * An invocation strategy bounding a request with a grpc {@link Deadline}. Unlike an executor
+ * based timeout, an invocation runs on a caller thread and a deadline is put into the context as
+ * {@link ClientContextKeys#GRPC_REQUEST_DEADLINE}. Blocking stubs pick it up in
+ * {@link AbstractMethods#getBlockingStub()}, so nested calls made during an invocation share the
+ * same deadline.
+ */
+@ToString
+class DeadlineStrategy implements InvocationStrategy {
+
+  @ToString.Exclude
+  protected final transient Logger logger = getLogger(getClass());
+
+  // null if there is no default one
+  protected final Time timeout;
+
+  protected final Map<String, Time> method2Timeout;
+
+  DeadlineStrategy(final Time timeout, final Map<String, Time> method2Timeout) {
+    assertNotNull(method2Timeout, "Method to timeout must not null");
+    this.timeout = timeout;
+    this.method2Timeout = unmodifiableMap(new HashMap<>(method2Timeout));
+  }
+
+  /**
+   * Get a timeout of a request method. A per-method timeout overrides a default one.
+   *
+   * @param methodName a name of a request method
+   * @return a timeout. null if there is no timeout for it.
+   */
+  public Time getTimeout(final String methodName) {
+    final Time methodTimeout = null != methodName ? method2Timeout.get(methodName) : null;
+    return null != methodTimeout ? methodTimeout : timeout;
+  }
+
+  /**
+   * Get a deadline of a request method starting now. A nested one cannot outlive an outer deadline
+   * in the context, so the outer one is returned if it's earlier.
+   *
+   * @param methodName a name of a request method
+   * @return a deadline. null if there is neither a timeout for it nor an outer deadline.
+   */
+  public Deadline getDeadline(final String methodName) {
+    final Deadline inherited = ContextHolder.current().get(GRPC_REQUEST_DEADLINE);
+    final Time timeout = getTimeout(methodName);
+    if (null == timeout) {
+      return inherited;
+    }
+    final Deadline deadline = Deadline.after(timeout.toNanoseconds(), TimeUnit.NANOSECONDS);
+    return (null != inherited && inherited.isBefore(deadline)) ? inherited : deadline;
+  }
+
+  @Override
+  public <T> Invocation<T> apply(final Invocation<T> invocation) {
+    assertNotNull(invocation, "Invocation must not null");
+    return new DeadlineInvocation<>(invocation);
+  }
+
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  @ToString
+  @EqualsAndHashCode
+  private class DeadlineInvocation<T> implements Invocation<T> {
+
+    // an invocation may be decorated already (eg. hedging)
+    protected final Invocation<T> delegate;
+
+    @Override
+    public RequestMethod<T> getRequestMethod() {
+      return delegate.getRequestMethod();
+    }
+
+    @Override
+    public List<Object> getParameters() {
+      return delegate.getParameters();
+    }
+
+    @Override
+    public T invoke() throws Exception {
+      final Context current = ContextHolder.current();
+      final Deadline deadline = getDeadline(getRequestMethod().getName());
+      if (null == deadline || deadline == current.get(GRPC_REQUEST_DEADLINE)) {
+        // no timeout or an outer deadline is already in the context
+        return delegate.invoke();
+      }
+
+      logger.trace("Request {} with deadline: {}", getRequestMethod().getName(), deadline);
+      ContextHolder.attach(current.withValue(GRPC_REQUEST_DEADLINE, deadline));
+      try {
+        return delegate.invoke();
+      } finally {
+        ContextHolder.attach(current);
+      }
+    }
+
+    @Override
+    public Invocation<T> withParameters(final List<Object> parameters) {
+      assertNotNull(parameters, "Parameters must not null");
+      return new DeadlineInvocation<>(delegate.withParameters(parameters));
+    }
+  }
+
+}
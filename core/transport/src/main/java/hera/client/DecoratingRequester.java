@@ -8,7 +8,15 @@ import static hera.client.ClientContextKeys.GRPC_AFTER_FAILURE;
 import static hera.client.ClientContextKeys.GRPC_AFTER_SUCCESS;
 import static hera.client.ClientContextKeys.GRPC_BEFORE_REQUEST;
 import static hera.client.ClientContextKeys.GRPC_FAILOVER_HANDLER_CHAIN;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_CIRCUIT_BREAKER;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_DEADLINE;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_HEDGING;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_METRICS;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_SINGLE_FLIGHT;
 import static hera.client.ClientContextKeys.GRPC_REQUEST_TIMEOUT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TRACE;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TRACING;
+import static hera.client.ClientContextKeys.GRPC_VALUE_RETRY_BUDGET;
 import static hera.util.ValidationUtils.assertNotNull;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -18,10 +26,13 @@ import hera.FailoverHandler;
 import hera.Invocation;
 import hera.Requester;
 import hera.Response;
+import hera.api.function.Function0;
 import hera.exception.HerajException;
 import hera.strategy.InvocationStrategy;
-import java.util.HashMap;
+import io.grpc.Deadline;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 
@@ -33,6 +44,10 @@ class DecoratingRequester implements Requester {
 
   protected final Map<String, Invocation<?>> method2Invocation = new ConcurrentHashMap<>();
 
+  // methods with no strategy. an invocation is used as it is
+  protected final Set<String> undecoratedMethods =
+      Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
   protected final Object failoverHandlerLock = new Object();
   protected volatile FailoverHandler cached;
 
@@ -45,30 +60,119 @@ class DecoratingRequester implements Requester {
     assertNotNull(invocation, "Invocation must not null");
     logger.debug("Request with invocation: {}", invocation);
 
-    Response<T> response;
+    final Context current = ContextHolder.current();
+    final TracingStrategy tracing = current.get(GRPC_REQUEST_TRACING);
+    final TraceRecorder recorder = (null != tracing)
+        ? tracing.startTrace(invocation.getRequestMethod().getName()) : null;
+    if (null == recorder) {
+      return requestDecorated(invocation);
+    }
+
+    ContextHolder.attach(current.withValue(GRPC_REQUEST_TRACE, recorder));
+    boolean succeeded = false;
+    try {
+      final T value = requestDecorated(invocation);
+      succeeded = true;
+      return value;
+    } finally {
+      ContextHolder.attach(current);
+      tracing.finishTrace(recorder, succeeded);
+    }
+  }
+
+  protected <T> T requestDecorated(final Invocation<T> invocation) throws Exception {
     final Invocation<T> decorated = withDecorated(invocation);
     logger.trace("Decorated: {}", decorated);
+    final SingleFlight singleFlight = getSingleFlight(decorated);
+    if (null == singleFlight) {
+      // no response wrapper unless it fails
+      try {
+        final T value = decorated.invoke();
+        logger.debug("Success: {}", value);
+        onSuccess();
+        return value;
+      } catch (Exception e) {
+        return unwrap(handleFailure(decorated, e));
+      }
+    }
+
+    final String methodName = decorated.getRequestMethod().getName();
+    return unwrap(singleFlight.execute(methodName, decorated.getParameters(),
+        getDeadline(methodName), new Function0<Response<T>>() {
+          @Override
+          public Response<T> apply() {
+            return doRequest(decorated);
+          }
+        }));
+  }
+
+  protected <T> Response<T> doRequest(final Invocation<T> decorated) {
     try {
       final T value = decorated.invoke();
       logger.debug("Success: {}", value);
-      response = Response.success(value);
+      onSuccess();
+      return Response.success(value);
     } catch (Exception e) {
-      logger.debug("Failure: {}", e.toString());
-      response = Response.fail(e);
-      response = handleFailover(decorated, response);
+      return handleFailure(decorated, e);
     }
+  }
 
-    if (null != response.getError()) {
+  protected <T> Response<T> handleFailure(final Invocation<T> decorated, final Exception cause) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("Failure: {}", cause.toString());
+    }
+    final TraceRecorder recorder = ContextHolder.current().get(GRPC_REQUEST_TRACE);
+    final long failoverStartedAt = System.nanoTime();
+    final Response<T> response = handleFailover(decorated, Response.<T>fail(cause));
+    if (null != recorder) {
+      recorder.addSpan(TracePhase.FAILOVER, -1, failoverStartedAt, System.nanoTime());
+    }
+    if (null == response.getError()) {
+      // a failover has succeeded
+      onSuccess();
+    } else {
       // need to adjust stacktrace (current stack + origin stack)
       final Exception error = response.getError();
       error.setStackTrace(concatStackTrace(new Throwable().getStackTrace(),
           error.getStackTrace()));
-      throw error;
     }
+    return response;
+  }
 
+  protected <T> T unwrap(final Response<T> response) throws Exception {
+    if (null != response.getError()) {
+      throw response.getError();
+    }
     return response.getValue();
   }
 
+  protected SingleFlight getSingleFlight(final Invocation<?> invocation) {
+    final SingleFlight singleFlight = ContextHolder.current().get(GRPC_REQUEST_SINGLE_FLIGHT);
+    if (null == singleFlight
+        || !Methods.READ_ONLY_METHODS.contains(invocation.getRequestMethod().getName())) {
+      return null;
+    }
+    return singleFlight;
+  }
+
+  // a caller joining a request in flight waits with its own deadline
+  protected Deadline getDeadline(final String methodName) {
+    final Context current = ContextHolder.current();
+    final InvocationStrategy strategy = current.get(GRPC_REQUEST_TIMEOUT);
+    if (strategy instanceof DeadlineStrategy) {
+      return ((DeadlineStrategy) strategy).getDeadline(methodName);
+    }
+    return current.get(GRPC_REQUEST_DEADLINE);
+  }
+
+  protected void onSuccess() {
+    // a success earns a retry
+    final RetryBudget retryBudget = ContextHolder.current().get(GRPC_VALUE_RETRY_BUDGET);
+    if (null != retryBudget) {
+      retryBudget.onSuccess();
+    }
+  }
+
   @SuppressWarnings("unchecked")
   protected <R> Invocation<R> withDecorated(final Invocation<R> invocation) {
     final String name = invocation.getRequestMethod().getName();
@@ -76,17 +180,60 @@ class DecoratingRequester implements Requester {
       throw new HerajException("Name of invocation must not null");
     }
 
-    if (!method2Invocation.containsKey(name)) {
+    if (undecoratedMethods.contains(name)) {
+      return invocation;
+    }
+
+    final Invocation<?> cached = method2Invocation.get(name);
+    if (null == cached) {
       logger.trace("Decorated method is not cached. Make an new one");
-      Invocation<R> decorated = withTimeout(invocation);
+      // each hedged attempt is guarded by a circuit breaker and all of them share a deadline
+      Invocation<R> decorated = withTracing(invocation);
+      decorated = withCircuitBreaker(decorated);
+      decorated = withHedging(decorated);
+      decorated = withTimeout(decorated);
+      decorated = withMetrics(decorated);
       decorated = withBefore(decorated);
       decorated = withAfterSuccess(decorated);
       decorated = withAtferFailure(decorated);
+      if (decorated == invocation) {
+        undecoratedMethods.add(name);
+        return invocation;
+      }
       method2Invocation.put(name, decorated);
+      return decorated;
+    }
+    return ((Invocation<R>) cached).withParameters(invocation.getParameters());
+  }
+
+  protected <R> Invocation<R> withTracing(final Invocation<R> invocation) {
+    final Context context = ContextHolder.current();
+    final InvocationStrategy strategy = context.get(GRPC_REQUEST_TRACING);
+    if (null == strategy) {
+      return invocation;
+    }
+    logger.trace("With tracing: {}", strategy);
+    return strategy.apply(invocation);
+  }
+
+  protected <R> Invocation<R> withCircuitBreaker(final Invocation<R> invocation) {
+    final Context context = ContextHolder.current();
+    final InvocationStrategy strategy = context.get(GRPC_REQUEST_CIRCUIT_BREAKER);
+    if (null == strategy) {
+      return invocation;
     }
+    logger.trace("With circuit breaker: {}", strategy);
+    return strategy.apply(invocation);
+  }
 
-    final Invocation<R> cached = (Invocation<R>) method2Invocation.get(name);
-    return cached.withParameters(invocation.getParameters());
+  protected <R> Invocation<R> withHedging(final Invocation<R> invocation) {
+    final Context context = ContextHolder.current();
+    final InvocationStrategy strategy = context.get(GRPC_REQUEST_HEDGING);
+    if (null == strategy) {
+      return invocation;
+    }
+    logger.trace("With hedging: {}", strategy);
+    return strategy.apply(invocation);
   }
 
   protected <R> Invocation<R> withTimeout(final Invocation<R> invocation) {
@@ -99,6 +246,16 @@ class DecoratingRequester implements Requester {
     return strategy.apply(invocation);
   }
 
+  protected <R> Invocation<R> withMetrics(final Invocation<R> invocation) {
+    final Context context = ContextHolder.current();
+    final InvocationStrategy strategy = context.get(GRPC_REQUEST_METRICS);
+    if (null == strategy) {
+      return invocation;
+    }
+    logger.trace("With metrics: {}", strategy);
+    return strategy.apply(invocation);
+  }
+
   protected <R> Invocation<R> withBefore(final Invocation<R> invocation) {
     final Context context = ContextHolder.current();
     final InvocationStrategy strategy = context.get(GRPC_BEFORE_REQUEST);
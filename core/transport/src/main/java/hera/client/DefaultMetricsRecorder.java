@@ -0,0 +1,204 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Collections.unmodifiableMap;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.exception.CommitException;
+import io.grpc.Status;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock free metrics recorder keeping every sample since it's created. A latency is recorded in
+ * a cumulative log-linear histogram per method. A failure is counted by its commit status if it's
+ * a {@link CommitException}, or by its grpc status code. Take a snapshot by
+ * {@link #getSnapshot()} to export.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class DefaultMetricsRecorder implements MetricsRecorder {
+
+  protected final ConcurrentMap<String, MethodMetrics> method2Metrics = new ConcurrentHashMap<>();
+
+  protected final AtomicLong bytesSent = new AtomicLong(0L);
+
+  protected final AtomicLong bytesReceived = new AtomicLong(0L);
+
+  public DefaultMetricsRecorder() {
+  }
+
+  @Override
+  public void onRequestStart(final String method) {
+    metricsOf(method).inFlight.incrementAndGet();
+  }
+
+  @Override
+  public void onRequestEnd(final String method, final long latency, final Throwable error) {
+    final MethodMetrics metrics = metricsOf(method);
+    metrics.inFlight.decrementAndGet();
+    metrics.requests.incrementAndGet();
+    metrics.latencySum.addAndGet(Math.max(0L, latency));
+    metrics.latencies.record(latency);
+    updateMax(metrics.maxLatency, latency);
+    if (null == error) {
+      return;
+    }
+    metrics.failures.incrementAndGet();
+    final CommitException commitException = commitExceptionOf(error);
+    if (null != commitException) {
+      increment(metrics.commitErrors, commitException.getCommitStatus().name());
+    } else {
+      increment(metrics.statusErrors, Status.fromThrowable(error).getCode().name());
+    }
+  }
+
+  @Override
+  public void onRetry(final String method) {
+    metricsOf(method).retries.incrementAndGet();
+  }
+
+  @Override
+  public void onFailover(final String method) {
+    metricsOf(method).failovers.incrementAndGet();
+  }
+
+  @Override
+  public void onBytesSent(final String grpcMethod, final long bytes) {
+    bytesSent.addAndGet(bytes);
+  }
+
+  @Override
+  public void onBytesReceived(final String grpcMethod, final long bytes) {
+    bytesReceived.addAndGet(bytes);
+  }
+
+  @Override
+  public void onSubscriptionDelivery(final String method, final long lag,
+      final int bufferDepth) {
+    final MethodMetrics metrics = metricsOf(method);
+    metrics.deliveries.incrementAndGet();
+    metrics.lags.record(lag);
+    updateMax(metrics.maxLag, lag);
+    metrics.bufferDepth.set(bufferDepth);
+    updateMax(metrics.maxBufferDepth, bufferDepth);
+  }
+
+  /**
+   * Take a snapshot of metrics. Values of a method are read one by one without a lock, so they
+   * might be slightly inconsistent with each other while requests are in flight.
+   *
+   * @return a snapshot
+   */
+  public MetricsSnapshot getSnapshot() {
+    final Map<String, MethodStats> method2Stats = new TreeMap<>();
+    for (final Map.Entry<String, MethodMetrics> entry : method2Metrics.entrySet()) {
+      method2Stats.put(entry.getKey(), entry.getValue().toStats(entry.getKey()));
+    }
+    return new MetricsSnapshot(System.currentTimeMillis(), unmodifiableMap(method2Stats),
+        bytesSent.get(), bytesReceived.get());
+  }
+
+  protected MethodMetrics metricsOf(final String method) {
+    MethodMetrics metrics = method2Metrics.get(method);
+    if (null == metrics) {
+      final MethodMetrics created = new MethodMetrics();
+      metrics = method2Metrics.putIfAbsent(method, created);
+      if (null == metrics) {
+        metrics = created;
+      }
+    }
+    return metrics;
+  }
+
+  protected CommitException commitExceptionOf(final Throwable error) {
+    Throwable current = error;
+    while (null != current) {
+      if (current instanceof CommitException) {
+        return (CommitException) current;
+      }
+      current = current.getCause();
+    }
+    return null;
+  }
+
+  protected void increment(final ConcurrentMap<String, AtomicLong> key2Count, final String key) {
+    AtomicLong count = key2Count.get(key);
+    if (null == count) {
+      final AtomicLong created = new AtomicLong(0L);
+      count = key2Count.putIfAbsent(key, created);
+      if (null == count) {
+        count = created;
+      }
+    }
+    count.incrementAndGet();
+  }
+
+  protected void updateMax(final AtomicLong max, final long value) {
+    long prev;
+    do {
+      prev = max.get();
+    } while (value > prev && !max.compareAndSet(prev, value));
+  }
+
+  protected static class MethodMetrics {
+
+    protected final AtomicLong inFlight = new AtomicLong(0L);
+    protected final AtomicLong requests = new AtomicLong(0L);
+    protected final AtomicLong failures = new AtomicLong(0L);
+    protected final AtomicLong latencySum = new AtomicLong(0L);
+    protected final AtomicLong maxLatency = new AtomicLong(-1L);
+    protected final LatencyHistogram latencies = new LatencyHistogram(false);
+    protected final ConcurrentMap<String, AtomicLong> statusErrors = new ConcurrentHashMap<>();
+    protected final ConcurrentMap<String, AtomicLong> commitErrors = new ConcurrentHashMap<>();
+    protected final AtomicLong retries = new AtomicLong(0L);
+    protected final AtomicLong failovers = new AtomicLong(0L);
+    protected final AtomicLong deliveries = new AtomicLong(0L);
+    protected final LatencyHistogram lags = new LatencyHistogram(false);
+    protected final AtomicLong maxLag = new AtomicLong(-1L);
+    protected final AtomicLong bufferDepth = new AtomicLong(0L);
+    protected final AtomicLong maxBufferDepth = new AtomicLong(0L);
+
+    MethodStats toStats(final String method) {
+      final long requestCount = requests.get();
+      return MethodStats.newBuilder()
+          .method(method)
+          .requestCount(requestCount)
+          .failureCount(failures.get())
+          .inFlight(inFlight.get())
+          .meanLatency(0L == requestCount ? -1L : latencySum.get() / requestCount)
+          .p50Latency(latencies.getPercentile(0.5d))
+          .p90Latency(latencies.getPercentile(0.9d))
+          .p99Latency(latencies.getPercentile(0.99d))
+          .p999Latency(latencies.getPercentile(0.999d))
+          .maxLatency(maxLatency.get())
+          .statusErrorCounts(countsOf(statusErrors))
+          .commitErrorCounts(countsOf(commitErrors))
+          .retryCount(retries.get())
+          .failoverCount(failovers.get())
+          .deliveryCount(deliveries.get())
+          .p99DeliveryLag(lags.getPercentile(0.99d))
+          .maxDeliveryLag(maxLag.get())
+          .bufferDepth((int) bufferDepth.get())
+          .maxBufferDepth((int) maxBufferDepth.get())
+          .build();
+    }
+
+    protected Map<String, Long> countsOf(final Map<String, AtomicLong> key2Count) {
+      final Map<String, Long> counts = new HashMap<>();
+      for (final Map.Entry<String, AtomicLong> entry : key2Count.entrySet()) {
+        counts.put(entry.getKey(), entry.getValue().get());
+      }
+      return unmodifiableMap(counts);
+    }
+  }
+
+}
@@ -0,0 +1,310 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+import static org.slf4j.LoggerFactory.getLogger;
+import static types.AergoRPCServiceGrpc.newBlockingStub;
+import static types.AergoRPCServiceGrpc.newFutureStub;
+import static types.AergoRPCServiceGrpc.newStub;
+
+import hera.api.function.Function0;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import org.slf4j.Logger;
+import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
+
+/**
+ * A pool of channels to a single endpoint. A stub is picked from a channel with the least calls
+ * in flight. A new channel is opened when every channel has reached
+ * {@link ChannelPoolConfig#getMaxCallsPerChannel()}, and a channel except the first one is closed
+ * after being idle for {@link ChannelPoolConfig#getIdleTimeout()}. Every call on a stub is also
+ * tracked by its {@link GrpcEndpoint}. A pool of more than one channel is maintained on a daemon
+ * timer, so an idle channel is closed even if no stub is picked anymore.
+ */
+class EndpointConnection {
+
+  // interval of a pool maintenance
+  protected static final long MAINTENANCE_INTERVAL = TimeUnit.SECONDS.toNanos(1L);
+
+  // a retired channel may be still picked by a racing caller. wait it before a shutdown
+  protected static final long RETIRE_GRACE = TimeUnit.SECONDS.toNanos(5L);
+
+  // maintains pools of every connection. a maintenance never blocks
+  protected static final ScheduledExecutorService MAINTAINER;
+
+  static {
+    final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+        new DaemonThreadFactory("heraj-channel-pool"));
+    executor.setRemoveOnCancelPolicy(true);
+    MAINTAINER = executor;
+  }
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final GrpcEndpoint endpoint;
+
+  protected final Function0<ManagedChannel> channelFactory;
+
+  protected final ChannelPoolConfig config;
+
+  protected final long idleTimeoutNanos;
+
+  protected final ClientInterceptor endpointInterceptor;
+
+  protected final Object lock = new Object();
+
+  // copy on write
+  protected volatile List<PooledChannel> channels;
+
+  // guarded by lock
+  protected final List<PooledChannel> retired = new ArrayList<>();
+
+  // null if a pool never grows
+  protected final ScheduledFuture<?> maintenance;
+
+  EndpointConnection(final GrpcEndpoint endpoint, final Function0<ManagedChannel> channelFactory,
+      final ChannelPoolConfig config) {
+    this(endpoint, channelFactory, config, MAINTAINER);
+  }
+
+  EndpointConnection(final GrpcEndpoint endpoint, final Function0<ManagedChannel> channelFactory,
+      final ChannelPoolConfig config, final ScheduledExecutorService maintainer) {
+    assertNotNull(endpoint, "Endpoint must not null");
+    assertNotNull(channelFactory, "Channel factory must not null");
+    assertNotNull(config, "Channel pool config must not null");
+    assertNotNull(maintainer, "Maintainer must not null");
+    this.endpoint = endpoint;
+    this.channelFactory = channelFactory;
+    this.config = config;
+    this.idleTimeoutNanos = config.getIdleTimeout().toNanoseconds();
+    this.endpointInterceptor = endpoint.newTrackingInterceptor();
+    this.channels = singletonList(newPooledChannel());
+    this.maintenance = (1 < config.getMaxSize()) ? maintainer.scheduleWithFixedDelay(
+        new Runnable() {
+          @Override
+          public void run() {
+            try {
+              maintain();
+            } catch (Exception e) {
+              // an exception stops a scheduled task
+              logger.debug("Maintenance of {} failed by {}", endpoint.getHostnameAndPort(),
+                  e.toString());
+            }
+          }
+        }, MAINTENANCE_INTERVAL, MAINTENANCE_INTERVAL, TimeUnit.NANOSECONDS) : null;
+  }
+
+  public AergoRPCServiceBlockingStub getBlockingStub() {
+    return select().getBlockingStub();
+  }
+
+  public AergoRPCServiceFutureStub getFutureStub() {
+    return select().getFutureStub();
+  }
+
+  public AergoRPCServiceStub getStreamStub() {
+    return select().getStreamStub();
+  }
+
+  int size() {
+    return channels.size();
+  }
+
+  protected PooledChannel select() {
+    final List<PooledChannel> current = this.channels;
+    final PooledChannel leastLoaded = leastLoaded(current);
+    if (!isSaturated(leastLoaded, current)) {
+      return leastLoaded;
+    }
+
+    synchronized (lock) {
+      final List<PooledChannel> latest = this.channels;
+      final PooledChannel latestLeastLoaded = leastLoaded(latest);
+      if (!isSaturated(latestLeastLoaded, latest)) {
+        return latestLeastLoaded;
+      }
+      final PooledChannel added = newPooledChannel();
+      final List<PooledChannel> next = new ArrayList<>(latest);
+      next.add(added);
+      this.channels = unmodifiableList(next);
+      logger.debug("Grow channel pool of {} to {}", endpoint.getHostnameAndPort(), next.size());
+      return added;
+    }
+  }
+
+  protected boolean isSaturated(final PooledChannel leastLoaded,
+      final List<PooledChannel> channels) {
+    return leastLoaded.getActive() >= config.getMaxCallsPerChannel()
+        && channels.size() < config.getMaxSize();
+  }
+
+  protected PooledChannel leastLoaded(final List<PooledChannel> channels) {
+    PooledChannel selected = channels.get(0);
+    for (int i = 1; i < channels.size(); ++i) {
+      final PooledChannel candidate = channels.get(i);
+      if (candidate.getActive() < selected.getActive()) {
+        selected = candidate;
+      }
+    }
+    return selected;
+  }
+
+  // retired channels are shut down even after a pool shrinks to a single one
+  protected void maintain() {
+    synchronized (lock) {
+      final long now = System.nanoTime();
+      final Iterator<PooledChannel> it = retired.iterator();
+      while (it.hasNext()) {
+        final PooledChannel pooledChannel = it.next();
+        if (0 == pooledChannel.getActive() && (now - pooledChannel.retiredAt) >= RETIRE_GRACE) {
+          pooledChannel.channel.shutdown();
+          it.remove();
+        }
+      }
+
+      // keep the first one always
+      final List<PooledChannel> current = this.channels;
+      final List<PooledChannel> next = new ArrayList<>(current.size());
+      next.add(current.get(0));
+      for (int i = 1; i < current.size(); ++i) {
+        final PooledChannel pooledChannel = current.get(i);
+        if (0 == pooledChannel.getActive()
+            && (now - pooledChannel.lastUsedAt) >= idleTimeoutNanos) {
+          pooledChannel.retiredAt = now;
+          retired.add(pooledChannel);
+        } else {
+          next.add(pooledChannel);
+        }
+      }
+      if (next.size() != current.size()) {
+        this.channels = unmodifiableList(next);
+        logger.debug("Shrink channel pool of {} to {}", endpoint.getHostnameAndPort(),
+            next.size());
+      }
+    }
+  }
+
+  protected PooledChannel newPooledChannel() {
+    return new PooledChannel(channelFactory.apply(), endpointInterceptor);
+  }
+
+  void close() throws InterruptedException {
+    logger.debug("Close connection to {}", endpoint.getHostnameAndPort());
+    if (null != maintenance) {
+      maintenance.cancel(false);
+    }
+    final List<PooledChannel> toClose = new ArrayList<>();
+    synchronized (lock) {
+      toClose.addAll(channels);
+      toClose.addAll(retired);
+      retired.clear();
+    }
+    for (final PooledChannel pooledChannel : toClose) {
+      pooledChannel.channel.shutdown();
+    }
+    for (final PooledChannel pooledChannel : toClose) {
+      pooledChannel.channel.awaitTermination(3, TimeUnit.SECONDS);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("EndpointConnection(endpoint=%s, channels=%s)", endpoint, channels);
+  }
+
+  static class PooledChannel {
+
+    protected final ManagedChannel channel;
+
+    // calls in flight including subscriptions
+    protected final AtomicInteger active = new AtomicInteger(0);
+
+    protected volatile long lastUsedAt = System.nanoTime();
+
+    protected volatile long retiredAt;
+
+    @Getter
+    protected final AergoRPCServiceBlockingStub blockingStub;
+
+    @Getter
+    protected final AergoRPCServiceFutureStub futureStub;
+
+    @Getter
+    protected final AergoRPCServiceStub streamStub;
+
+    PooledChannel(final ManagedChannel channel, final ClientInterceptor endpointInterceptor) {
+      this.channel = channel;
+      final Channel tracked = ClientInterceptors.intercept(channel, endpointInterceptor,
+          newActiveCallInterceptor());
+      this.blockingStub = newBlockingStub(tracked);
+      this.futureStub = newFutureStub(tracked);
+      this.streamStub = newStub(tracked);
+    }
+
+    int getActive() {
+      return active.get();
+    }
+
+    protected ClientInterceptor newActiveCallInterceptor() {
+      return new ClientInterceptor() {
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            final MethodDescriptor<ReqT, RespT> method, final CallOptions callOptions,
+            final Channel next) {
+          return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(final Listener<RespT> responseListener, final Metadata headers) {
+              lastUsedAt = System.nanoTime();
+              active.incrementAndGet();
+              try {
+                super.start(new SimpleForwardingClientCallListener<RespT>(responseListener) {
+                  @Override
+                  public void onClose(final Status status, final Metadata trailers) {
+                    active.decrementAndGet();
+                    lastUsedAt = System.nanoTime();
+                    super.onClose(status, trailers);
+                  }
+                }, headers);
+              } catch (RuntimeException e) {
+                active.decrementAndGet();
+                throw e;
+              }
+            }
+          };
+        }
+      };
+    }
+
+    @Override
+    public String toString() {
+      return String.format("PooledChannel(channel=%s, active=%d)", channel, getActive());
+    }
+  }
+
+}
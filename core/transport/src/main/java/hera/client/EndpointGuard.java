@@ -0,0 +1,25 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import java.util.List;
+
+/**
+ * A guard of a request consulted by {@link GrpcClient} after selecting an endpoint. It's attached
+ * as {@link ClientContextKeys#GRPC_REQUEST_ENDPOINT_GUARD} for a single request.
+ */
+interface EndpointGuard {
+
+  /**
+   * Let a request go to a selected endpoint, divert it to one of {@code alternatives} or reject
+   * it by throwing an exception.
+   *
+   * @param selected     a selected endpoint
+   * @param alternatives endpoints a request can be diverted to. Empty if an endpoint is pinned
+   * @return an endpoint to send a request to
+   */
+  GrpcEndpoint guard(GrpcEndpoint selected, List<GrpcEndpoint> alternatives);
+
+}
@@ -0,0 +1,286 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.api.function.Function1;
+import hera.api.model.CloseableIterator;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.FetchControl;
+import hera.exception.HerajException;
+import io.grpc.Status;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+
+/**
+ * An iterator of events in a block range of a filter. A range is split into chunks listed by
+ * separate requests. A chunk size shrinks when a response is dense or too large to receive in time
+ * and grows when it's sparse, so that a response stays around {@link #TARGET_EVENTS} events.
+ * <p>
+ * Chunks are listed in parallel by {@link FetchControl#getParallelism()} and delivered in order of
+ * a filter. At most {@link FetchControl#getPrefetchDepth()} chunks are issued ahead and a new one
+ * is issued only on taking an event so that memory is bounded by about
+ * {@link FetchControl#getMaxInFlightBytes()}. It's not thread-safe except {@link #close()}, which
+ * may be called by another thread to abandon an iteration.
+ * </p>
+ */
+class EventRangeFetcher implements CloseableIterator<Event> {
+
+  protected static final int INITIAL_CHUNK_SIZE = 100;
+
+  protected static final int MAX_CHUNK_SIZE = 10000;
+
+  // a chunk grows under a quarter of it and shrinks over it
+  protected static final int TARGET_EVENTS = 1000;
+
+  protected static final long KEEP_ALIVE = 1000L; // milliseconds
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final EventFilter filter;
+
+  protected final Function1<EventFilter, List<Event>> lister;
+
+  protected final FetchControl fetchControl;
+
+  protected final ThreadPoolExecutor executor;
+
+  // in blocks. updated by a finished chunk
+  protected final AtomicInteger chunkSize = new AtomicInteger(INITIAL_CHUNK_SIZE);
+
+  // of finished chunks to estimate one being listed
+  protected final AtomicLong listedEvents = new AtomicLong(0L);
+  protected final AtomicLong listedChunks = new AtomicLong(0L);
+
+  protected final Deque<Future<List<Event>>> chunks = new ArrayDeque<>();
+
+  // ascending unless a filter is descending
+  protected final boolean descending;
+
+  // the nearest height not issued yet
+  protected long cursor;
+
+  protected final long lastHeight;
+
+  protected Iterator<Event> current = Collections.<Event>emptyList().iterator();
+
+  // guarded by this with chunks and a cursor
+  protected boolean finished = false;
+
+  /**
+   * Create an iterator of events.
+   *
+   * @param filter       an event filter with a block range
+   * @param lister       a function listing events by a single request
+   * @param fetchControl a fetch control
+   */
+  EventRangeFetcher(final EventFilter filter, final Function1<EventFilter, List<Event>> lister,
+      final FetchControl fetchControl) {
+    assertNotNull(filter, "Filter must not null");
+    assertTrue(0 == filter.getRecentBlockCount(), "Recent block count is not supported");
+    assertTrue(filter.getFromBlockNumber() <= filter.getToBlockNumber(),
+        "From block number must <= to block number");
+    assertNotNull(lister, "Lister must not null");
+    assertNotNull(fetchControl, "FetchControl must not null");
+    this.filter = filter;
+    this.lister = lister;
+    this.fetchControl = fetchControl;
+    this.descending = filter.isDecending();
+    this.cursor = descending ? filter.getToBlockNumber() : filter.getFromBlockNumber();
+    this.lastHeight = descending ? filter.getFromBlockNumber() : filter.getToBlockNumber();
+    final int parallelism = fetchControl.getParallelism();
+    this.executor = new ThreadPoolExecutor(parallelism, parallelism, KEEP_ALIVE,
+        TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+        new DaemonThreadFactory("heraj-event-fetch"));
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!current.hasNext()) {
+      final Future<List<Event>> chunk;
+      synchronized (this) {
+        if (finished) {
+          return false;
+        }
+        issue();
+        if (chunks.isEmpty()) {
+          close();
+          return false;
+        }
+        chunk = chunks.poll();
+      }
+      current = await(chunk).iterator();
+      synchronized (this) {
+        if (!finished) {
+          issue();
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Event next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.next();
+  }
+
+  protected boolean hasRemaining() {
+    return descending ? cursor >= lastHeight : cursor <= lastHeight;
+  }
+
+  protected void issue() {
+    while (hasRemaining() && chunks.size() < fetchControl.getPrefetchDepth()
+        && (chunks.isEmpty() || inFlightWeight() < fetchControl.getMaxInFlightBytes())) {
+      final int size = chunkSize.get();
+      final long from;
+      final long to;
+      if (descending) {
+        to = cursor;
+        from = Math.max(lastHeight, cursor - size + 1);
+        cursor = from - 1;
+      } else {
+        from = cursor;
+        to = Math.min(lastHeight, cursor + size - 1);
+        cursor = to + 1;
+      }
+      chunks.add(executor.submit(new Callable<List<Event>>() {
+        @Override
+        public List<Event> call() {
+          return list(from, to);
+        }
+      }));
+    }
+  }
+
+  // a finished chunk weighs its own and a listing one weighs an average of finished ones
+  protected long inFlightWeight() {
+    final long chunkCount = listedChunks.get();
+    final long averageEvents = (0L == chunkCount) ? 1L
+        : Math.max(1L, listedEvents.get() / chunkCount);
+    long weight = 0L;
+    for (final Future<List<Event>> chunk : chunks) {
+      long events = averageEvents;
+      if (chunk.isDone()) {
+        try {
+          events = chunk.get().size();
+        } catch (Exception e) {
+          // thrown on delivery
+        }
+      }
+      weight += events * ResponseCache.EVENT_WEIGHT;
+    }
+    return weight;
+  }
+
+  // events of [from, to] in order of a filter. split on a response too large
+  protected List<Event> list(final long from, final long to) {
+    final EventFilter chunkFilter = EventFilter.newBuilder(filter.getContractAddress())
+        .eventName(filter.getEventName())
+        .args(filter.getArgs())
+        .fromBlockNumber(from)
+        .toBlockNumber(to)
+        .decending(descending)
+        .build();
+    final int size = (int) (to - from + 1);
+    final List<Event> events;
+    try {
+      events = lister.apply(chunkFilter);
+    } catch (RuntimeException e) {
+      if (1 == size || !isTooLarge(e)) {
+        throw e;
+      }
+      final long middle = from + size / 2 - 1;
+      logger.debug("Split [{}, {}] on {}", from, to, Status.fromThrowable(e).getCode());
+      chunkSize.set(Math.max(1, size / 2));
+      final List<Event> first = list(descending ? middle + 1 : from, descending ? to : middle);
+      final List<Event> second = list(descending ? from : middle + 1, descending ? middle : to);
+      final List<Event> merged = new ArrayList<>(first.size() + second.size());
+      merged.addAll(first);
+      merged.addAll(second);
+      return merged;
+    }
+    adapt(size, events.size());
+    listedEvents.addAndGet(events.size());
+    listedChunks.incrementAndGet();
+    return events;
+  }
+
+  protected void adapt(final int size, final int eventCount) {
+    if (eventCount > TARGET_EVENTS) {
+      chunkSize.set(Math.max(1, size / 2));
+    } else if (eventCount < TARGET_EVENTS / 4) {
+      chunkSize.set((int) Math.min(MAX_CHUNK_SIZE, 2L * size));
+    }
+  }
+
+  protected boolean isTooLarge(final Throwable e) {
+    final Status.Code code = Status.fromThrowable(e).getCode();
+    return Status.Code.RESOURCE_EXHAUSTED == code || Status.Code.DEADLINE_EXCEEDED == code;
+  }
+
+  protected List<Event> await(final Future<List<Event>> chunk) {
+    try {
+      return chunk.get();
+    } catch (CancellationException e) {
+      // closed by another thread
+      return Collections.emptyList();
+    } catch (ExecutionException e) {
+      synchronized (this) {
+        if (finished) {
+          // interrupted by closing
+          return Collections.emptyList();
+        }
+      }
+      close();
+      final Throwable cause = e.getCause();
+      throw (cause instanceof RuntimeException) ? (RuntimeException) cause
+          : new HerajException(cause);
+    } catch (InterruptedException e) {
+      close();
+      Thread.currentThread().interrupt();
+      throw new HerajException(e);
+    }
+  }
+
+  /**
+   * Stop listing. Chunks being listed are discarded.
+   */
+  @Override
+  public synchronized void close() {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    for (final Future<List<Event>> chunk : chunks) {
+      chunk.cancel(true);
+    }
+    chunks.clear();
+    executor.shutdownNow();
+  }
+
+}
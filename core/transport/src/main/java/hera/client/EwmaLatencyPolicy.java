@@ -0,0 +1,44 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.ToString;
+
+/**
+ * A policy choosing an endpoint with the least expected latency. A cost of an endpoint is its
+ * latency ewma multiplied by the number of requests which will be in flight, so a fast node is
+ * preferred until it starts to queue requests. An endpoint without any latency sample costs
+ * nothing to get probed first.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@ToString
+public class EwmaLatencyPolicy implements LoadBalancePolicy {
+
+  @ToString.Exclude
+  protected final AtomicInteger counter = new AtomicInteger(0);
+
+  @Override
+  public GrpcEndpoint select(final List<GrpcEndpoint> candidates) {
+    final int size = candidates.size();
+    final int offset = (counter.getAndIncrement() & Integer.MAX_VALUE) % size;
+    GrpcEndpoint selected = null;
+    double leastCost = Double.MAX_VALUE;
+    for (int i = 0; i < size; ++i) {
+      final GrpcEndpoint candidate = candidates.get((offset + i) % size);
+      final double cost = candidate.getLatencyEwma() * (candidate.getOutstanding() + 1);
+      if (cost < leastCost) {
+        selected = candidate;
+        leastCost = cost;
+      }
+    }
+    return selected;
+  }
+
+}
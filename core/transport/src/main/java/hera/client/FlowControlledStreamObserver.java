@@ -0,0 +1,331 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.api.model.FlowControl;
+import hera.api.model.FlowControl.OverflowPolicy;
+import hera.api.model.FlowControlledSubscription;
+import hera.exception.ConnectionException;
+import hera.exception.HerajException;
+import hera.exception.TransportExceptionConverter;
+import hera.transport.ModelConverter;
+import hera.util.ExceptionConverter;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+
+/**
+ * A stream observer with inbound flow control of grpc disabled. Raw messages are received into a
+ * bounded buffer and converted and delivered on an executor only as much as an observer has
+ * requested. A call keeps a window of {@code bufferSize} messages requested from a server. With
+ * {@link OverflowPolicy#BLOCK}, a window is narrowed by buffered messages so that a server can't
+ * send more than a buffer can hold. With the other policies, a window is kept full and a buffer
+ * overflows when an observer is slower than a server.
+ *
+ * @param <ReqT>    a type of a grpc request
+ * @param <RpcT>    a type of a grpc response
+ * @param <DomainT> a type of a domain model
+ */
+class FlowControlledStreamObserver<ReqT, RpcT, DomainT>
+    implements ClientResponseObserver<ReqT, RpcT>, FlowControlledSubscription<DomainT> {
+
+  // an idle deliverer is terminated after it
+  protected static final long DELIVERER_KEEP_ALIVE = 60L;
+
+  // used if no executor is given
+  protected static final Executor SHARED_DELIVERER = new ThreadPoolExecutor(0,
+      Integer.MAX_VALUE, DELIVERER_KEEP_ALIVE, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+      new DaemonThreadFactory("heraj-subscription"));
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ExceptionConverter<HerajException> exceptionConverter =
+      new TransportExceptionConverter();
+
+  protected final io.grpc.Context.CancellableContext context;
+
+  protected final hera.api.model.StreamObserver<DomainT> delegate;
+
+  protected final ModelConverter<DomainT, RpcT> converter;
+
+  protected final int bufferSize;
+
+  protected final OverflowPolicy overflowPolicy;
+
+  protected final Executor executor;
+
+  // a window is refilled when it's short by this
+  protected final int refillThreshold;
+
+  // null if no metrics
+  protected final String methodName;
+  protected final MetricsRecorder metricsRecorder;
+
+  protected final Object lock = new Object();
+
+  // guarded by lock
+  protected final ArrayDeque<RpcT> buffer = new ArrayDeque<>();
+  // arrival times of buffered messages in nanoseconds. empty if no metrics
+  protected final ArrayDeque<Long> arrivals = new ArrayDeque<>();
+  protected long demand = 0L;
+  protected int inWindow = 0;
+  protected long dropped = 0L;
+  protected Throwable error;
+  protected boolean completed = false;
+  protected boolean terminated = false;
+
+  // serializes delivery
+  protected final AtomicInteger pending = new AtomicInteger(0);
+
+  protected volatile ClientCallStreamObserver<ReqT> call;
+
+  FlowControlledStreamObserver(final io.grpc.Context.CancellableContext context,
+      final hera.api.model.StreamObserver<DomainT> delegate,
+      final ModelConverter<DomainT, RpcT> converter, final FlowControl flowControl) {
+    this(context, delegate, converter, flowControl, null, null);
+  }
+
+  /**
+   * Create a flow controlled stream observer recording a lag and a buffer depth of each delivery.
+   *
+   * @param context         a cancellable context of a call
+   * @param delegate        an observer of domain models
+   * @param converter       a converter of a message
+   * @param flowControl     a flow control
+   * @param methodName      a request method name of a subscription
+   * @param metricsRecorder a metrics recorder. null if no metrics
+   */
+  FlowControlledStreamObserver(final io.grpc.Context.CancellableContext context,
+      final hera.api.model.StreamObserver<DomainT> delegate,
+      final ModelConverter<DomainT, RpcT> converter, final FlowControl flowControl,
+      final String methodName, final MetricsRecorder metricsRecorder) {
+    assertNotNull(context, "Context must not null");
+    assertNotNull(delegate, "Observer must not null");
+    assertNotNull(converter, "Converter must not null");
+    assertNotNull(flowControl, "Flow control must not null");
+    this.context = context;
+    this.delegate = delegate;
+    this.converter = converter;
+    this.bufferSize = flowControl.getBufferSize();
+    this.overflowPolicy = flowControl.getOverflowPolicy();
+    this.executor = null != flowControl.getExecutor() ? flowControl.getExecutor()
+        : SHARED_DELIVERER;
+    this.refillThreshold = Math.max(1, bufferSize / 4);
+    this.methodName = methodName;
+    this.metricsRecorder = metricsRecorder;
+  }
+
+  @Override
+  public void beforeStart(final ClientCallStreamObserver<ReqT> requestStream) {
+    this.call = requestStream;
+    synchronized (lock) {
+      inWindow = bufferSize;
+    }
+    requestStream.disableAutoRequestWithInitial(bufferSize);
+  }
+
+  @Override
+  public void request(final long count) {
+    assertTrue(count > 0L, "Count must be positive");
+    synchronized (lock) {
+      demand = (Long.MAX_VALUE - demand <= count) ? Long.MAX_VALUE : demand + count;
+    }
+    deliver();
+  }
+
+  @Override
+  public void onNext(final RpcT value) {
+    boolean overflowed = false;
+    synchronized (lock) {
+      if (terminated || null != error) {
+        return;
+      }
+      --inWindow;
+      if (buffer.size() >= bufferSize) {
+        if (OverflowPolicy.DROP_OLDEST == overflowPolicy) {
+          buffer.pollFirst();
+          arrivals.pollFirst();
+          ++dropped;
+          logger.debug("Drop the oldest message by a full buffer (dropped: {})", dropped);
+        } else {
+          overflowed = true;
+          buffer.clear();
+          arrivals.clear();
+          error = new HerajException(
+              String.format("Subscription buffer overflowed (size: %d)", bufferSize));
+        }
+      }
+      if (!overflowed) {
+        buffer.addLast(value);
+        if (null != metricsRecorder) {
+          arrivals.addLast(System.nanoTime());
+        }
+        refill();
+      }
+    }
+    if (overflowed) {
+      context.cancel(error);
+    }
+    deliver();
+  }
+
+  @Override
+  public void onError(final Throwable t) {
+    final HerajException converted = exceptionConverter.convert(t);
+    logger.debug("Streaming failed by {}", converted.toString());
+    if (converted instanceof ConnectionException) {
+      logger.debug("Stop subscription by connection error");
+      context.cancel(converted);
+    }
+    synchronized (lock) {
+      if (null == error && !completed) {
+        error = t;
+      }
+    }
+    deliver();
+  }
+
+  @Override
+  public void onCompleted() {
+    logger.debug("Streaming finished successfully");
+    synchronized (lock) {
+      completed = true;
+    }
+    deliver();
+  }
+
+  @Override
+  public void unsubscribe() {
+    synchronized (lock) {
+      if (terminated) {
+        logger.debug("Subscription is already terminated");
+        return;
+      }
+      terminated = true;
+      buffer.clear();
+      arrivals.clear();
+    }
+    logger.debug("Unsubscribe subscription");
+    context.close();
+  }
+
+  @Override
+  public boolean isUnsubscribed() {
+    return context.isCancelled();
+  }
+
+  // guarded by lock
+  protected void refill() {
+    final ClientCallStreamObserver<ReqT> current = this.call;
+    if (null == current || completed || null != error) {
+      return;
+    }
+    final int buffered = (OverflowPolicy.BLOCK == overflowPolicy) ? buffer.size() : 0;
+    final int shortage = bufferSize - inWindow - buffered;
+    if (shortage >= refillThreshold) {
+      inWindow += shortage;
+      current.request(shortage);
+    }
+  }
+
+  protected void deliver() {
+    if (0 != pending.getAndIncrement()) {
+      return;
+    }
+    try {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          drain();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      logger.debug("Delivery rejected by executor: {}", e.toString());
+      synchronized (lock) {
+        if (null == error) {
+          error = e;
+        }
+      }
+      context.cancel(e);
+      drain();
+    }
+  }
+
+  protected void drain() {
+    int missed = 1;
+    do {
+      while (true) {
+        RpcT next = null;
+        Long arrival = null;
+        int depth = 0;
+        Throwable failure = null;
+        boolean finished = false;
+        synchronized (lock) {
+          if (terminated) {
+            break;
+          }
+          if (0L < demand && !buffer.isEmpty()) {
+            next = buffer.pollFirst();
+            arrival = arrivals.pollFirst();
+            depth = buffer.size();
+            if (Long.MAX_VALUE != demand) {
+              --demand;
+            }
+            refill();
+          } else if (buffer.isEmpty() && (null != error || completed)) {
+            terminated = true;
+            failure = error;
+            finished = null == error;
+          } else {
+            break;
+          }
+        }
+
+        if (null != next) {
+          if (null != arrival) {
+            metricsRecorder.onSubscriptionDelivery(methodName, System.nanoTime() - arrival, depth);
+          }
+          try {
+            delegate.onNext(converter.convertToDomainModel(next));
+          } catch (Exception e) {
+            logger.debug("Observer failed by {}", e.toString());
+            synchronized (lock) {
+              terminated = true;
+              buffer.clear();
+              arrivals.clear();
+            }
+            context.cancel(e);
+            delegate.onError(e);
+          }
+        } else if (finished) {
+          delegate.onCompleted();
+        } else if (null != failure) {
+          delegate.onError(failure);
+        }
+      }
+      missed = pending.addAndGet(-missed);
+    } while (0 != missed);
+  }
+
+  @Override
+  public String toString() {
+    synchronized (lock) {
+      return String.format("FlowControlledSubscription(buffered=%d, demand=%d, dropped=%d, "
+          + "terminated=%s)", buffer.size(), demand, dropped, terminated);
+    }
+  }
+
+}
@@ -1,6 +1,7 @@
 package hera.client;
 
 import java.io.Closeable;
+import java.util.List;
 import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
@@ -13,6 +14,13 @@ interface GrpcClient extends Closeable {
 
   AergoRPCServiceStub getStreamStub();
 
+  List<GrpcEndpoint> getEndpoints();
+
+  GrpcEndpoint selectEndpoint();
+
+  // an endpoint selected last on a current thread. null if none
+  GrpcEndpoint getLastSelected();
+
   void close();
 
 }
@@ -4,16 +4,25 @@
 
 package hera.client;
 
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_CHANNEL_POOL;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_ENDPOINT;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_ENDPOINTS;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_HEALTH_CHECK;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_LOAD_BALANCE_POLICY;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_NEGOTIATION;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_STRATEGY;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT_GUARD;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ROUTING_KEY;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TRACING;
+import static hera.client.ClientContextKeys.GRPC_VALUE_METRICS_RECORDER;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
 import static org.slf4j.LoggerFactory.getLogger;
-import static types.AergoRPCServiceGrpc.newBlockingStub;
-import static types.AergoRPCServiceGrpc.newFutureStub;
-import static types.AergoRPCServiceGrpc.newStub;
 
 import hera.Context;
 import hera.ContextHolder;
+import hera.api.function.Function0;
 import hera.api.model.HostnameAndPort;
 import hera.exception.HerajException;
 import hera.strategy.ChannelConfigurationStrategy;
@@ -23,9 +32,12 @@ import hera.strategy.PlainTextChannelStrategy;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 import org.slf4j.Logger;
 import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
@@ -36,62 +48,190 @@ class GrpcClientImpl implements GrpcClient, Closeable {
   protected final transient Logger logger = getLogger(getClass());
 
   protected final Object lock = new Object();
-  protected volatile ManagedChannel channel;
-  protected volatile AergoRPCServiceBlockingStub blockingStub;
-  protected volatile AergoRPCServiceFutureStub futureStub;
-  protected volatile AergoRPCServiceStub streamStub;
+
+  // initialized lazily with an attached context. assigned last on init
+  protected volatile List<GrpcEndpoint> endpoints;
+  protected volatile Map<GrpcEndpoint, EndpointConnection> endpoint2Connection;
+  protected volatile LoadBalancePolicy loadBalancePolicy;
+
+  // null if health check is disabled
+  protected volatile HealthChecker healthChecker;
+
+  // a failover handler reroutes a call away from an endpoint which has just failed it
+  protected final ThreadLocal<GrpcEndpoint> lastSelected = new ThreadLocal<>();
 
   GrpcClientImpl() {
   }
 
   public AergoRPCServiceBlockingStub getBlockingStub() {
-    if (null == channel) {
+    return select().getBlockingStub();
+  }
+
+  public AergoRPCServiceFutureStub getFutureStub() {
+    return select().getFutureStub();
+  }
+
+  public AergoRPCServiceStub getStreamStub() {
+    return select().getStreamStub();
+  }
+
+  @Override
+  public List<GrpcEndpoint> getEndpoints() {
+    if (null == endpoints) {
       synchronized (lock) {
-        if (null == channel) {
+        if (null == endpoints) {
           initStub();
         }
       }
     }
-    return blockingStub;
+    return endpoints;
   }
 
-  public AergoRPCServiceFutureStub getFutureStub() {
-    if (null == channel) {
-      synchronized (lock) {
-        if (null == channel) {
-          initStub();
+  @Override
+  public GrpcEndpoint selectEndpoint() {
+    final GrpcEndpoint selected = doSelectEndpoint();
+    lastSelected.set(selected);
+    return selected;
+  }
+
+  @Override
+  public GrpcEndpoint getLastSelected() {
+    return lastSelected.get();
+  }
+
+  protected GrpcEndpoint doSelectEndpoint() {
+    final List<GrpcEndpoint> endpoints = getEndpoints();
+    final Context current = ContextHolder.current();
+    final EndpointGuard guard = current.get(GRPC_REQUEST_ENDPOINT_GUARD);
+    if (1 == endpoints.size()) {
+      final GrpcEndpoint only = endpoints.get(0);
+      return (null != guard) ? guard.guard(only, endpoints) : only;
+    }
+
+    final GrpcEndpoint pinned = current.get(GRPC_REQUEST_ENDPOINT);
+    if (null != pinned && endpoint2Connection.containsKey(pinned)) {
+      logger.trace("Use pinned endpoint: {}", pinned);
+      return (null != guard) ? guard.guard(pinned, Collections.<GrpcEndpoint>emptyList())
+          : pinned;
+    }
+
+    final List<GrpcEndpoint> candidates = filterHealthy(endpoints);
+    final Object routingKey = current.get(GRPC_REQUEST_ROUTING_KEY);
+    final GrpcEndpoint selected = (null != routingKey) ? rendezvous(routingKey, candidates)
+        : loadBalancePolicy.select(candidates);
+    logger.trace("Selected endpoint: {} (routing key: {})", selected, routingKey);
+    return (null != guard) ? guard.guard(selected, candidates) : selected;
+  }
+
+  protected EndpointConnection select() {
+    final GrpcEndpoint selected = selectEndpoint();
+    return endpoint2Connection.get(selected);
+  }
+
+  protected List<GrpcEndpoint> filterHealthy(final List<GrpcEndpoint> endpoints) {
+    List<GrpcEndpoint> healthy = null;
+    for (int i = 0; i < endpoints.size(); ++i) {
+      final GrpcEndpoint endpoint = endpoints.get(i);
+      if (null != healthy) {
+        if (endpoint.isHealthy()) {
+          healthy.add(endpoint);
         }
+      } else if (!endpoint.isHealthy()) {
+        healthy = new ArrayList<>(endpoints.subList(0, i));
       }
     }
-    return futureStub;
+    // use all of them if there is no healthy one
+    return (null == healthy || healthy.isEmpty()) ? endpoints : healthy;
   }
 
-  public AergoRPCServiceStub getStreamStub() {
-    if (null == channel) {
-      synchronized (lock) {
-        if (null == channel) {
-          initStub();
-        }
+  /**
+   * Select an endpoint by rendezvous hashing. A routing key always goes to the same endpoint while
+   * it's healthy and only keys on an unhealthy endpoint are moved to others.
+   *
+   * @param routingKey a routing key
+   * @param candidates a candidate endpoints
+   * @return a selected endpoint
+   */
+  static GrpcEndpoint rendezvous(final Object routingKey, final List<GrpcEndpoint> candidates) {
+    final long keyHash = ((long) routingKey.hashCode()) << 32;
+    GrpcEndpoint selected = null;
+    long highestScore = Long.MIN_VALUE;
+    for (final GrpcEndpoint candidate : candidates) {
+      final long score = mix(keyHash | (candidate.getHostnameAndPort().hashCode() & 0xffffffffL));
+      if (null == selected || score > highestScore) {
+        selected = candidate;
+        highestScore = score;
       }
     }
-    return streamStub;
+    return selected;
+  }
+
+  // murmur3 finalizer
+  private static long mix(final long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
   }
 
   protected void initStub() {
     final Context current = ContextHolder.current();
     logger.trace("Context: {}", current);
-    final ManagedChannelBuilder<?> raw = getChannelBuilder(current);
-    final ManagedChannelBuilder<?> configured = configure(raw, current);
-    final ManagedChannel channel = configured.build();
-    this.channel = channel;
-    this.blockingStub = newBlockingStub(channel);
-    this.futureStub = newFutureStub(channel);
-    this.streamStub = newStub(channel);
-  }
-
-  protected ManagedChannelBuilder<?> getChannelBuilder(final Context context) {
-    final HostnameAndPort hostnameAndPort = context.getOrDefault(GRPC_CONNECTION_ENDPOINT,
-        HostnameAndPort.of("localhost:7845"));
+    final List<GrpcEndpoint> endpoints = new ArrayList<>();
+    final Map<GrpcEndpoint, EndpointConnection> endpoint2Connection = new HashMap<>();
+    final ChannelPoolConfig channelPoolConfig = current.getOrDefault(
+        GRPC_CONNECTION_CHANNEL_POOL, ChannelPoolConfig.DEFAULT);
+    logger.debug("Use channel pool: {}", channelPoolConfig);
+    for (final HostnameAndPort hostnameAndPort : getHostnameAndPorts(current)) {
+      final GrpcEndpoint endpoint = new GrpcEndpoint(hostnameAndPort);
+      endpoints.add(endpoint);
+      endpoint2Connection.put(endpoint, new EndpointConnection(endpoint,
+          newChannelFactory(current, hostnameAndPort), channelPoolConfig));
+    }
+    this.loadBalancePolicy = current.getOrDefault(GRPC_CONNECTION_LOAD_BALANCE_POLICY,
+        new RoundRobinPolicy());
+    logger.debug("Use load balance policy: {}", loadBalancePolicy);
+    this.endpoint2Connection = endpoint2Connection;
+
+    final HealthCheckConfig healthCheckConfig = current.get(GRPC_CONNECTION_HEALTH_CHECK);
+    if (null != healthCheckConfig) {
+      final List<EndpointConnection> connections = new ArrayList<>();
+      for (final GrpcEndpoint endpoint : endpoints) {
+        connections.add(endpoint2Connection.get(endpoint));
+      }
+      this.healthChecker = new HealthChecker(connections, healthCheckConfig);
+      this.healthChecker.start();
+    }
+    this.endpoints = unmodifiableList(endpoints);
+  }
+
+  protected Function0<ManagedChannel> newChannelFactory(final Context context,
+      final HostnameAndPort hostnameAndPort) {
+    return new Function0<ManagedChannel>() {
+      @Override
+      public ManagedChannel apply() {
+        final ManagedChannelBuilder<?> raw = getChannelBuilder(context, hostnameAndPort);
+        final ManagedChannelBuilder<?> configured = configure(raw, context);
+        return configured.build();
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  protected List<HostnameAndPort> getHostnameAndPorts(final Context context) {
+    final List<HostnameAndPort> hostnameAndPorts = context.get(GRPC_CONNECTION_ENDPOINTS);
+    if (null != hostnameAndPorts && !hostnameAndPorts.isEmpty()) {
+      return hostnameAndPorts;
+    }
+    return singletonList(context.getOrDefault(GRPC_CONNECTION_ENDPOINT,
+        HostnameAndPort.of("localhost:7845")));
+  }
+
+  protected ManagedChannelBuilder<?> getChannelBuilder(final Context context,
+      final HostnameAndPort hostnameAndPort) {
     final ConnectStrategy<?> connectStrategy = context.getOrDefault(GRPC_CONNECTION_STRATEGY,
         new NettyConnectStrategy());
     logger.debug("Use connection strategy: {} with endpoint: {}", connectStrategy, hostnameAndPort);
@@ -107,24 +247,41 @@ class GrpcClientImpl implements GrpcClient, Closeable {
       logger.debug("Configure channel with: {}", strategy);
       strategy.configure(builder);
     }
+    final MetricsRecorder metricsRecorder = context.get(GRPC_VALUE_METRICS_RECORDER);
+    if (null != metricsRecorder) {
+      builder.intercept(new MetricsInterceptor(metricsRecorder));
+    }
+    if (null != context.get(GRPC_REQUEST_TRACING)) {
+      builder.intercept(new TracingInterceptor());
+    }
     return builder;
   }
 
   @Override
   public void close() {
-    try {
-      if (null != this.channel) {
-        this.channel.shutdown().awaitTermination(3, TimeUnit.SECONDS);
+    if (null == this.endpoints) {
+      return;
+    }
+    if (null != this.healthChecker) {
+      this.healthChecker.close();
+    }
+    Throwable error = null;
+    for (final EndpointConnection connection : this.endpoint2Connection.values()) {
+      try {
+        connection.close();
+      } catch (Throwable e) {
+        logger.debug("Fail to close grpc client by {}", e.toString());
+        error = e;
       }
-    } catch (Throwable e) {
-      logger.debug("Fail to close grpc client by {}", e.toString());
-      throw new HerajException(e);
+    }
+    if (null != error) {
+      throw new HerajException(error);
     }
   }
 
   @Override
   public String toString() {
-    return String.format("GrpcClientImpl(channel=%s)", channel);
+    return String.format("GrpcClientImpl(endpoints=%s)", endpoints);
   }
 
 }
@@ -0,0 +1,203 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.HostnameAndPort;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+/**
+ * A view of an aergo node endpoint used by a {@link LoadBalancePolicy}. It keeps a number of
+ * outstanding unary requests, an exponentially weighted moving average of their latency and a
+ * passive health marked by an {@code UNAVAILABLE} response. If a health check is enabled, it also
+ * keeps a best block height and a score of the last check.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class GrpcEndpoint {
+
+  // weight of a new latency sample
+  protected static final double EWMA_WEIGHT = 0.2d;
+
+  // an endpoint failed with UNAVAILABLE is excluded for this duration
+  protected static final long UNAVAILABLE_COOL_DOWN = TimeUnit.SECONDS.toNanos(5L);
+
+  protected static final long NOT_UNAVAILABLE = Long.MIN_VALUE;
+
+  @Getter
+  protected final HostnameAndPort hostnameAndPort;
+
+  protected final AtomicInteger outstanding = new AtomicInteger(0);
+
+  // double bits of a latency ewma in nanoseconds
+  protected final AtomicLong latencyEwma = new AtomicLong(Double.doubleToLongBits(0.0d));
+
+  protected volatile long unavailableAt = NOT_UNAVAILABLE;
+
+  // updated by a health checker
+  protected volatile long bestHeight = -1L;
+  protected volatile boolean healthChecked = false;
+  protected volatile boolean checkedHealthy = true;
+  protected volatile double checkedScore = 0.0d;
+
+  GrpcEndpoint(final HostnameAndPort hostnameAndPort) {
+    assertNotNull(hostnameAndPort, "HostnameAndPort must not null");
+    this.hostnameAndPort = hostnameAndPort;
+  }
+
+  /**
+   * Get a number of unary requests in flight on this endpoint.
+   *
+   * @return a number of outstanding requests
+   */
+  public int getOutstanding() {
+    return outstanding.get();
+  }
+
+  /**
+   * Get an exponentially weighted moving average of a unary request latency.
+   *
+   * @return a latency in nanoseconds. 0 if no request has completed yet
+   */
+  public double getLatencyEwma() {
+    return Double.longBitsToDouble(latencyEwma.get());
+  }
+
+  /**
+   * Get a best block height of this endpoint seen by the last health check.
+   *
+   * @return a best block height. -1 if unknown
+   */
+  public long getBestHeight() {
+    return bestHeight;
+  }
+
+  /**
+   * Check if this endpoint has not responded with {@code UNAVAILABLE} recently and has passed the
+   * last health check.
+   *
+   * @return whether an endpoint is healthy or not
+   */
+  public boolean isHealthy() {
+    if (!checkedHealthy) {
+      return false;
+    }
+    final long failedAt = unavailableAt;
+    return NOT_UNAVAILABLE == failedAt || (System.nanoTime() - failedAt) >= UNAVAILABLE_COOL_DOWN;
+  }
+
+  /**
+   * Get a score of this endpoint. A higher one is better. It's given by the last health check and
+   * {@link Double#NEGATIVE_INFINITY} if an endpoint is not healthy. It has no meaning until
+   * {@link #isHealthChecked()}.
+   *
+   * @return a score
+   */
+  public double getScore() {
+    return isHealthy() ? checkedScore : Double.NEGATIVE_INFINITY;
+  }
+
+  /**
+   * Check if this endpoint has been checked by a health checker at least once.
+   *
+   * @return whether an endpoint has been health checked or not
+   */
+  public boolean isHealthChecked() {
+    return healthChecked;
+  }
+
+  void onHealthChecked(final long bestHeight, final boolean healthy, final double score) {
+    this.bestHeight = bestHeight;
+    this.checkedScore = score;
+    this.checkedHealthy = healthy;
+    this.healthChecked = true;
+  }
+
+  void onStart() {
+    outstanding.incrementAndGet();
+  }
+
+  void onComplete(final long elapsedNanos, final Status status) {
+    outstanding.decrementAndGet();
+    if (Status.Code.UNAVAILABLE == status.getCode()) {
+      unavailableAt = System.nanoTime();
+      return;
+    }
+    unavailableAt = NOT_UNAVAILABLE;
+
+    long prev;
+    long next;
+    do {
+      prev = latencyEwma.get();
+      final double prevEwma = Double.longBitsToDouble(prev);
+      final double nextEwma = (0.0d == prevEwma) ? elapsedNanos
+          : (EWMA_WEIGHT * elapsedNanos + (1.0d - EWMA_WEIGHT) * prevEwma);
+      next = Double.doubleToLongBits(nextEwma);
+    } while (!latencyEwma.compareAndSet(prev, next));
+  }
+
+  /**
+   * Create a client interceptor tracking unary calls on a channel to this endpoint.
+   *
+   * @return a client interceptor
+   */
+  ClientInterceptor newTrackingInterceptor() {
+    return new ClientInterceptor() {
+      @Override
+      public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+          final MethodDescriptor<ReqT, RespT> method, final CallOptions callOptions,
+          final Channel next) {
+        final ClientCall<ReqT, RespT> call = next.newCall(method, callOptions);
+        if (MethodType.UNARY != method.getType()) {
+          // long living subscription has no meaning on load
+          return call;
+        }
+        return new SimpleForwardingClientCall<ReqT, RespT>(call) {
+          @Override
+          public void start(final Listener<RespT> responseListener, final Metadata headers) {
+            final long startedAt = System.nanoTime();
+            onStart();
+            try {
+              super.start(new SimpleForwardingClientCallListener<RespT>(responseListener) {
+                @Override
+                public void onClose(final Status status, final Metadata trailers) {
+                  onComplete(System.nanoTime() - startedAt, status);
+                  super.onClose(status, trailers);
+                }
+              }, headers);
+            } catch (RuntimeException e) {
+              outstanding.decrementAndGet();
+              throw e;
+            }
+          }
+        };
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return String.format("GrpcEndpoint(hostnameAndPort=%s, outstanding=%d, latencyEwma=%.0f, "
+        + "bestHeight=%d, healthy=%s)", hostnameAndPort, getOutstanding(), getLatencyEwma(),
+        getBestHeight(), isHealthy());
+  }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.api.model.Time;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+class HealthCheckConfig {
+
+  // an interval between checks. also used as a deadline of each probe
+  protected final Time interval;
+
+  // an endpoint behind the best one more than this is not healthy
+  protected final long maxHeightLag;
+
+  HealthCheckConfig(final Time interval, final long maxHeightLag) {
+    assertNotNull(interval, "Interval must not null");
+    assertTrue(interval.toMilliseconds() > 0L, "Interval must be positive");
+    assertTrue(maxHeightLag >= 0L, "Max height lag must >= 0");
+    this.interval = interval;
+    this.maxHeightLag = maxHeightLag;
+  }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.TransportUtils.copyFrom;
+import static hera.util.ValidationUtils.assertNotNull;
+import static java.util.Collections.unmodifiableList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.api.model.ModuleStatus;
+import hera.api.model.NodeStatus;
+import hera.transport.ModelConverter;
+import hera.transport.NodeStatusConverterFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.Rpc;
+
+/**
+ * A background checker probing every endpoint with {@code blockchain} and {@code nodeState}. After
+ * each round, it gives each {@link GrpcEndpoint} a best height, a health and a score. Endpoints
+ * are probed in parallel and each probe has its own deadline of an interval, so a hanging node
+ * neither delays a round nor probes of others.
+ * <p>
+ * An endpoint is not healthy if a probe fails or its best height is behind the highest one by
+ * more than {@link HealthCheckConfig#getMaxHeightLag()}. A score is a negative expected cost in
+ * milliseconds: latency plus {@link #BLOCK_LAG_COST} for each block behind and each module
+ * reporting an error.
+ * </p>
+ */
+class HealthChecker {
+
+  // a block is produced every second in aergo
+  protected static final double BLOCK_LAG_COST = 1000.0d;
+
+  protected static final long NODE_STATUS_TIMEOUT = 3000L;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ModelConverter<NodeStatus, Rpc.SingleBytes> nodeStatusConverter =
+      new NodeStatusConverterFactory().create();
+
+  protected final List<EndpointConnection> connections;
+
+  protected final HealthCheckConfig config;
+
+  protected final ScheduledExecutorService scheduler;
+
+  protected final ExecutorService prober;
+
+  HealthChecker(final List<EndpointConnection> connections, final HealthCheckConfig config) {
+    assertNotNull(connections, "Connections must not null");
+    assertNotNull(config, "Health check config must not null");
+    this.connections = unmodifiableList(new ArrayList<>(connections));
+    this.config = config;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(
+        new DaemonThreadFactory("heraj-health-checker"));
+    this.prober = Executors.newFixedThreadPool(Math.max(1, this.connections.size()),
+        new DaemonThreadFactory("heraj-health-probe"));
+  }
+
+  void start() {
+    final long interval = config.getInterval().toMilliseconds();
+    logger.debug("Start health checker with {}", config);
+    scheduler.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          check();
+        } catch (Throwable e) {
+          // an exception stops a scheduled task
+          logger.debug("Health check failed by {}", e.toString());
+        }
+      }
+    }, 0L, interval, TimeUnit.MILLISECONDS);
+  }
+
+  void check() {
+    final long deadline = System.nanoTime() + config.getInterval().toMilliseconds() * 1_000_000L;
+    final List<Future<Probe>> futures = new ArrayList<>(connections.size());
+    for (final EndpointConnection connection : connections) {
+      futures.add(submitProbe(connection));
+    }
+
+    final List<Probe> probes = new ArrayList<>(connections.size());
+    long highest = -1L;
+    for (int i = 0; i < connections.size(); ++i) {
+      final Probe probe = await(connections.get(i), futures.get(i), deadline);
+      probes.add(probe);
+      highest = Math.max(highest, probe.bestHeight);
+    }
+
+    for (int i = 0; i < connections.size(); ++i) {
+      final GrpcEndpoint endpoint = connections.get(i).getEndpoint();
+      final Probe probe = probes.get(i);
+      if (!probe.success) {
+        endpoint.onHealthChecked(-1L, false, Double.NEGATIVE_INFINITY);
+        continue;
+      }
+      final long lag = highest - probe.bestHeight;
+      final double latency = Math.max(probe.latency, endpoint.getLatencyEwma()) / 1_000_000.0d;
+      final double score = -(latency + BLOCK_LAG_COST * (lag + probe.moduleErrorCount));
+      endpoint.onHealthChecked(probe.bestHeight, lag <= config.getMaxHeightLag(), score);
+    }
+    logger.trace("Health checked: {}", connections);
+  }
+
+  protected Future<Probe> submitProbe(final EndpointConnection connection) {
+    try {
+      return prober.submit(new Callable<Probe>() {
+        @Override
+        public Probe call() {
+          return probe(connection);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // closed
+      return null;
+    }
+  }
+
+  protected Probe await(final EndpointConnection connection, final Future<Probe> future,
+      final long deadline) {
+    if (null == future) {
+      return Probe.FAILED;
+    }
+    try {
+      // a grpc deadline bounds a probe. this one bounds a probe stuck before a call
+      return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      logger.debug("Probe to {} timed out", connection.getEndpoint().getHostnameAndPort());
+      return Probe.FAILED;
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      return Probe.FAILED;
+    } catch (ExecutionException e) {
+      logger.debug("Probe to {} failed by {}", connection.getEndpoint().getHostnameAndPort(),
+          e.getCause().toString());
+      return Probe.FAILED;
+    }
+  }
+
+  protected Probe probe(final EndpointConnection connection) {
+    final long deadline = config.getInterval().toMilliseconds();
+    final long startedAt = System.nanoTime();
+    try {
+      final AergoRPCServiceBlockingStub stub = connection.getBlockingStub()
+          .withDeadlineAfter(deadline, TimeUnit.MILLISECONDS);
+      final Rpc.BlockchainStatus rpcStatus = stub.blockchain(Rpc.Empty.newBuilder().build());
+      final long latency = System.nanoTime() - startedAt;
+
+      final Rpc.NodeReq rpcNodeRequest = Rpc.NodeReq.newBuilder()
+          .setTimeout(copyFrom(NODE_STATUS_TIMEOUT))
+          .build();
+      final NodeStatus nodeStatus = nodeStatusConverter.convertToDomainModel(
+          stub.nodeState(rpcNodeRequest));
+      int moduleErrorCount = 0;
+      for (final ModuleStatus moduleStatus : nodeStatus.getModuleStatus()) {
+        if (!moduleStatus.getError().isEmpty()) {
+          ++moduleErrorCount;
+        }
+      }
+      return new Probe(true, rpcStatus.getBestHeight(), latency, moduleErrorCount);
+    } catch (Exception e) {
+      logger.debug("Probe to {} failed by {}", connection.getEndpoint().getHostnameAndPort(),
+          e.toString());
+      return new Probe(false, -1L, System.nanoTime() - startedAt, 0);
+    }
+  }
+
+  void close() {
+    logger.debug("Stop health checker");
+    scheduler.shutdownNow();
+    prober.shutdownNow();
+  }
+
+  static class Probe {
+
+    static final Probe FAILED = new Probe(false, -1L, 0L, 0);
+
+    final boolean success;
+    final long bestHeight;
+    final long latency; // nanoseconds
+    final int moduleErrorCount;
+
+    Probe(final boolean success, final long bestHeight, final long latency,
+        final int moduleErrorCount) {
+      this.success = success;
+      this.bestHeight = bestHeight;
+      this.latency = latency;
+      this.moduleErrorCount = moduleErrorCount;
+    }
+  }
+
+}
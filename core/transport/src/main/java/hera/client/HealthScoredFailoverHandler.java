@@ -0,0 +1,124 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_CLIENT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT;
+import static hera.client.ClientContextKeys.GRPC_VALUE_METRICS_RECORDER;
+import static hera.client.ClientContextKeys.GRPC_VALUE_RETRY_BUDGET;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.Context;
+import hera.ContextHolder;
+import hera.Invocation;
+import hera.Response;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import java.util.List;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A failover handler re-issuing a read failed by an unavailable node on the best scored endpoint
+ * other than the failed one. An endpoint not health checked yet is ranked below checked healthy
+ * ones. Reads on a lagging node don't fail, so they are moved away by excluding an unhealthy
+ * endpoint on selection. This one handles those already failed.
+ * <p>
+ * Only a read is rerouted since a pinned endpoint overrides a routing key of a sender, which
+ * keeps nonce order of transactions. A reroute takes a token of a {@link RetryBudget} if any.
+ * </p>
+ */
+@ToString
+class HealthScoredFailoverHandler extends ComparableFailoverHandler {
+
+  @ToString.Exclude
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final int priority = 2;
+
+  HealthScoredFailoverHandler() {
+
+  }
+
+  @Override
+  public <T> Response<T> handle(final Invocation<T> invocation, final Response<T> response) {
+    logger.debug("Handle {} with {}", response.getError(), this);
+    if (!Methods.READ_ONLY_METHODS.contains(invocation.getRequestMethod().getName())
+        || !isReroutable(response.getError())) {
+      return response;
+    }
+
+    final Context current = ContextHolder.current();
+    final GrpcClient grpcClient = current.get(GRPC_CLIENT);
+    if (null == grpcClient) {
+      return response;
+    }
+    final GrpcEndpoint pinned = current.get(GRPC_REQUEST_ENDPOINT);
+    final GrpcEndpoint failed = (null != pinned) ? pinned : grpcClient.getLastSelected();
+    final GrpcEndpoint best = selectBest(grpcClient.getEndpoints(), failed);
+    if (null == best) {
+      return response;
+    }
+
+    // null if no budget
+    final RetryBudget retryBudget = current.get(GRPC_VALUE_RETRY_BUDGET);
+    if (null != retryBudget && !retryBudget.tryAcquire()) {
+      logger.debug("Retry budget exhausted (budget: {})", retryBudget);
+      return response;
+    }
+
+    logger.debug("Reroute {} to {}", invocation, best);
+    final MetricsRecorder metricsRecorder = current.get(GRPC_VALUE_METRICS_RECORDER);
+    if (null != metricsRecorder) {
+      metricsRecorder.onFailover(invocation.getRequestMethod().getName());
+    }
+    ContextHolder.attach(current.withValue(GRPC_REQUEST_ENDPOINT, best));
+    try {
+      return Response.success(invocation.invoke());
+    } catch (Exception e) {
+      return Response.fail(e);
+    } finally {
+      ContextHolder.attach(current);
+    }
+  }
+
+  protected boolean isReroutable(final Exception error) {
+    if (!(error instanceof StatusRuntimeException)) {
+      return false;
+    }
+    final Status.Code code = ((StatusRuntimeException) error).getStatus().getCode();
+    // a deadline or a resource exhausted is not a problem of a node but of a request
+    return Status.Code.UNAVAILABLE == code || Status.Code.ABORTED == code;
+  }
+
+  protected GrpcEndpoint selectBest(final List<GrpcEndpoint> endpoints,
+      final GrpcEndpoint failed) {
+    if (endpoints.size() < 2) {
+      // nowhere to go
+      return null;
+    }
+    GrpcEndpoint best = null;
+    for (final GrpcEndpoint endpoint : endpoints) {
+      if (endpoint == failed || !endpoint.isHealthy()) {
+        continue;
+      }
+      if (null == best || isBetter(endpoint, best)) {
+        best = endpoint;
+      }
+    }
+    return best;
+  }
+
+  protected boolean isBetter(final GrpcEndpoint endpoint, final GrpcEndpoint than) {
+    if (endpoint.isHealthChecked() != than.isHealthChecked()) {
+      // a default score of an unknown one means nothing
+      return endpoint.isHealthChecked();
+    }
+    return endpoint.getScore() > than.getScore();
+  }
+
+}
@@ -0,0 +1,427 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_CLIENT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_CIRCUIT_BREAKER;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT_GUARD;
+import static hera.client.ClientContextKeys.GRPC_VALUE_RETRY_BUDGET;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.Context;
+import hera.ContextHolder;
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.api.model.Time;
+import hera.strategy.InvocationStrategy;
+import io.grpc.Context.CancellableContext;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * An invocation strategy hedging an idempotent read request. If a request has not answered within
+ * a latency percentile of its method, a duplicate is sent to another endpoint. Whichever answers
+ * first wins and the other one is cancelled through its grpc {@link io.grpc.Context}.
+ * <p>
+ * A latency histogram of each method is fed by every completed attempt, and hedging starts once
+ * it has {@link #MIN_SAMPLES} samples. A loser cancelled by a winner is not recorded since a time
+ * until it's cancelled is not its latency. A primary endpoint is selected through a guard of a
+ * {@link CircuitBreakerStrategy} if any, so that an endpoint whose circuit is open is not pinned.
+ * A primary request runs on a caller thread and only a hedged one is handed to a bounded worker.
+ * At most {@link #MAX_IN_FLIGHT_HEDGES} hedges run at once and a request over it is not hedged. If
+ * a {@link RetryBudget} is configured, each hedge withdraws from it so that hedging can't double a
+ * load on a struggling cluster. Close it by {@link #close()} on closing a client.
+ * </p>
+ */
+@ToString
+class HedgingStrategy implements InvocationStrategy {
+
+  protected static final long MIN_SAMPLES = 32L;
+
+  // an idle worker is terminated after it
+  protected static final long WORKER_KEEP_ALIVE = 60L;
+
+  protected static final int MAX_IN_FLIGHT_HEDGES = 32;
+
+  // states of a hedged call. a primary settles or a timer starts a hedge by a single cas
+  protected static final int PENDING = 0;
+  protected static final int HEDGING = 1;
+  protected static final int SETTLED = 2;
+
+  @ToString.Exclude
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final double percentile;
+
+  @Getter
+  protected final Time minDelay;
+
+  protected final long minDelayNanos;
+
+  @ToString.Exclude
+  protected final Map<String, LatencyHistogram> method2Histogram = new ConcurrentHashMap<>();
+
+  @ToString.Exclude
+  protected final ScheduledThreadPoolExecutor timer;
+
+  @ToString.Exclude
+  protected final ThreadPoolExecutor worker;
+
+  @Getter
+  protected final int maxInFlightHedges;
+
+  @ToString.Exclude
+  protected final AtomicInteger inFlightHedges = new AtomicInteger(0);
+
+  HedgingStrategy(final double percentile, final Time minDelay) {
+    this(percentile, minDelay, MAX_IN_FLIGHT_HEDGES);
+  }
+
+  HedgingStrategy(final double percentile, final Time minDelay, final int maxInFlightHedges) {
+    assertTrue(0.0d < percentile && percentile < 1.0d, "Percentile must be in (0, 1)");
+    assertNotNull(minDelay, "Min delay must not null");
+    assertTrue(0 < maxInFlightHedges, "Max in-flight hedges must be positive");
+    this.percentile = percentile;
+    this.minDelay = minDelay;
+    this.minDelayNanos = minDelay.toNanoseconds();
+    this.maxInFlightHedges = maxInFlightHedges;
+
+    this.timer = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("heraj-hedge-timer"));
+    this.timer.setRemoveOnCancelPolicy(true);
+    this.timer.setKeepAliveTime(WORKER_KEEP_ALIVE, TimeUnit.SECONDS);
+    this.timer.allowCoreThreadTimeOut(true);
+    // no queue. a hedge is skipped rather than waiting for a worker
+    this.worker = new ThreadPoolExecutor(0, maxInFlightHedges, WORKER_KEEP_ALIVE,
+        TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+        new DaemonThreadFactory("heraj-hedge-worker"));
+  }
+
+  /**
+   * Stop hedging. A hedge in flight is cancelled and a request is not hedged any more.
+   */
+  void close() {
+    timer.shutdownNow();
+    worker.shutdownNow();
+  }
+
+  @Override
+  public <T> Invocation<T> apply(final Invocation<T> invocation) {
+    assertNotNull(invocation, "Invocation must not null");
+    if (!Methods.READ_ONLY_METHODS.contains(invocation.getRequestMethod().getName())) {
+      return invocation;
+    }
+    return new HedgingInvocation<>(invocation);
+  }
+
+  LatencyHistogram getHistogram(final String methodName) {
+    LatencyHistogram histogram = method2Histogram.get(methodName);
+    if (null == histogram) {
+      final LatencyHistogram created = new LatencyHistogram();
+      histogram = method2Histogram.putIfAbsent(methodName, created);
+      if (null == histogram) {
+        histogram = created;
+      }
+    }
+    return histogram;
+  }
+
+  /**
+   * Get a delay before hedging a request of a method.
+   *
+   * @param methodName a name of a request method
+   * @return a delay in nanoseconds. -1 if there is not enough samples yet
+   */
+  long getHedgeDelay(final String methodName) {
+    final LatencyHistogram histogram = getHistogram(methodName);
+    if (histogram.getCount() < MIN_SAMPLES) {
+      return -1L;
+    }
+    return Math.max(minDelayNanos, histogram.getPercentile(percentile));
+  }
+
+  protected GrpcEndpoint selectSecondary(final List<GrpcEndpoint> endpoints,
+      final GrpcEndpoint primary) {
+    GrpcEndpoint selected = null;
+    for (final GrpcEndpoint candidate : endpoints) {
+      if (candidate == primary || !candidate.isHealthy()) {
+        continue;
+      }
+      if (null == selected || candidate.getScore() > selected.getScore()
+          || (candidate.getScore() == selected.getScore()
+              && candidate.getLatencyEwma() < selected.getLatencyEwma())) {
+        selected = candidate;
+      }
+    }
+    return selected;
+  }
+
+  @ToString
+  private class HedgingInvocation<T> implements Invocation<T> {
+
+    protected final Invocation<T> delegate;
+
+    HedgingInvocation(final Invocation<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public RequestMethod<T> getRequestMethod() {
+      return delegate.getRequestMethod();
+    }
+
+    @Override
+    public List<Object> getParameters() {
+      return delegate.getParameters();
+    }
+
+    @Override
+    public T invoke() throws Exception {
+      final Context current = ContextHolder.current();
+      final GrpcClient grpcClient = current.get(GRPC_CLIENT);
+      // an endpoint is pinned by a failover or an outer hedging
+      if (null == grpcClient || null != current.get(GRPC_REQUEST_ENDPOINT)
+          || timer.isShutdown()) {
+        return delegate.invoke();
+      }
+      final List<GrpcEndpoint> endpoints = grpcClient.getEndpoints();
+      if (endpoints.size() < 2) {
+        return delegate.invoke();
+      }
+
+      final String name = getRequestMethod().getName();
+      final long delay = getHedgeDelay(name);
+      if (delay < 0L) {
+        final long startedAt = System.nanoTime();
+        try {
+          return delegate.invoke();
+        } finally {
+          getHistogram(name).record(System.nanoTime() - startedAt);
+        }
+      }
+
+      // a guard permitting a primary reports its outcome, so that a permit is not leaked
+      final CircuitBreakerStrategy.Guard guard = newGuard(current, name);
+      final Context guarded = (null != guard)
+          ? current.withValue(GRPC_REQUEST_ENDPOINT_GUARD, guard) : current;
+      final GrpcEndpoint primary;
+      ContextHolder.attach(guarded);
+      try {
+        primary = grpcClient.selectEndpoint();
+      } finally {
+        ContextHolder.attach(current);
+      }
+      final GrpcEndpoint secondary = selectSecondary(endpoints, primary);
+      return new HedgedCall<>(delegate, current, guarded, guard, primary, secondary).call(delay);
+    }
+
+    protected CircuitBreakerStrategy.Guard newGuard(final Context current, final String name) {
+      final InvocationStrategy circuitBreaker = current.get(GRPC_REQUEST_CIRCUIT_BREAKER);
+      if (!(circuitBreaker instanceof CircuitBreakerStrategy)
+          || null != current.get(GRPC_REQUEST_ENDPOINT_GUARD)) {
+        return null;
+      }
+      return ((CircuitBreakerStrategy) circuitBreaker).newGuard(name);
+    }
+
+    @Override
+    public Invocation<T> withParameters(final List<Object> parameters) {
+      assertNotNull(parameters, "Parameters must not null");
+      return new HedgingInvocation<>(delegate.withParameters(parameters));
+    }
+  }
+
+  private class HedgedCall<T> implements Runnable {
+
+    protected final Invocation<T> invocation;
+
+    protected final Context context;
+
+    // a context of a primary with a guard which has permitted it
+    protected final Context guarded;
+
+    protected final CircuitBreakerStrategy.Guard guard;
+
+    protected final GrpcEndpoint primary;
+
+    protected final GrpcEndpoint secondary;
+
+    protected final CancellableContext primaryContext = io.grpc.Context.current()
+        .withCancellation();
+
+    protected final CancellableContext hedgeContext = io.grpc.Context.current()
+        .withCancellation();
+
+    // pending until a primary settles or a timer starts a hedge. settled by a winner
+    protected final AtomicInteger state = new AtomicInteger(PENDING);
+
+    // counted down when a started hedge ends or is given up
+    protected final CountDownLatch hedgeDone = new CountDownLatch(1);
+
+    protected volatile T hedgeValue;
+
+    protected volatile Exception hedgeError;
+
+    HedgedCall(final Invocation<T> invocation, final Context context, final Context guarded,
+        final CircuitBreakerStrategy.Guard guard, final GrpcEndpoint primary,
+        final GrpcEndpoint secondary) {
+      this.invocation = invocation;
+      this.context = context;
+      this.guarded = guarded;
+      this.guard = guard;
+      this.primary = primary;
+      this.secondary = secondary;
+    }
+
+    T call(final long delay) throws Exception {
+      final String name = invocation.getRequestMethod().getName();
+      ScheduledFuture<?> scheduled = null;
+      if (null != secondary) {
+        try {
+          scheduled = timer.schedule(this, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+          // closed. a primary goes alone
+          logger.debug("Skip hedging by {}", e.toString());
+        }
+      }
+      final long startedAt = System.nanoTime();
+      ContextHolder.attach(guarded.withValue(GRPC_REQUEST_ENDPOINT, primary));
+      try {
+        final T value;
+        try {
+          value = primaryContext.call(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+              return invocation.invoke();
+            }
+          });
+          if (null != guard) {
+            guard.onSuccess();
+          }
+        } catch (Exception e) {
+          if (null != guard) {
+            guard.onError(e);
+          }
+          throw e;
+        } finally {
+          if (!primaryContext.isCancelled()) {
+            getHistogram(name).record(System.nanoTime() - startedAt);
+          }
+        }
+        state.set(SETTLED);
+        hedgeContext.cancel(null);
+        return value;
+      } catch (Exception e) {
+        // a late timer can't start a hedge after it
+        if (!state.compareAndSet(PENDING, SETTLED)) {
+          hedgeDone.await();
+          if (null == hedgeError) {
+            logger.debug("Hedged request of {} to {} won", name, secondary);
+            return hedgeValue;
+          }
+        }
+        throw e;
+      } finally {
+        if (null != scheduled) {
+          scheduled.cancel(false);
+        }
+        primaryContext.cancel(null);
+        ContextHolder.attach(context);
+      }
+    }
+
+    @Override
+    public void run() {
+      if (!state.compareAndSet(PENDING, HEDGING)) {
+        return;
+      }
+      // a primary waits for a hedge from now on so give it up explicitly on skipping
+      if (!tryAcquireHedge()) {
+        giveUp(null);
+        return;
+      }
+      final RetryBudget retryBudget = context.get(GRPC_VALUE_RETRY_BUDGET);
+      if (null != retryBudget && !retryBudget.tryAcquire()) {
+        logger.debug("Skip hedging by retry budget exhausted (budget: {})", retryBudget);
+        inFlightHedges.decrementAndGet();
+        giveUp(null);
+        return;
+      }
+      try {
+        worker.execute(new Runnable() {
+          @Override
+          public void run() {
+            hedge();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        inFlightHedges.decrementAndGet();
+        giveUp(e);
+      }
+    }
+
+    protected boolean tryAcquireHedge() {
+      int prev;
+      do {
+        prev = inFlightHedges.get();
+        if (prev >= maxInFlightHedges) {
+          logger.debug("Skip hedging by {} hedges in flight", prev);
+          return false;
+        }
+      } while (!inFlightHedges.compareAndSet(prev, prev + 1));
+      return true;
+    }
+
+    protected void giveUp(final Exception cause) {
+      hedgeError = (null != cause) ? cause : new IllegalStateException("Hedge skipped");
+      hedgeDone.countDown();
+    }
+
+    protected void hedge() {
+      final String name = invocation.getRequestMethod().getName();
+      logger.debug("Hedge request of {} to {}", name, secondary);
+      final long startedAt = System.nanoTime();
+      ContextHolder.attach(context.withValue(GRPC_REQUEST_ENDPOINT, secondary));
+      try {
+        final T value = hedgeContext.call(new Callable<T>() {
+          @Override
+          public T call() throws Exception {
+            return invocation.invoke();
+          }
+        });
+        hedgeValue = value;
+        if (state.compareAndSet(HEDGING, SETTLED)) {
+          primaryContext.cancel(null);
+        }
+      } catch (Exception e) {
+        hedgeError = e;
+      } finally {
+        if (!hedgeContext.isCancelled()) {
+          getHistogram(name).record(System.nanoTime() - startedAt);
+        }
+        inFlightHedges.decrementAndGet();
+        ContextHolder.remove();
+        hedgeDone.countDown();
+      }
+    }
+  }
+
+}
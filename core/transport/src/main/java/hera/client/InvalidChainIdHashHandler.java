@@ -4,6 +4,7 @@
 
 package hera.client;
 
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TIMEOUT;
 import static hera.client.ClientContextKeys.GRPC_VALUE_CHAIN_ID_HASH_HOLDER;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -16,6 +17,7 @@ import hera.api.model.BlockchainStatus;
 import hera.api.model.ChainIdHash;
 import hera.exception.CommitException;
 import hera.exception.HerajException;
+import hera.strategy.InvocationStrategy;
 import lombok.Getter;
 import lombok.ToString;
 import org.slf4j.Logger;
@@ -60,7 +62,13 @@ class InvalidChainIdHashHandler extends ComparableFailoverHandler {
       }
 
       final RequestMethod<BlockchainStatus> requestMethod = blockchainMethods.getBlockchainStatus();
-      final ChainIdHash chainIdHash = requestMethod.invoke().getChainIdHash();
+      Invocation<BlockchainStatus> nested = requestMethod.toInvocation();
+      final InvocationStrategy timeoutStrategy = current.get(GRPC_REQUEST_TIMEOUT);
+      if (null != timeoutStrategy) {
+        // nested call is bounded by the same deadline policy as the original one
+        nested = timeoutStrategy.apply(nested);
+      }
+      final ChainIdHash chainIdHash = nested.invoke().getChainIdHash();
       logger.debug("Fetched ChainIdHash: {}", chainIdHash);
       chainIdHashHolder.put(chainIdHash);
     } catch (HerajException e) {
@@ -4,13 +4,15 @@
 
 package hera.client;
 
-import static hera.util.ValidationUtils.assertTrue;
+import static hera.client.ClientContextKeys.GRPC_VALUE_METRICS_RECORDER;
+import static hera.client.ClientContextKeys.GRPC_VALUE_RETRY_BUDGET;
+import static hera.util.ValidationUtils.assertNotNull;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import hera.ContextHolder;
 import hera.Invocation;
 import hera.Response;
 import hera.api.model.Time;
-import hera.exception.HerajException;
 import lombok.Getter;
 import lombok.ToString;
 import org.slf4j.Logger;
@@ -22,40 +24,59 @@ class JustRetryFailoverHandler extends ComparableFailoverHandler {
   protected final transient Logger logger = getLogger(getClass());
 
   @Getter
-  protected final int priority = 2;
+  protected final int priority = 3;
 
-  protected final int count;
-
-  protected final long interval; // milliseconds
+  @Getter
+  protected final RetryPolicy retryPolicy;
 
   JustRetryFailoverHandler(final int count, final Time interval) {
-    assertTrue(0 < count, "Retry count must be positive");
-    this.count = count;
-    this.interval = interval.toMilliseconds();
+    this(RetryPolicy.of(count, interval));
+  }
+
+  JustRetryFailoverHandler(final RetryPolicy retryPolicy) {
+    assertNotNull(retryPolicy, "Retry policy must not null");
+    this.retryPolicy = retryPolicy;
   }
 
   @Override
   public <T> Response<T> handle(final Invocation<T> invocation, final Response<T> response) {
     logger.debug("Handle {} with {}", response.getError(), this);
 
+    // null if no budget
+    final RetryBudget retryBudget = ContextHolder.current().get(GRPC_VALUE_RETRY_BUDGET);
+    // null if no metrics
+    final MetricsRecorder metricsRecorder = ContextHolder.current()
+        .get(GRPC_VALUE_METRICS_RECORDER);
     Response<T> next = response;
-    int countDown = this.count;
-    while (null != next.getError() && 0 < countDown) {
+    long delay = retryPolicy.getBaseDelay();
+    int retried = 0;
+    while (null != next.getError() && retried < retryPolicy.getMaxRetries()
+        && retryPolicy.isRetryable(next.getError())) {
+      if (null != retryBudget && !retryBudget.tryAcquire()) {
+        logger.debug("Retry budget exhausted (budget: {})", retryBudget);
+        break;
+      }
+
+      delay = retryPolicy.nextDelay(delay);
       try {
-        logger.debug("Just retry with {} after sleep {}ms (count left: {})", invocation,
-            this.interval, countDown);
-        Thread.sleep(this.interval);
-      } catch (Exception e) {
-        throw new HerajException("Unexpected error", e);
+        logger.debug("Just retry with {} after sleep {}ms (retried: {})", invocation, delay,
+            retried);
+        Thread.sleep(delay);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
       }
 
+      if (null != metricsRecorder) {
+        metricsRecorder.onRetry(invocation.getRequestMethod().getName());
+      }
       try {
         final T ret = invocation.invoke();
         next = Response.success(ret);
       } catch (Exception e) {
         next = Response.fail(e);
       }
-      --countDown;
+      ++retried;
     }
     return next;
   }
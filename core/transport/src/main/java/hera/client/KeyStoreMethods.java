@@ -4,7 +4,6 @@
 
 package hera.client;
 
-import static hera.api.model.BytesValue.of;
 import static hera.client.Methods.KEYSTORE_CREATE;
 import static hera.client.Methods.KEYSTORE_EXPORTKEY;
 import static hera.client.Methods.KEYSTORE_IMPORTKEY;
@@ -13,6 +12,7 @@ import static hera.client.Methods.KEYSTORE_LOCK;
 import static hera.client.Methods.KEYSTORE_SEND;
 import static hera.client.Methods.KEYSTORE_SIGN;
 import static hera.client.Methods.KEYSTORE_UNLOCK;
+import static hera.util.TransportUtils.parseToBytesValue;
 import static hera.util.TransportUtils.sha256AndEncodeHexa;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -60,7 +60,7 @@ class KeyStoreMethods extends AbstractMethods {
 
   @Getter
   protected final RequestMethod<List<AccountAddress>> list =
-      new RequestMethod<List<AccountAddress>>() {
+      new TracedRequestMethod<List<AccountAddress>>() {
 
         @Getter
         protected final String name = KEYSTORE_LIST;
@@ -85,7 +85,7 @@ class KeyStoreMethods extends AbstractMethods {
       };
 
   @Getter
-  protected final RequestMethod<AccountAddress> create = new RequestMethod<AccountAddress>() {
+  protected final RequestMethod<AccountAddress> create = new TracedRequestMethod<AccountAddress>() {
 
     @Getter
     protected final String name = KEYSTORE_CREATE;
@@ -117,7 +117,7 @@ class KeyStoreMethods extends AbstractMethods {
 
 
   @Getter
-  protected final RequestMethod<Boolean> unlock = new RequestMethod<Boolean>() {
+  protected final RequestMethod<Boolean> unlock = new TracedRequestMethod<Boolean>() {
 
     @Getter
     protected final String name = KEYSTORE_LOCK;
@@ -158,7 +158,7 @@ class KeyStoreMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<Boolean> lock = new RequestMethod<Boolean>() {
+  protected final RequestMethod<Boolean> lock = new TracedRequestMethod<Boolean>() {
 
     @Getter
     protected final String name = KEYSTORE_UNLOCK;
@@ -197,7 +197,7 @@ class KeyStoreMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<Transaction> sign = new RequestMethod<Transaction>() {
+  protected final RequestMethod<Transaction> sign = new TracedRequestMethod<Transaction>() {
 
     @Getter
     protected final String name = KEYSTORE_SIGN;
@@ -226,51 +226,52 @@ class KeyStoreMethods extends AbstractMethods {
   };
 
   @Getter
-  protected final RequestMethod<AccountAddress> importKey = new RequestMethod<AccountAddress>() {
+  protected final RequestMethod<AccountAddress> importKey =
+      new TracedRequestMethod<AccountAddress>() {
 
-    @Getter
-    protected final String name = KEYSTORE_IMPORTKEY;
+        @Getter
+        protected final String name = KEYSTORE_IMPORTKEY;
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, EncryptedPrivateKey.class);
-      validateType(parameters, 1, String.class);
-      validateType(parameters, 2, String.class);
-    }
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, EncryptedPrivateKey.class);
+          validateType(parameters, 1, String.class);
+          validateType(parameters, 2, String.class);
+        }
 
-    @Override
-    protected AccountAddress runInternal(final List<Object> parameters) throws Exception {
-      final EncryptedPrivateKey encryptedKey = (EncryptedPrivateKey) parameters.get(0);
-      final String oldPassword = (String) parameters.get(1);
-      final String newPassword = (String) parameters.get(2);
-      if (logger.isDebugEnabled()) {
-        logger.debug(
-            "Import an account to server keystore with "
-                + "encryptedKey: {}, oldPassword: {}, newPassword: {}",
-            encryptedKey, sha256AndEncodeHexa(oldPassword),
-            sha256AndEncodeHexa(newPassword));
-      }
+        @Override
+        protected AccountAddress runInternal(final List<Object> parameters) throws Exception {
+          final EncryptedPrivateKey encryptedKey = (EncryptedPrivateKey) parameters.get(0);
+          final String oldPassword = (String) parameters.get(1);
+          final String newPassword = (String) parameters.get(2);
+          if (logger.isDebugEnabled()) {
+            logger.debug(
+                "Import an account to server keystore with "
+                    + "encryptedKey: {}, oldPassword: {}, newPassword: {}",
+                encryptedKey, sha256AndEncodeHexa(oldPassword),
+                sha256AndEncodeHexa(newPassword));
+          }
 
-      final Rpc.ImportFormat rpcImport = Rpc.ImportFormat.newBuilder()
-          .setWif(encryptedPkConverter.convertToRpcModel(encryptedKey))
-          .setOldpass(oldPassword).setNewpass(newPassword).build();
-      if (logger.isTraceEnabled()) {
-        logger.trace(
-            "AergoService importAccount arg: ImportFormat(wif={}, oldPass={}, newPass={})",
-            rpcImport.getWif(), sha256AndEncodeHexa(rpcImport.getOldpass()),
-            sha256AndEncodeHexa(rpcImport.getNewpass()));
-      }
+          final Rpc.ImportFormat rpcImport = Rpc.ImportFormat.newBuilder()
+              .setWif(encryptedPkConverter.convertToRpcModel(encryptedKey))
+              .setOldpass(oldPassword).setNewpass(newPassword).build();
+          if (logger.isTraceEnabled()) {
+            logger.trace(
+                "AergoService importAccount arg: ImportFormat(wif={}, oldPass={}, newPass={})",
+                rpcImport.getWif(), sha256AndEncodeHexa(rpcImport.getOldpass()),
+                sha256AndEncodeHexa(rpcImport.getNewpass()));
+          }
 
-      final AccountOuterClass.Account rpcAccount = getBlockingStub().importAccount(rpcImport);
-      return accountAddressConverter
-          .convertToDomainModel(rpcAccount.getAddress());
-    }
+          final AccountOuterClass.Account rpcAccount = getBlockingStub().importAccount(rpcImport);
+          return accountAddressConverter
+              .convertToDomainModel(rpcAccount.getAddress());
+        }
 
-  };
+      };
 
   @Getter
   protected final RequestMethod<EncryptedPrivateKey> exportKey =
-      new RequestMethod<EncryptedPrivateKey>() {
+      new TracedRequestMethod<EncryptedPrivateKey>() {
 
         @Getter
         protected final String name = KEYSTORE_EXPORTKEY;
@@ -301,7 +302,7 @@ class KeyStoreMethods extends AbstractMethods {
       };
 
   @Getter
-  protected final RequestMethod<TxHash> send = new RequestMethod<TxHash>() {
+  protected final RequestMethod<TxHash> send = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = KEYSTORE_SEND;
@@ -344,7 +345,7 @@ class KeyStoreMethods extends AbstractMethods {
         throw new CommitException(rpcCommitResult.getError(),
             rpcCommitResult.getDetail());
       }
-      return new TxHash(of(rpcCommitResult.getHash().toByteArray()));
+      return new TxHash(parseToBytesValue(rpcCommitResult.getHash()));
     }
 
   };
@@ -4,6 +4,8 @@
 
 package hera.client;
 
+import static java.util.Collections.singletonList;
+
 import hera.Context;
 import hera.ContextStorage;
 import hera.api.KeyStoreOperation;
@@ -33,22 +35,22 @@ class KeyStoreTemplate extends AbstractTemplate implements KeyStoreOperation {
 
   @Override
   public AccountAddress create(final String password) {
-    return request(keyStoreMethods.getCreate(), Arrays.<Object>asList(password));
+    return request(keyStoreMethods.getCreate(), singletonList(password));
   }
 
   @Override
   public boolean lock(final Authentication authentication) {
-    return request(keyStoreMethods.getLock(), Arrays.<Object>asList(authentication));
+    return request(keyStoreMethods.getLock(), singletonList(authentication));
   }
 
   @Override
   public boolean unlock(final Authentication authentication) {
-    return request(keyStoreMethods.getUnlock(), Arrays.<Object>asList(authentication));
+    return request(keyStoreMethods.getUnlock(), singletonList(authentication));
   }
 
   @Override
   public Transaction sign(final RawTransaction rawTransaction) {
-    return request(keyStoreMethods.getSign(), Arrays.<Object>asList(rawTransaction));
+    return request(keyStoreMethods.getSign(), singletonList(rawTransaction));
   }
 
   @Override
@@ -60,7 +62,7 @@ class KeyStoreTemplate extends AbstractTemplate implements KeyStoreOperation {
 
   @Override
   public EncryptedPrivateKey exportKey(final Authentication authentication) {
-    return request(keyStoreMethods.getExportKey(), Arrays.<Object>asList(authentication));
+    return request(keyStoreMethods.getExportKey(), singletonList(authentication));
   }
 
   @Override
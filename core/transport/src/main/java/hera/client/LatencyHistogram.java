@@ -0,0 +1,172 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free latency histogram with log-linear buckets in microseconds. Each power of two is
+ * split into {@link #SUB_BUCKETS} buckets, so a percentile is off by less than 1%. Unless it's
+ * cumulative, counts are halved every {@link #DECAY_INTERVAL} samples to follow a recent latency.
+ * A total count is kept aside and a percentile is cached for {@link #REFRESH_INTERVAL} samples,
+ * so that reading them on every hedged request doesn't scan buckets.
+ */
+class LatencyHistogram {
+
+  protected static final int SUB_BUCKET_BITS = 7;
+
+  protected static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  // up to 2^40 microseconds
+  protected static final int BUCKET_COUNT = (40 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  protected static final long DECAY_INTERVAL = 1024L;
+
+  protected static final long REFRESH_INTERVAL = 32L;
+
+  protected final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  // a number of samples ever recorded
+  protected final AtomicLong recorded = new AtomicLong(0L);
+
+  // a sum of counts. decreased along with counts on decay
+  protected final AtomicLong total = new AtomicLong(0L);
+
+  protected volatile CachedPercentile cached;
+
+  protected final boolean decaying;
+
+  LatencyHistogram() {
+    this(true);
+  }
+
+  /**
+   * Create a latency histogram.
+   *
+   * @param decaying whether to halve counts periodically. false to keep every sample
+   */
+  LatencyHistogram(final boolean decaying) {
+    this.decaying = decaying;
+  }
+
+  /**
+   * Record a latency.
+   *
+   * @param latency a latency in nanoseconds
+   */
+  void record(final long latency) {
+    final long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0L, latency));
+    counts.incrementAndGet(indexOf(micros));
+    total.incrementAndGet();
+    if (0L == recorded.incrementAndGet() % DECAY_INTERVAL && decaying) {
+      decay();
+    }
+  }
+
+  /**
+   * Get a number of recorded samples. It's decreased on decay.
+   *
+   * @return a number of samples
+   */
+  long getCount() {
+    return total.get();
+  }
+
+  /**
+   * Get a latency at a percentile. An upper bound of a bucket containing it is returned. It's
+   * computed again once {@link #REFRESH_INTERVAL} samples are recorded after the last one.
+   *
+   * @param percentile a percentile in (0, 1]
+   * @return a latency in nanoseconds. -1 if no sample
+   */
+  long getPercentile(final double percentile) {
+    assertTrue(0.0d < percentile && percentile <= 1.0d, "Percentile must be in (0, 1]");
+    final long recordedAt = recorded.get();
+    final CachedPercentile last = cached;
+    if (null != last && percentile == last.percentile
+        && recordedAt - last.recordedAt < REFRESH_INTERVAL) {
+      return last.latency;
+    }
+    final long latency = computePercentile(percentile);
+    if (0L <= latency) {
+      cached = new CachedPercentile(percentile, recordedAt, latency);
+    }
+    return latency;
+  }
+
+  protected long computePercentile(final double percentile) {
+    final long sum = getCount();
+    if (0L == sum) {
+      return -1L;
+    }
+
+    // no snapshot. counts may change between passes
+    final long rank = (long) Math.ceil(percentile * sum);
+    long cumulative = 0L;
+    int highest = 0;
+    for (int i = 0; i < BUCKET_COUNT; ++i) {
+      final long count = counts.get(i);
+      if (0L == count) {
+        continue;
+      }
+      cumulative += count;
+      highest = i;
+      if (cumulative >= rank) {
+        break;
+      }
+    }
+    return TimeUnit.MICROSECONDS.toNanos(lowerBoundOf(highest + 1));
+  }
+
+  protected void decay() {
+    for (int i = 0; i < BUCKET_COUNT; ++i) {
+      long prev;
+      do {
+        prev = counts.get(i);
+      } while (!counts.compareAndSet(i, prev, prev >>> 1));
+      if (0L != prev) {
+        total.addAndGet(-(prev - (prev >>> 1)));
+      }
+    }
+  }
+
+  static int indexOf(final long micros) {
+    if (micros < SUB_BUCKETS) {
+      return (int) micros;
+    }
+    final int msb = 63 - Long.numberOfLeadingZeros(micros);
+    final int sub = (int) ((micros >>> (msb - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    return Math.min(BUCKET_COUNT - 1, (msb - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub);
+  }
+
+  static long lowerBoundOf(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int msb = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    final long sub = index % SUB_BUCKETS;
+    return (SUB_BUCKETS + sub) << (msb - SUB_BUCKET_BITS);
+  }
+
+  private static class CachedPercentile {
+
+    protected final double percentile;
+
+    protected final long recordedAt;
+
+    protected final long latency;
+
+    CachedPercentile(final double percentile, final long recordedAt, final long latency) {
+      this.percentile = percentile;
+      this.recordedAt = recordedAt;
+      this.latency = latency;
+    }
+  }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.ToString;
+
+/**
+ * A policy choosing an endpoint with the least number of requests in flight. A tie is broken in
+ * turn so idle endpoints share a load evenly.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@ToString
+public class LeastOutstandingPolicy implements LoadBalancePolicy {
+
+  @ToString.Exclude
+  protected final AtomicInteger counter = new AtomicInteger(0);
+
+  @Override
+  public GrpcEndpoint select(final List<GrpcEndpoint> candidates) {
+    final int size = candidates.size();
+    final int offset = (counter.getAndIncrement() & Integer.MAX_VALUE) % size;
+    GrpcEndpoint selected = null;
+    int leastOutstanding = Integer.MAX_VALUE;
+    for (int i = 0; i < size; ++i) {
+      final GrpcEndpoint candidate = candidates.get((offset + i) % size);
+      final int outstanding = candidate.getOutstanding();
+      if (outstanding < leastOutstanding) {
+        selected = candidate;
+        leastOutstanding = outstanding;
+      }
+    }
+    return selected;
+  }
+
+}
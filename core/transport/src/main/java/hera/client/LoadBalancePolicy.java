@@ -0,0 +1,27 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.List;
+
+/**
+ * A policy choosing an endpoint for a request when an aergo client has several endpoints. A
+ * request bound to an account (eg. commit) is routed by the account regardless of the policy.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface LoadBalancePolicy {
+
+  /**
+   * Select an endpoint to send a request to.
+   *
+   * @param candidates a non-empty list of candidate endpoints
+   * @return a selected endpoint. Must be one of {@code candidates}
+   */
+  GrpcEndpoint select(List<GrpcEndpoint> candidates);
+
+}
@@ -0,0 +1,69 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.Map;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A snapshot of metrics of a request method. A latency is in nanoseconds and -1 if no sample.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder(builderMethodName = "newBuilder")
+public class MethodStats {
+
+  protected final String method;
+
+  // number of finished attempts including retried ones
+  protected final long requestCount;
+
+  protected final long failureCount;
+
+  protected final long inFlight;
+
+  protected final long meanLatency;
+
+  protected final long p50Latency;
+
+  protected final long p90Latency;
+
+  protected final long p99Latency;
+
+  protected final long p999Latency;
+
+  protected final long maxLatency;
+
+  // grpc status code name -> count
+  protected final Map<String, Long> statusErrorCounts;
+
+  // commit status name -> count
+  protected final Map<String, Long> commitErrorCounts;
+
+  protected final long retryCount;
+
+  protected final long failoverCount;
+
+  // number of messages delivered by a flow controlled subscription
+  protected final long deliveryCount;
+
+  protected final long p99DeliveryLag;
+
+  protected final long maxDeliveryLag;
+
+  // of the latest delivery
+  protected final int bufferDepth;
+
+  protected final int maxBufferDepth;
+
+}
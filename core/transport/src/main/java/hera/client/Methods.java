@@ -4,8 +4,13 @@
 
 package hera.client;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Heraj methods. Naming rule : heraj.{operation}.xx.yy = OPERATION_XX_YY.
@@ -43,6 +48,10 @@ public abstract class Methods {
   public static final String BLOCK_BY_HEIGHT = "heraj.block.by.height";
   public static final String BLOCK_SUBSCRIBE_BLOCKMETADATA = "heraj.block.subscribe.blockmetadata";
   public static final String BLOCK_SUBSCRIBE_BLOCK = "heraj.block.subscribe.block";
+  public static final String BLOCK_SUBSCRIBE_BLOCKMETADATA_FLOW_CONTROLLED =
+      "heraj.block.subscribe.blockmetadata.flowcontrolled";
+  public static final String BLOCK_SUBSCRIBE_BLOCK_FLOW_CONTROLLED =
+      "heraj.block.subscribe.block.flowcontrolled";
 
   public static final String BLOCKCHAIN_BLOCKCHAINSTATUS = "heraj.blockchain.blockchainstatus";
   public static final String BLOCKCHAIN_CHAININFO = "heraj.blockchain.chaininfo";
@@ -57,6 +66,7 @@ public abstract class Methods {
   static final String TRANSACTION_IN_BLOCK = "heraj.transaction.in.block";
   public static final String TRANSACTION_TXRECEIPT = "heraj.transaction.txreceipt";
   public static final String TRANSACTION_COMMIT = "heraj.transaction.commit";
+  public static final String TRANSACTION_COMMIT_BATCH = "heraj.transaction.commit.batch";
   public static final String TRANSACTION_SENDTX_BY_ADDRESS = "heraj.transaction.sendtx.by.address";
   public static final String TRANSACTION_SENDTX_BY_NAME = "heraj.transaction.sendtx.by.name";
 
@@ -68,5 +78,16 @@ public abstract class Methods {
   public static final String CONTRACT_QUERY = "heraj.contract.query";
   public static final String CONTRACT_LIST_EVENT = "heraj.contract.list.event";
   public static final String CONTRACT_SUBSCRIBE_EVENT = "heraj.contract.subscribe.event";
+  public static final String CONTRACT_SUBSCRIBE_EVENT_FLOW_CONTROLLED =
+      "heraj.contract.subscribe.event.flowcontrolled";
+
+  // read only methods safe to be sent twice or shared by concurrent callers
+  static final Set<String> READ_ONLY_METHODS = unmodifiableSet(new HashSet<>(asList(
+      ACCOUNT_STATE, ACCOUNT_NAMEOWNER, ACCOUNT_STAKEINFO, ACCOUNT_VOTESOF,
+      BLOCK_METADATA_BY_HASH, BLOCK_METADATA_BY_HEIGHT, BLOCK_LIST_METADATAS_BY_HASH,
+      BLOCK_LIST_METADATAS_BY_HEIGHT, BLOCK_BY_HASH, BLOCK_BY_HEIGHT,
+      BLOCKCHAIN_BLOCKCHAINSTATUS, BLOCKCHAIN_CHAININFO, BLOCKCHAIN_CHAINSTATS,
+      TRANSACTION_TX, TRANSACTION_IN_MEMPOOL, TRANSACTION_IN_BLOCK, TRANSACTION_TXRECEIPT,
+      CONTRACT_TXRECEIPT, CONTRACT_INTERFACE, CONTRACT_QUERY, CONTRACT_LIST_EVENT)));
 
 }
@@ -0,0 +1,62 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientStreamTracer;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+
+/**
+ * A client interceptor recording a wire size of every message of a call on a
+ * {@link MetricsRecorder}. A size is reported by a transport through a {@link ClientStreamTracer},
+ * so a message is never serialized again just to measure it.
+ */
+class MetricsInterceptor implements ClientInterceptor {
+
+  protected final MetricsRecorder metricsRecorder;
+
+  MetricsInterceptor(final MetricsRecorder metricsRecorder) {
+    assertNotNull(metricsRecorder, "Metrics recorder must not null");
+    this.metricsRecorder = metricsRecorder;
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+      final MethodDescriptor<ReqT, RespT> method, final CallOptions callOptions,
+      final Channel next) {
+    final String grpcMethod = method.getFullMethodName();
+    final CallOptions measured = callOptions.withStreamTracerFactory(
+        new ClientStreamTracer.Factory() {
+          @Override
+          public ClientStreamTracer newClientStreamTracer(
+              final ClientStreamTracer.StreamInfo info, final Metadata metadata) {
+            return new ClientStreamTracer() {
+              @Override
+              public void outboundWireSize(final long bytes) {
+                metricsRecorder.onBytesSent(grpcMethod, bytes);
+              }
+
+              @Override
+              public void inboundWireSize(final long bytes) {
+                metricsRecorder.onBytesReceived(grpcMethod, bytes);
+              }
+            };
+          }
+        });
+    return next.newCall(method, measured);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MetricsInterceptor(metricsRecorder=%s)", metricsRecorder);
+  }
+
+}
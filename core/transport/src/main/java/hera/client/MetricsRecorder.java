@@ -0,0 +1,75 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A recorder of client side metrics. It's called on a thread sending a request or receiving a
+ * response, so it must not block. A method is a name of a request method (eg.
+ * {@code heraj.block.by.height}) unless noted. See {@link DefaultMetricsRecorder} for a built-in
+ * one.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface MetricsRecorder {
+
+  /**
+   * Called when an attempt of a request starts. A retried or a rerouted attempt is called again.
+   *
+   * @param method a request method name
+   */
+  void onRequestStart(String method);
+
+  /**
+   * Called when an attempt of a request ends.
+   *
+   * @param method  a request method name
+   * @param latency a latency of an attempt in nanoseconds
+   * @param error   a cause of a failure. null on success
+   */
+  void onRequestEnd(String method, long latency, Throwable error);
+
+  /**
+   * Called before retrying a failed request on the same endpoint.
+   *
+   * @param method a request method name
+   */
+  void onRetry(String method);
+
+  /**
+   * Called before rerouting a failed request to another endpoint.
+   *
+   * @param method a request method name
+   */
+  void onFailover(String method);
+
+  /**
+   * Called when a message is sent on a grpc call.
+   *
+   * @param grpcMethod a full grpc method name (eg. {@code types.AergoRPCService/GetBlock})
+   * @param bytes      a wire size of a message (compressed if so)
+   */
+  void onBytesSent(String grpcMethod, long bytes);
+
+  /**
+   * Called when a message is received on a grpc call.
+   *
+   * @param grpcMethod a full grpc method name (eg. {@code types.AergoRPCService/GetBlock})
+   * @param bytes      a wire size of a message (compressed if so)
+   */
+  void onBytesReceived(String grpcMethod, long bytes);
+
+  /**
+   * Called when a message of a flow controlled subscription is delivered to an observer.
+   *
+   * @param method      a request method name of a subscription
+   * @param lag         a time a message has waited in a buffer in nanoseconds
+   * @param bufferDepth a number of messages left in a buffer
+   */
+  void onSubscriptionDelivery(String method, long lag, int bufferDepth);
+
+}
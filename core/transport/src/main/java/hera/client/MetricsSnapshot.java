@@ -0,0 +1,55 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A snapshot of metrics of a client taken by {@link DefaultMetricsRecorder#getSnapshot()}.
+ * <p>
+ * Metrics are in two namespaces. Stats of a method are keyed by a request method name (eg.
+ * {@code heraj.block.by.height}). Bytes are reported by a transport under a full grpc method name
+ * (eg. {@code types.AergoRPCService/GetBlock}), which isn't one to one with a request method (eg.
+ * both of {@code heraj.block.by.hash} and {@code heraj.block.by.height} call {@code GetBlock} and
+ * a health check calls without one). So bytes are totals of all grpc calls of a client.
+ * </p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class MetricsSnapshot {
+
+  // a time taken at in milliseconds since epoch
+  protected final long timestamp;
+
+  // request method name -> stats
+  protected final Map<String, MethodStats> methodStats;
+
+  // wire size of grpc messages of all calls including ones of a health check
+  protected final long bytesSent;
+
+  protected final long bytesReceived;
+
+  /**
+   * Get stats of a request method.
+   *
+   * @param method a request method name
+   * @return stats of a method. null if nothing is recorded
+   */
+  public MethodStats getMethodStats(final String method) {
+    return methodStats.get(method);
+  }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.strategy.InvocationStrategy;
+import java.util.List;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A strategy recording a latency, an in-flight count and a failure of every attempt of a request
+ * on a {@link MetricsRecorder}.
+ */
+@ToString
+class MetricsStrategy implements InvocationStrategy {
+
+  @Getter
+  protected final MetricsRecorder metricsRecorder;
+
+  MetricsStrategy(final MetricsRecorder metricsRecorder) {
+    assertNotNull(metricsRecorder, "Metrics recorder must not null");
+    this.metricsRecorder = metricsRecorder;
+  }
+
+  @Override
+  public <T> Invocation<T> apply(final Invocation<T> invocation) {
+    assertNotNull(invocation, "Invocation must not null");
+    return new MetricsInvocation<>(invocation);
+  }
+
+  private class MetricsInvocation<T> implements Invocation<T> {
+
+    protected final Invocation<T> delegate;
+
+    MetricsInvocation(final Invocation<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public RequestMethod<T> getRequestMethod() {
+      return delegate.getRequestMethod();
+    }
+
+    @Override
+    public List<Object> getParameters() {
+      return delegate.getParameters();
+    }
+
+    @Override
+    public T invoke() throws Exception {
+      final String method = getRequestMethod().getName();
+      metricsRecorder.onRequestStart(method);
+      final long startedAt = System.nanoTime();
+      try {
+        final T value = delegate.invoke();
+        metricsRecorder.onRequestEnd(method, System.nanoTime() - startedAt, null);
+        return value;
+      } catch (Exception e) {
+        metricsRecorder.onRequestEnd(method, System.nanoTime() - startedAt, e);
+        throw e;
+      }
+    }
+
+    @Override
+    public Invocation<T> withParameters(final List<Object> parameters) {
+      assertNotNull(parameters, "Parameters must not null");
+      return new MetricsInvocation<>(delegate.withParameters(parameters));
+    }
+  }
+
+}
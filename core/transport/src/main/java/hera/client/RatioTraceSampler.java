@@ -0,0 +1,32 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertTrue;
+
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A sampler tracing a ratio of requests at random.
+ */
+@ToString
+class RatioTraceSampler implements TraceSampler {
+
+  @Getter
+  protected final double ratio;
+
+  RatioTraceSampler(final double ratio) {
+    assertTrue(0.0d <= ratio && ratio <= 1.0d, "Ratio must be in [0, 1]");
+    this.ratio = ratio;
+  }
+
+  @Override
+  public boolean isSampled(final String method) {
+    return ThreadLocalRandom.current().nextDouble() < ratio;
+  }
+
+}
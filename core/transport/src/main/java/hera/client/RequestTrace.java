@@ -0,0 +1,42 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A trace of a sampled request. A phase not reached by an attempt (eg. a call failed before a
+ * stream is started) has no span. Spans of attempts might overlap with a failover span or each
+ * other on hedging.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class RequestTrace {
+
+  protected final String method;
+
+  // in milliseconds since epoch
+  protected final long startedAt;
+
+  // in nanoseconds
+  protected final long duration;
+
+  protected final boolean succeeded;
+
+  // in order of a start offset
+  protected final List<TraceSpan> spans;
+
+}
@@ -0,0 +1,25 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A tracer receiving a trace of a request sampled by a {@link TraceSampler}. It's called on a
+ * thread completing a request, so it must not block (eg. hand over a trace to an exporter).
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface RequestTracer {
+
+  /**
+   * Called when a sampled request completes.
+   *
+   * @param trace a trace of a request
+   */
+  void onTrace(RequestTrace trace);
+
+}
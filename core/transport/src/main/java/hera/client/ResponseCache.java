@@ -0,0 +1,187 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.api.model.Block;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.Transaction;
+import hera.api.model.TxReceipt;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A bounded read-through cache of immutable responses (eg. a block by hash or a receipt). It's an
+ * LRU bounded by an estimated weight of entries in bytes rather than a number of them, so that a
+ * few huge blocks can't hold much more memory than configured. Whether a response is immutable is
+ * decided by a caller and this cache just keeps what it's given.
+ */
+@ToString
+class ResponseCache {
+
+  // a rough size of a small object like an event argument
+  protected static final long BASE_WEIGHT = 64L;
+
+  protected static final long BLOCK_HEADER_WEIGHT = 512L;
+
+  protected static final long TX_WEIGHT = 384L;
+
+  protected static final long RECEIPT_WEIGHT = 320L;
+
+  protected static final long EVENT_WEIGHT = 256L;
+
+  @ToString.Exclude
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final long maxWeight;
+
+  // guarded by this. in an access order, eldest first
+  @ToString.Exclude
+  protected final LinkedHashMap<CacheKey, Entry> key2Entry = new LinkedHashMap<>(16, 0.75f, true);
+  protected long weight = 0L;
+  protected long hitCount = 0L;
+  protected long missCount = 0L;
+  protected long evictionCount = 0L;
+
+  ResponseCache(final long maxWeight) {
+    assertTrue(maxWeight > 0L, "Max weight must be positive");
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * Get a cached response.
+   *
+   * @param methodName a name of a request method
+   * @param parameters parameters of a request
+   * @return a cached response. null if not cached
+   */
+  synchronized Object get(final String methodName, final List<Object> parameters) {
+    final Entry entry = key2Entry.get(new CacheKey(methodName, parameters));
+    if (null == entry) {
+      ++missCount;
+      return null;
+    }
+    ++hitCount;
+    return entry.value;
+  }
+
+  /**
+   * Cache a response. A response heavier than a max weight is not cached.
+   *
+   * @param methodName a name of a request method
+   * @param parameters parameters of a request
+   * @param value      a response to cache
+   */
+  void put(final String methodName, final List<Object> parameters, final Object value) {
+    assertNotNull(methodName, "Method name must not null");
+    assertNotNull(parameters, "Parameters must not null");
+    assertNotNull(value, "Value must not null");
+    final long valueWeight = weigh(value);
+    if (valueWeight > maxWeight) {
+      logger.debug("Skip caching {} weighing {} bytes", methodName, valueWeight);
+      return;
+    }
+
+    synchronized (this) {
+      final Entry prev = key2Entry.put(new CacheKey(methodName, parameters),
+          new Entry(value, valueWeight));
+      if (null != prev) {
+        weight -= prev.weight;
+      }
+      weight += valueWeight;
+      final Iterator<Entry> it = key2Entry.values().iterator();
+      while (weight > maxWeight && it.hasNext()) {
+        final Entry eldest = it.next();
+        it.remove();
+        weight -= eldest.weight;
+        ++evictionCount;
+      }
+    }
+  }
+
+  synchronized void clear() {
+    key2Entry.clear();
+    weight = 0L;
+  }
+
+  synchronized CacheStats getStats() {
+    return new CacheStats(hitCount, missCount, evictionCount, key2Entry.size(), weight,
+        maxWeight);
+  }
+
+  /**
+   * Estimate a retained size of a response in bytes. It needn't be exact but should grow with a
+   * size of variable length fields like a payload.
+   *
+   * @param value a response
+   * @return an estimated weight in bytes
+   */
+  protected long weigh(final Object value) {
+    if (value instanceof Block) {
+      return weighBlock((Block) value);
+    } else if (value instanceof Transaction) {
+      return TX_WEIGHT + ((Transaction) value).getPayload().length();
+    } else if (value instanceof TxReceipt) {
+      final TxReceipt txReceipt = (TxReceipt) value;
+      return RECEIPT_WEIGHT + 2L * (txReceipt.getStatus().length()
+          + txReceipt.getResult().length());
+    } else if (value instanceof ContractTxReceipt) {
+      final ContractTxReceipt receipt = (ContractTxReceipt) value;
+      long receiptWeight = RECEIPT_WEIGHT + receipt.getBloom().length()
+          + 2L * (receipt.getStatus().length() + receipt.getResult().length());
+      for (final Event event : receipt.getEvents()) {
+        receiptWeight += EVENT_WEIGHT + 2L * event.getName().length()
+            + BASE_WEIGHT * event.getArgs().size();
+      }
+      return receiptWeight;
+    }
+    // eg. block metadata
+    return BLOCK_HEADER_WEIGHT;
+  }
+
+  /**
+   * Estimate a retained size of a block in bytes. It's a serialized size of an rpc block if known.
+   * Otherwise payloads are not weighed since it would convert every transaction of a lazy block.
+   *
+   * @param block a block
+   * @return an estimated weight in bytes
+   */
+  static long weighBlock(final Block block) {
+    if (0L < block.getSerializedSize()) {
+      return block.getSerializedSize();
+    }
+    return BLOCK_HEADER_WEIGHT + TX_WEIGHT * block.getTxCount();
+  }
+
+  @RequiredArgsConstructor
+  @EqualsAndHashCode
+  @ToString
+  private static class CacheKey {
+
+    protected final String methodName;
+
+    protected final List<Object> parameters;
+  }
+
+  @RequiredArgsConstructor
+  private static class Entry {
+
+    protected final Object value;
+
+    protected final long weight;
+  }
+
+}
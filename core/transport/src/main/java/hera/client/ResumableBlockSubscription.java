@@ -0,0 +1,366 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.api.function.Function1;
+import hera.api.function.Function2;
+import hera.api.model.FlowControlledSubscription;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Time;
+import hera.exception.HerajException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+
+/**
+ * A block subscription surviving a broken stream. It remembers the height of the last delivered
+ * block and opens a new live stream with backoff when a stream is broken by a retryable error or
+ * closed by a server.
+ * <p>
+ * Every block from a live stream is checked against the last delivered height. A block at or below
+ * it is dropped and a gap before it is backfilled by {@code rangeFetcher} first, so an observer
+ * gets blocks in order without a gap or a duplicate. A gap is found on the first live block after
+ * reconnecting, which comes within a second since a block is produced every second in aergo.
+ * </p>
+ * <p>
+ * A live stream is flow controlled and a block is requested from it only after the previous one is
+ * handled. A gap is backfilled on {@code backfiller} while the live stream holds the next blocks in
+ * its bounded buffer, so neither a stream thread nor the lock is held by fetching blocks.
+ * </p>
+ *
+ * @param <T> a type of a block
+ */
+class ResumableBlockSubscription<T> implements Subscription<T> {
+
+  protected static final long DEFAULT_BASE_DELAY = 500L; // milliseconds
+
+  // schedules a reconnection. never blocked by a reconnection itself
+  protected static final ScheduledExecutorService RECONNECTOR;
+
+  static {
+    final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+        new DaemonThreadFactory("heraj-resubscription"));
+    executor.setRemoveOnCancelPolicy(true);
+    RECONNECTOR = executor;
+  }
+
+  // fetches a gap. a thread is busy as long as a backfill
+  protected static final ExecutorService BACKFILLER =
+      Executors.newCachedThreadPool(new DaemonThreadFactory("heraj-backfill"));
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final StreamObserver<T> observer;
+
+  // opens a live stream delivering nothing until requested
+  protected final Function1<StreamObserver<T>, FlowControlledSubscription<T>> subscriber;
+
+  // fetches blocks in [from, to] in ascending order. it may return less than requested
+  protected final Function2<Long, Long, List<T>> rangeFetcher;
+
+  protected final Function1<T, Long> heightExtractor;
+
+  protected final RetryPolicy retryPolicy;
+
+  protected final ScheduledExecutorService scheduler;
+
+  protected final Executor backfiller;
+
+  // guards delivery and a stream generation
+  protected final Object lock = new Object();
+
+  // guarded by lock
+  protected long lastHeight;
+  protected boolean started;
+  protected long generation = 0L;
+  protected long delay;
+
+  // a stream of the current generation. null until opened
+  protected volatile FlowControlledSubscription<T> live;
+
+  protected volatile ScheduledFuture<?> reconnection;
+
+  protected volatile boolean unsubscribed = false;
+
+  /**
+   * Create a resumable block subscription.
+   *
+   * @param observer        an observer of blocks
+   * @param fromHeight      a height of the first block to deliver. a negative one to start from
+   *                        the next new block
+   * @param subscriber      a function opening a live stream
+   * @param rangeFetcher    a function fetching blocks in a range
+   * @param heightExtractor a function extracting a height of a block
+   */
+  ResumableBlockSubscription(final StreamObserver<T> observer, final long fromHeight,
+      final Function1<StreamObserver<T>, FlowControlledSubscription<T>> subscriber,
+      final Function2<Long, Long, List<T>> rangeFetcher,
+      final Function1<T, Long> heightExtractor) {
+    this(observer, fromHeight, subscriber, rangeFetcher, heightExtractor,
+        RetryPolicy.of(Integer.MAX_VALUE, Time.of(DEFAULT_BASE_DELAY, TimeUnit.MILLISECONDS)),
+        RECONNECTOR, BACKFILLER);
+  }
+
+  ResumableBlockSubscription(final StreamObserver<T> observer, final long fromHeight,
+      final Function1<StreamObserver<T>, FlowControlledSubscription<T>> subscriber,
+      final Function2<Long, Long, List<T>> rangeFetcher,
+      final Function1<T, Long> heightExtractor, final RetryPolicy retryPolicy,
+      final ScheduledExecutorService scheduler, final Executor backfiller) {
+    assertNotNull(observer, "Observer must not null");
+    assertNotNull(subscriber, "Subscriber must not null");
+    assertNotNull(rangeFetcher, "Range fetcher must not null");
+    assertNotNull(heightExtractor, "Height extractor must not null");
+    assertNotNull(retryPolicy, "Retry policy must not null");
+    assertNotNull(scheduler, "Scheduler must not null");
+    assertNotNull(backfiller, "Backfiller must not null");
+    this.observer = observer;
+    this.subscriber = subscriber;
+    this.rangeFetcher = rangeFetcher;
+    this.heightExtractor = heightExtractor;
+    this.retryPolicy = retryPolicy;
+    this.scheduler = scheduler;
+    this.backfiller = backfiller;
+    this.started = 0L <= fromHeight;
+    this.lastHeight = fromHeight - 1L;
+    this.delay = retryPolicy.getBaseDelay();
+  }
+
+  /**
+   * Open the first live stream.
+   */
+  void start() {
+    connect();
+  }
+
+  /**
+   * Get a height of the last delivered block.
+   *
+   * @return a height of the last delivered block. a negative one if nothing is delivered yet
+   */
+  long getLastHeight() {
+    synchronized (lock) {
+      return started ? lastHeight : -1L;
+    }
+  }
+
+  protected void connect() {
+    if (unsubscribed) {
+      return;
+    }
+    final long current;
+    synchronized (lock) {
+      current = ++generation;
+      logger.debug("Open a live stream (generation: {}, last height: {})", current, lastHeight);
+    }
+    final FlowControlledSubscription<T> opened;
+    try {
+      opened = subscriber.apply(new LiveObserver(current));
+    } catch (Exception e) {
+      resume(current, e);
+      return;
+    }
+    // published before the first request so that a resume or an unsubscription closes it
+    synchronized (lock) {
+      if (!unsubscribed && current == generation) {
+        this.live = opened;
+      }
+    }
+    if (opened != this.live) {
+      opened.unsubscribe();
+      return;
+    }
+    opened.request(1L);
+  }
+
+  protected void onLive(final long streamGeneration, final T value) {
+    final FlowControlledSubscription<T> stream;
+    final long height = heightExtractor.apply(value);
+    boolean gap = false;
+    synchronized (lock) {
+      if (unsubscribed || streamGeneration != generation) {
+        return;
+      }
+      stream = this.live;
+      if (!started) {
+        started = true;
+        lastHeight = height - 1L;
+      }
+      if (height <= lastHeight) {
+        logger.debug("Drop a duplicated block (height: {}, last height: {})", height, lastHeight);
+      } else if (lastHeight + 1L == height) {
+        deliver(value, height);
+        delay = retryPolicy.getBaseDelay();
+      } else {
+        logger.debug("Backfill blocks from {} to {}", lastHeight + 1L, height - 1L);
+        gap = true;
+      }
+    }
+    if (gap) {
+      // a live block is held until the gap is backfilled. nothing more is requested until then
+      backfiller.execute(new Runnable() {
+        @Override
+        public void run() {
+          backfill(streamGeneration, stream, value, height);
+        }
+      });
+      return;
+    }
+    stream.request(1L);
+  }
+
+  // fetches blocks without the lock and delivers them with it
+  protected void backfill(final long streamGeneration, final FlowControlledSubscription<T> stream,
+      final T held, final long heldHeight) {
+    while (true) {
+      final long from;
+      synchronized (lock) {
+        if (unsubscribed || streamGeneration != generation) {
+          return;
+        }
+        if (heldHeight - 1L <= lastHeight) {
+          deliver(held, heldHeight);
+          delay = retryPolicy.getBaseDelay();
+          break;
+        }
+        from = lastHeight + 1L;
+      }
+
+      final List<T> fetched;
+      try {
+        fetched = rangeFetcher.apply(from, heldHeight - 1L);
+      } catch (Exception e) {
+        logger.debug("Backfill failed by {}", e.toString());
+        resume(streamGeneration, e);
+        return;
+      }
+      final boolean missing;
+      synchronized (lock) {
+        if (unsubscribed || streamGeneration != generation) {
+          return;
+        }
+        for (final T block : fetched) {
+          final long height = heightExtractor.apply(block);
+          if (height == lastHeight + 1L && height < heldHeight) {
+            deliver(block, height);
+          }
+        }
+        missing = lastHeight < from;
+      }
+      if (missing) {
+        resume(streamGeneration, new HerajException("No block to backfill at height " + from));
+        return;
+      }
+    }
+    stream.request(1L);
+  }
+
+  // guarded by lock
+  protected void deliver(final T block, final long height) {
+    observer.onNext(block);
+    lastHeight = height;
+  }
+
+  protected void onLiveError(final long streamGeneration, final Throwable error) {
+    if (retryPolicy.isRetryable(error)) {
+      resume(streamGeneration, error);
+      return;
+    }
+    synchronized (lock) {
+      if (unsubscribed || streamGeneration != generation) {
+        return;
+      }
+      unsubscribed = true;
+    }
+    logger.debug("Stop subscription by non-retryable error: {}", error.toString());
+    observer.onError(error);
+  }
+
+  protected void resume(final long streamGeneration, final Throwable cause) {
+    final Subscription<T> broken;
+    final long wait;
+    synchronized (lock) {
+      if (unsubscribed || streamGeneration != generation) {
+        return;
+      }
+      // ignore anything from a broken stream
+      ++generation;
+      broken = this.live;
+      this.live = null;
+      wait = delay;
+      delay = retryPolicy.nextDelay(delay);
+      logger.info("Resume subscription after {}ms (last height: {}, cause: {})", wait, lastHeight,
+          null != cause ? cause.toString() : "stream closed");
+    }
+    if (null != broken) {
+      broken.unsubscribe();
+    }
+    reconnection = scheduler.schedule(new Runnable() {
+      @Override
+      public void run() {
+        connect();
+      }
+    }, wait, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void unsubscribe() {
+    if (unsubscribed) {
+      logger.debug("Subscription is already unsubscribed");
+      return;
+    }
+    final Subscription<T> current;
+    synchronized (lock) {
+      unsubscribed = true;
+      current = this.live;
+    }
+    final ScheduledFuture<?> pending = this.reconnection;
+    if (null != pending) {
+      pending.cancel(false);
+    }
+    if (null != current) {
+      current.unsubscribe();
+    }
+  }
+
+  @Override
+  public boolean isUnsubscribed() {
+    return unsubscribed;
+  }
+
+  protected class LiveObserver implements StreamObserver<T> {
+
+    protected final long streamGeneration;
+
+    LiveObserver(final long streamGeneration) {
+      this.streamGeneration = streamGeneration;
+    }
+
+    @Override
+    public void onNext(final T value) {
+      onLive(streamGeneration, value);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      onLiveError(streamGeneration, t);
+    }
+
+    @Override
+    public void onCompleted() {
+      resume(streamGeneration, null);
+    }
+  }
+
+}
@@ -0,0 +1,474 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.api.function.Function0;
+import hera.api.function.Function1;
+import hera.api.function.Function2;
+import hera.api.model.CloseableIterator;
+import hera.api.model.Event;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Time;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+
+/**
+ * An event subscription replaying history before going live. On every connection a live stream
+ * is opened first and events from it are held while events from the resume height up to the best
+ * height are replayed by {@code rangeLister}. Held events are delivered after a replay.
+ * <p>
+ * Every block up to the replayed height is fully delivered and an event in it is dropped. An event
+ * in the last delivered block is dropped by its (tx hash, index). So an observer gets events in
+ * order without a duplicate in an overlap of a replay and a live stream. Since a live stream may
+ * start later than it's requested, the first live event of a connection backfills blocks between
+ * the replayed height and it. A backfill runs on {@code replayer} and live events are held during
+ * it as during a replay. On a retryable error or a closed stream, a subscription is resumed from
+ * the last delivered position with backoff.
+ * </p>
+ * <p>
+ * At most {@code maxHeldEvents} live events are held. On more of them, held ones are dropped and
+ * a new live stream is opened right after a replay to replay the dropped part again. A replay
+ * abandoned by a resume or an unsubscription is closed.
+ * </p>
+ */
+class ResumableEventSubscription implements Subscription<Event> {
+
+  // replays history. a replay may take long so it's not run on a reconnector
+  protected static final ExecutorService REPLAYER =
+      Executors.newCachedThreadPool(new DaemonThreadFactory("heraj-event-replay"));
+
+  protected static final int DEFAULT_MAX_HELD_EVENTS = 10000;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final StreamObserver<Event> observer;
+
+  // opens a live stream
+  protected final Function1<StreamObserver<Event>, Subscription<Event>> subscriber;
+
+  // lists events in [from, to] in ascending order
+  protected final Function2<Long, Long, CloseableIterator<Event>> rangeLister;
+
+  protected final Function0<Long> bestHeightSupplier;
+
+  protected final RetryPolicy retryPolicy;
+
+  protected final ScheduledExecutorService scheduler;
+
+  protected final Executor replayer;
+
+  protected final int maxHeldEvents;
+
+  // guards delivery and a stream generation
+  protected final Object lock = new Object();
+
+  // guarded by lock. every event at or below a scanned height is delivered
+  protected long scannedHeight;
+  protected long lastBlockNumber = -1L;
+  protected final Set<String> lastBlockKeys = new HashSet<>();
+  protected long generation = 0L;
+  protected long delay;
+  // live events held during a replay or a backfill and whether a live stream is checked for a gap
+  protected boolean replaying;
+  protected boolean liveChecked;
+  protected boolean heldOverflowed;
+  protected final List<Event> held = new ArrayList<>();
+  // events being replayed. null if no replay is running
+  protected CloseableIterator<Event> replayEvents;
+
+  protected volatile Subscription<Event> live;
+
+  protected volatile ScheduledFuture<?> reconnection;
+
+  protected volatile boolean unsubscribed = false;
+
+  /**
+   * Create a resumable event subscription.
+   *
+   * @param observer           an observer of events
+   * @param fromBlockNumber    a block number to replay from
+   * @param subscriber         a function opening a live stream
+   * @param rangeLister        a function listing events in a block range
+   * @param bestHeightSupplier a function getting the best height
+   */
+  ResumableEventSubscription(final StreamObserver<Event> observer, final long fromBlockNumber,
+      final Function1<StreamObserver<Event>, Subscription<Event>> subscriber,
+      final Function2<Long, Long, CloseableIterator<Event>> rangeLister,
+      final Function0<Long> bestHeightSupplier) {
+    this(observer, fromBlockNumber, subscriber, rangeLister, bestHeightSupplier,
+        RetryPolicy.of(Integer.MAX_VALUE, Time.of(ResumableBlockSubscription.DEFAULT_BASE_DELAY,
+            TimeUnit.MILLISECONDS)),
+        ResumableBlockSubscription.RECONNECTOR, REPLAYER, DEFAULT_MAX_HELD_EVENTS);
+  }
+
+  ResumableEventSubscription(final StreamObserver<Event> observer, final long fromBlockNumber,
+      final Function1<StreamObserver<Event>, Subscription<Event>> subscriber,
+      final Function2<Long, Long, CloseableIterator<Event>> rangeLister,
+      final Function0<Long> bestHeightSupplier, final RetryPolicy retryPolicy,
+      final ScheduledExecutorService scheduler, final Executor replayer,
+      final int maxHeldEvents) {
+    assertNotNull(observer, "Observer must not null");
+    assertTrue(0L <= fromBlockNumber, "From block number must >= 0");
+    assertNotNull(subscriber, "Subscriber must not null");
+    assertNotNull(rangeLister, "Range lister must not null");
+    assertNotNull(bestHeightSupplier, "Best height supplier must not null");
+    assertNotNull(retryPolicy, "Retry policy must not null");
+    assertNotNull(scheduler, "Scheduler must not null");
+    assertNotNull(replayer, "Replayer must not null");
+    assertTrue(0 < maxHeldEvents, "Max held events must be positive");
+    this.observer = observer;
+    this.subscriber = subscriber;
+    this.rangeLister = rangeLister;
+    this.bestHeightSupplier = bestHeightSupplier;
+    this.retryPolicy = retryPolicy;
+    this.scheduler = scheduler;
+    this.replayer = replayer;
+    this.maxHeldEvents = maxHeldEvents;
+    this.scannedHeight = fromBlockNumber - 1L;
+    this.delay = retryPolicy.getBaseDelay();
+  }
+
+  /**
+   * Open the first live stream and replay history.
+   */
+  void start() {
+    connect();
+  }
+
+  /**
+   * Get a block number to resume from. A block of it might be partially delivered.
+   *
+   * @return a block number to resume from
+   */
+  long getResumeHeight() {
+    synchronized (lock) {
+      return Math.max(scannedHeight + 1L, lastBlockNumber);
+    }
+  }
+
+  protected void connect() {
+    if (unsubscribed) {
+      return;
+    }
+    final long current;
+    synchronized (lock) {
+      current = ++generation;
+      replaying = true;
+      liveChecked = false;
+      heldOverflowed = false;
+      held.clear();
+      logger.debug("Open a live stream (generation: {}, resume height: {})", current,
+          getResumeHeight());
+    }
+    final Subscription<Event> opened;
+    try {
+      opened = subscriber.apply(new LiveObserver(current));
+    } catch (Exception e) {
+      resume(current, e);
+      return;
+    }
+    this.live = opened;
+    if (unsubscribed) {
+      opened.unsubscribe();
+      return;
+    }
+    replayer.execute(new Runnable() {
+      @Override
+      public void run() {
+        replay(current);
+      }
+    });
+  }
+
+  protected void replay(final long streamGeneration) {
+    final long from = getResumeHeight();
+    final long to;
+    try {
+      to = bestHeightSupplier.apply();
+      logger.debug("Replay events from {} to {}", from, to);
+      if (from <= to && !replay(streamGeneration, rangeLister.apply(from, to))) {
+        return;
+      }
+    } catch (Exception e) {
+      logger.debug("Replay failed by {}", e.toString());
+      resume(streamGeneration, e);
+      return;
+    }
+    goLive(streamGeneration, to);
+  }
+
+  // deliver held live events once every event up to a height is delivered
+  protected void goLive(final long streamGeneration, final long to) {
+    final Subscription<Event> dropped;
+    final boolean reconnect;
+    Event gapped = null;
+    synchronized (lock) {
+      if (unsubscribed || streamGeneration != generation) {
+        return;
+      }
+      scannedHeight = Math.max(scannedHeight, to);
+      reconnect = heldOverflowed;
+      if (!heldOverflowed) {
+        dropped = null;
+        replaying = false;
+        logger.debug("Go live with {} held event(s)", held.size());
+        final List<Event> pending = new ArrayList<>(held);
+        held.clear();
+        for (int i = 0; null == gapped && i < pending.size(); ++i) {
+          if (!acceptLive(pending.get(i))) {
+            // hold the rest again until a gap before it is backfilled
+            gapped = pending.get(i);
+            held.addAll(pending.subList(i, pending.size()));
+          }
+        }
+      } else {
+        // replay live events dropped with a new live stream
+        ++generation;
+        dropped = this.live;
+        logger.debug("Reconnect to replay dropped live events (resume height: {})",
+            getResumeHeight());
+      }
+    }
+    if (null != gapped) {
+      startBackfill(streamGeneration, gapped.getBlockNumber() - 1L);
+    }
+    if (reconnect) {
+      if (null != dropped) {
+        dropped.unsubscribe();
+      }
+      connect();
+    }
+  }
+
+  // false if a replay is abandoned
+  protected boolean replay(final long streamGeneration, final CloseableIterator<Event> events) {
+    try {
+      synchronized (lock) {
+        if (unsubscribed || streamGeneration != generation) {
+          return false;
+        }
+        replayEvents = events;
+      }
+      while (events.hasNext()) {
+        final Event event = events.next();
+        synchronized (lock) {
+          if (unsubscribed || streamGeneration != generation) {
+            return false;
+          }
+          deliver(event);
+        }
+      }
+      synchronized (lock) {
+        return !unsubscribed && streamGeneration == generation;
+      }
+    } finally {
+      synchronized (lock) {
+        if (events == replayEvents) {
+          replayEvents = null;
+        }
+      }
+      events.close();
+    }
+  }
+
+  protected void onLive(final long streamGeneration, final Event event) {
+    synchronized (lock) {
+      if (unsubscribed || streamGeneration != generation) {
+        return;
+      }
+      delay = retryPolicy.getBaseDelay();
+      if (replaying) {
+        if (heldOverflowed) {
+          return;
+        }
+        if (held.size() >= maxHeldEvents) {
+          logger.debug("Drop {} held event(s) to replay them again", held.size());
+          held.clear();
+          heldOverflowed = true;
+          return;
+        }
+        held.add(event);
+        return;
+      }
+      if (acceptLive(event)) {
+        return;
+      }
+      held.add(event);
+    }
+    startBackfill(streamGeneration, event.getBlockNumber() - 1L);
+  }
+
+  // guarded by lock. false if a gap before an event is to be backfilled first
+  protected boolean acceptLive(final Event event) {
+    if (!liveChecked) {
+      liveChecked = true;
+      if (scannedHeight < event.getBlockNumber() - 1L) {
+        // hold live events until a gap is backfilled
+        replaying = true;
+        return false;
+      }
+    }
+    deliver(event);
+    return true;
+  }
+
+  // a backfill may take long so it's not run on a stream thread
+  protected void startBackfill(final long streamGeneration, final long to) {
+    replayer.execute(new Runnable() {
+      @Override
+      public void run() {
+        backfill(streamGeneration, to);
+      }
+    });
+  }
+
+  protected void backfill(final long streamGeneration, final long to) {
+    final long from = getResumeHeight();
+    logger.debug("Backfill events from {} to {}", from, to);
+    try {
+      if (from <= to && !replay(streamGeneration, rangeLister.apply(from, to))) {
+        return;
+      }
+    } catch (Exception e) {
+      logger.debug("Backfill failed by {}", e.toString());
+      resume(streamGeneration, e);
+      return;
+    }
+    goLive(streamGeneration, to);
+  }
+
+  // guarded by lock. drop one already delivered
+  protected void deliver(final Event event) {
+    final long blockNumber = event.getBlockNumber();
+    final String key = event.getTxHash().getEncoded() + ":" + event.getIndex();
+    if (blockNumber <= scannedHeight || blockNumber < lastBlockNumber
+        || (blockNumber == lastBlockNumber && lastBlockKeys.contains(key))) {
+      logger.trace("Drop a duplicated event (block: {}, key: {})", blockNumber, key);
+      return;
+    }
+    if (blockNumber > lastBlockNumber) {
+      lastBlockNumber = blockNumber;
+      lastBlockKeys.clear();
+    }
+    lastBlockKeys.add(key);
+    observer.onNext(event);
+  }
+
+  protected void onLiveError(final long streamGeneration, final Throwable error) {
+    if (retryPolicy.isRetryable(error)) {
+      resume(streamGeneration, error);
+      return;
+    }
+    synchronized (lock) {
+      if (unsubscribed || streamGeneration != generation) {
+        return;
+      }
+      unsubscribed = true;
+    }
+    logger.debug("Stop subscription by non-retryable error: {}", error.toString());
+    observer.onError(error);
+  }
+
+  protected void resume(final long streamGeneration, final Throwable cause) {
+    final Subscription<Event> broken;
+    final CloseableIterator<Event> abandoned;
+    final long wait;
+    synchronized (lock) {
+      if (unsubscribed || streamGeneration != generation) {
+        return;
+      }
+      // ignore anything from a broken stream and a replay of it
+      ++generation;
+      broken = this.live;
+      abandoned = replayEvents;
+      replayEvents = null;
+      wait = delay;
+      delay = retryPolicy.nextDelay(delay);
+      logger.info("Resume subscription after {}ms (resume height: {}, cause: {})", wait,
+          getResumeHeight(), null != cause ? cause.toString() : "stream closed");
+    }
+    if (null != abandoned) {
+      abandoned.close();
+    }
+    if (null != broken) {
+      broken.unsubscribe();
+    }
+    reconnection = scheduler.schedule(new Runnable() {
+      @Override
+      public void run() {
+        connect();
+      }
+    }, wait, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void unsubscribe() {
+    if (unsubscribed) {
+      logger.debug("Subscription is already unsubscribed");
+      return;
+    }
+    final CloseableIterator<Event> abandoned;
+    synchronized (lock) {
+      unsubscribed = true;
+      abandoned = replayEvents;
+      replayEvents = null;
+    }
+    if (null != abandoned) {
+      abandoned.close();
+    }
+    final ScheduledFuture<?> pending = this.reconnection;
+    if (null != pending) {
+      pending.cancel(false);
+    }
+    final Subscription<Event> current = this.live;
+    if (null != current) {
+      current.unsubscribe();
+    }
+  }
+
+  @Override
+  public boolean isUnsubscribed() {
+    return unsubscribed;
+  }
+
+  protected class LiveObserver implements StreamObserver<Event> {
+
+    protected final long streamGeneration;
+
+    LiveObserver(final long streamGeneration) {
+      this.streamGeneration = streamGeneration;
+    }
+
+    @Override
+    public void onNext(final Event value) {
+      onLive(streamGeneration, value);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      onLiveError(streamGeneration, t);
+    }
+
+    @Override
+    public void onCompleted() {
+      resume(streamGeneration, null);
+    }
+  }
+
+}
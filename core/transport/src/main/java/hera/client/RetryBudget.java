@@ -0,0 +1,81 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A client-wide token bucket limiting retries to a ratio of successful calls. Each success deposits
+ * {@code ratio} token and each retry withdraws a token. When a node hiccups and most calls fail,
+ * the bucket drains and retries stop instead of amplifying a load.
+ */
+@ToString
+class RetryBudget {
+
+  // in milli tokens to keep a fraction of a ratio
+  protected static final long UNIT = 1000L;
+
+  // tokens to begin with so that a client can retry before any success
+  protected static final int DEFAULT_INITIAL_TOKENS = 10;
+
+  @Getter
+  protected final double ratio;
+
+  protected final long maxBalance;
+
+  protected final long deposit;
+
+  @ToString.Exclude
+  protected final AtomicLong balance;
+
+  RetryBudget(final double ratio, final int maxTokens) {
+    assertTrue(0.0d < ratio, "Ratio must be positive");
+    assertTrue(0 < maxTokens, "Max tokens must be positive");
+    this.ratio = ratio;
+    this.maxBalance = maxTokens * UNIT;
+    this.deposit = Math.max(1L, (long) (ratio * UNIT));
+    this.balance = new AtomicLong(Math.min(DEFAULT_INITIAL_TOKENS, maxTokens) * UNIT);
+  }
+
+  /**
+   * Deposit on a successful call.
+   */
+  void onSuccess() {
+    long prev;
+    long next;
+    do {
+      prev = balance.get();
+      if (prev >= maxBalance) {
+        return;
+      }
+      next = Math.min(maxBalance, prev + deposit);
+    } while (!balance.compareAndSet(prev, next));
+  }
+
+  /**
+   * Withdraw a token for a retry.
+   *
+   * @return whether a retry is allowed or not
+   */
+  boolean tryAcquire() {
+    long prev;
+    do {
+      prev = balance.get();
+      if (prev < UNIT) {
+        return false;
+      }
+    } while (!balance.compareAndSet(prev, prev - UNIT));
+    return true;
+  }
+
+  int getTokens() {
+    return (int) (balance.get() / UNIT);
+  }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Collections.unmodifiableSet;
+
+import hera.api.model.Time;
+import io.grpc.Status;
+import io.grpc.StatusException;
+import io.grpc.StatusRuntimeException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A policy deciding whether and when to retry a failed request. A delay grows exponentially with
+ * decorrelated jitter ({@code delay = min(max, random(base, previous * 3))}) so that clients
+ * failed at the same time don't retry in lockstep. Only an error with a retryable grpc status code
+ * is retried.
+ */
+@ToString
+class RetryPolicy {
+
+  // RESOURCE_EXHAUSTED is left out. grpc raises it on a client too (eg. an oversized message),
+  // where a retry fails the same way
+  static final Set<Status.Code> DEFAULT_RETRYABLE_CODES = unmodifiableSet(EnumSet.of(
+      Status.Code.UNAVAILABLE, Status.Code.ABORTED));
+
+  // a cap of a default max delay
+  protected static final long DEFAULT_MAX_DELAY_CAP = TimeUnit.SECONDS.toMillis(30L);
+
+  /**
+   * Create a retry policy with default max delay and retryable codes. A max delay is 10 times of
+   * {@code baseDelay} capped by 30 seconds.
+   *
+   * @param maxRetries a max retry count
+   * @param baseDelay  a base delay
+   * @return a retry policy
+   */
+  static RetryPolicy of(final int maxRetries, final Time baseDelay) {
+    final long base = baseDelay.toMilliseconds();
+    final long max = Math.max(base, Math.min(10L * base, DEFAULT_MAX_DELAY_CAP));
+    return new RetryPolicy(maxRetries, baseDelay, Time.of(max, TimeUnit.MILLISECONDS),
+        DEFAULT_RETRYABLE_CODES);
+  }
+
+  @Getter
+  protected final int maxRetries;
+
+  @Getter
+  protected final long baseDelay; // milliseconds
+
+  @Getter
+  protected final long maxDelay; // milliseconds
+
+  protected final Set<Status.Code> retryableCodes;
+
+  RetryPolicy(final int maxRetries, final Time baseDelay, final Time maxDelay,
+      final Set<Status.Code> retryableCodes) {
+    assertTrue(0 < maxRetries, "Retry count must be positive");
+    assertNotNull(baseDelay, "Base delay must not null");
+    assertNotNull(maxDelay, "Max delay must not null");
+    assertNotNull(retryableCodes, "Retryable codes must not null");
+    assertTrue(baseDelay.toMilliseconds() <= maxDelay.toMilliseconds(),
+        "Base delay must <= max delay");
+    this.maxRetries = maxRetries;
+    this.baseDelay = baseDelay.toMilliseconds();
+    this.maxDelay = maxDelay.toMilliseconds();
+    this.retryableCodes = unmodifiableSet(EnumSet.copyOf(retryableCodes));
+  }
+
+  /**
+   * Get a delay before the next retry.
+   *
+   * @param previousDelay a previous delay in milliseconds. {@link #getBaseDelay()} for the first
+   * @return a delay in milliseconds
+   */
+  long nextDelay(final long previousDelay) {
+    final long upper = Math.max(baseDelay, 3L * previousDelay);
+    if (upper <= baseDelay) {
+      return baseDelay;
+    }
+    final long jittered = ThreadLocalRandom.current().nextLong(baseDelay, upper + 1L);
+    return Math.min(maxDelay, jittered);
+  }
+
+  /**
+   * Check if an error is caused by a retryable grpc status.
+   *
+   * @param error an error
+   * @return whether retryable or not
+   */
+  boolean isRetryable(final Throwable error) {
+    Throwable cause = error;
+    while (null != cause) {
+      if (cause instanceof StatusRuntimeException) {
+        return retryableCodes.contains(((StatusRuntimeException) cause).getStatus().getCode());
+      }
+      if (cause instanceof StatusException) {
+        return retryableCodes.contains(((StatusException) cause).getStatus().getCode());
+      }
+      cause = cause.getCause();
+    }
+    return false;
+  }
+
+}
@@ -0,0 +1,30 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.ToString;
+
+/**
+ * A policy choosing endpoints in turn.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@ToString
+public class RoundRobinPolicy implements LoadBalancePolicy {
+
+  @ToString.Exclude
+  protected final AtomicInteger counter = new AtomicInteger(0);
+
+  @Override
+  public GrpcEndpoint select(final List<GrpcEndpoint> candidates) {
+    final int index = (counter.getAndIncrement() & Integer.MAX_VALUE) % candidates.size();
+    return candidates.get(index);
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.Response;
+import hera.api.function.Function0;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A coalescer of concurrent requests with the same method name and parameters. The first caller
+ * runs a request and the others arriving while it's in flight wait for and share its response. A
+ * response is never cached after a request completes. A joining caller waits no longer than its
+ * own deadline, which may be shorter than the one of a caller running a request.
+ */
+@ToString
+class SingleFlight {
+
+  @ToString.Exclude
+  protected final transient Logger logger = getLogger(getClass());
+
+  @ToString.Exclude
+  protected final ConcurrentMap<FlightKey, Flight> key2Flight = new ConcurrentHashMap<>();
+
+  /**
+   * Run a request or join an identical one in flight.
+   *
+   * @param methodName a name of a request method
+   * @param parameters parameters of a request
+   * @param deadline   a deadline of this caller. null if none
+   * @param request    a function running a request
+   * @param <T>        a response type
+   * @return a response of a request run by this or another caller. A failure of
+   *     {@link Status.Code#DEADLINE_EXCEEDED} if a deadline has passed while waiting for another
+   *     caller
+   * @throws InterruptedException if interrupted while waiting for another caller
+   */
+  @SuppressWarnings("unchecked")
+  <T> Response<T> execute(final String methodName, final List<Object> parameters,
+      final Deadline deadline, final Function0<Response<T>> request) throws InterruptedException {
+    assertNotNull(methodName, "Method name must not null");
+    assertNotNull(parameters, "Parameters must not null");
+    final FlightKey key = new FlightKey(methodName, parameters);
+    final Flight flight = new Flight();
+    final Flight inFlight = key2Flight.putIfAbsent(key, flight);
+    if (null != inFlight) {
+      logger.trace("Join request in flight: {}", key);
+      if (null == deadline) {
+        inFlight.done.await();
+      } else if (!inFlight.done.await(deadline.timeRemaining(TimeUnit.NANOSECONDS),
+          TimeUnit.NANOSECONDS)) {
+        logger.debug("Deadline exceeded while waiting for request in flight: {}", key);
+        return Response.fail(Status.DEADLINE_EXCEEDED
+            .withDescription("Deadline exceeded while waiting for a request in flight")
+            .asRuntimeException());
+      }
+      return (Response<T>) inFlight.response;
+    }
+
+    try {
+      final Response<T> response = request.apply();
+      flight.response = response;
+      return response;
+    } catch (RuntimeException e) {
+      flight.response = Response.fail(e);
+      throw e;
+    } finally {
+      key2Flight.remove(key, flight);
+      flight.done.countDown();
+    }
+  }
+
+  int getInFlight() {
+    return key2Flight.size();
+  }
+
+  @RequiredArgsConstructor
+  @EqualsAndHashCode
+  @ToString
+  private static class FlightKey {
+
+    protected final String methodName;
+
+    protected final List<Object> parameters;
+  }
+
+  private static class Flight {
+
+    protected final CountDownLatch done = new CountDownLatch(1);
+
+    protected volatile Response<?> response;
+  }
+
+}
@@ -0,0 +1,35 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A phase of a request traced by a {@link RequestTracer}.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public enum TracePhase {
+
+  // validating parameters of a request method
+  VALIDATION,
+
+  // converting a domain model into a grpc message until a call starts
+  REQUEST_CONVERSION,
+
+  // waiting for a transport to start a stream on
+  QUEUEING,
+
+  // from a stream started until a call is closed
+  NETWORK,
+
+  // converting a grpc message into a domain model after a call is closed
+  RESPONSE_CONVERSION,
+
+  // handling a failure by a failover handler chain including retried attempts
+  FAILOVER
+
+}
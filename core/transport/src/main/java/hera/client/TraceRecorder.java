@@ -0,0 +1,85 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A recorder of spans of a sampled request. Spans might be added by hedged attempts on other
+ * threads, so it's thread-safe.
+ */
+class TraceRecorder {
+
+  protected final String method;
+
+  protected final long startedAtMillis = System.currentTimeMillis();
+
+  protected final long startedAt = System.nanoTime();
+
+  protected final AtomicInteger attempts = new AtomicInteger(0);
+
+  // guarded by itself
+  protected final List<TraceSpan> spans = new ArrayList<>();
+
+  TraceRecorder(final String method) {
+    this.method = method;
+  }
+
+  /**
+   * Start a new attempt.
+   *
+   * @return a trace of an attempt
+   */
+  AttemptTrace newAttempt() {
+    return new AttemptTrace(this, attempts.getAndIncrement());
+  }
+
+  /**
+   * Add a span of a phase. Nothing is added if either end is unknown.
+   *
+   * @param phase   a phase
+   * @param attempt an attempt. -1 if not of an attempt
+   * @param from    a start in {@link System#nanoTime()}. negative if unknown
+   * @param to      an end in {@link System#nanoTime()}. negative if unknown
+   */
+  void addSpan(final TracePhase phase, final int attempt, final long from, final long to) {
+    if (from < 0L || to < from) {
+      return;
+    }
+    final TraceSpan span = new TraceSpan(phase, attempt, from - startedAt, to - from);
+    synchronized (spans) {
+      spans.add(span);
+    }
+  }
+
+  /**
+   * Finish a trace.
+   *
+   * @param succeeded whether a request has succeeded
+   * @return a finished trace
+   */
+  RequestTrace finish(final boolean succeeded) {
+    final long duration = System.nanoTime() - startedAt;
+    final List<TraceSpan> sorted;
+    synchronized (spans) {
+      sorted = new ArrayList<>(spans);
+    }
+    Collections.sort(sorted, new Comparator<TraceSpan>() {
+      @Override
+      public int compare(final TraceSpan left, final TraceSpan right) {
+        return Long.compare(left.getStartOffset(), right.getStartOffset());
+      }
+    });
+    return new RequestTrace(method, startedAtMillis, duration, succeeded,
+        unmodifiableList(sorted));
+  }
+
+}
@@ -0,0 +1,26 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A sampler deciding whether to trace a request. It's called on every request, so it must be
+ * cheap.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface TraceSampler {
+
+  /**
+   * Decide whether to trace a request.
+   *
+   * @param method a request method name
+   * @return whether to trace
+   */
+  boolean isSampled(String method);
+
+}
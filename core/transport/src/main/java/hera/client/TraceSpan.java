@@ -0,0 +1,36 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A span of a phase in a {@link RequestTrace}. Times are in nanoseconds.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class TraceSpan {
+
+  protected final TracePhase phase;
+
+  // an attempt of a request starting from 0. -1 if it's not of an attempt like a failover
+  protected final int attempt;
+
+  // since a request started
+  protected final long startOffset;
+
+  protected final long duration;
+
+}
@@ -0,0 +1,35 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ATTEMPT_TRACE;
+
+import hera.ContextHolder;
+import hera.RequestMethod;
+import java.util.List;
+
+/**
+ * A request method marking an end of validating parameters on an {@link AttemptTrace} of a
+ * sampled request, so that validation is traced apart from converting a request.
+ *
+ * @param <T> a return type
+ */
+abstract class TracedRequestMethod<T> extends RequestMethod<T> {
+
+  @Override
+  public T invoke(final List<Object> parameters) throws Exception {
+    validate(parameters);
+    onValidated();
+    return runInternal(parameters);
+  }
+
+  protected void onValidated() {
+    final AttemptTrace attempt = ContextHolder.current().get(GRPC_REQUEST_ATTEMPT_TRACE);
+    if (null != attempt) {
+      attempt.onValidated();
+    }
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ATTEMPT_TRACE;
+
+import hera.ContextHolder;
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientStreamTracer;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * A client interceptor marking a call of a traced attempt on an {@link AttemptTrace}. A call is
+ * intercepted on a thread making it, so an attempt is taken from the context as
+ * {@link ClientContextKeys#GRPC_REQUEST_ATTEMPT_TRACE}. A call of a request not sampled passes
+ * through as it is.
+ */
+class TracingInterceptor implements ClientInterceptor {
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+      final MethodDescriptor<ReqT, RespT> method, final CallOptions callOptions,
+      final Channel next) {
+    final AttemptTrace attempt = ContextHolder.current().get(GRPC_REQUEST_ATTEMPT_TRACE);
+    if (null == attempt) {
+      return next.newCall(method, callOptions);
+    }
+
+    // a stream is created once a transport is ready, which ends queueing
+    final CallOptions traced = callOptions.withStreamTracerFactory(
+        new ClientStreamTracer.Factory() {
+          @Override
+          public ClientStreamTracer newClientStreamTracer(
+              final ClientStreamTracer.StreamInfo info, final Metadata metadata) {
+            return new ClientStreamTracer() {
+              @Override
+              public void streamCreated(final Attributes transportAttrs,
+                  final Metadata headers) {
+                attempt.onStreamCreated();
+              }
+            };
+          }
+        });
+    return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, traced)) {
+      @Override
+      public void start(final Listener<RespT> responseListener, final Metadata headers) {
+        attempt.onCallStarted();
+        super.start(new SimpleForwardingClientCallListener<RespT>(responseListener) {
+          @Override
+          public void onClose(final Status status, final Metadata trailers) {
+            attempt.onClosed();
+            super.onClose(status, trailers);
+          }
+        }, headers);
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return "TracingInterceptor";
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ATTEMPT_TRACE;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TRACE;
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.Context;
+import hera.ContextHolder;
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.strategy.InvocationStrategy;
+import java.util.List;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A strategy tracing phases of every attempt of a sampled request. A request is sampled in
+ * {@link DecoratingRequester} and its {@link TraceRecorder} is put into the context as
+ * {@link ClientContextKeys#GRPC_REQUEST_TRACE}. It's applied innermost so an attempt starts right
+ * before {@link RequestMethod#invoke(List)}. Validation is marked by a
+ * {@link TracedRequestMethod} and a grpc call by a {@link TracingInterceptor}.
+ */
+@ToString
+class TracingStrategy implements InvocationStrategy {
+
+  @ToString.Exclude
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final RequestTracer requestTracer;
+
+  @Getter
+  protected final TraceSampler traceSampler;
+
+  TracingStrategy(final RequestTracer requestTracer, final TraceSampler traceSampler) {
+    assertNotNull(requestTracer, "Request tracer must not null");
+    assertNotNull(traceSampler, "Trace sampler must not null");
+    this.requestTracer = requestTracer;
+    this.traceSampler = traceSampler;
+  }
+
+  /**
+   * Start a trace of a request if it's sampled.
+   *
+   * @param method a request method name
+   * @return a recorder of a request. null if it's not sampled
+   */
+  TraceRecorder startTrace(final String method) {
+    return traceSampler.isSampled(method) ? new TraceRecorder(method) : null;
+  }
+
+  /**
+   * Finish a trace and pass it to a tracer. A failure of a tracer doesn't fail a request.
+   *
+   * @param recorder  a recorder of a request
+   * @param succeeded whether a request has succeeded
+   */
+  void finishTrace(final TraceRecorder recorder, final boolean succeeded) {
+    try {
+      requestTracer.onTrace(recorder.finish(succeeded));
+    } catch (Exception e) {
+      logger.debug("Tracer failed by {}", e.toString());
+    }
+  }
+
+  @Override
+  public <T> Invocation<T> apply(final Invocation<T> invocation) {
+    assertNotNull(invocation, "Invocation must not null");
+    return new TracingInvocation<>(invocation);
+  }
+
+  private class TracingInvocation<T> implements Invocation<T> {
+
+    protected final Invocation<T> delegate;
+
+    TracingInvocation(final Invocation<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public RequestMethod<T> getRequestMethod() {
+      return delegate.getRequestMethod();
+    }
+
+    @Override
+    public List<Object> getParameters() {
+      return delegate.getParameters();
+    }
+
+    @Override
+    public T invoke() throws Exception {
+      final Context current = ContextHolder.current();
+      final TraceRecorder recorder = current.get(GRPC_REQUEST_TRACE);
+      if (null == recorder) {
+        return delegate.invoke();
+      }
+
+      final AttemptTrace attempt = recorder.newAttempt();
+      ContextHolder.attach(current.withValue(GRPC_REQUEST_ATTEMPT_TRACE, attempt));
+      try {
+        return delegate.invoke();
+      } finally {
+        attempt.finish();
+        ContextHolder.attach(current);
+      }
+    }
+
+    @Override
+    public Invocation<T> withParameters(final List<Object> parameters) {
+      assertNotNull(parameters, "Parameters must not null");
+      return new TracingInvocation<>(delegate.withParameters(parameters));
+    }
+  }
+
+}
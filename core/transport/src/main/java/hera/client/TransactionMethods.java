@@ -4,20 +4,23 @@
 
 package hera.client;
 
-import static hera.api.model.BytesValue.of;
 import static hera.client.Methods.TRANSACTION_COMMIT;
+import static hera.client.Methods.TRANSACTION_COMMIT_BATCH;
 import static hera.client.Methods.TRANSACTION_IN_BLOCK;
 import static hera.client.Methods.TRANSACTION_IN_MEMPOOL;
 import static hera.client.Methods.TRANSACTION_SENDTX_BY_ADDRESS;
 import static hera.client.Methods.TRANSACTION_SENDTX_BY_NAME;
 import static hera.client.Methods.TRANSACTION_TXRECEIPT;
 import static hera.util.TransportUtils.copyFrom;
+import static hera.util.TransportUtils.parseToBytesValue;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import hera.RequestMethod;
 import hera.api.model.AccountAddress;
 import hera.api.model.Aer;
 import hera.api.model.BytesValue;
+import hera.api.model.CommitResult;
 import hera.api.model.Fee;
 import hera.api.model.Name;
 import hera.api.model.RawTransaction;
@@ -26,16 +29,23 @@ import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
 import hera.api.transaction.PlainTransactionBuilder;
 import hera.exception.CommitException;
+import hera.exception.HerajException;
 import hera.key.Signer;
+import hera.transport.CommitResultConverterFactory;
 import hera.transport.ModelConverter;
 import hera.transport.TransactionConverterFactory;
 import hera.transport.TransactionInBlockConverterFactory;
 import hera.transport.TxReceiptConverterFactory;
-import io.grpc.StatusRuntimeException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import org.slf4j.Logger;
+import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.Blockchain;
 import types.Rpc;
 
@@ -52,143 +62,301 @@ class TransactionMethods extends AbstractMethods {
   protected final ModelConverter<TxReceipt, Blockchain.Receipt> txReceiptConverter =
       new TxReceiptConverterFactory().create();
 
+  protected final ModelConverter<CommitResult, Rpc.CommitResult> commitResultConverter =
+      new CommitResultConverterFactory().create();
+
   @Getter
-  private final RequestMethod<Transaction> transactionInMemPool = new RequestMethod<Transaction>() {
+  private final RequestMethod<Transaction> transactionInMemPool =
+      new UnaryRequestMethod<Transaction, Rpc.SingleBytes, Blockchain.Tx>() {
 
-    @Getter
-    protected final String name = TRANSACTION_IN_MEMPOOL;
+        @Getter
+        protected final String name = TRANSACTION_IN_MEMPOOL;
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, TxHash.class);
-    }
+        @Getter
+        protected final String notFoundMessage = "not found";
 
-    @Override
-    protected Transaction runInternal(final List<Object> parameters) throws Exception {
-      final TxHash txHash = (TxHash) parameters.get(0);
-      logger.debug("Get transaction with txHash: {}", txHash);
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, TxHash.class);
+        }
 
-      final Rpc.SingleBytes rpcTxHash = Rpc.SingleBytes.newBuilder()
-          .setValue(copyFrom(txHash.getBytesValue()))
-          .build();
-      logger.trace("AergoService getTX arg: {}", rpcTxHash);
-
-      try {
-        final Blockchain.Tx rpcTx = getBlockingStub().getTX(rpcTxHash);
-        return transactionConverter.convertToDomainModel(rpcTx);
-      } catch (StatusRuntimeException e) {
-        if (!e.getMessage().contains("not found")) {
-          throw e;
+        @Override
+        protected Rpc.SingleBytes toRpcRequest(final List<Object> parameters) {
+          final TxHash txHash = (TxHash) parameters.get(0);
+          logger.debug("Get transaction with txHash: {}", txHash);
+
+          final Rpc.SingleBytes rpcTxHash = Rpc.SingleBytes.newBuilder()
+              .setValue(copyFrom(txHash.getBytesValue()))
+              .build();
+          logger.trace("AergoService getTX arg: {}", rpcTxHash);
+          return rpcTxHash;
         }
-        return null;
-      }
-    }
 
-  };
+        @Override
+        protected Blockchain.Tx call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.SingleBytes rpcTxHash) {
+          return blockingStub.getTX(rpcTxHash);
+        }
+
+        @Override
+        protected ListenableFuture<Blockchain.Tx> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.SingleBytes rpcTxHash) {
+          return futureStub.getTX(rpcTxHash);
+        }
+
+        @Override
+        protected Transaction toDomainModel(final List<Object> parameters,
+            final Blockchain.Tx rpcTx) {
+          return transactionConverter.convertToDomainModel(rpcTx);
+        }
+
+      };
 
   @Getter
-  private final RequestMethod<Transaction> transactionInBlock = new RequestMethod<Transaction>() {
+  private final RequestMethod<Transaction> transactionInBlock =
+      new UnaryRequestMethod<Transaction, Rpc.SingleBytes, Blockchain.TxInBlock>() {
 
-    @Getter
-    protected final String name = TRANSACTION_IN_BLOCK;
+        @Getter
+        protected final String name = TRANSACTION_IN_BLOCK;
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, TxHash.class);
-    }
+        @Getter
+        protected final String notFoundMessage = "not found";
 
-    @Override
-    protected Transaction runInternal(final List<Object> parameters) throws Exception {
-      final TxHash txHash = (TxHash) parameters.get(0);
-      logger.debug("Get transaction with txHash: {}", txHash);
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, TxHash.class);
+        }
 
-      final Rpc.SingleBytes rpcTxHash = Rpc.SingleBytes.newBuilder()
-          .setValue(copyFrom(txHash.getBytesValue()))
-          .build();
-      logger.trace("AergoService getTX arg: {}", rpcTxHash);
-
-      try {
-        final Blockchain.TxInBlock rpcTxInBlock = getBlockingStub().getBlockTX(rpcTxHash);
-        return transactionInBlockConverter.convertToDomainModel(rpcTxInBlock);
-      } catch (StatusRuntimeException e) {
-        if (!e.getMessage().contains("not found")) {
-          throw e;
+        @Override
+        protected Rpc.SingleBytes toRpcRequest(final List<Object> parameters) {
+          final TxHash txHash = (TxHash) parameters.get(0);
+          logger.debug("Get transaction with txHash: {}", txHash);
+
+          final Rpc.SingleBytes rpcTxHash = Rpc.SingleBytes.newBuilder()
+              .setValue(copyFrom(txHash.getBytesValue()))
+              .build();
+          logger.trace("AergoService getTX arg: {}", rpcTxHash);
+          return rpcTxHash;
         }
-        return null;
-      }
-    }
 
-  };
+        @Override
+        protected Blockchain.TxInBlock call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.SingleBytes rpcTxHash) {
+          return blockingStub.getBlockTX(rpcTxHash);
+        }
+
+        @Override
+        protected ListenableFuture<Blockchain.TxInBlock> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.SingleBytes rpcTxHash) {
+          return futureStub.getBlockTX(rpcTxHash);
+        }
+
+        @Override
+        protected Transaction toDomainModel(final List<Object> parameters,
+            final Blockchain.TxInBlock rpcTxInBlock) {
+          return transactionInBlockConverter.convertToDomainModel(rpcTxInBlock);
+        }
+
+      };
 
   @Getter
-  private final RequestMethod<TxReceipt> txReceipt = new RequestMethod<TxReceipt>() {
+  private final RequestMethod<TxReceipt> txReceipt =
+      new UnaryRequestMethod<TxReceipt, Rpc.SingleBytes, Blockchain.Receipt>() {
 
-    @Getter
-    protected final String name = TRANSACTION_TXRECEIPT;
+        @Getter
+        protected final String name = TRANSACTION_TXRECEIPT;
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, TxHash.class);
-    }
+        @Getter
+        protected final String notFoundMessage = "not found";
 
-    @Override
-    protected TxReceipt runInternal(final List<Object> parameters) throws Exception {
-      final TxHash txHash = (TxHash) parameters.get(0);
-      logger.debug("Get transaction with txHash: {}", txHash);
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, TxHash.class);
+        }
 
-      final Rpc.SingleBytes rpcTxHash = Rpc.SingleBytes.newBuilder()
-          .setValue(copyFrom(txHash.getBytesValue()))
-          .build();
-      logger.trace("AergoService getTX arg: {}", rpcTxHash);
-
-      try {
-        final Blockchain.Receipt rpcTxReceipt = getBlockingStub().getReceipt(rpcTxHash);
-        return txReceiptConverter.convertToDomainModel(rpcTxReceipt);
-      } catch (StatusRuntimeException e) {
-        if (!e.getMessage().contains("not found")) {
-          throw e;
+        @Override
+        protected Rpc.SingleBytes toRpcRequest(final List<Object> parameters) {
+          final TxHash txHash = (TxHash) parameters.get(0);
+          logger.debug("Get transaction with txHash: {}", txHash);
+
+          final Rpc.SingleBytes rpcTxHash = Rpc.SingleBytes.newBuilder()
+              .setValue(copyFrom(txHash.getBytesValue()))
+              .build();
+          logger.trace("AergoService getTX arg: {}", rpcTxHash);
+          return rpcTxHash;
         }
-        return null;
-      }
-    }
 
-  };
+        @Override
+        protected Blockchain.Receipt call(final AergoRPCServiceBlockingStub blockingStub,
+            final Rpc.SingleBytes rpcTxHash) {
+          return blockingStub.getReceipt(rpcTxHash);
+        }
+
+        @Override
+        protected ListenableFuture<Blockchain.Receipt> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Rpc.SingleBytes rpcTxHash) {
+          return futureStub.getReceipt(rpcTxHash);
+        }
+
+        @Override
+        protected TxReceipt toDomainModel(final List<Object> parameters,
+            final Blockchain.Receipt rpcTxReceipt) {
+          return txReceiptConverter.convertToDomainModel(rpcTxReceipt);
+        }
+
+      };
 
   @Getter
-  private final RequestMethod<TxHash> commit = new RequestMethod<TxHash>() {
+  private final RequestMethod<TxHash> commit =
+      new UnaryRequestMethod<TxHash, Blockchain.TxList, Rpc.CommitResultList>() {
 
-    @Getter
-    protected final String name = TRANSACTION_COMMIT;
+        @Getter
+        protected final String name = TRANSACTION_COMMIT;
 
-    @Override
-    protected void validate(final List<Object> parameters) {
-      validateType(parameters, 0, Transaction.class);
-    }
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, Transaction.class);
+        }
 
-    @Override
-    protected TxHash runInternal(final List<Object> parameters) throws Exception {
-      final Transaction transaction = (Transaction) parameters.get(0);
-      logger.debug("Commit transaction with transaction: {}", transaction);
+        // route by a sender to keep nonce order on a single node
+        @Override
+        protected Object getRoutingKey(final List<Object> parameters) {
+          return ((Transaction) parameters.get(0)).getSender();
+        }
 
-      final Blockchain.Tx rpcTx = transactionConverter.convertToRpcModel(transaction);
-      final Blockchain.TxList rpcTxList = Blockchain.TxList.newBuilder()
-          .addTxs(rpcTx)
-          .build();
-      logger.trace("AergoService commitTX arg: {}", rpcTxList);
-
-      final Rpc.CommitResultList rpcCommitResultList = getBlockingStub().commitTX(rpcTxList);
-      final Rpc.CommitResult rpcCommitResult = rpcCommitResultList.getResultsList().get(0);
-      if (Rpc.CommitStatus.TX_OK != rpcCommitResult.getError()) {
-        throw new CommitException(rpcCommitResult.getError(),
-            rpcCommitResult.getDetail());
-      }
-      return new TxHash(of(rpcCommitResult.getHash().toByteArray()));
-    }
+        @Override
+        protected Blockchain.TxList toRpcRequest(final List<Object> parameters) {
+          final Transaction transaction = (Transaction) parameters.get(0);
+          logger.debug("Commit transaction with transaction: {}", transaction);
+
+          final Blockchain.Tx rpcTx = transactionConverter.convertToRpcModel(transaction);
+          final Blockchain.TxList rpcTxList = Blockchain.TxList.newBuilder()
+              .addTxs(rpcTx)
+              .build();
+          logger.trace("AergoService commitTX arg: {}", rpcTxList);
+          return rpcTxList;
+        }
 
-  };
+        @Override
+        protected Rpc.CommitResultList call(final AergoRPCServiceBlockingStub blockingStub,
+            final Blockchain.TxList rpcTxList) {
+          return blockingStub.commitTX(rpcTxList);
+        }
+
+        @Override
+        protected ListenableFuture<Rpc.CommitResultList> callAsync(
+            final AergoRPCServiceFutureStub futureStub, final Blockchain.TxList rpcTxList) {
+          return futureStub.commitTX(rpcTxList);
+        }
+
+        @Override
+        protected TxHash toDomainModel(final List<Object> parameters,
+            final Rpc.CommitResultList rpcCommitResultList) {
+          final Rpc.CommitResult rpcCommitResult = rpcCommitResultList.getResultsList().get(0);
+          if (Rpc.CommitStatus.TX_OK != rpcCommitResult.getError()) {
+            throw new CommitException(rpcCommitResult.getError(),
+                rpcCommitResult.getDetail());
+          }
+          return new TxHash(parseToBytesValue(rpcCommitResult.getHash()));
+        }
+
+      };
+
+  @Getter
+  private final RequestMethod<List<CommitResult>> commitBatch =
+      new TracedRequestMethod<List<CommitResult>>() {
+
+        @Getter
+        protected final String name = TRANSACTION_COMMIT_BATCH;
+
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, List.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected List<CommitResult> runInternal(final List<Object> parameters)
+            throws Exception {
+          final List<Transaction> transactions = (List<Transaction>) parameters.get(0);
+          logger.debug("Commit {} transactions in a batch", transactions.size());
+
+          // transactions of senders on the same endpoint go together in a sender order, so that
+          // nonce order is kept and a single endpoint takes a single call
+          final Map<AccountAddress, GrpcEndpoint> sender2Endpoint = new HashMap<>();
+          final Map<GrpcEndpoint, List<Integer>> endpoint2Indexes = new LinkedHashMap<>();
+          for (int i = 0; i < transactions.size(); ++i) {
+            final AccountAddress sender = transactions.get(i).getSender();
+            GrpcEndpoint endpoint = sender2Endpoint.get(sender);
+            if (null == endpoint) {
+              endpoint = resolveEndpoint(sender);
+              sender2Endpoint.put(sender, endpoint);
+            }
+            List<Integer> indexes = endpoint2Indexes.get(endpoint);
+            if (null == indexes) {
+              indexes = new ArrayList<>();
+              endpoint2Indexes.put(endpoint, indexes);
+            }
+            indexes.add(i);
+          }
+
+          final CommitResult[] commitResults = new CommitResult[transactions.size()];
+          RuntimeException firstError = null;
+          boolean anyCommitted = false;
+          for (final Map.Entry<GrpcEndpoint, List<Integer>> entry : endpoint2Indexes.entrySet()) {
+            final List<Integer> indexes = entry.getValue();
+            try {
+              commitOn(entry.getKey(), transactions, indexes, commitResults);
+              anyCommitted = true;
+            } catch (RuntimeException e) {
+              logger.debug("Fail to commit {} transactions on {} by {}", indexes.size(),
+                  entry.getKey(), e.toString());
+              if (null == firstError) {
+                firstError = e;
+              }
+              // keep results of committed ones instead of failing a whole batch
+              for (final int index : indexes) {
+                commitResults[index] = CommitResult.newBuilder()
+                    .hash(transactions.get(index).getHash())
+                    .status(CommitResult.CommitStatus.INTERNAL_ERROR)
+                    .detail(String.valueOf(e.getMessage()))
+                    .build();
+              }
+            }
+          }
+          // nothing is committed so a whole batch is safe to be retried
+          if (!anyCommitted && null != firstError) {
+            throw firstError;
+          }
+          return new ArrayList<>(Arrays.asList(commitResults));
+        }
+
+        protected void commitOn(final GrpcEndpoint endpoint, final List<Transaction> transactions,
+            final List<Integer> indexes, final CommitResult[] commitResults) {
+          final Blockchain.TxList.Builder rpcTxListBuilder = Blockchain.TxList.newBuilder();
+          for (final int index : indexes) {
+            rpcTxListBuilder.addTxs(
+                transactionConverter.convertToRpcModel(transactions.get(index)));
+          }
+          final Blockchain.TxList rpcTxList = rpcTxListBuilder.build();
+          logger.trace("AergoService commitTX arg: {} (endpoint: {})", rpcTxList, endpoint);
+
+          final Rpc.CommitResultList rpcCommitResultList =
+              getBlockingStubTo(endpoint).commitTX(rpcTxList);
+          if (rpcCommitResultList.getResultsCount() != indexes.size()) {
+            throw new HerajException(String.format("Sent %d transactions but got %d results",
+                indexes.size(), rpcCommitResultList.getResultsCount()));
+          }
+          for (int i = 0; i < indexes.size(); ++i) {
+            commitResults[indexes.get(i)] =
+                commitResultConverter.convertToDomainModel(rpcCommitResultList.getResults(i));
+          }
+        }
+
+      };
 
   @Getter
-  private final RequestMethod<TxHash> sendTxByAddress = new RequestMethod<TxHash>() {
+  private final RequestMethod<TxHash> sendTxByAddress = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = TRANSACTION_SENDTX_BY_ADDRESS;
@@ -232,7 +400,7 @@ class TransactionMethods extends AbstractMethods {
   };
 
   @Getter
-  private final RequestMethod<TxHash> sendTxByName = new RequestMethod<TxHash>() {
+  private final RequestMethod<TxHash> sendTxByName = new TracedRequestMethod<TxHash>() {
 
     @Getter
     protected final String name = TRANSACTION_SENDTX_BY_NAME;
@@ -5,14 +5,17 @@
 package hera.client;
 
 import static hera.client.Methods.TRANSACTION_TX;
+import static java.util.Collections.singletonList;
 
 import hera.Context;
 import hera.ContextStorage;
 import hera.RequestMethod;
 import hera.api.TransactionOperation;
+import hera.api.function.Function1;
 import hera.api.model.AccountAddress;
 import hera.api.model.Aer;
 import hera.api.model.BytesValue;
+import hera.api.model.CommitResult;
 import hera.api.model.Fee;
 import hera.api.model.Name;
 import hera.api.model.Transaction;
@@ -44,23 +47,39 @@ class TransactionTemplate extends AbstractTemplate implements TransactionOperati
         }
       };
 
+  // a transaction in a mempool can be replaced or dropped
+  protected final Function1<Transaction, Boolean> confirmedOnly =
+      new Function1<Transaction, Boolean>() {
+        @Override
+        public Boolean apply(final Transaction transaction) {
+          return transaction.isConfirmed();
+        }
+      };
+
   TransactionTemplate(final ContextStorage<Context> contextStorage) {
     super(contextStorage);
   }
 
   @Override
   public Transaction getTransaction(final TxHash txHash) {
-    return request(convertedTransactionMethod, Arrays.<Object>asList(txHash));
+    return cachedRequest(convertedTransactionMethod, singletonList(txHash),
+        confirmedOnly);
   }
 
   @Override
   public TxReceipt getTxReceipt(TxHash txHash) {
-    return request(transactionMethods.getTxReceipt(), Arrays.<Object>asList(txHash));
+    return cachedRequest(transactionMethods.getTxReceipt(), singletonList(txHash),
+        ALWAYS_CACHEABLE);
   }
 
   @Override
   public TxHash commit(final Transaction transaction) {
-    return request(transactionMethods.getCommit(), Arrays.<Object>asList(transaction));
+    return request(transactionMethods.getCommit(), singletonList(transaction));
+  }
+
+  @Override
+  public List<CommitResult> commit(final List<Transaction> transactions) {
+    return request(transactionMethods.getCommitBatch(), singletonList(transactions));
   }
 
   @Override
@@ -0,0 +1,24 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.exception;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * An exception thrown without sending a request because a circuit breaker of every endpoint is
+ * open. It's not retried.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class CircuitBreakerOpenException extends HerajException {
+
+  private static final long serialVersionUID = 4632904837611526812L;
+
+  public CircuitBreakerOpenException(final String message) {
+    super(message);
+  }
+
+}
@@ -28,6 +28,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import org.slf4j.Logger;
 
+/**
+ * A timeout strategy running each invocation on a dedicated thread.
+ *
+ * @deprecated an aergo client applies a timeout as a grpc deadline on a caller thread. This one
+ *     is kept only for an external use.
+ */
+@Deprecated
 @ApiAudience.Private
 @ApiStability.Unstable
 @ToString
@@ -61,8 +68,8 @@ public class TimeoutStrategy implements InvocationStrategy {
 
     @Override
     public T invoke() throws Exception {
+      final ExecutorService executorService = Executors.newSingleThreadExecutor();
       try {
-        final ExecutorService executorService = Executors.newSingleThreadExecutor();
         final Context context = ContextHolder.current();
         final Future<T> future = executorService.submit(new Callable<T>() {
           @Override
@@ -86,6 +93,9 @@ public class TimeoutStrategy implements InvocationStrategy {
         } else {
           throw e;
         }
+      } finally {
+        // let a worker thread terminate once a running invocation is done
+        executorService.shutdown();
       }
     }
 
@@ -5,6 +5,7 @@
 package hera.transport;
 
 import static hera.util.TransportUtils.copyFrom;
+import static hera.util.TransportUtils.parseToBytesValue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.google.protobuf.ByteString;
@@ -59,7 +60,7 @@ public class AccountAddressConverterFactory {
           }
           AccountAddress domainAccountAddress;
           if (!rpcAccountAddress.equals(ByteString.EMPTY)) {
-            final BytesValue rawAddress = BytesValue.of(rpcAccountAddress.toByteArray());
+            final BytesValue rawAddress = parseToBytesValue(rpcAccountAddress);
             try {
               domainAccountAddress = new AccountAddress(rawAddress);
             } catch (Exception e) {
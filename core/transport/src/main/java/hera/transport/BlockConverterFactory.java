@@ -4,8 +4,7 @@
 
 package hera.transport;
 
-import static hera.api.model.BytesValue.of;
-import static hera.util.TransportUtils.copyFrom;
+import static hera.util.TransportUtils.parseToBytesValue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import hera.annotation.ApiAudience;
@@ -15,9 +14,8 @@ import hera.api.model.Block;
 import hera.api.model.BlockHash;
 import hera.api.model.BlockHeader;
 import hera.api.model.Transaction;
-import java.util.ArrayList;
+import hera.api.model.TxHash;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import types.Blockchain;
 
@@ -27,8 +25,8 @@ public class BlockConverterFactory {
 
   protected final transient Logger logger = getLogger(getClass());
 
-  protected final ModelConverter<Transaction, Blockchain.TxInBlock> transactionInBlockConverter =
-      new TransactionInBlockConverterFactory().create();
+  protected final TransactionInBlockConverterFactory transactionInBlockConverterFactory =
+      new TransactionInBlockConverterFactory();
 
   protected final ModelConverter<BlockHeader, Blockchain.BlockHeader> blockHeaderConverter =
       new BlockHeaderConverterFactory().create();
@@ -52,25 +50,32 @@ public class BlockConverterFactory {
           final Blockchain.BlockHeader rpcBlockHeader = rpcBlock.getHeader();
           final Blockchain.BlockBody rpcBlockBody = rpcBlock.getBody();
 
-          final BlockHash blockHash = new BlockHash(of(rpcBlock.getHash().toByteArray()));
-          final AtomicInteger index = new AtomicInteger(0);
-          final List<Transaction> transactions = new ArrayList<Transaction>();
-          for (final Blockchain.Tx rpcTx : rpcBlockBody.getTxsList()) {
-            final Blockchain.TxIdx rpcTxIdx = Blockchain.TxIdx.newBuilder()
-                .setBlockHash(copyFrom(blockHash.getBytesValue()))
-                .setIdx(index.getAndIncrement())
-                .build();
-            final Blockchain.TxInBlock rpcTxInBlock = Blockchain.TxInBlock.newBuilder()
-                .setTxIdx(rpcTxIdx)
-                .setTx(rpcTx)
-                .build();
-            transactions.add(transactionInBlockConverter.convertToDomainModel(rpcTxInBlock));
-          }
+          final BlockHash blockHash = new BlockHash(parseToBytesValue(rpcBlock.getHash()));
+          final boolean confirmed = !rpcBlock.getHash().isEmpty();
+          final List<Blockchain.Tx> rpcTxs = rpcBlockBody.getTxsList();
+          // converted on access since a consumer of a block often needs no transaction
+          final List<Transaction> transactions = new LazyList<>(rpcTxs.size(),
+              new Function1<Integer, Transaction>() {
+                @Override
+                public Transaction apply(final Integer index) {
+                  return transactionInBlockConverterFactory.convertInBlock(rpcTxs.get(index),
+                      blockHash, index, confirmed);
+                }
+              });
+          final List<TxHash> txHashes = new LazyList<>(rpcTxs.size(),
+              new Function1<Integer, TxHash>() {
+                @Override
+                public TxHash apply(final Integer index) {
+                  return new TxHash(parseToBytesValue(rpcTxs.get(index).getHash()));
+                }
+              });
 
           final Block domainBlock = Block.newBuilder()
               .hash(blockHash)
               .blockHeader(blockHeaderConverter.convertToDomainModel(rpcBlockHeader))
               .transactions(transactions)
+              .txHashes(txHashes)
+              .serializedSize(rpcBlock.getSerializedSize())
               .build();
           logger.trace("Domain block converted: {}", domainBlock);
           return domainBlock;
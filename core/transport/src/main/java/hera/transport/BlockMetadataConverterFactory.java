@@ -4,7 +4,7 @@
 
 package hera.transport;
 
-import static hera.api.model.BytesValue.of;
+import static hera.util.TransportUtils.parseToBytesValue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import hera.annotation.ApiAudience;
@@ -42,7 +42,7 @@ public class BlockMetadataConverterFactory {
         public BlockMetadata apply(final Rpc.BlockMetadata rpcBlockMetadata) {
           logger.trace("Rpc block metadata to convert: {}", rpcBlockMetadata);
           final BlockMetadata domainBlockMetadata = BlockMetadata.newBuilder()
-              .blockHash(new BlockHash(of(rpcBlockMetadata.getHash().toByteArray())))
+              .blockHash(new BlockHash(parseToBytesValue(rpcBlockMetadata.getHash())))
               .blockHeader(blockHeaderConverter.convertToDomainModel(rpcBlockMetadata.getHeader()))
               .txCount(rpcBlockMetadata.getTxcount())
               .blockSize(rpcBlockMetadata.getSize())
@@ -4,7 +4,7 @@
 
 package hera.transport;
 
-import static hera.api.model.BytesValue.of;
+import static hera.util.TransportUtils.parseToBytesValue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import hera.annotation.ApiAudience;
@@ -40,10 +40,10 @@ public class BlockchainStatusConverterFactory {
           final BlockchainStatus domainBlockchainStatus = BlockchainStatus.newBuilder()
               .bestHeight(rpcBlockchainStatus.getBestHeight())
               .bestBlockHash(
-                  new BlockHash(of(rpcBlockchainStatus.getBestBlockHash().toByteArray())))
+                  new BlockHash(parseToBytesValue(rpcBlockchainStatus.getBestBlockHash())))
               .consensus(rpcBlockchainStatus.getConsensusInfo())
               .chainIdHash(
-                  new ChainIdHash(of(rpcBlockchainStatus.getBestChainIdHash().toByteArray())))
+                  new ChainIdHash(parseToBytesValue(rpcBlockchainStatus.getBestChainIdHash())))
               .build();
           logger.trace("Domain blockchain status converted: {}", domainBlockchainStatus);
           return domainBlockchainStatus;
@@ -0,0 +1,78 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.transport;
+
+import static hera.util.TransportUtils.parseToTxHash;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function1;
+import hera.api.model.CommitResult;
+import hera.api.model.CommitResult.CommitStatus;
+import org.slf4j.Logger;
+import types.Rpc;
+
+@ApiAudience.Private
+@ApiStability.Unstable
+public class CommitResultConverterFactory {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function1<CommitResult, Rpc.CommitResult> domainConverter =
+      new Function1<CommitResult, Rpc.CommitResult>() {
+
+        @Override
+        public Rpc.CommitResult apply(final CommitResult domainCommitResult) {
+          throw new UnsupportedOperationException();
+        }
+      };
+
+  protected final Function1<Rpc.CommitResult, CommitResult> rpcConverter =
+      new Function1<Rpc.CommitResult, CommitResult>() {
+
+        @Override
+        public CommitResult apply(final Rpc.CommitResult rpcCommitResult) {
+          logger.trace("Rpc commit result to convert: {}", rpcCommitResult);
+          final CommitResult domainCommitResult = CommitResult.newBuilder()
+              .hash(parseToTxHash(rpcCommitResult.getHash()))
+              .status(convertStatus(rpcCommitResult.getError()))
+              .detail(rpcCommitResult.getDetail())
+              .build();
+          logger.trace("Domain commit result converted: {}", domainCommitResult);
+          return domainCommitResult;
+        }
+      };
+
+  protected CommitStatus convertStatus(final Rpc.CommitStatus rpcCommitStatus) {
+    switch (rpcCommitStatus) {
+      case TX_OK:
+        return CommitStatus.OK;
+      case TX_NONCE_TOO_LOW:
+        return CommitStatus.NONCE_TOO_LOW;
+      case TX_ALREADY_EXISTS:
+        return CommitStatus.TX_ALREADY_EXISTS;
+      case TX_INVALID_HASH:
+        return CommitStatus.TX_INVALID_HASH;
+      case TX_INVALID_SIGN:
+        return CommitStatus.TX_INVALID_SIGNATURE;
+      case TX_INVALID_FORMAT:
+        return CommitStatus.TX_INVALID_FORMAT;
+      case TX_INSUFFICIENT_BALANCE:
+        return CommitStatus.INSUFFICIENT_BALANCE;
+      case TX_HAS_SAME_NONCE:
+        return CommitStatus.TX_HAS_SAME_NONCE;
+      case TX_INTERNAL_ERROR:
+        return CommitStatus.INTERNAL_ERROR;
+      default:
+        return CommitStatus.UNRECOGNIZED;
+    }
+  }
+
+  public ModelConverter<CommitResult, Rpc.CommitResult> create() {
+    return new ModelConverter<>(domainConverter, rpcConverter);
+  }
+
+}
@@ -4,7 +4,7 @@
 
 package hera.transport;
 
-import static hera.api.model.BytesValue.of;
+import static hera.util.TransportUtils.parseToBytesValue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import hera.annotation.ApiAudience;
@@ -36,7 +36,7 @@ public class ContractResultConverterFactory {
         public ContractResult apply(final Rpc.SingleBytes rpcContractResult) {
           logger.trace("Rpc contract result to convert: {}", rpcContractResult);
           final ContractResult domainContractResult = ContractResult.of(
-              of(rpcContractResult.getValue().toByteArray()));
+              parseToBytesValue(rpcContractResult.getValue()));
           logger.trace("Domain contract result converted: {}", domainContractResult);
           return domainContractResult;
         }
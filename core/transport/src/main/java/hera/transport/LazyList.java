@@ -0,0 +1,55 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.transport;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.api.function.Function1;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An unmodifiable list making an element on its first access. A made one is kept and returned
+ * from then on. Concurrent first accesses may make an element more than once but every one of them
+ * gets the first kept one.
+ *
+ * @param <T> a type of an element
+ */
+class LazyList<T> extends AbstractList<T> implements RandomAccess {
+
+  protected final Function1<Integer, T> converter;
+
+  protected final AtomicReferenceArray<T> converted;
+
+  /**
+   * Create a lazy list.
+   *
+   * @param size      a size of a list
+   * @param converter a function making an element at an index
+   */
+  LazyList(final int size, final Function1<Integer, T> converter) {
+    assertNotNull(converter, "Converter must not null");
+    this.converter = converter;
+    this.converted = new AtomicReferenceArray<>(size);
+  }
+
+  @Override
+  public T get(final int index) {
+    final T cached = converted.get(index);
+    if (null != cached) {
+      return cached;
+    }
+    final T fresh = converter.apply(index);
+    assertNotNull(fresh, "Element must not null");
+    return converted.compareAndSet(index, null, fresh) ? fresh : converted.get(index);
+  }
+
+  @Override
+  public int size() {
+    return converted.length();
+  }
+
+}
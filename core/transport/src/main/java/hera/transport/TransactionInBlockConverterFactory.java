@@ -4,9 +4,9 @@
 
 package hera.transport;
 
-import static hera.api.model.BytesValue.of;
 import static hera.util.TransportUtils.copyFrom;
 import static hera.util.TransportUtils.parseToAer;
+import static hera.util.TransportUtils.parseToBytesValue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.google.protobuf.ByteString;
@@ -83,34 +83,49 @@ public class TransactionInBlockConverterFactory {
         public Transaction apply(final Blockchain.TxInBlock rpcTransaction) {
           logger.trace("Rpc transaction in block to convert: {}", rpcTransaction);
           final Blockchain.TxIdx rpcTxIdx = rpcTransaction.getTxIdx();
-          final Blockchain.Tx rpcTx = rpcTransaction.getTx();
-          final Blockchain.TxBody txBody = rpcTx.getBody();
-
-          final RawTransaction rawTransaction = RawTransaction.newBuilder()
-              .chainIdHash(new ChainIdHash(of(txBody.getChainIdHash().toByteArray())))
-              .from(accountAddressConverter.convertToDomainModel(txBody.getAccount()))
-              .to(accountAddressConverter.convertToDomainModel(txBody.getRecipient()))
-              .amount(parseToAer(txBody.getAmount()))
-              .nonce(txBody.getNonce())
-              .fee(new Fee(parseToAer(txBody.getGasPrice()), txBody.getGasLimit()))
-              .payload(of(txBody.getPayload().toByteArray()))
-              .type(txTypeConverter.convertToDomainModel(txBody.getType()))
-              .build();
-
-          final Transaction domainTransaction = Transaction.newBuilder()
-              .rawTransaction(rawTransaction)
-              .signature(Signature.newBuilder().sign(of(txBody.getSign().toByteArray())).build())
-              .hash(new TxHash(of(rpcTx.getHash().toByteArray())))
-              .blockHash(new BlockHash(of(rpcTxIdx.getBlockHash().toByteArray())))
-              .indexInBlock(rpcTxIdx.getIdx())
-              .confirmed(!rpcTxIdx.getBlockHash().equals(com.google.protobuf.ByteString.EMPTY))
-              .build();
-
+          final Transaction domainTransaction = convertInBlock(rpcTransaction.getTx(),
+              new BlockHash(parseToBytesValue(rpcTxIdx.getBlockHash())), rpcTxIdx.getIdx(),
+              !rpcTxIdx.getBlockHash().equals(ByteString.EMPTY));
           logger.trace("Domain transaction in block converted: {}", domainTransaction);
           return domainTransaction;
         }
       };
 
+  /**
+   * Convert a rpc transaction at an index of a block. It needs no {@link Blockchain.TxInBlock} so
+   * that a block can convert its transactions without building one for each.
+   *
+   * @param rpcTx     a rpc transaction
+   * @param blockHash a hash of a block containing it
+   * @param index     an index in a block
+   * @param confirmed whether it's in a block or not
+   * @return a domain transaction
+   */
+  Transaction convertInBlock(final Blockchain.Tx rpcTx, final BlockHash blockHash,
+      final int index, final boolean confirmed) {
+    final Blockchain.TxBody txBody = rpcTx.getBody();
+
+    final RawTransaction rawTransaction = RawTransaction.newBuilder()
+        .chainIdHash(new ChainIdHash(parseToBytesValue(txBody.getChainIdHash())))
+        .from(accountAddressConverter.convertToDomainModel(txBody.getAccount()))
+        .to(accountAddressConverter.convertToDomainModel(txBody.getRecipient()))
+        .amount(parseToAer(txBody.getAmount()))
+        .nonce(txBody.getNonce())
+        .fee(new Fee(parseToAer(txBody.getGasPrice()), txBody.getGasLimit()))
+        .payload(parseToBytesValue(txBody.getPayload()))
+        .type(txTypeConverter.convertToDomainModel(txBody.getType()))
+        .build();
+
+    return Transaction.newBuilder()
+        .rawTransaction(rawTransaction)
+        .signature(Signature.newBuilder().sign(parseToBytesValue(txBody.getSign())).build())
+        .hash(new TxHash(parseToBytesValue(rpcTx.getHash())))
+        .blockHash(blockHash)
+        .indexInBlock(index)
+        .confirmed(confirmed)
+        .build();
+  }
+
   public ModelConverter<Transaction, Blockchain.TxInBlock> create() {
     return new ModelConverter<>(domainConverter, rpcConverter);
   }
@@ -8,6 +8,7 @@ import static hera.util.NumberUtils.byteArrayToPositive;
 import static hera.util.NumberUtils.positiveToByteArray;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
 import hera.api.model.Aer;
@@ -34,17 +35,18 @@ public class TransportUtils {
   }
 
   /**
-   * Transform {@link BytesValue} to {@link ByteString} in protobuf. If either bytesValue or value
-   * of bytesValue is null, return {@link ByteString#EMPTY}
+   * Transform {@link BytesValue} to {@link ByteString} in protobuf without copying. If bytesValue
+   * is either null or empty, return {@link ByteString#EMPTY}
    *
    * @param bytesValue {@link BytesValue}
    * @return protobuf {@link ByteString}
    */
   public static ByteString copyFrom(final BytesValue bytesValue) {
-    if (null == bytesValue || null == bytesValue.getValue()) {
+    if (null == bytesValue || bytesValue.isEmpty()) {
       return ByteString.EMPTY;
     }
-    return ByteString.copyFrom(bytesValue.getValue());
+    // immutable on both sides so nothing is copied
+    return UnsafeByteOperations.unsafeWrap(bytesValue.asReadOnlyByteBuffer());
   }
 
   /**
@@ -58,7 +60,7 @@ public class TransportUtils {
     if (null == aer || Aer.EMPTY == aer) {
       return ByteString.EMPTY;
     }
-    return ByteString.copyFrom(positiveToByteArray(aer.getValue()));
+    return UnsafeByteOperations.unsafeWrap(positiveToByteArray(aer.getValue()));
   }
 
   /**
@@ -77,20 +79,21 @@ public class TransportUtils {
     rawBytes[5] = (byte) (0xFF & (longValue >> 40));
     rawBytes[6] = (byte) (0xFF & (longValue >> 48));
     rawBytes[7] = (byte) (0xFF & (longValue >> 56));
-    return ByteString.copyFrom(rawBytes);
+    return UnsafeByteOperations.unsafeWrap(rawBytes);
   }
 
   /**
-   * Parse protobuf {@link ByteString} to {@link BytesValue}.
+   * Parse protobuf {@link ByteString} to {@link BytesValue}. Bytes are copied only once out of an
+   * immutable {@link ByteString}.
    *
    * @param bytesString a protobuf ByteString
    * @return parsed {@link BytesValue}.
    */
   public static BytesValue parseToBytesValue(final ByteString bytesString) {
-    if (null == bytesString || ByteString.EMPTY.equals(bytesString)) {
+    if (null == bytesString || bytesString.isEmpty()) {
       return BytesValue.EMPTY;
     }
-    return BytesValue.of(bytesString.toByteArray());
+    return BytesValue.wrap(bytesString.toByteArray());
   }
 
   /**
@@ -129,7 +132,7 @@ public class TransportUtils {
     if (null == byteString || ByteString.EMPTY == byteString) {
       return TxHash.of(BytesValue.EMPTY);
     }
-    return TxHash.of(BytesValue.of(byteString.toByteArray()));
+    return TxHash.of(parseToBytesValue(byteString));
   }
 
   /**
@@ -142,7 +145,7 @@ public class TransportUtils {
     if (null == byteString || ByteString.EMPTY == byteString) {
       return BlockHash.of(BytesValue.EMPTY);
     }
-    return BlockHash.of(BytesValue.of(byteString.toByteArray()));
+    return BlockHash.of(parseToBytesValue(byteString));
   }
 
   /**
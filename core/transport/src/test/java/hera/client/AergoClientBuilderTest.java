@@ -4,9 +4,19 @@
 
 package hera.client;
 
+import static hera.client.ClientContextKeys.GRPC_REQUEST_METRICS;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_SINGLE_FLIGHT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TIMEOUT;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import hera.AbstractTestCase;
+import hera.Context;
+import hera.api.model.Time;
+import hera.strategy.InvocationStrategy;
 import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
@@ -24,4 +34,52 @@ public class AergoClientBuilderTest extends AbstractTestCase {
     assertNotNull(aergoClient);
   }
 
+  @Test
+  public void testBuildWithMethodTimeout() {
+    // given
+    final Context context = new AergoClientBuilder()
+        .withTimeout(3000L, TimeUnit.MILLISECONDS)
+        .withTimeout(Methods.TRANSACTION_COMMIT, 500L, TimeUnit.MILLISECONDS)
+        .initContext();
+
+    // then
+    final DeadlineStrategy strategy = (DeadlineStrategy) context.get(GRPC_REQUEST_TIMEOUT);
+    assertEquals(Time.of(500L, TimeUnit.MILLISECONDS),
+        strategy.getTimeout(Methods.TRANSACTION_COMMIT));
+    assertEquals(Time.of(3000L, TimeUnit.MILLISECONDS),
+        strategy.getTimeout(Methods.ACCOUNT_STATE));
+  }
+
+  @Test
+  public void shouldNotHaveTimeoutStrategyWithoutTimeout() {
+    // given
+    final Context context = new AergoClientBuilder().initContext();
+
+    // then
+    assertNull(context.get(GRPC_REQUEST_TIMEOUT));
+  }
+
+  @Test
+  public void shouldNotShareSingleFlightAcrossClients() {
+    // given
+    final AergoClientBuilder builder = new AergoClientBuilder().withRequestCoalescing();
+
+    // then
+    final Object first = builder.initContext().get(GRPC_REQUEST_SINGLE_FLIGHT);
+    assertNotNull(first);
+    assertNotSame(first, builder.initContext().get(GRPC_REQUEST_SINGLE_FLIGHT));
+  }
+
+  @Test
+  public void shouldMakeMetricsStrategyForEachClient() {
+    // given
+    final DefaultMetricsRecorder metricsRecorder = new DefaultMetricsRecorder();
+    final AergoClientBuilder builder = new AergoClientBuilder().withMetrics(metricsRecorder);
+
+    // then
+    final InvocationStrategy first = builder.initContext().get(GRPC_REQUEST_METRICS);
+    assertSame(metricsRecorder, ((MetricsStrategy) first).getMetricsRecorder());
+    assertNotSame(first, builder.initContext().get(GRPC_REQUEST_METRICS));
+  }
+
 }
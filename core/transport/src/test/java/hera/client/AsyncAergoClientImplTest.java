@@ -0,0 +1,199 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_CLIENT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_METRICS;
+import static hera.client.Methods.ACCOUNT_STATE;
+import static hera.client.Methods.BLOCKCHAIN_BLOCKCHAINSTATUS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.protobuf.ByteString;
+import hera.AbstractTestCase;
+import hera.Context;
+import hera.EmptyContext;
+import hera.TestUtils;
+import hera.api.model.AccountState;
+import hera.api.model.Block;
+import hera.api.model.Transaction;
+import hera.api.model.TxHash;
+import hera.exception.CommitException;
+import hera.exception.ConnectionException;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import java.util.concurrent.ExecutionException;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
+import types.Blockchain;
+import types.Rpc;
+
+@PrepareForTest({AergoRPCServiceFutureStub.class})
+public class AsyncAergoClientImplTest extends AbstractTestCase {
+
+  @BeforeClass
+  public static void beforeClass() throws Exception {
+    // powermock cannot mock java.security packages in jdk17 due to stricter security policies
+    Assume.assumeTrue(TestUtils.getVersion() < 17);
+  }
+
+  protected AsyncAergoClient newClient(final AergoRPCServiceFutureStub futureStub) {
+    final GrpcClientImpl mockClient = mock(GrpcClientImpl.class);
+    when(mockClient.getFutureStub()).thenReturn(futureStub);
+    final Context context = EmptyContext.getInstance().withValue(GRPC_CLIENT, mockClient);
+    return new AsyncAergoClientImpl(new UnmodifiableContextStorage(context));
+  }
+
+  @Test
+  public void testGetAccountState() throws Exception {
+    // given
+    final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+    when(mockFutureStub.getState(any(Rpc.SingleBytes.class)))
+        .thenReturn(Futures.immediateFuture(Blockchain.State.newBuilder().setNonce(3L).build()));
+    final AsyncAergoClient asyncClient = newClient(mockFutureStub);
+
+    // then
+    final AccountState accountState = asyncClient.getAccountState(anyAccountAddress).get();
+    assertEquals(anyAccountAddress, accountState.getAddress());
+    assertEquals(3L, accountState.getNonce());
+  }
+
+  @Test
+  public void testRecordMetrics() throws Exception {
+    // given
+    final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+    when(mockFutureStub.getState(any(Rpc.SingleBytes.class)))
+        .thenReturn(Futures.immediateFuture(Blockchain.State.newBuilder().build()));
+    when(mockFutureStub.blockchain(any(Rpc.Empty.class)))
+        .thenReturn(Futures.<Rpc.BlockchainStatus>immediateFailedFuture(
+            new StatusRuntimeException(Status.UNAVAILABLE)));
+    final GrpcClientImpl mockClient = mock(GrpcClientImpl.class);
+    when(mockClient.getFutureStub()).thenReturn(mockFutureStub);
+    final MetricsRecorder metricsRecorder = mock(MetricsRecorder.class);
+    final Context context = EmptyContext.getInstance()
+        .withValue(GRPC_CLIENT, mockClient)
+        .withValue(GRPC_REQUEST_METRICS, new MetricsStrategy(metricsRecorder));
+    final AsyncAergoClient asyncClient =
+        new AsyncAergoClientImpl(new UnmodifiableContextStorage(context));
+
+    // then
+    asyncClient.getAccountState(anyAccountAddress).get();
+    verify(metricsRecorder).onRequestStart(ACCOUNT_STATE);
+    verify(metricsRecorder).onRequestEnd(eq(ACCOUNT_STATE), anyLong(), isNull(Throwable.class));
+    try {
+      asyncClient.getBlockchainStatus().get();
+      fail();
+    } catch (ExecutionException e) {
+      verify(metricsRecorder).onRequestEnd(eq(BLOCKCHAIN_BLOCKCHAINSTATUS), anyLong(),
+          any(StatusRuntimeException.class));
+    }
+  }
+
+  @Test
+  public void testGetBlockNotFound() throws Exception {
+    // given
+    final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+    when(mockFutureStub.getBlock(any(Rpc.SingleBytes.class)))
+        .thenReturn(Futures.<Blockchain.Block>immediateFailedFuture(
+            new StatusRuntimeException(Status.INTERNAL.withDescription("block not found"))));
+    final AsyncAergoClient asyncClient = newClient(mockFutureStub);
+
+    // then
+    final Block block = asyncClient.getBlock(anyBlockHash).get();
+    assertNull(block);
+  }
+
+  @Test
+  public void testGetTransactionFallbackToMemPool() throws Exception {
+    // given
+    final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+    when(mockFutureStub.getBlockTX(any(Rpc.SingleBytes.class)))
+        .thenReturn(Futures.<Blockchain.TxInBlock>immediateFailedFuture(
+            new StatusRuntimeException(Status.INTERNAL.withDescription("tx not found"))));
+    when(mockFutureStub.getTX(any(Rpc.SingleBytes.class)))
+        .thenReturn(Futures.immediateFuture(Blockchain.Tx.newBuilder().build()));
+    final AsyncAergoClient asyncClient = newClient(mockFutureStub);
+
+    // then
+    final Transaction transaction = asyncClient.getTransaction(anyTxHash).get();
+    assertNotNull(transaction);
+  }
+
+  @Test
+  public void testCommit() throws Exception {
+    // given
+    final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+    final Rpc.CommitResultList rpcCommitResultList = Rpc.CommitResultList.newBuilder()
+        .addResults(Rpc.CommitResult.newBuilder()
+            .setHash(ByteString.copyFrom(anyTxHash.getBytesValue().getValue()))
+            .setError(Rpc.CommitStatus.TX_OK)
+            .build())
+        .build();
+    when(mockFutureStub.commitTX(any(Blockchain.TxList.class)))
+        .thenReturn(Futures.immediateFuture(rpcCommitResultList));
+    final AsyncAergoClient asyncClient = newClient(mockFutureStub);
+
+    // then
+    final TxHash txHash = asyncClient.commit(anyTransaction).get();
+    assertEquals(anyTxHash, txHash);
+  }
+
+  @Test
+  public void testCommitRejected() throws Exception {
+    // given
+    final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+    final Rpc.CommitResultList rpcCommitResultList = Rpc.CommitResultList.newBuilder()
+        .addResults(Rpc.CommitResult.newBuilder()
+            .setError(Rpc.CommitStatus.TX_NONCE_TOO_LOW)
+            .build())
+        .build();
+    when(mockFutureStub.commitTX(any(Blockchain.TxList.class)))
+        .thenReturn(Futures.immediateFuture(rpcCommitResultList));
+    final AsyncAergoClient asyncClient = newClient(mockFutureStub);
+
+    // then
+    try {
+      asyncClient.commit(anyTransaction).get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof CommitException);
+      assertEquals(CommitException.CommitStatus.NONCE_TOO_LOW,
+          ((CommitException) e.getCause()).getCommitStatus());
+    }
+  }
+
+  @Test
+  public void testConvertFailure() throws Exception {
+    // given
+    final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+    when(mockFutureStub.blockchain(any(Rpc.Empty.class)))
+        .thenReturn(Futures.<Rpc.BlockchainStatus>immediateFailedFuture(
+            new StatusRuntimeException(Status.UNAVAILABLE)));
+    final AsyncAergoClient asyncClient = newClient(mockFutureStub);
+
+    // then
+    try {
+      asyncClient.getBlockchainStatus().get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof ConnectionException);
+    }
+  }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.FetchControl;
+import hera.api.model.StreamObserver;
+import hera.exception.HerajException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class BlockRangeFetcherTest extends AbstractTestCase {
+
+  protected final AtomicInteger running = new AtomicInteger(0);
+
+  protected final AtomicInteger maxRunning = new AtomicInteger(0);
+
+  protected final AtomicInteger fetched = new AtomicInteger(0);
+
+  // blocks below the height exist
+  protected Function1<Long, Long> fetcherUnder(final long bestHeight) {
+    final Random random = new Random();
+    return new Function1<Long, Long>() {
+      @Override
+      public Long apply(final Long height) {
+        final int now = running.incrementAndGet();
+        while (true) {
+          final int max = maxRunning.get();
+          if (now <= max || maxRunning.compareAndSet(max, now)) {
+            break;
+          }
+        }
+        fetched.incrementAndGet();
+        try {
+          Thread.sleep(random.nextInt(5));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          running.decrementAndGet();
+        }
+        return height < bestHeight ? height : null;
+      }
+    };
+  }
+
+  protected Function1<Long, Long> weigher(final long weight) {
+    return new Function1<Long, Long>() {
+      @Override
+      public Long apply(final Long block) {
+        return weight;
+      }
+    };
+  }
+
+  @Test
+  public void shouldFetchInOrderWithinParallelism() {
+    // given
+    final FetchControl fetchControl = FetchControl.newBuilder()
+        .parallelism(4)
+        .prefetchDepth(16)
+        .build();
+    final Iterator<Long> it = new BlockRangeFetcher<>(10L, 209L, fetcherUnder(Long.MAX_VALUE),
+        weigher(1L), fetchControl);
+
+    // then
+    long expected = 10L;
+    while (it.hasNext()) {
+      assertEquals(expected++, (long) it.next());
+    }
+    assertEquals(210L, expected);
+    assertTrue(maxRunning.get() <= 4);
+  }
+
+  @Test
+  public void shouldStopOnMissingBlock() {
+    // given
+    final Iterator<Long> it = new BlockRangeFetcher<>(0L, 100L, fetcherUnder(5L), weigher(1L),
+        FetchControl.newBuilder().build());
+
+    // then
+    final List<Long> received = new ArrayList<>();
+    while (it.hasNext()) {
+      received.add(it.next());
+    }
+    assertEquals(5, received.size());
+  }
+
+  @Test
+  public void shouldBoundInFlightBytes() {
+    // given
+    final FetchControl fetchControl = FetchControl.newBuilder()
+        .parallelism(4)
+        .prefetchDepth(16)
+        .maxInFlightBytes(1000L)
+        .build();
+    final BlockRangeFetcher<Long> fetcher = new BlockRangeFetcher<>(0L, 99L,
+        fetcherUnder(Long.MAX_VALUE), weigher(600L), fetchControl);
+
+    // then
+    fetcher.next();
+    fetcher.next();
+    // the next one and another one under 1000 bytes
+    assertTrue(fetcher.height2Fetch.size() <= 2);
+    assertTrue(fetched.get() <= 4);
+  }
+
+  @Test
+  public void shouldThrowFetchError() {
+    // given
+    final Function1<Long, Long> failing = new Function1<Long, Long>() {
+      @Override
+      public Long apply(final Long height) {
+        if (3L == height) {
+          throw new HerajException("failed");
+        }
+        return height;
+      }
+    };
+    final Iterator<Long> it = new BlockRangeFetcher<>(0L, 10L, failing, weigher(1L),
+        FetchControl.newBuilder().build());
+
+    // then
+    try {
+      for (int i = 0; i < 4; ++i) {
+        it.next();
+      }
+      fail();
+    } catch (HerajException e) {
+      // good we expected this
+    }
+  }
+
+  @Test
+  public void shouldDeliverToObserver() throws Exception {
+    // given
+    final List<Long> received = new ArrayList<>();
+    final CountDownLatch completed = new CountDownLatch(1);
+    new BlockRangeFetcher<>(0L, 49L, fetcherUnder(Long.MAX_VALUE), weigher(1L),
+        FetchControl.newBuilder().build()).deliverTo(new StreamObserver<Long>() {
+          @Override
+          public void onNext(final Long value) {
+            received.add(value);
+          }
+
+          @Override
+          public void onError(final Throwable t) {
+          }
+
+          @Override
+          public void onCompleted() {
+            completed.countDown();
+          }
+        });
+
+    // then
+    assertTrue(completed.await(5L, TimeUnit.SECONDS));
+    assertEquals(50, received.size());
+    for (int i = 0; i < received.size(); ++i) {
+      assertEquals(i, (long) received.get(i));
+    }
+  }
+
+}
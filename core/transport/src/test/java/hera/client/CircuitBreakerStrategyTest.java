@@ -0,0 +1,133 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT_GUARD;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import hera.AbstractTestCase;
+import hera.ContextHolder;
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.api.model.HostnameAndPort;
+import hera.api.model.Time;
+import hera.client.CircuitBreaker.State;
+import hera.exception.CircuitBreakerOpenException;
+import io.grpc.Status;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class CircuitBreakerStrategyTest extends AbstractTestCase {
+
+  protected final GrpcEndpoint first = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+
+  protected final GrpcEndpoint second = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+
+  protected final CircuitBreakerStrategy strategy = new CircuitBreakerStrategy(
+      new CircuitBreakerConfig(10, 2, 0.5d, Time.of(1L, TimeUnit.MINUTES), 1),
+      Collections.<CircuitBreakerListener>emptyList());
+
+  // selects the first one like a grpc client does
+  protected RequestMethod<GrpcEndpoint> newRequestMethod(final Exception error) {
+    return new RequestMethod<GrpcEndpoint>() {
+      @Override
+      public String getName() {
+        return Methods.BLOCK_BY_HEIGHT;
+      }
+
+      @Override
+      protected GrpcEndpoint runInternal(final List<Object> parameters) throws Exception {
+        final GrpcEndpoint selected = ContextHolder.current().get(GRPC_REQUEST_ENDPOINT_GUARD)
+            .guard(first, asList(first, second));
+        if (null != error) {
+          throw error;
+        }
+        return selected;
+      }
+    };
+  }
+
+  @Test
+  public void shouldDivertAndFailFast() throws Exception {
+    // given
+    final Invocation<GrpcEndpoint> failing = strategy.apply(
+        new TestInvocation<>(newRequestMethod(Status.UNAVAILABLE.asRuntimeException())));
+    for (int i = 0; i < 2; ++i) {
+      try {
+        failing.invoke();
+        fail();
+      } catch (Exception e) {
+        // good we expected this
+      }
+    }
+    assertEquals(State.OPEN, strategy.getCircuitBreaker(first, "heraj.block").getState());
+
+    // then
+    final Invocation<GrpcEndpoint> succeeding =
+        strategy.apply(new TestInvocation<>(newRequestMethod(null)));
+    assertSame(second, succeeding.invoke());
+
+    strategy.getCircuitBreaker(second, "heraj.block").onFailure();
+    strategy.getCircuitBreaker(second, "heraj.block").onFailure();
+    try {
+      succeeding.invoke();
+      fail();
+    } catch (CircuitBreakerOpenException e) {
+      // good we expected this
+    }
+    // another group is not affected
+    assertEquals(State.CLOSED, strategy.getCircuitBreaker(first, "heraj.account").getState());
+  }
+
+  @Test
+  public void shouldNotCountApplicationError() throws Exception {
+    // given
+    final Invocation<GrpcEndpoint> failing = strategy.apply(
+        new TestInvocation<>(newRequestMethod(Status.INVALID_ARGUMENT.asRuntimeException())));
+
+    // then
+    for (int i = 0; i < 3; ++i) {
+      try {
+        failing.invoke();
+        fail();
+      } catch (Exception e) {
+        // good we expected this
+      }
+    }
+    assertEquals(State.CLOSED, strategy.getCircuitBreaker(first, "heraj.block").getState());
+  }
+
+  @Test
+  public void shouldNotCountRequestTooLarge() throws Exception {
+    // given
+    final Invocation<GrpcEndpoint> exhausted = strategy.apply(new TestInvocation<>(
+        newRequestMethod(Status.RESOURCE_EXHAUSTED.asRuntimeException())));
+    final Invocation<GrpcEndpoint> timedOut = strategy.apply(new TestInvocation<>(
+        newRequestMethod(Status.DEADLINE_EXCEEDED.asRuntimeException())));
+
+    // then
+    for (int i = 0; i < 3; ++i) {
+      try {
+        exhausted.invoke();
+        fail();
+      } catch (Exception e) {
+        // good we expected this
+      }
+      try {
+        timedOut.invoke();
+        fail();
+      } catch (Exception e) {
+        // good we expected this
+      }
+    }
+    assertEquals(State.CLOSED, strategy.getCircuitBreaker(first, "heraj.block").getState());
+  }
+
+}
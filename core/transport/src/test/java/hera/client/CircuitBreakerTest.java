@@ -0,0 +1,92 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.model.HostnameAndPort;
+import hera.api.model.Time;
+import hera.client.CircuitBreaker.State;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class CircuitBreakerTest extends AbstractTestCase {
+
+  protected final List<State> transitions = new ArrayList<>();
+
+  protected CircuitBreaker newCircuitBreaker(final long openDuration) {
+    final CircuitBreakerConfig config = new CircuitBreakerConfig(10, 4, 0.5d,
+        Time.of(openDuration, TimeUnit.MILLISECONDS), 2);
+    return new CircuitBreaker(new GrpcEndpoint(HostnameAndPort.of("localhost:7845")),
+        "heraj.block", config, singletonList((CircuitBreakerListener)
+            new CircuitBreakerListener() {
+              @Override
+              public void onStateTransition(final CircuitBreaker circuitBreaker,
+                  final State from, final State to) {
+                transitions.add(to);
+              }
+            }));
+  }
+
+  @Test
+  public void shouldOpenOnFailureRate() {
+    // given
+    final CircuitBreaker circuitBreaker = newCircuitBreaker(60_000L);
+
+    // then
+    circuitBreaker.onFailure();
+    circuitBreaker.onFailure();
+    circuitBreaker.onSuccess();
+    // not enough calls yet
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+    circuitBreaker.onSuccess();
+    circuitBreaker.onFailure();
+    assertEquals(State.OPEN, circuitBreaker.getState());
+    assertFalse(circuitBreaker.tryAcquire());
+    assertEquals(singletonList(State.OPEN), transitions);
+  }
+
+  @Test
+  public void shouldCloseOnTrialSuccess() {
+    // given
+    final CircuitBreaker circuitBreaker = newCircuitBreaker(0L);
+    for (int i = 0; i < 4; ++i) {
+      circuitBreaker.onFailure();
+    }
+
+    // then
+    assertTrue(circuitBreaker.tryAcquire());
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    assertTrue(circuitBreaker.tryAcquire());
+    // trial calls are limited
+    assertFalse(circuitBreaker.tryAcquire());
+    circuitBreaker.onSuccess();
+    circuitBreaker.onSuccess();
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+    assertEquals(0.0d, circuitBreaker.getFailureRate(), 0.0d);
+  }
+
+  @Test
+  public void shouldReopenOnTrialFailure() {
+    // given
+    final CircuitBreaker circuitBreaker = newCircuitBreaker(0L);
+    for (int i = 0; i < 4; ++i) {
+      circuitBreaker.onFailure();
+    }
+
+    // then
+    assertTrue(circuitBreaker.tryAcquire());
+    circuitBreaker.onFailure();
+    assertEquals(State.OPEN, circuitBreaker.getState());
+    assertEquals(3, transitions.size());
+  }
+
+}
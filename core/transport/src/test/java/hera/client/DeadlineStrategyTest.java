@@ -0,0 +1,102 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_REQUEST_DEADLINE;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.ContextHolder;
+import hera.EmptyContext;
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.api.model.Time;
+import io.grpc.Deadline;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class DeadlineStrategyTest extends AbstractTestCase {
+
+  protected RequestMethod<Deadline> deadlineReader(final String name) {
+    return new RequestMethod<Deadline>() {
+
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      protected Deadline runInternal(final List<Object> parameters) throws Exception {
+        return ContextHolder.current().get(GRPC_REQUEST_DEADLINE);
+      }
+    };
+  }
+
+  @Test
+  public void testGetTimeout() {
+    // given
+    final Time defaultTimeout = Time.of(3L, TimeUnit.SECONDS);
+    final Time methodTimeout = Time.of(100L, TimeUnit.MILLISECONDS);
+    final Map<String, Time> method2Timeout = singletonMap("method", methodTimeout);
+    final DeadlineStrategy strategy = new DeadlineStrategy(defaultTimeout, method2Timeout);
+
+    // then
+    assertEquals(methodTimeout, strategy.getTimeout("method"));
+    assertEquals(defaultTimeout, strategy.getTimeout("other"));
+    assertNull(new DeadlineStrategy(null, method2Timeout).getTimeout("other"));
+  }
+
+  @Test
+  public void shouldAttachDeadlineOnInvocation() throws Exception {
+    // given
+    ContextHolder.attach(EmptyContext.getInstance());
+    final DeadlineStrategy strategy =
+        new DeadlineStrategy(Time.of(3L, TimeUnit.SECONDS), emptyMap());
+    final Invocation<Deadline> invocation =
+        strategy.apply(deadlineReader("method").toInvocation());
+
+    // then
+    final Deadline deadline = invocation.invoke();
+    assertNotNull(deadline);
+    assertTrue(deadline.timeRemaining(TimeUnit.MILLISECONDS) <= 3000L);
+    assertNull(ContextHolder.current().get(GRPC_REQUEST_DEADLINE));
+  }
+
+  @Test
+  public void shouldNotAttachDeadlineWithoutTimeout() throws Exception {
+    // given
+    ContextHolder.attach(EmptyContext.getInstance());
+    final DeadlineStrategy strategy = new DeadlineStrategy(null, emptyMap());
+    final Invocation<Deadline> invocation =
+        strategy.apply(deadlineReader("method").toInvocation());
+
+    // then
+    assertNull(invocation.invoke());
+  }
+
+  @Test
+  public void shouldKeepEarlierInheritedDeadline() throws Exception {
+    // given
+    final Deadline outer = Deadline.after(100L, TimeUnit.MILLISECONDS);
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_REQUEST_DEADLINE, outer));
+    final DeadlineStrategy strategy =
+        new DeadlineStrategy(Time.of(10L, TimeUnit.SECONDS), emptyMap());
+    final Invocation<Deadline> invocation =
+        strategy.apply(deadlineReader("method").toInvocation());
+
+    // then
+    assertSame(outer, invocation.invoke());
+    ContextHolder.attach(EmptyContext.getInstance());
+  }
+
+}
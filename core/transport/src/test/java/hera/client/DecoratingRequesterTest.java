@@ -9,6 +9,7 @@ import static hera.client.ClientContextKeys.GRPC_AFTER_SUCCESS;
 import static hera.client.ClientContextKeys.GRPC_BEFORE_REQUEST;
 import static hera.client.ClientContextKeys.GRPC_FAILOVER_HANDLER_CHAIN;
 import static hera.client.ClientContextKeys.GRPC_REQUEST_TIMEOUT;
+import static hera.client.ClientContextKeys.GRPC_VALUE_RETRY_BUDGET;
 import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
@@ -83,6 +84,35 @@ public class DecoratingRequesterTest extends AbstractTestCase {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void shouldUseUndecoratedInvocationAsItIs() throws Exception {
+    // given
+    final Requester requester = new DecoratingRequester();
+    final String expected = randomUUID().toString();
+    final String name = randomUUID().toString();
+    final RequestMethod<String> requestMethod = new RequestMethod<String>() {
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      protected String runInternal(final List<Object> parameters) throws Exception {
+        return expected;
+      }
+    };
+    final Invocation<String> invocation = new TestInvocation<String>(requestMethod) {
+      @Override
+      public Invocation<String> withParameters(final List<Object> parameters) {
+        throw new UnsupportedOperationException("Must not be copied");
+      }
+    };
+
+    // then
+    assertEquals(expected, requester.request(invocation));
+    assertEquals(expected, requester.request(invocation));
+  }
+
   @Test
   public void testFailRequestOnNoContext() throws Exception {
     final Requester requester = new DecoratingRequester();
@@ -171,4 +201,53 @@ public class DecoratingRequesterTest extends AbstractTestCase {
     });
   }
 
+  @Test
+  public void shouldCreditRetryBudgetOnFailoverSuccess() throws Exception {
+    runOnOtherThread(new Runnable() {
+      @Override
+      public void run() {
+        final RetryBudget retryBudget = new RetryBudget(1.0d, 100);
+        final int initialTokens = retryBudget.getTokens();
+        try {
+          ContextHolder.attach(context
+              .withValue(GRPC_VALUE_RETRY_BUDGET, retryBudget)
+              .withValue(GRPC_FAILOVER_HANDLER_CHAIN, new FailoverHandler() {
+                @Override
+                public <T> Response<T> handle(Invocation<T> invocation, Response<T> response) {
+                  try {
+                    return Response.success(invocation.invoke());
+                  } catch (Exception e) {
+                    return Response.fail(e);
+                  }
+                }
+              }));
+          final Requester requester = new DecoratingRequester();
+          final String name = randomUUID().toString();
+          final String actual = requester.request(new TestInvocation<>(new RequestMethod<String>() {
+            protected int attempts = 0;
+
+            @Override
+            public String getName() {
+              return name;
+            }
+
+            @Override
+            protected String runInternal(final List<Object> parameters) throws Exception {
+              if (0 == attempts++) {
+                throw new IllegalStateException();
+              }
+              return name;
+            }
+          }));
+          assertEquals(name, actual);
+          assertEquals(initialTokens + 1, retryBudget.getTokens());
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          ContextHolder.remove();
+        }
+      }
+    });
+  }
+
 }
@@ -0,0 +1,66 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class DefaultMetricsRecorderTest extends AbstractTestCase {
+
+  @Test
+  public void shouldKeepLatencyPercentiles() {
+    // given
+    final DefaultMetricsRecorder recorder = new DefaultMetricsRecorder();
+    for (int i = 1; i <= 2000; ++i) {
+      recorder.onRequestStart(Methods.BLOCK_BY_HEIGHT);
+      recorder.onRequestEnd(Methods.BLOCK_BY_HEIGHT, TimeUnit.MILLISECONDS.toNanos(i), null);
+    }
+    recorder.onRequestStart(Methods.BLOCK_BY_HEIGHT);
+
+    // then
+    final MethodStats stats = recorder.getSnapshot().getMethodStats(Methods.BLOCK_BY_HEIGHT);
+    assertEquals(2000L, stats.getRequestCount());
+    assertEquals(1L, stats.getInFlight());
+    // not decayed and off by at most 25%
+    final long p50 = TimeUnit.NANOSECONDS.toMillis(stats.getP50Latency());
+    assertTrue(1000L <= p50 && p50 <= 1250L);
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(2000L), stats.getMaxLatency());
+  }
+
+  @Test
+  public void shouldRecordTransfersAndSubscriptions() {
+    // given
+    final DefaultMetricsRecorder recorder = new DefaultMetricsRecorder();
+    recorder.onBytesSent("types.AergoRPCService/GetBlock", 10L);
+    recorder.onBytesReceived("types.AergoRPCService/GetBlock", 300L);
+    recorder.onBytesReceived("types.AergoRPCService/ListBlockStream", 200L);
+    recorder.onRetry(Methods.BLOCK_BY_HEIGHT);
+    recorder.onFailover(Methods.BLOCK_BY_HEIGHT);
+    recorder.onSubscriptionDelivery(Methods.BLOCK_SUBSCRIBE_BLOCK_FLOW_CONTROLLED, 1000L, 5);
+    recorder.onSubscriptionDelivery(Methods.BLOCK_SUBSCRIBE_BLOCK_FLOW_CONTROLLED, 3000L, 4);
+
+    // then
+    final MetricsSnapshot snapshot = recorder.getSnapshot();
+    assertEquals(10L, snapshot.getBytesSent());
+    assertEquals(500L, snapshot.getBytesReceived());
+    final MethodStats request = snapshot.getMethodStats(Methods.BLOCK_BY_HEIGHT);
+    assertEquals(1L, request.getRetryCount());
+    assertEquals(1L, request.getFailoverCount());
+    assertEquals(-1L, request.getP50Latency());
+    final MethodStats subscription = snapshot
+        .getMethodStats(Methods.BLOCK_SUBSCRIBE_BLOCK_FLOW_CONTROLLED);
+    assertEquals(2L, subscription.getDeliveryCount());
+    assertEquals(3000L, subscription.getMaxDeliveryLag());
+    assertEquals(4, subscription.getBufferDepth());
+    assertEquals(5, subscription.getMaxBufferDepth());
+    assertNull(snapshot.getMethodStats(Methods.BLOCK_BY_HASH));
+  }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function0;
+import hera.api.model.HostnameAndPort;
+import hera.api.model.Time;
+import hera.client.EndpointConnection.PooledChannel;
+import io.grpc.ManagedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class EndpointConnectionTest extends AbstractTestCase {
+
+  // runs a maintenance only when a test does
+  protected final ScheduledExecutorService maintainer = mock(ScheduledExecutorService.class);
+
+  protected EndpointConnection newConnection(final int maxSize, final int maxCallsPerChannel,
+      final long idleTimeout) {
+    final ChannelPoolConfig config = new ChannelPoolConfig(maxSize, maxCallsPerChannel,
+        Time.of(idleTimeout, TimeUnit.MILLISECONDS));
+    return new EndpointConnection(new GrpcEndpoint(HostnameAndPort.of("localhost:7845")),
+        new Function0<ManagedChannel>() {
+          @Override
+          public ManagedChannel apply() {
+            return mock(ManagedChannel.class);
+          }
+        }, config, maintainer);
+  }
+
+  @Test
+  public void shouldUseSingleChannelByDefault() {
+    // given
+    final EndpointConnection connection = newConnection(1, 1, 0L);
+    final PooledChannel first = connection.select();
+    first.active.incrementAndGet();
+
+    // then
+    assertSame(first, connection.select());
+    assertEquals(1, connection.size());
+  }
+
+  @Test
+  public void shouldGrowWhenSaturated() {
+    // given
+    final EndpointConnection connection = newConnection(3, 2, 60_000L);
+    final PooledChannel first = connection.select();
+    first.active.addAndGet(2);
+
+    // then
+    final PooledChannel second = connection.select();
+    assertNotSame(first, second);
+    assertEquals(2, connection.size());
+
+    // least loaded one is picked before growing
+    second.active.incrementAndGet();
+    assertSame(second, connection.select());
+    second.active.incrementAndGet();
+    final PooledChannel third = connection.select();
+    assertEquals(3, connection.size());
+
+    // never over max size
+    third.active.addAndGet(2);
+    connection.select();
+    assertEquals(3, connection.size());
+  }
+
+  @Test
+  public void shouldShrinkIdleChannels() {
+    // given
+    final EndpointConnection connection = newConnection(3, 1, 0L);
+    final PooledChannel first = connection.select();
+    first.active.incrementAndGet();
+    final PooledChannel second = connection.select();
+    second.active.incrementAndGet();
+    connection.select();
+    assertEquals(3, connection.size());
+
+    // then
+    first.active.decrementAndGet();
+    connection.maintain();
+    assertSame(first, connection.select());
+    // busy one is kept
+    assertEquals(2, connection.size());
+  }
+
+  @Test
+  public void shouldShutdownRetiredChannelsOnSingleChannelPool() {
+    // given
+    final EndpointConnection connection = newConnection(2, 1, 0L);
+    final PooledChannel first = connection.select();
+    first.active.incrementAndGet();
+    final PooledChannel second = connection.select();
+    assertEquals(2, connection.size());
+    connection.maintain();
+    assertEquals(1, connection.size());
+    assertTrue(connection.retired.contains(second));
+    first.active.decrementAndGet();
+
+    // then
+    connection.maintain();
+    verify(second.channel, never()).shutdown();
+    second.retiredAt -= EndpointConnection.RETIRE_GRACE;
+    connection.maintain();
+    verify(second.channel).shutdown();
+    assertTrue(connection.retired.isEmpty());
+    assertEquals(1, connection.size());
+  }
+
+  @Test
+  public void shouldMaintainOnTimerUntilClosed() throws Exception {
+    // given
+    final List<Runnable> tasks = new ArrayList<>();
+    final ScheduledFuture<?> scheduled = mock(ScheduledFuture.class);
+    doAnswer(new Answer<ScheduledFuture<?>>() {
+      @Override
+      public ScheduledFuture<?> answer(final InvocationOnMock invocation) {
+        tasks.add(invocation.<Runnable>getArgument(0));
+        return scheduled;
+      }
+    }).when(maintainer).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(),
+        any(TimeUnit.class));
+    final EndpointConnection connection = newConnection(2, 1, 0L);
+    final PooledChannel first = connection.select();
+    first.active.incrementAndGet();
+    final PooledChannel second = connection.select();
+    assertEquals(2, connection.size());
+
+    // then
+    assertEquals(1, tasks.size());
+    tasks.get(0).run();
+    assertEquals(1, connection.size());
+    assertTrue(connection.retired.contains(second));
+    connection.close();
+    verify(scheduled).cancel(false);
+  }
+
+  @Test
+  public void shouldNotMaintainSingleChannelPool() {
+    // given
+    newConnection(1, 1, 0L);
+
+    // then
+    verify(maintainer, never()).scheduleWithFixedDelay(any(Runnable.class), anyLong(),
+        anyLong(), any(TimeUnit.class));
+  }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.ContractAddress;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.FetchControl;
+import hera.exception.HerajException;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class EventRangeFetcherTest extends AbstractTestCase {
+
+  protected final ContractAddress contract =
+      ContractAddress.of("AmJaNDXoPbBRn9XHh9onKbDKuAzj88n5Bzt7KniYA78qUEc5EwBd");
+
+  protected final FetchControl fetchControl = FetchControl.newBuilder()
+      .parallelism(4)
+      .prefetchDepth(8)
+      .build();
+
+  protected final AtomicInteger requestCount = new AtomicInteger(0);
+
+  protected final AtomicInteger maxRange = new AtomicInteger(0);
+
+  // an event per height. fails a range over maxBlocks as a too large response
+  protected Function1<EventFilter, List<Event>> lister(final int maxBlocks) {
+    return new Function1<EventFilter, List<Event>>() {
+      @Override
+      public List<Event> apply(final EventFilter filter) {
+        requestCount.incrementAndGet();
+        final long from = filter.getFromBlockNumber();
+        final long to = filter.getToBlockNumber();
+        if (to - from + 1 > maxBlocks) {
+          throw new HerajException(Status.RESOURCE_EXHAUSTED.asRuntimeException());
+        }
+        maxRange.set(Math.max(maxRange.get(), (int) (to - from + 1)));
+        final List<Event> events = new ArrayList<>();
+        for (long height = from; height <= to; ++height) {
+          events.add(Event.newBuilder().from(contract).blockNumber(height).build());
+        }
+        if (filter.isDecending()) {
+          Collections.reverse(events);
+        }
+        return events;
+      }
+    };
+  }
+
+  @Test
+  public void shouldListInOrder() {
+    // given
+    final EventFilter filter = EventFilter.newBuilder(contract)
+        .fromBlockNumber(1L)
+        .toBlockNumber(5000L)
+        .build();
+    final Iterator<Event> it = new EventRangeFetcher(filter, lister(Integer.MAX_VALUE),
+        fetchControl);
+
+    // then
+    long expected = 1L;
+    while (it.hasNext()) {
+      assertEquals(expected++, it.next().getBlockNumber());
+    }
+    assertEquals(5001L, expected);
+  }
+
+  @Test
+  public void shouldSplitTooLargeResponse() {
+    // given
+    final EventFilter filter = EventFilter.newBuilder(contract)
+        .fromBlockNumber(0L)
+        .toBlockNumber(999L)
+        .build();
+    final Iterator<Event> it = new EventRangeFetcher(filter, lister(30), fetchControl);
+
+    // then
+    long expected = 0L;
+    while (it.hasNext()) {
+      assertEquals(expected++, it.next().getBlockNumber());
+    }
+    assertEquals(1000L, expected);
+    assertTrue(maxRange.get() <= 30);
+  }
+
+  @Test
+  public void shouldGrowOnSparseResponse() {
+    // given
+    final Function1<EventFilter, List<Event>> empty = new Function1<EventFilter, List<Event>>() {
+      @Override
+      public List<Event> apply(final EventFilter filter) {
+        requestCount.incrementAndGet();
+        return new ArrayList<>();
+      }
+    };
+    final EventFilter filter = EventFilter.newBuilder(contract)
+        .fromBlockNumber(0L)
+        .toBlockNumber(99999L)
+        .build();
+    final Iterator<Event> it = new EventRangeFetcher(filter, empty,
+        FetchControl.newBuilder().parallelism(1).prefetchDepth(1).build());
+
+    // then
+    assertTrue(!it.hasNext());
+    // 100, 200, ..., 6400 and then 10000 each
+    assertTrue(requestCount.get() < 20);
+  }
+
+  @Test
+  public void shouldListDescending() {
+    // given
+    final EventFilter filter = EventFilter.newBuilder(contract)
+        .fromBlockNumber(10L)
+        .toBlockNumber(300L)
+        .decending(true)
+        .build();
+    final Iterator<Event> it = new EventRangeFetcher(filter, lister(50), fetchControl);
+
+    // then
+    long expected = 300L;
+    while (it.hasNext()) {
+      assertEquals(expected--, it.next().getBlockNumber());
+    }
+    assertEquals(9L, expected);
+  }
+
+  @Test
+  public void shouldEndOnCloseByAnotherThread() throws Exception {
+    // given
+    final CountDownLatch listing = new CountDownLatch(1);
+    final Function1<EventFilter, List<Event>> hanging = new Function1<EventFilter, List<Event>>() {
+      @Override
+      public List<Event> apply(final EventFilter filter) {
+        listing.countDown();
+        try {
+          Thread.sleep(TimeUnit.MINUTES.toMillis(1L));
+        } catch (InterruptedException e) {
+          throw new HerajException(e);
+        }
+        return new ArrayList<>();
+      }
+    };
+    final EventFilter filter = EventFilter.newBuilder(contract)
+        .fromBlockNumber(0L)
+        .toBlockNumber(1000L)
+        .build();
+    final EventRangeFetcher it = new EventRangeFetcher(filter, hanging, fetchControl);
+    final ExecutorService iterating = Executors.newSingleThreadExecutor();
+
+    try {
+      // then
+      final Future<Boolean> hasNext = iterating.submit(new Callable<Boolean>() {
+        @Override
+        public Boolean call() {
+          return it.hasNext();
+        }
+      });
+      listing.await();
+      it.close();
+      assertFalse(hasNext.get(5L, TimeUnit.SECONDS));
+    } finally {
+      iterating.shutdownNow();
+    }
+  }
+
+}
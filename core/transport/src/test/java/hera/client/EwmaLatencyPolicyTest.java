@@ -0,0 +1,69 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertSame;
+
+import hera.AbstractTestCase;
+import hera.api.model.HostnameAndPort;
+import io.grpc.Status;
+import java.util.List;
+import org.junit.Test;
+
+public class EwmaLatencyPolicyTest extends AbstractTestCase {
+
+  protected void complete(final GrpcEndpoint endpoint, final long elapsedNanos) {
+    endpoint.onStart();
+    endpoint.onComplete(elapsedNanos, Status.OK);
+  }
+
+  @Test
+  public void shouldSelectFaster() {
+    // given
+    final GrpcEndpoint slow = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+    final GrpcEndpoint fast = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+    complete(slow, 50_000_000L);
+    complete(fast, 5_000_000L);
+    final List<GrpcEndpoint> endpoints = asList(slow, fast);
+    final LoadBalancePolicy policy = new EwmaLatencyPolicy();
+
+    // then
+    for (int i = 0; i < 10; ++i) {
+      assertSame(fast, policy.select(endpoints));
+    }
+  }
+
+  @Test
+  public void shouldAvoidFastButQueuedOne() {
+    // given
+    final GrpcEndpoint slow = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+    final GrpcEndpoint fast = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+    complete(slow, 20_000_000L);
+    complete(fast, 5_000_000L);
+    for (int i = 0; i < 10; ++i) {
+      fast.onStart();
+    }
+    final List<GrpcEndpoint> endpoints = asList(slow, fast);
+    final LoadBalancePolicy policy = new EwmaLatencyPolicy();
+
+    // then
+    assertSame(slow, policy.select(endpoints));
+  }
+
+  @Test
+  public void shouldProbeEndpointWithoutSample() {
+    // given
+    final GrpcEndpoint measured = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+    final GrpcEndpoint fresh = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+    complete(measured, 1_000_000L);
+    final List<GrpcEndpoint> endpoints = asList(measured, fresh);
+    final LoadBalancePolicy policy = new EwmaLatencyPolicy();
+
+    // then
+    assertSame(fresh, policy.select(endpoints));
+  }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.FlowControl;
+import hera.api.model.FlowControl.OverflowPolicy;
+import hera.api.model.StreamObserver;
+import hera.exception.HerajException;
+import hera.transport.ModelConverter;
+import io.grpc.stub.ClientCallStreamObserver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.Test;
+
+public class FlowControlledStreamObserverTest extends AbstractTestCase {
+
+  protected final Executor direct = new Executor() {
+    @Override
+    public void execute(final Runnable command) {
+      command.run();
+    }
+  };
+
+  protected final Function1<String, String> identity = new Function1<String, String>() {
+    @Override
+    public String apply(final String s) {
+      return s;
+    }
+  };
+
+  protected final ModelConverter<String, String> converter =
+      new ModelConverter<>(identity, identity);
+
+  protected static class RecordingObserver implements StreamObserver<String> {
+    protected final List<String> received = new ArrayList<>();
+    protected Throwable error;
+    protected boolean completed = false;
+
+    @Override
+    public void onNext(final String value) {
+      received.add(value);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      error = t;
+    }
+
+    @Override
+    public void onCompleted() {
+      completed = true;
+    }
+  }
+
+  protected FlowControlledStreamObserver<Object, String, String> open(
+      final RecordingObserver observer, final ClientCallStreamObserver<Object> call,
+      final int bufferSize, final OverflowPolicy policy) {
+    final io.grpc.Context.CancellableContext context = io.grpc.Context.current().withCancellation();
+    final FlowControl flowControl = FlowControl.newBuilder()
+        .bufferSize(bufferSize)
+        .overflowPolicy(policy)
+        .executor(direct)
+        .build();
+    final FlowControlledStreamObserver<Object, String, String> subscription =
+        new FlowControlledStreamObserver<>(context, observer, converter, flowControl);
+    subscription.beforeStart(call);
+    return subscription;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldDeliverOnlyAsRequested() {
+    // given
+    final ClientCallStreamObserver<Object> call = mock(ClientCallStreamObserver.class);
+    final RecordingObserver observer = new RecordingObserver();
+    final FlowControlledStreamObserver<Object, String, String> subscription =
+        open(observer, call, 4, OverflowPolicy.BLOCK);
+    verify(call).disableAutoRequestWithInitial(4);
+
+    // then
+    subscription.onNext("0");
+    subscription.onNext("1");
+    subscription.onNext("2");
+    assertTrue(observer.received.isEmpty());
+    subscription.request(2L);
+    assertEquals(2, observer.received.size());
+    subscription.onCompleted();
+    assertTrue(!observer.completed);
+    subscription.request(1L);
+    assertEquals(3, observer.received.size());
+    assertTrue(observer.completed);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldNotRequestMoreThanBufferOnBlock() {
+    // given
+    final ClientCallStreamObserver<Object> call = mock(ClientCallStreamObserver.class);
+    final RecordingObserver observer = new RecordingObserver();
+    final FlowControlledStreamObserver<Object, String, String> subscription =
+        open(observer, call, 4, OverflowPolicy.BLOCK);
+
+    // then
+    for (int i = 0; i < 4; ++i) {
+      subscription.onNext(Integer.toString(i));
+    }
+    verify(call, never()).request(anyInt());
+    subscription.request(4L);
+    assertEquals(4, observer.received.size());
+    verify(call, times(4)).request(1);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldDropOldestOnFullBuffer() {
+    // given
+    final ClientCallStreamObserver<Object> call = mock(ClientCallStreamObserver.class);
+    final RecordingObserver observer = new RecordingObserver();
+    final FlowControlledStreamObserver<Object, String, String> subscription =
+        open(observer, call, 2, OverflowPolicy.DROP_OLDEST);
+
+    // then
+    subscription.onNext("0");
+    subscription.onNext("1");
+    subscription.onNext("2");
+    subscription.request(Long.MAX_VALUE);
+    assertEquals(2, observer.received.size());
+    assertEquals("1", observer.received.get(0));
+    assertEquals("2", observer.received.get(1));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldFailOnFullBuffer() {
+    // given
+    final ClientCallStreamObserver<Object> call = mock(ClientCallStreamObserver.class);
+    final RecordingObserver observer = new RecordingObserver();
+    final FlowControlledStreamObserver<Object, String, String> subscription =
+        open(observer, call, 2, OverflowPolicy.FAIL);
+
+    // then
+    subscription.onNext("0");
+    subscription.onNext("1");
+    subscription.onNext("2");
+    assertNotNull(observer.error);
+    assertTrue(observer.error instanceof HerajException);
+    assertTrue(subscription.isUnsubscribed());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldStopDeliveryOnUnsubscribe() {
+    // given
+    final ClientCallStreamObserver<Object> call = mock(ClientCallStreamObserver.class);
+    final RecordingObserver observer = new RecordingObserver();
+    final FlowControlledStreamObserver<Object, String, String> subscription =
+        open(observer, call, 4, OverflowPolicy.BLOCK);
+
+    // then
+    subscription.onNext("0");
+    subscription.unsubscribe();
+    subscription.request(1L);
+    assertTrue(observer.received.isEmpty());
+    assertTrue(subscription.isUnsubscribed());
+  }
+
+}
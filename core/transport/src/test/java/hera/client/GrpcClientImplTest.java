@@ -4,12 +4,25 @@
 
 package hera.client;
 
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_ENDPOINTS;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ROUTING_KEY;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import hera.AbstractTestCase;
+import hera.ContextHolder;
+import hera.EmptyContext;
+import hera.api.model.HostnameAndPort;
+import io.grpc.Status;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -68,4 +81,77 @@ public class GrpcClientImplTest extends AbstractTestCase {
     grpcClient.close();
   }
 
+  @Test
+  public void shouldRouteSameKeyToSameEndpoint() {
+    // given
+    final List<GrpcEndpoint> endpoints = asList(
+        new GrpcEndpoint(HostnameAndPort.of("node1:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node2:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node3:7845")));
+
+    // then
+    final Set<GrpcEndpoint> selected = new HashSet<>();
+    for (int i = 0; i < 100; ++i) {
+      final String routingKey = "account" + i;
+      final GrpcEndpoint endpoint = GrpcClientImpl.rendezvous(routingKey, endpoints);
+      assertSame(endpoint, GrpcClientImpl.rendezvous(routingKey, endpoints));
+      selected.add(endpoint);
+    }
+    assertEquals(endpoints.size(), selected.size());
+  }
+
+  @Test
+  public void shouldMoveOnlyKeysOnRemovedEndpoint() {
+    // given
+    final GrpcEndpoint removed = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+    final List<GrpcEndpoint> endpoints = asList(removed,
+        new GrpcEndpoint(HostnameAndPort.of("node2:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node3:7845")));
+    final List<GrpcEndpoint> remaining = endpoints.subList(1, endpoints.size());
+
+    // then
+    for (int i = 0; i < 100; ++i) {
+      final String routingKey = "account" + i;
+      final GrpcEndpoint before = GrpcClientImpl.rendezvous(routingKey, endpoints);
+      final GrpcEndpoint after = GrpcClientImpl.rendezvous(routingKey, remaining);
+      if (removed != before) {
+        assertSame(before, after);
+      }
+    }
+  }
+
+  @Test
+  public void shouldSelectStubByRoutingKey() {
+    // given
+    final GrpcClientImpl grpcClient = new GrpcClientImpl();
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CONNECTION_ENDPOINTS,
+        asList(HostnameAndPort.of("node1:7845"), HostnameAndPort.of("node2:7845"))));
+    try {
+      // then
+      assertNotSame(grpcClient.getBlockingStub(), grpcClient.getBlockingStub());
+
+      ContextHolder.attach(ContextHolder.current().withValue(GRPC_REQUEST_ROUTING_KEY, "key"));
+      assertSame(grpcClient.getBlockingStub(), grpcClient.getBlockingStub());
+    } finally {
+      ContextHolder.attach(EmptyContext.getInstance());
+      grpcClient.close();
+    }
+  }
+
+  @Test
+  public void shouldExcludeUnavailableEndpoint() {
+    // given
+    final GrpcClientImpl grpcClient = new GrpcClientImpl();
+    final GrpcEndpoint healthy = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+    final GrpcEndpoint unavailable = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+    unavailable.onStart();
+    unavailable.onComplete(1000L, Status.UNAVAILABLE);
+
+    // then
+    assertTrue(healthy.isHealthy());
+    assertFalse(unavailable.isHealthy());
+    assertEquals(asList(healthy), grpcClient.filterHealthy(asList(unavailable, healthy)));
+    assertEquals(asList(unavailable), grpcClient.filterHealthy(asList(unavailable)));
+  }
+
 }
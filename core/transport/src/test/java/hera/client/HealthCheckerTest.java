@@ -0,0 +1,101 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.api.model.HostnameAndPort;
+import hera.api.model.Time;
+import hera.client.HealthChecker.Probe;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class HealthCheckerTest extends AbstractTestCase {
+
+  protected EndpointConnection newConnection(final String endpoint) {
+    final EndpointConnection connection = mock(EndpointConnection.class);
+    when(connection.getEndpoint()).thenReturn(new GrpcEndpoint(HostnameAndPort.of(endpoint)));
+    return connection;
+  }
+
+  @Test
+  public void testCheck() {
+    // given
+    final EndpointConnection fresh = newConnection("node1:7845");
+    final EndpointConnection lagging = newConnection("node2:7845");
+    final EndpointConnection restarting = newConnection("node3:7845");
+    final Map<EndpointConnection, Probe> probes = new HashMap<>();
+    probes.put(fresh, new Probe(true, 100L, 2_000_000L, 0));
+    probes.put(lagging, new Probe(true, 90L, 1_000_000L, 0));
+    probes.put(restarting, new Probe(false, -1L, 5_000_000L, 0));
+    final HealthChecker healthChecker = new HealthChecker(asList(fresh, lagging, restarting),
+        new HealthCheckConfig(Time.of(1L, TimeUnit.SECONDS), 3L)) {
+      @Override
+      protected Probe probe(final EndpointConnection connection) {
+        return probes.get(connection);
+      }
+    };
+
+    // then
+    healthChecker.check();
+    final GrpcEndpoint freshEndpoint = fresh.getEndpoint();
+    final GrpcEndpoint laggingEndpoint = lagging.getEndpoint();
+    final GrpcEndpoint restartingEndpoint = restarting.getEndpoint();
+    assertTrue(freshEndpoint.isHealthy());
+    assertEquals(100L, freshEndpoint.getBestHeight());
+    assertFalse(laggingEndpoint.isHealthy());
+    assertEquals(90L, laggingEndpoint.getBestHeight());
+    assertFalse(restartingEndpoint.isHealthy());
+    assertTrue(freshEndpoint.getScore() > laggingEndpoint.getScore());
+    assertEquals(Double.NEGATIVE_INFINITY, restartingEndpoint.getScore(), 0.0d);
+    healthChecker.close();
+  }
+
+  @Test
+  public void shouldFailHangingProbeOnly() {
+    // given
+    final EndpointConnection fresh = newConnection("node1:7845");
+    final EndpointConnection hanging = newConnection("node2:7845");
+    final CountDownLatch release = new CountDownLatch(1);
+    final HealthChecker healthChecker = new HealthChecker(asList(hanging, fresh),
+        new HealthCheckConfig(Time.of(300L, TimeUnit.MILLISECONDS), 3L)) {
+      @Override
+      protected Probe probe(final EndpointConnection connection) {
+        if (connection == hanging) {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        return new Probe(true, 100L, 1_000_000L, 0);
+      }
+    };
+
+    try {
+      // then
+      final long startedAt = System.nanoTime();
+      healthChecker.check();
+      final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+      assertTrue(elapsed < 3000L);
+      assertTrue(fresh.getEndpoint().isHealthy());
+      assertEquals(100L, fresh.getEndpoint().getBestHeight());
+      assertFalse(hanging.getEndpoint().isHealthy());
+    } finally {
+      release.countDown();
+      healthChecker.close();
+    }
+  }
+
+}
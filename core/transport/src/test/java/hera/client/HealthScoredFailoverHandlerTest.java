@@ -0,0 +1,243 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_CLIENT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT;
+import static hera.client.ClientContextKeys.GRPC_VALUE_RETRY_BUDGET;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.ContextHolder;
+import hera.EmptyContext;
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.Response;
+import hera.api.model.HostnameAndPort;
+import io.grpc.Status;
+import java.util.List;
+import org.junit.Test;
+
+public class HealthScoredFailoverHandlerTest extends AbstractTestCase {
+
+  protected final RequestMethod<GrpcEndpoint> pinnedEndpointReader =
+      new RequestMethod<GrpcEndpoint>() {
+        @Override
+        public String getName() {
+          return Methods.BLOCK_BY_HASH;
+        }
+
+        @Override
+        protected GrpcEndpoint runInternal(final List<Object> parameters) {
+          return ContextHolder.current().get(GRPC_REQUEST_ENDPOINT);
+        }
+      };
+
+  @Test
+  public void shouldRerouteToBestScored() {
+    // given
+    final GrpcEndpoint lagging = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+    lagging.onHealthChecked(10L, true, -3000.0d);
+    final GrpcEndpoint best = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+    best.onHealthChecked(13L, true, -10.0d);
+    final GrpcEndpoint down = new GrpcEndpoint(HostnameAndPort.of("node3:7845"));
+    down.onHealthChecked(-1L, false, Double.NEGATIVE_INFINITY);
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(lagging, best, down));
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation = new TestInvocation<>(pinnedEndpointReader);
+      final Response<GrpcEndpoint> response =
+          Response.fail(Status.UNAVAILABLE.asRuntimeException());
+      final Response<GrpcEndpoint> handled =
+          new HealthScoredFailoverHandler().handle(invocation, response);
+      assertSame(best, handled.getValue());
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
+  @Test
+  public void shouldNotRerouteToFailedOne() {
+    // given
+    final GrpcEndpoint failed = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+    failed.onHealthChecked(13L, true, -10.0d);
+    final GrpcEndpoint other = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+    other.onHealthChecked(12L, true, -1010.0d);
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(failed, other));
+    when(grpcClient.getLastSelected()).thenReturn(failed);
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation = new TestInvocation<>(pinnedEndpointReader);
+      final Response<GrpcEndpoint> response =
+          Response.fail(Status.ABORTED.asRuntimeException());
+      final Response<GrpcEndpoint> handled =
+          new HealthScoredFailoverHandler().handle(invocation, response);
+      assertSame(other, handled.getValue());
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
+  @Test
+  public void shouldRankUnknownBelowChecked() {
+    // given
+    final GrpcEndpoint unknown = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+    final GrpcEndpoint checked = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+    checked.onHealthChecked(13L, true, -2000.0d);
+    final GrpcEndpoint failed = new GrpcEndpoint(HostnameAndPort.of("node3:7845"));
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(unknown, checked, failed));
+    when(grpcClient.getLastSelected()).thenReturn(failed);
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation = new TestInvocation<>(pinnedEndpointReader);
+      final Response<GrpcEndpoint> response =
+          Response.fail(Status.UNAVAILABLE.asRuntimeException());
+      final Response<GrpcEndpoint> handled =
+          new HealthScoredFailoverHandler().handle(invocation, response);
+      assertSame(checked, handled.getValue());
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
+  @Test
+  public void shouldNotHandleApplicationError() {
+    // given
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(
+        new GrpcEndpoint(HostnameAndPort.of("node1:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node2:7845"))));
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation = new TestInvocation<>(pinnedEndpointReader);
+      final Response<GrpcEndpoint> response =
+          Response.fail(Status.INVALID_ARGUMENT.asRuntimeException());
+      final Response<GrpcEndpoint> handled =
+          new HealthScoredFailoverHandler().handle(invocation, response);
+      assertSame(response, handled);
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
+  @Test
+  public void shouldNotHandleWithSingleEndpoint() {
+    // given
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints())
+        .thenReturn(asList(new GrpcEndpoint(HostnameAndPort.of("node1:7845"))));
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation = new TestInvocation<>(pinnedEndpointReader);
+      final Response<GrpcEndpoint> response =
+          Response.fail(Status.UNAVAILABLE.asRuntimeException());
+      final Response<GrpcEndpoint> handled =
+          new HealthScoredFailoverHandler().handle(invocation, response);
+      assertEquals(response.getError(), handled.getError());
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
+  @Test
+  public void shouldNotRerouteNonReadOnly() {
+    // given
+    final RequestMethod<GrpcEndpoint> committer = new RequestMethod<GrpcEndpoint>() {
+      @Override
+      public String getName() {
+        return Methods.TRANSACTION_COMMIT;
+      }
+
+      @Override
+      protected GrpcEndpoint runInternal(final List<Object> parameters) {
+        return ContextHolder.current().get(GRPC_REQUEST_ENDPOINT);
+      }
+    };
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(
+        new GrpcEndpoint(HostnameAndPort.of("node1:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node2:7845"))));
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation = new TestInvocation<>(committer);
+      final Response<GrpcEndpoint> response =
+          Response.fail(Status.UNAVAILABLE.asRuntimeException());
+      final Response<GrpcEndpoint> handled =
+          new HealthScoredFailoverHandler().handle(invocation, response);
+      assertSame(response, handled);
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
+  @Test
+  public void shouldNotRerouteOnDeadlineExceeded() {
+    // given
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(
+        new GrpcEndpoint(HostnameAndPort.of("node1:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node2:7845"))));
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation = new TestInvocation<>(pinnedEndpointReader);
+      final Response<GrpcEndpoint> response =
+          Response.fail(Status.DEADLINE_EXCEEDED.asRuntimeException());
+      final Response<GrpcEndpoint> handled =
+          new HealthScoredFailoverHandler().handle(invocation, response);
+      assertSame(response, handled);
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
+  @Test
+  public void shouldNotRerouteWithoutRetryBudget() {
+    // given
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(
+        new GrpcEndpoint(HostnameAndPort.of("node1:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node2:7845"))));
+    final RetryBudget retryBudget = new RetryBudget(0.1d, 1);
+    assertTrue(retryBudget.tryAcquire());
+    ContextHolder.attach(EmptyContext.getInstance()
+        .withValue(GRPC_CLIENT, grpcClient)
+        .withValue(GRPC_VALUE_RETRY_BUDGET, retryBudget));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation = new TestInvocation<>(pinnedEndpointReader);
+      final Response<GrpcEndpoint> response =
+          Response.fail(Status.UNAVAILABLE.asRuntimeException());
+      final Response<GrpcEndpoint> handled =
+          new HealthScoredFailoverHandler().handle(invocation, response);
+      assertSame(response, handled);
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_CLIENT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_CIRCUIT_BREAKER;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT_GUARD;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.ContextHolder;
+import hera.EmptyContext;
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.api.model.HostnameAndPort;
+import hera.api.model.Time;
+import io.grpc.Status;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class HedgingStrategyTest extends AbstractTestCase {
+
+  protected final GrpcEndpoint slow = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+
+  protected final GrpcEndpoint fast = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+
+  protected final CountDownLatch slowCancelled = new CountDownLatch(1);
+
+  // blocks on a slow endpoint until cancelled
+  protected final RequestMethod<GrpcEndpoint> endpointReader = new RequestMethod<GrpcEndpoint>() {
+    @Override
+    public String getName() {
+      return Methods.TRANSACTION_TXRECEIPT;
+    }
+
+    @Override
+    protected GrpcEndpoint runInternal(final List<Object> parameters) throws Exception {
+      final GrpcEndpoint pinned = ContextHolder.current().get(GRPC_REQUEST_ENDPOINT);
+      if (slow == pinned) {
+        final io.grpc.Context grpcContext = io.grpc.Context.current();
+        final long until = System.currentTimeMillis() + 3000L;
+        while (!grpcContext.isCancelled() && System.currentTimeMillis() < until) {
+          Thread.sleep(10L);
+        }
+        slowCancelled.countDown();
+        throw Status.CANCELLED.asRuntimeException();
+      }
+      return pinned;
+    }
+  };
+
+  protected final AtomicInteger fastCalls = new AtomicInteger(0);
+
+  // answers late on a slow endpoint without watching a cancellation
+  protected final RequestMethod<GrpcEndpoint> lateReader = new RequestMethod<GrpcEndpoint>() {
+    @Override
+    public String getName() {
+      return Methods.TRANSACTION_TXRECEIPT;
+    }
+
+    @Override
+    protected GrpcEndpoint runInternal(final List<Object> parameters) throws Exception {
+      final GrpcEndpoint pinned = ContextHolder.current().get(GRPC_REQUEST_ENDPOINT);
+      if (slow == pinned) {
+        Thread.sleep(100L);
+      } else {
+        fastCalls.incrementAndGet();
+      }
+      return pinned;
+    }
+  };
+
+  protected HedgingStrategy newWarmedUp() {
+    return newWarmedUp(HedgingStrategy.MAX_IN_FLIGHT_HEDGES);
+  }
+
+  protected HedgingStrategy newWarmedUp(final int maxInFlightHedges) {
+    final HedgingStrategy strategy = new HedgingStrategy(0.9d, Time.of(1L, TimeUnit.MILLISECONDS),
+        maxInFlightHedges);
+    for (int i = 0; i < HedgingStrategy.MIN_SAMPLES; ++i) {
+      strategy.getHistogram(Methods.TRANSACTION_TXRECEIPT)
+          .record(TimeUnit.MILLISECONDS.toNanos(10L));
+    }
+    return strategy;
+  }
+
+  @Test
+  public void shouldTakeFasterOneAndCancelSlower() throws Exception {
+    // given
+    final HedgingStrategy strategy = newWarmedUp();
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(slow, fast));
+    when(grpcClient.selectEndpoint()).thenReturn(slow);
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation =
+          strategy.apply(new TestInvocation<>(endpointReader));
+      assertSame(fast, invocation.invoke());
+      assertTrue(slowCancelled.await(1L, TimeUnit.SECONDS));
+      // a cancelled loser is not recorded
+      assertEquals(HedgingStrategy.MIN_SAMPLES + 1L,
+          strategy.getHistogram(Methods.TRANSACTION_TXRECEIPT).getCount());
+    } finally {
+      ContextHolder.remove();
+      strategy.close();
+    }
+  }
+
+  @Test
+  public void shouldSelectPrimaryThroughCircuitBreaker() throws Exception {
+    // given
+    final HedgingStrategy strategy = newWarmedUp();
+    final CircuitBreakerStrategy circuitBreaker = new CircuitBreakerStrategy(
+        new CircuitBreakerConfig(1, 1, 1.0d, Time.of(1L, TimeUnit.MINUTES), 1),
+        Collections.<CircuitBreakerListener>emptyList());
+    final String group = circuitBreaker.groupOf(Methods.TRANSACTION_TXRECEIPT);
+    circuitBreaker.getCircuitBreaker(slow, group).onFailure();
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(slow, fast));
+    when(grpcClient.selectEndpoint()).thenAnswer(new Answer<GrpcEndpoint>() {
+      @Override
+      public GrpcEndpoint answer(final InvocationOnMock invocation) {
+        final EndpointGuard guard = ContextHolder.current().get(GRPC_REQUEST_ENDPOINT_GUARD);
+        return guard.guard(slow, asList(slow, fast));
+      }
+    });
+    ContextHolder.attach(EmptyContext.getInstance()
+        .withValue(GRPC_CLIENT, grpcClient)
+        .withValue(GRPC_REQUEST_CIRCUIT_BREAKER, circuitBreaker));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation = strategy.apply(
+          circuitBreaker.apply(new TestInvocation<>(lateReader)));
+      assertSame(fast, invocation.invoke());
+      assertEquals(CircuitBreaker.State.OPEN,
+          circuitBreaker.getCircuitBreaker(slow, group).getState());
+    } finally {
+      ContextHolder.remove();
+      strategy.close();
+    }
+  }
+
+  @Test
+  public void shouldNotHedgeOverMaxInFlight() throws Exception {
+    // given
+    final HedgingStrategy strategy = newWarmedUp(1);
+    strategy.inFlightHedges.incrementAndGet();
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(slow, fast));
+    when(grpcClient.selectEndpoint()).thenReturn(slow);
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation =
+          strategy.apply(new TestInvocation<>(lateReader));
+      assertSame(slow, invocation.invoke());
+      assertEquals(0, fastCalls.get());
+      assertEquals(1, strategy.inFlightHedges.get());
+    } finally {
+      ContextHolder.remove();
+      strategy.close();
+    }
+  }
+
+  @Test
+  public void shouldNotHedgeAfterClose() throws Exception {
+    // given
+    final HedgingStrategy strategy = newWarmedUp();
+    strategy.close();
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(slow, fast));
+    when(grpcClient.selectEndpoint()).thenReturn(slow);
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation =
+          strategy.apply(new TestInvocation<>(lateReader));
+      // invoked as it is without pinning an endpoint
+      assertNull(invocation.invoke());
+      assertTrue(strategy.timer.isShutdown());
+      assertTrue(strategy.worker.isShutdown());
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
+  @Test
+  public void shouldNotHedgeBeforeWarmUp() throws Exception {
+    // given
+    final HedgingStrategy strategy =
+        new HedgingStrategy(0.9d, Time.of(1L, TimeUnit.MILLISECONDS));
+    final GrpcClient grpcClient = mock(GrpcClient.class);
+    when(grpcClient.getEndpoints()).thenReturn(asList(slow, fast));
+    ContextHolder.attach(EmptyContext.getInstance().withValue(GRPC_CLIENT, grpcClient));
+
+    try {
+      // then
+      final Invocation<GrpcEndpoint> invocation =
+          strategy.apply(new TestInvocation<>(endpointReader));
+      assertNull(invocation.invoke());
+      assertEquals(1L, strategy.getHistogram(Methods.TRANSACTION_TXRECEIPT).getCount());
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
+  @Test
+  public void shouldNotHedgeNonIdempotentMethod() {
+    // given
+    final HedgingStrategy strategy = newWarmedUp();
+    final Invocation<Object> invocation = new TestInvocation<>(new RequestMethod<Object>() {
+      @Override
+      public String getName() {
+        return Methods.TRANSACTION_COMMIT;
+      }
+
+      @Override
+      protected Object runInternal(final List<Object> parameters) {
+        return null;
+      }
+    });
+
+    // then
+    assertSame(invocation, strategy.apply(invocation));
+  }
+
+}
@@ -4,14 +4,19 @@
 
 package hera.client;
 
+import static hera.client.ClientContextKeys.GRPC_VALUE_RETRY_BUDGET;
 import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 import hera.AbstractTestCase;
+import hera.ContextHolder;
+import hera.EmptyContext;
 import hera.RequestMethod;
 import hera.Response;
 import hera.api.model.Time;
+import io.grpc.Status;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -26,7 +31,7 @@ public class JustRetryFailoverHandlerTest extends AbstractTestCase {
     final int count = 5;
     final int stop = 2;
     final JustRetryFailoverHandler justRetryFailoverHandler = new JustRetryFailoverHandler(count,
-        Time.of(100L, TimeUnit.MILLISECONDS));
+        Time.of(10L, TimeUnit.MILLISECONDS));
     final AtomicInteger countDown = new AtomicInteger(count);
     final String expected = randomUUID().toString();
     final RequestMethod<Object> requestMethod = new RequestMethod<Object>() {
@@ -41,12 +46,12 @@ public class JustRetryFailoverHandlerTest extends AbstractTestCase {
           return expected;
         }
 
-        throw new UnsupportedOperationException();
+        throw Status.UNAVAILABLE.asRuntimeException();
       }
     };
 
     // then
-    final Response<Object> response = Response.fail(new UnsupportedOperationException());
+    final Response<Object> response = Response.fail(Status.UNAVAILABLE.asRuntimeException());
     final Response<Object> handled = justRetryFailoverHandler
         .handle(new TestInvocation<>(requestMethod), response);
     assertEquals(expected, handled.getValue());
@@ -58,7 +63,7 @@ public class JustRetryFailoverHandlerTest extends AbstractTestCase {
     // given
     final int count = 3;
     final JustRetryFailoverHandler justRetryFailoverHandler = new JustRetryFailoverHandler(count,
-        Time.of(100L, TimeUnit.MILLISECONDS));
+        Time.of(10L, TimeUnit.MILLISECONDS));
     final AtomicInteger countDown = new AtomicInteger(count);
     final RequestMethod<String> requestMethod = new RequestMethod<String>() {
 
@@ -86,7 +91,7 @@ public class JustRetryFailoverHandlerTest extends AbstractTestCase {
     // given
     final int count = 3;
     final JustRetryFailoverHandler justRetryFailoverHandler = new JustRetryFailoverHandler(count,
-        Time.of(100L, TimeUnit.MILLISECONDS));
+        Time.of(10L, TimeUnit.MILLISECONDS));
     final AtomicInteger countDown = new AtomicInteger(count);
     final RequestMethod<Object> requestMethod = new RequestMethod<Object>() {
 
@@ -96,16 +101,77 @@ public class JustRetryFailoverHandlerTest extends AbstractTestCase {
       @Override
       protected Object runInternal(List<Object> parameters) throws Exception {
         countDown.decrementAndGet();
-        throw new UnsupportedOperationException();
+        throw Status.UNAVAILABLE.asRuntimeException();
       }
     };
 
     // then
-    final Response<Object> response = Response.fail(new UnsupportedOperationException());
+    final Response<Object> response = Response.fail(Status.UNAVAILABLE.asRuntimeException());
     final Response<Object> handled = justRetryFailoverHandler
         .handle(new TestInvocation<>(requestMethod), response);
     assertNotNull(handled.getError());
     assertEquals(0, countDown.get());
   }
 
+  @Test
+  public void shouldNotRetryOnNonRetryableError() {
+    // given
+    final int count = 3;
+    final JustRetryFailoverHandler justRetryFailoverHandler = new JustRetryFailoverHandler(count,
+        Time.of(10L, TimeUnit.MILLISECONDS));
+    final AtomicInteger countDown = new AtomicInteger(count);
+    final RequestMethod<Object> requestMethod = new RequestMethod<Object>() {
+
+      @Getter
+      protected final String name = randomUUID().toString();
+
+      @Override
+      protected Object runInternal(List<Object> parameters) throws Exception {
+        countDown.decrementAndGet();
+        throw Status.INVALID_ARGUMENT.asRuntimeException();
+      }
+    };
+
+    // then
+    final Response<Object> response = Response.fail(Status.INVALID_ARGUMENT.asRuntimeException());
+    final Response<Object> handled = justRetryFailoverHandler
+        .handle(new TestInvocation<>(requestMethod), response);
+    assertSame(response.getError(), handled.getError());
+    assertEquals(count, countDown.get());
+  }
+
+  @Test
+  public void shouldStopOnRetryBudgetExhausted() {
+    // given
+    final int count = 5;
+    final int budget = 2;
+    final JustRetryFailoverHandler justRetryFailoverHandler = new JustRetryFailoverHandler(count,
+        Time.of(10L, TimeUnit.MILLISECONDS));
+    final AtomicInteger countDown = new AtomicInteger(count);
+    final RequestMethod<Object> requestMethod = new RequestMethod<Object>() {
+
+      @Getter
+      protected final String name = randomUUID().toString();
+
+      @Override
+      protected Object runInternal(List<Object> parameters) throws Exception {
+        countDown.decrementAndGet();
+        throw Status.UNAVAILABLE.asRuntimeException();
+      }
+    };
+    ContextHolder.attach(EmptyContext.getInstance()
+        .withValue(GRPC_VALUE_RETRY_BUDGET, new RetryBudget(0.1d, budget)));
+
+    // then
+    try {
+      final Response<Object> response = Response.fail(Status.UNAVAILABLE.asRuntimeException());
+      final Response<Object> handled = justRetryFailoverHandler
+          .handle(new TestInvocation<>(requestMethod), response);
+      assertNotNull(handled.getError());
+      assertEquals(count - budget, countDown.get());
+    } finally {
+      ContextHolder.remove();
+    }
+  }
+
 }
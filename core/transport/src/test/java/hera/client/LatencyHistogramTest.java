@@ -0,0 +1,72 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class LatencyHistogramTest extends AbstractTestCase {
+
+  @Test
+  public void shouldBucketContinuously() {
+    for (long micros = 0L; micros < 100_000L; ++micros) {
+      final int index = LatencyHistogram.indexOf(micros);
+      assertTrue(LatencyHistogram.lowerBoundOf(index) <= micros);
+      assertTrue(micros < LatencyHistogram.lowerBoundOf(index + 1));
+    }
+  }
+
+  @Test
+  public void testGetPercentile() {
+    // given
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1L; i <= 1000L; ++i) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+    }
+
+    // then
+    assertEquals(1000L, histogram.getCount());
+    final long median = TimeUnit.NANOSECONDS.toMillis(histogram.getPercentile(0.5d));
+    assertTrue(500L <= median && median <= 505L);
+    final long p99 = TimeUnit.NANOSECONDS.toMillis(histogram.getPercentile(0.99d));
+    assertTrue(990L <= p99 && p99 <= 1000L);
+    assertEquals(-1L, new LatencyHistogram().getPercentile(0.5d));
+  }
+
+  @Test
+  public void shouldDecay() {
+    // given
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 0L; i < LatencyHistogram.DECAY_INTERVAL; ++i) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(1L));
+    }
+
+    // then
+    assertEquals(LatencyHistogram.DECAY_INTERVAL / 2, histogram.getCount());
+  }
+
+  @Test
+  public void shouldRefreshCachedPercentile() {
+    // given
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 0L; i < 40L; ++i) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(1L));
+    }
+    final long fast = histogram.getPercentile(0.9d);
+
+    // then
+    for (long i = 1L; i < LatencyHistogram.REFRESH_INTERVAL; ++i) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(100L));
+    }
+    assertEquals(fast, histogram.getPercentile(0.9d));
+    histogram.record(TimeUnit.MILLISECONDS.toNanos(100L));
+    assertTrue(100L <= TimeUnit.NANOSECONDS.toMillis(histogram.getPercentile(0.9d)));
+  }
+
+}
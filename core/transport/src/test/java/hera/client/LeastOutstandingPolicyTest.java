@@ -0,0 +1,58 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import hera.AbstractTestCase;
+import hera.api.model.HostnameAndPort;
+import io.grpc.Status;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class LeastOutstandingPolicyTest extends AbstractTestCase {
+
+  @Test
+  public void shouldSelectLeastOutstanding() {
+    // given
+    final GrpcEndpoint busy = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+    final GrpcEndpoint idle = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+    busy.onStart();
+    busy.onStart();
+    idle.onStart();
+    final List<GrpcEndpoint> endpoints = asList(busy, idle);
+    final LoadBalancePolicy policy = new LeastOutstandingPolicy();
+
+    // then
+    for (int i = 0; i < 10; ++i) {
+      assertSame(idle, policy.select(endpoints));
+    }
+    busy.onComplete(1000L, Status.OK);
+    busy.onComplete(1000L, Status.OK);
+    assertSame(busy, policy.select(endpoints));
+  }
+
+  @Test
+  public void shouldSpreadOnTie() {
+    // given
+    final List<GrpcEndpoint> endpoints = asList(
+        new GrpcEndpoint(HostnameAndPort.of("node1:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node2:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node3:7845")));
+    final LoadBalancePolicy policy = new LeastOutstandingPolicy();
+
+    // then
+    final Set<GrpcEndpoint> selected = new HashSet<>();
+    for (int i = 0; i < endpoints.size(); ++i) {
+      selected.add(policy.select(endpoints));
+    }
+    assertEquals(endpoints.size(), selected.size());
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import hera.AbstractTestCase;
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.exception.CommitException;
+import io.grpc.Status;
+import java.util.List;
+import org.junit.Test;
+import types.Rpc;
+
+public class MetricsStrategyTest extends AbstractTestCase {
+
+  protected final DefaultMetricsRecorder recorder = new DefaultMetricsRecorder();
+
+  protected final MetricsStrategy strategy = new MetricsStrategy(recorder);
+
+  protected Invocation<String> newInvocation(final Exception error) {
+    return strategy.apply(new TestInvocation<>(new RequestMethod<String>() {
+      @Override
+      public String getName() {
+        return Methods.BLOCK_BY_HEIGHT;
+      }
+
+      @Override
+      protected String runInternal(final List<Object> parameters) throws Exception {
+        if (null != error) {
+          throw error;
+        }
+        return "done";
+      }
+    }));
+  }
+
+  @Test
+  public void shouldRecordEveryAttempt() throws Exception {
+    // given
+    newInvocation(null).invoke();
+    newInvocation(null).invoke();
+    final Exception[] errors = {Status.UNAVAILABLE.asRuntimeException(),
+        new CommitException(Rpc.CommitStatus.TX_NONCE_TOO_LOW, "nonce too low")};
+    for (final Exception error : errors) {
+      try {
+        newInvocation(error).invoke();
+        fail();
+      } catch (Exception e) {
+        // good we expected this
+      }
+    }
+
+    // then
+    final MethodStats stats = recorder.getSnapshot().getMethodStats(Methods.BLOCK_BY_HEIGHT);
+    assertEquals(4L, stats.getRequestCount());
+    assertEquals(2L, stats.getFailureCount());
+    assertEquals(0L, stats.getInFlight());
+    assertEquals(Long.valueOf(1L), stats.getStatusErrorCounts().get("UNAVAILABLE"));
+    assertEquals(Long.valueOf(1L), stats.getCommitErrorCounts().get("NONCE_TOO_LOW"));
+    assertTrue(0L <= stats.getP50Latency());
+    assertTrue(stats.getP50Latency() <= stats.getP999Latency());
+  }
+
+}
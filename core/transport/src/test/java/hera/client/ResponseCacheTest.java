@@ -0,0 +1,107 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import hera.AbstractTestCase;
+import hera.api.model.Block;
+import hera.api.model.BlockMetadata;
+import hera.api.model.Transaction;
+import hera.api.model.TxReceipt;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class ResponseCacheTest extends AbstractTestCase {
+
+  protected final BlockMetadata anyMetadata = BlockMetadata.newBuilder().build();
+
+  @Test
+  public void shouldCountHitAndMiss() {
+    // given
+    final ResponseCache cache = new ResponseCache(1024L * 1024L);
+    final List<Object> parameters = singletonList((Object) anyBlockHash);
+
+    // then
+    assertNull(cache.get(Methods.BLOCK_METADATA_BY_HASH, parameters));
+    cache.put(Methods.BLOCK_METADATA_BY_HASH, parameters, anyMetadata);
+    assertSame(anyMetadata, cache.get(Methods.BLOCK_METADATA_BY_HASH, parameters));
+    // same parameters of another method
+    assertNull(cache.get(Methods.BLOCK_BY_HASH, parameters));
+
+    final CacheStats stats = cache.getStats();
+    assertEquals(1L, stats.getHitCount());
+    assertEquals(2L, stats.getMissCount());
+    assertEquals(1, stats.getSize());
+    assertEquals(1.0d / 3.0d, stats.getHitRate(), 0.0001d);
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedOverMaxWeight() {
+    // given
+    final ResponseCache cache = new ResponseCache(3 * ResponseCache.BLOCK_HEADER_WEIGHT);
+    final List<Object> first = singletonList((Object) "first");
+    final List<Object> second = singletonList((Object) "second");
+    final List<Object> third = singletonList((Object) "third");
+    final List<Object> fourth = singletonList((Object) "fourth");
+    cache.put(Methods.BLOCK_METADATA_BY_HASH, first, anyMetadata);
+    cache.put(Methods.BLOCK_METADATA_BY_HASH, second, anyMetadata);
+    cache.put(Methods.BLOCK_METADATA_BY_HASH, third, anyMetadata);
+
+    // when
+    cache.get(Methods.BLOCK_METADATA_BY_HASH, first);
+    cache.put(Methods.BLOCK_METADATA_BY_HASH, fourth, anyMetadata);
+
+    // then
+    assertSame(anyMetadata, cache.get(Methods.BLOCK_METADATA_BY_HASH, first));
+    assertNull(cache.get(Methods.BLOCK_METADATA_BY_HASH, second));
+    assertSame(anyMetadata, cache.get(Methods.BLOCK_METADATA_BY_HASH, fourth));
+    final CacheStats stats = cache.getStats();
+    assertEquals(1L, stats.getEvictionCount());
+    assertEquals(3 * ResponseCache.BLOCK_HEADER_WEIGHT, stats.getWeight());
+  }
+
+  @Test
+  public void shouldWeighBlockBySerializedSize() {
+    // given
+    final ResponseCache cache = new ResponseCache(1L << 20);
+    final Block block = Block.newBuilder()
+        .transactions(Collections.<Transaction>nCopies(2, anyTransaction))
+        .serializedSize(100000L)
+        .build();
+
+    // when
+    cache.put(Methods.BLOCK_BY_HASH, singletonList((Object) anyBlockHash), block);
+
+    // then
+    assertEquals(100000L, cache.getStats().getWeight());
+    assertEquals(ResponseCache.BLOCK_HEADER_WEIGHT + 2 * ResponseCache.TX_WEIGHT,
+        ResponseCache.weighBlock(Block.newBuilder()
+            .transactions(Collections.<Transaction>nCopies(2, anyTransaction))
+            .build()));
+  }
+
+  @Test
+  public void shouldNotCacheHeavierThanMaxWeight() {
+    // given
+    final ResponseCache cache = new ResponseCache(ResponseCache.RECEIPT_WEIGHT);
+    final List<Object> parameters = singletonList((Object) anyTxHash);
+    final TxReceipt heavy = TxReceipt.newBuilder()
+        .result(new String(new char[1024]))
+        .build();
+
+    // when
+    cache.put(Methods.TRANSACTION_TXRECEIPT, parameters, heavy);
+
+    // then
+    assertNull(cache.get(Methods.TRANSACTION_TXRECEIPT, parameters));
+    assertEquals(0L, cache.getStats().getWeight());
+  }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.function.Function2;
+import hera.api.model.FlowControlledSubscription;
+import hera.api.model.StreamObserver;
+import hera.api.model.Time;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Test;
+
+public class ResumableBlockSubscriptionTest extends AbstractTestCase {
+
+  protected final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+
+  protected final RetryPolicy retryPolicy = new RetryPolicy(Integer.MAX_VALUE,
+      Time.of(1L, TimeUnit.MILLISECONDS), Time.of(1L, TimeUnit.MILLISECONDS),
+      RetryPolicy.DEFAULT_RETRYABLE_CODES);
+
+  protected final BlockingQueue<StreamObserver<Long>> streams = new LinkedBlockingQueue<>();
+
+  protected final List<LiveStream> opened = new ArrayList<>();
+
+  // runs a backfill on a calling thread unless held
+  protected final List<Runnable> heldBackfills = new ArrayList<>();
+
+  protected boolean holdBackfill = false;
+
+  protected final Executor backfiller = new Executor() {
+    @Override
+    public void execute(final Runnable command) {
+      if (holdBackfill) {
+        heldBackfills.add(command);
+      } else {
+        command.run();
+      }
+    }
+  };
+
+  protected final List<Long> received = new ArrayList<>();
+
+  protected final List<Throwable> errors = new ArrayList<>();
+
+  protected final StreamObserver<Long> observer = new StreamObserver<Long>() {
+    @Override
+    public void onNext(final Long value) {
+      received.add(value);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      errors.add(t);
+    }
+
+    @Override
+    public void onCompleted() {
+    }
+  };
+
+  protected static class LiveStream implements FlowControlledSubscription<Long> {
+
+    protected final AtomicLong requested = new AtomicLong(0L);
+
+    protected volatile boolean unsubscribed = false;
+
+    @Override
+    public void request(final long count) {
+      requested.addAndGet(count);
+    }
+
+    @Override
+    public void unsubscribe() {
+      unsubscribed = true;
+    }
+
+    @Override
+    public boolean isUnsubscribed() {
+      return unsubscribed;
+    }
+  }
+
+  protected final Function1<StreamObserver<Long>, FlowControlledSubscription<Long>> subscriber =
+      new Function1<StreamObserver<Long>, FlowControlledSubscription<Long>>() {
+        @Override
+        public FlowControlledSubscription<Long> apply(final StreamObserver<Long> live) {
+          final LiveStream stream = new LiveStream();
+          synchronized (opened) {
+            opened.add(stream);
+          }
+          streams.add(live);
+          return stream;
+        }
+      };
+
+  protected final Function2<Long, Long, List<Long>> rangeFetcher =
+      new Function2<Long, Long, List<Long>>() {
+        @Override
+        public List<Long> apply(final Long from, final Long to) {
+          final List<Long> heights = new ArrayList<>();
+          for (long height = from; height <= to; ++height) {
+            heights.add(height);
+          }
+          return heights;
+        }
+      };
+
+  protected final Function1<Long, Long> identity = new Function1<Long, Long>() {
+    @Override
+    public Long apply(final Long height) {
+      return height;
+    }
+  };
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  protected ResumableBlockSubscription<Long> subscribe(final long fromHeight) {
+    final ResumableBlockSubscription<Long> subscription = new ResumableBlockSubscription<>(
+        observer, fromHeight, subscriber, rangeFetcher, identity, retryPolicy, scheduler,
+        backfiller);
+    subscription.start();
+    return subscription;
+  }
+
+  // a live stream delivers nothing until requested
+  protected void awaitRequested(final LiveStream stream) throws InterruptedException {
+    while (0L == stream.requested.get()) {
+      Thread.sleep(1L);
+    }
+  }
+
+  @Test
+  public void shouldBackfillGapAndDropDuplicate() throws Exception {
+    // given
+    final ResumableBlockSubscription<Long> subscription = subscribe(3L);
+    final StreamObserver<Long> live = streams.take();
+
+    // then
+    live.onNext(6L);
+    live.onNext(6L);
+    live.onNext(7L);
+    assertEquals(Arrays.asList(3L, 4L, 5L, 6L, 7L), received);
+    assertEquals(7L, subscription.getLastHeight());
+  }
+
+  @Test
+  public void shouldNotRequestLiveBlockWhileBackfilling() throws Exception {
+    // given
+    holdBackfill = true;
+    subscribe(3L);
+    final StreamObserver<Long> live = streams.take();
+    final LiveStream stream = opened.get(0);
+    assertEquals(1L, stream.requested.get());
+
+    // then
+    live.onNext(6L);
+    assertTrue(received.isEmpty());
+    assertEquals(1, heldBackfills.size());
+    assertEquals(1L, stream.requested.get());
+    heldBackfills.get(0).run();
+    assertEquals(Arrays.asList(3L, 4L, 5L, 6L), received);
+    assertEquals(2L, stream.requested.get());
+  }
+
+  @Test
+  public void shouldCloseStreamOpenedAfterResume() throws Exception {
+    // given
+    final ResumableBlockSubscription<Long> subscription = new ResumableBlockSubscription<>(
+        observer, -1L, new Function1<StreamObserver<Long>, FlowControlledSubscription<Long>>() {
+          @Override
+          public FlowControlledSubscription<Long> apply(final StreamObserver<Long> live) {
+            final FlowControlledSubscription<Long> stream = subscriber.apply(live);
+            if (1 == opened.size()) {
+              // broken before a stream is returned
+              live.onError(Status.UNAVAILABLE.asRuntimeException());
+            }
+            return stream;
+          }
+        }, rangeFetcher, identity, retryPolicy, scheduler, backfiller);
+    subscription.start();
+
+    // then
+    streams.take();
+    assertNotNull(streams.poll(5L, TimeUnit.SECONDS));
+    awaitRequested(opened.get(1));
+    assertTrue(opened.get(0).isUnsubscribed());
+    assertEquals(0L, opened.get(0).requested.get());
+    subscription.unsubscribe();
+    assertTrue(opened.get(1).isUnsubscribed());
+  }
+
+  @Test
+  public void shouldStartFromNextNewBlock() throws Exception {
+    // given
+    subscribe(-1L);
+    final StreamObserver<Long> live = streams.take();
+
+    // then
+    live.onNext(10L);
+    live.onNext(11L);
+    assertEquals(Arrays.asList(10L, 11L), received);
+  }
+
+  @Test
+  public void shouldResumeOnConnectionError() throws Exception {
+    // given
+    subscribe(-1L);
+    final StreamObserver<Long> broken = streams.take();
+    broken.onNext(1L);
+    broken.onError(Status.UNAVAILABLE.asRuntimeException());
+
+    // then
+    final StreamObserver<Long> resumed = streams.poll(5L, TimeUnit.SECONDS);
+    assertNotNull(resumed);
+    awaitRequested(opened.get(1));
+    broken.onNext(2L);
+    resumed.onNext(4L);
+    resumed.onNext(5L);
+    assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), received);
+    assertTrue(errors.isEmpty());
+  }
+
+  @Test
+  public void shouldStopOnNonRetryableError() throws Exception {
+    // given
+    final ResumableBlockSubscription<Long> subscription = subscribe(-1L);
+    final StreamObserver<Long> live = streams.take();
+
+    // then
+    live.onError(Status.INVALID_ARGUMENT.asRuntimeException());
+    assertEquals(1, errors.size());
+    assertTrue(subscription.isUnsubscribed());
+    assertTrue(streams.isEmpty());
+  }
+
+}
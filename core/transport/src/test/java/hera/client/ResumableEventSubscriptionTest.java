@@ -0,0 +1,330 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function0;
+import hera.api.function.Function1;
+import hera.api.function.Function2;
+import hera.api.model.BytesValue;
+import hera.api.model.CloseableIterator;
+import hera.api.model.Event;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Time;
+import hera.api.model.TxHash;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Test;
+
+public class ResumableEventSubscriptionTest extends AbstractTestCase {
+
+  protected final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+
+  // replays on a caller and signals an end of it
+  protected final Semaphore replayed = new Semaphore(0);
+
+  protected final Executor replayer = new Executor() {
+    @Override
+    public void execute(final Runnable command) {
+      command.run();
+      replayed.release();
+    }
+  };
+
+  protected final RetryPolicy retryPolicy = new RetryPolicy(Integer.MAX_VALUE,
+      Time.of(1L, TimeUnit.MILLISECONDS), Time.of(1L, TimeUnit.MILLISECONDS),
+      RetryPolicy.DEFAULT_RETRYABLE_CODES);
+
+  protected final BlockingQueue<StreamObserver<Event>> streams = new LinkedBlockingQueue<>();
+
+  protected final AtomicLong bestHeight = new AtomicLong(0L);
+
+  // an event of index 0 at every block. a block number is a sequence of a tx hash
+  protected final List<Event> chain = new ArrayList<>();
+
+  protected final List<Long> received = new ArrayList<>();
+
+  protected final List<Throwable> errors = new ArrayList<>();
+
+  // a delivery during which a live stream breaks
+  protected Runnable onReceived = null;
+
+  protected final StreamObserver<Event> observer = new StreamObserver<Event>() {
+    @Override
+    public void onNext(final Event value) {
+      received.add(value.getBlockNumber());
+      if (null != onReceived) {
+        final Runnable receiving = onReceived;
+        onReceived = null;
+        receiving.run();
+      }
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      errors.add(t);
+    }
+
+    @Override
+    public void onCompleted() {
+    }
+  };
+
+  protected final Function1<StreamObserver<Event>, Subscription<Event>> subscriber =
+      new Function1<StreamObserver<Event>, Subscription<Event>>() {
+        @Override
+        public Subscription<Event> apply(final StreamObserver<Event> live) {
+          streams.add(live);
+          return new Subscription<Event>() {
+            @Override
+            public void unsubscribe() {
+            }
+
+            @Override
+            public boolean isUnsubscribed() {
+              return false;
+            }
+          };
+        }
+      };
+
+  // a listing during which a live stream gets new events
+  protected Runnable onListing = null;
+
+  protected final AtomicInteger listed = new AtomicInteger(0);
+
+  protected final AtomicInteger closed = new AtomicInteger(0);
+
+  protected final Function2<Long, Long, CloseableIterator<Event>> rangeLister =
+      new Function2<Long, Long, CloseableIterator<Event>>() {
+        @Override
+        public CloseableIterator<Event> apply(final Long from, final Long to) {
+          final List<Event> events = new ArrayList<>();
+          for (long height = from; height <= to; ++height) {
+            events.add(eventAt(height));
+          }
+          if (null != onListing) {
+            final Runnable listing = onListing;
+            onListing = null;
+            listing.run();
+          }
+          listed.incrementAndGet();
+          final Iterator<Event> it = events.iterator();
+          return new CloseableIterator<Event>() {
+            protected boolean open = true;
+
+            @Override
+            public boolean hasNext() {
+              return open && it.hasNext();
+            }
+
+            @Override
+            public Event next() {
+              return it.next();
+            }
+
+            @Override
+            public void close() {
+              if (open) {
+                open = false;
+                closed.incrementAndGet();
+              }
+            }
+          };
+        }
+      };
+
+  protected final Function0<Long> bestHeightSupplier = new Function0<Long>() {
+    @Override
+    public Long apply() {
+      return bestHeight.get();
+    }
+  };
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  protected Event eventAt(final long height) {
+    while (chain.size() <= height) {
+      chain.add(Event.newBuilder()
+          .txHash(TxHash.of(BytesValue.of(("tx" + chain.size()).getBytes())))
+          .blockNumber(chain.size())
+          .build());
+    }
+    return chain.get((int) height);
+  }
+
+  protected ResumableEventSubscription subscribe(final long fromBlockNumber) {
+    return subscribe(fromBlockNumber, ResumableEventSubscription.DEFAULT_MAX_HELD_EVENTS);
+  }
+
+  protected ResumableEventSubscription subscribe(final long fromBlockNumber,
+      final int maxHeldEvents) {
+    final ResumableEventSubscription subscription = new ResumableEventSubscription(observer,
+        fromBlockNumber, subscriber, rangeLister, bestHeightSupplier, retryPolicy, scheduler,
+        replayer, maxHeldEvents);
+    subscription.start();
+    return subscription;
+  }
+
+  @Test
+  public void shouldReplayThenGoLiveWithoutDuplicate() throws Exception {
+    // given
+    bestHeight.set(5L);
+    onListing = new Runnable() {
+      @Override
+      public void run() {
+        // overlaps a replay
+        final StreamObserver<Event> live = streams.peek();
+        live.onNext(eventAt(5L));
+        live.onNext(eventAt(6L));
+      }
+    };
+    final ResumableEventSubscription subscription = subscribe(2L);
+    final StreamObserver<Event> live = streams.take();
+
+    // then
+    live.onNext(eventAt(6L));
+    live.onNext(eventAt(7L));
+    assertEquals(Arrays.asList(2L, 3L, 4L, 5L, 6L, 7L), received);
+    assertEquals(7L, subscription.getResumeHeight());
+  }
+
+  @Test
+  public void shouldBackfillGapBeforeFirstLiveEvent() throws Exception {
+    // given
+    bestHeight.set(3L);
+    subscribe(1L);
+    final StreamObserver<Event> live = streams.take();
+
+    // then
+    live.onNext(eventAt(6L));
+    assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L), received);
+  }
+
+  @Test
+  public void shouldHoldLiveEventsDuringBackfill() throws Exception {
+    // given
+    bestHeight.set(3L);
+    subscribe(1L);
+    final StreamObserver<Event> live = streams.take();
+    assertTrue(replayed.tryAcquire(1, 5L, TimeUnit.SECONDS));
+    onListing = new Runnable() {
+      @Override
+      public void run() {
+        // held during a backfill
+        live.onNext(eventAt(7L));
+        assertEquals(3L, received.get(received.size() - 1).longValue());
+      }
+    };
+
+    // then
+    live.onNext(eventAt(6L));
+    assertTrue(replayed.tryAcquire(1, 5L, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L), received);
+  }
+
+  @Test
+  public void shouldResumeFromLastDeliveredEvent() throws Exception {
+    // given
+    bestHeight.set(2L);
+    subscribe(0L);
+    final StreamObserver<Event> broken = streams.take();
+    broken.onNext(eventAt(3L));
+    bestHeight.set(5L);
+    broken.onError(Status.UNAVAILABLE.asRuntimeException());
+
+    // then
+    final StreamObserver<Event> resumed = streams.poll(5L, TimeUnit.SECONDS);
+    assertNotNull(resumed);
+    assertTrue(replayed.tryAcquire(2, 5L, TimeUnit.SECONDS));
+    broken.onNext(eventAt(4L));
+    resumed.onNext(eventAt(5L));
+    resumed.onNext(eventAt(6L));
+    assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L, 6L), received);
+    assertTrue(errors.isEmpty());
+  }
+
+  @Test
+  public void shouldStopOnNonRetryableError() throws Exception {
+    // given
+    final ResumableEventSubscription subscription = subscribe(0L);
+    final StreamObserver<Event> live = streams.take();
+
+    // then
+    live.onError(Status.INVALID_ARGUMENT.asRuntimeException());
+    assertEquals(1, errors.size());
+    assertTrue(subscription.isUnsubscribed());
+  }
+
+  @Test
+  public void shouldReplayAgainOnHeldOverflow() throws Exception {
+    // given
+    bestHeight.set(3L);
+    onListing = new Runnable() {
+      @Override
+      public void run() {
+        // more than held during a replay
+        final StreamObserver<Event> live = streams.peek();
+        bestHeight.set(7L);
+        for (long height = 4L; height <= 7L; ++height) {
+          live.onNext(eventAt(height));
+        }
+      }
+    };
+    subscribe(0L, 2);
+    final StreamObserver<Event> dropped = streams.take();
+    final StreamObserver<Event> live = streams.take();
+
+    // then
+    dropped.onNext(eventAt(8L));
+    live.onNext(eventAt(8L));
+    assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), received);
+    assertEquals(listed.get(), closed.get());
+  }
+
+  @Test
+  public void shouldCloseReplayAbandonedByResume() throws Exception {
+    // given
+    bestHeight.set(5L);
+    onReceived = new Runnable() {
+      @Override
+      public void run() {
+        // breaks in the middle of a replay
+        streams.peek().onError(Status.UNAVAILABLE.asRuntimeException());
+      }
+    };
+    final ResumableEventSubscription subscription = subscribe(0L);
+    streams.take();
+
+    // then
+    assertNotNull(streams.poll(5L, TimeUnit.SECONDS));
+    assertTrue(replayed.tryAcquire(2, 5L, TimeUnit.SECONDS));
+    subscription.unsubscribe();
+    assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L), received);
+    assertEquals(2, listed.get());
+    assertEquals(listed.get(), closed.get());
+  }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import org.junit.Test;
+
+public class RetryBudgetTest extends AbstractTestCase {
+
+  @Test
+  public void shouldDrainAndRefillBySuccess() {
+    // given
+    final RetryBudget retryBudget = new RetryBudget(0.5d, 3);
+
+    // then
+    for (int i = 0; i < 3; ++i) {
+      assertTrue(retryBudget.tryAcquire());
+    }
+    assertFalse(retryBudget.tryAcquire());
+
+    retryBudget.onSuccess();
+    assertFalse(retryBudget.tryAcquire());
+    retryBudget.onSuccess();
+    assertTrue(retryBudget.tryAcquire());
+  }
+
+  @Test
+  public void shouldNotOverMaxTokens() {
+    // given
+    final RetryBudget retryBudget = new RetryBudget(1.0d, 3);
+
+    // then
+    for (int i = 0; i < 10; ++i) {
+      retryBudget.onSuccess();
+    }
+    assertEquals(3, retryBudget.getTokens());
+  }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.model.Time;
+import hera.exception.HerajException;
+import io.grpc.Status;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class RetryPolicyTest extends AbstractTestCase {
+
+  @Test
+  public void shouldKeepDelayInBound() {
+    // given
+    final RetryPolicy retryPolicy = new RetryPolicy(10, Time.of(100L, TimeUnit.MILLISECONDS),
+        Time.of(1000L, TimeUnit.MILLISECONDS), RetryPolicy.DEFAULT_RETRYABLE_CODES);
+
+    // then
+    long delay = retryPolicy.getBaseDelay();
+    for (int i = 0; i < 100; ++i) {
+      final long next = retryPolicy.nextDelay(delay);
+      assertTrue(retryPolicy.getBaseDelay() <= next);
+      assertTrue(next <= Math.min(retryPolicy.getMaxDelay(), 3L * delay));
+      delay = next;
+    }
+  }
+
+  @Test
+  public void shouldCapDefaultMaxDelay() {
+    // given
+    final RetryPolicy retryPolicy = RetryPolicy.of(3, Time.of(10L, TimeUnit.SECONDS));
+
+    // then
+    assertEquals(TimeUnit.SECONDS.toMillis(30L), retryPolicy.getMaxDelay());
+  }
+
+  @Test
+  public void testIsRetryable() {
+    // given
+    final RetryPolicy retryPolicy = RetryPolicy.of(3, Time.of(10L, TimeUnit.MILLISECONDS));
+
+    // then
+    assertTrue(retryPolicy.isRetryable(Status.UNAVAILABLE.asRuntimeException()));
+    assertTrue(retryPolicy.isRetryable(new HerajException(Status.ABORTED.asException())));
+    assertFalse(retryPolicy.isRetryable(Status.INVALID_ARGUMENT.asRuntimeException()));
+    assertFalse(retryPolicy.isRetryable(Status.DEADLINE_EXCEEDED.asRuntimeException()));
+    assertFalse(retryPolicy.isRetryable(Status.RESOURCE_EXHAUSTED.asRuntimeException()));
+    assertFalse(retryPolicy.isRetryable(new UnsupportedOperationException()));
+  }
+
+}
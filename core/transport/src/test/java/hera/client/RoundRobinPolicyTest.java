@@ -0,0 +1,32 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertSame;
+
+import hera.AbstractTestCase;
+import hera.api.model.HostnameAndPort;
+import java.util.List;
+import org.junit.Test;
+
+public class RoundRobinPolicyTest extends AbstractTestCase {
+
+  @Test
+  public void testSelect() {
+    // given
+    final List<GrpcEndpoint> endpoints = asList(
+        new GrpcEndpoint(HostnameAndPort.of("node1:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node2:7845")),
+        new GrpcEndpoint(HostnameAndPort.of("node3:7845")));
+    final LoadBalancePolicy policy = new RoundRobinPolicy();
+
+    // then
+    for (int i = 0; i < 2 * endpoints.size(); ++i) {
+      assertSame(endpoints.get(i % endpoints.size()), policy.select(endpoints));
+    }
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.Response;
+import hera.api.function.Function0;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SingleFlightTest extends AbstractTestCase {
+
+  @Test
+  public void shouldShareInFlightRequest() throws Exception {
+    // given
+    final int callers = 8;
+    final SingleFlight singleFlight = new SingleFlight();
+    final AtomicInteger requested = new AtomicInteger(0);
+    final CountDownLatch started = new CountDownLatch(callers);
+    final CountDownLatch release = new CountDownLatch(1);
+    final Object expected = new Object();
+    final Function0<Response<Object>> request = new Function0<Response<Object>>() {
+      @Override
+      public Response<Object> apply() {
+        requested.incrementAndGet();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return Response.success(expected);
+      }
+    };
+    final ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+    try {
+      final List<Future<Response<Object>>> futures = new ArrayList<>();
+      for (int i = 0; i < callers; ++i) {
+        futures.add(executor.submit(new Callable<Response<Object>>() {
+          @Override
+          public Response<Object> call() throws Exception {
+            started.countDown();
+            return singleFlight.execute("method", asList((Object) "key", 1), null,
+                request);
+          }
+        }));
+      }
+      // let all of them join
+      started.await();
+      Thread.sleep(200L);
+      release.countDown();
+
+      // then
+      for (final Future<Response<Object>> future : futures) {
+        assertSame(expected, future.get(3L, TimeUnit.SECONDS).getValue());
+      }
+      assertEquals(1, requested.get());
+      assertEquals(0, singleFlight.getInFlight());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldNotShareCompletedOne() throws Exception {
+    // given
+    final SingleFlight singleFlight = new SingleFlight();
+    final AtomicInteger requested = new AtomicInteger(0);
+    final Function0<Response<Integer>> request = new Function0<Response<Integer>>() {
+      @Override
+      public Response<Integer> apply() {
+        return Response.success(requested.incrementAndGet());
+      }
+    };
+
+    // then
+    final List<Object> parameters = singletonList((Object) "key");
+    assertEquals(1, singleFlight.execute("method", parameters, null, request).getValue()
+        .intValue());
+    assertEquals(2, singleFlight.execute("method", parameters, null, request).getValue()
+        .intValue());
+    assertEquals(3, singleFlight.execute("other", parameters, null, request).getValue()
+        .intValue());
+  }
+
+  @Test
+  public void shouldWaitWithOwnDeadline() throws Exception {
+    // given
+    final SingleFlight singleFlight = new SingleFlight();
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final Function0<Response<Object>> request = new Function0<Response<Object>>() {
+      @Override
+      public Response<Object> apply() {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return Response.success(new Object());
+      }
+    };
+    final List<Object> parameters = singletonList((Object) "key");
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      final Future<Response<Object>> leader = executor.submit(new Callable<Response<Object>>() {
+        @Override
+        public Response<Object> call() throws Exception {
+          return singleFlight.execute("method", parameters, null, request);
+        }
+      });
+      started.await();
+      final Response<Object> joined = singleFlight.execute("method", parameters,
+          Deadline.after(100L, TimeUnit.MILLISECONDS), request);
+
+      // then
+      assertTrue(joined.getError() instanceof StatusRuntimeException);
+      assertEquals(Status.Code.DEADLINE_EXCEEDED,
+          ((StatusRuntimeException) joined.getError()).getStatus().getCode());
+      assertFalse(leader.isDone());
+      release.countDown();
+      assertNotNull(leader.get(3L, TimeUnit.SECONDS).getValue());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_FAILOVER_HANDLER_CHAIN;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ATTEMPT_TRACE;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TRACING;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.ContextHolder;
+import hera.EmptyContext;
+import hera.FailoverHandler;
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.Requester;
+import hera.Response;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Test;
+
+public class TracingStrategyTest extends AbstractTestCase {
+
+  protected final List<RequestTrace> traces = new ArrayList<>();
+
+  protected final RequestTracer tracer = new RequestTracer() {
+    @Override
+    public void onTrace(final RequestTrace trace) {
+      traces.add(trace);
+    }
+  };
+
+  // retries once
+  protected final FailoverHandler retryOnce = new FailoverHandler() {
+    @Override
+    public <T> Response<T> handle(final Invocation<T> invocation, final Response<T> response) {
+      try {
+        return Response.success(invocation.invoke());
+      } catch (Exception e) {
+        return Response.fail(e);
+      }
+    }
+  };
+
+  // fails on the first attempt and marks a call as an interceptor does
+  protected final RequestMethod<String> requestMethod = new TracedRequestMethod<String>() {
+    protected int attempts = 0;
+
+    @Override
+    public String getName() {
+      return Methods.BLOCK_BY_HEIGHT;
+    }
+
+    @Override
+    protected String runInternal(final List<Object> parameters) throws Exception {
+      final AttemptTrace attempt = ContextHolder.current().get(GRPC_REQUEST_ATTEMPT_TRACE);
+      if (null != attempt) {
+        attempt.onCallStarted();
+        attempt.onStreamCreated();
+        attempt.onClosed();
+      }
+      if (0 == attempts++) {
+        throw Status.UNAVAILABLE.asRuntimeException();
+      }
+      return "done";
+    }
+  };
+
+  @After
+  public void tearDown() {
+    ContextHolder.remove();
+  }
+
+  protected void attachTracing(final TraceSampler traceSampler) {
+    ContextHolder.attach(EmptyContext.getInstance()
+        .withValue(GRPC_REQUEST_TRACING, new TracingStrategy(tracer, traceSampler))
+        .withValue(GRPC_FAILOVER_HANDLER_CHAIN, retryOnce));
+  }
+
+  @Test
+  public void shouldTracePhasesOfEveryAttempt() throws Exception {
+    // given
+    attachTracing(new RatioTraceSampler(1.0d));
+    final Requester requester = new DecoratingRequester();
+
+    // then
+    assertEquals("done", requester.request(new TestInvocation<>(requestMethod)));
+    assertEquals(1, traces.size());
+    final RequestTrace trace = traces.get(0);
+    assertEquals(Methods.BLOCK_BY_HEIGHT, trace.getMethod());
+    assertTrue(trace.isSucceeded());
+    final Set<String> phases = new HashSet<>();
+    long offset = 0L;
+    for (final TraceSpan span : trace.getSpans()) {
+      phases.add(span.getPhase() + "@" + span.getAttempt());
+      assertTrue(offset <= span.getStartOffset());
+      assertTrue(0L <= span.getDuration());
+      offset = span.getStartOffset();
+    }
+    for (final int attempt : new int[] {0, 1}) {
+      for (final TracePhase phase : new TracePhase[] {TracePhase.VALIDATION,
+          TracePhase.REQUEST_CONVERSION, TracePhase.QUEUEING, TracePhase.NETWORK,
+          TracePhase.RESPONSE_CONVERSION}) {
+        assertTrue(phases.contains(phase + "@" + attempt));
+      }
+    }
+    assertTrue(phases.contains(TracePhase.FAILOVER + "@-1"));
+    assertNull(ContextHolder.current().get(GRPC_REQUEST_ATTEMPT_TRACE));
+  }
+
+  @Test
+  public void shouldNotTraceUnsampledRequest() throws Exception {
+    // given
+    attachTracing(new RatioTraceSampler(0.0d));
+    final Requester requester = new DecoratingRequester();
+
+    // then
+    assertEquals("done", requester.request(new TestInvocation<>(requestMethod)));
+    assertTrue(traces.isEmpty());
+  }
+
+}
@@ -5,18 +5,32 @@
 package hera.client;
 
 import static hera.client.ClientContextKeys.GRPC_CLIENT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ENDPOINT;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_ROUTING_KEY;
 import static hera.client.ClientContextKeys.GRPC_VALUE_CHAIN_ID_HASH_HOLDER;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import hera.*;
+import hera.api.model.AccountAddress;
+import hera.api.model.Aer;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.CommitResult;
+import hera.api.model.HostnameAndPort;
+import hera.api.model.RawTransaction;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
 import hera.exception.CommitException;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import java.util.Arrays;
@@ -25,6 +39,8 @@ import java.util.List;
 import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
@@ -299,6 +315,219 @@ public class TransactionMethodsTest extends AbstractTestCase {
     });
   }
 
+  @Test
+  public void testCommitBatch() {
+    runOnOtherThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // given
+          final AergoRPCServiceBlockingStub mockBlockingStub = mock(
+              AergoRPCServiceBlockingStub.class);
+          when(mockBlockingStub.commitTX(any(Blockchain.TxList.class)))
+              .thenReturn(Rpc.CommitResultList.newBuilder()
+                  .addResults(Rpc.CommitResult.newBuilder()
+                      .setError(CommitStatus.TX_OK)
+                      .build())
+                  .addResults(Rpc.CommitResult.newBuilder()
+                      .setError(CommitStatus.TX_NONCE_TOO_LOW)
+                      .build())
+                  .build());
+          final GrpcClientImpl mockClient = mock(GrpcClientImpl.class);
+          when(mockClient.getBlockingStub()).thenReturn(mockBlockingStub);
+          final Context context = EmptyContext.getInstance().withValue(GRPC_CLIENT, mockClient);
+          ContextHolder.attach(context);
+
+          // then
+          final TransactionMethods transactionMethods = new TransactionMethods();
+          final List<Object> parameters = Arrays.<Object>asList(
+              Arrays.asList(anyTransaction, anyTransaction));
+          final List<CommitResult> commitResults = transactionMethods.getCommitBatch()
+              .invoke(parameters);
+          assertEquals(2, commitResults.size());
+          assertEquals(CommitResult.CommitStatus.OK, commitResults.get(0).getStatus());
+          assertEquals(CommitResult.CommitStatus.NONCE_TOO_LOW, commitResults.get(1).getStatus());
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          ContextHolder.remove();
+        }
+      }
+    });
+  }
+
+  // answers commit results of ok with a hash of each transaction
+  protected Answer<Rpc.CommitResultList> okAnswer() {
+    return new Answer<Rpc.CommitResultList>() {
+      @Override
+      public Rpc.CommitResultList answer(final InvocationOnMock invocation) {
+        final Blockchain.TxList rpcTxList = invocation.getArgument(0);
+        final Rpc.CommitResultList.Builder builder = Rpc.CommitResultList.newBuilder();
+        for (final Blockchain.Tx rpcTx : rpcTxList.getTxsList()) {
+          builder.addResults(Rpc.CommitResult.newBuilder()
+              .setHash(rpcTx.getHash())
+              .setError(CommitStatus.TX_OK)
+              .build());
+        }
+        return builder.build();
+      }
+    };
+  }
+
+  // a grpc client which resolves an other to the second endpoint and the rest to the first one
+  protected GrpcClientImpl routingClientOf(final AergoRPCServiceBlockingStub first,
+      final AergoRPCServiceBlockingStub second, final AccountAddress other) {
+    final GrpcEndpoint firstEndpoint = new GrpcEndpoint(HostnameAndPort.of("node1:7845"));
+    final GrpcEndpoint secondEndpoint = new GrpcEndpoint(HostnameAndPort.of("node2:7845"));
+    final GrpcClientImpl mockClient = mock(GrpcClientImpl.class);
+    when(mockClient.selectEndpoint()).thenAnswer(new Answer<GrpcEndpoint>() {
+      @Override
+      public GrpcEndpoint answer(final InvocationOnMock invocation) {
+        final Object routingKey = ContextHolder.current().get(GRPC_REQUEST_ROUTING_KEY);
+        return other.equals(routingKey) ? secondEndpoint : firstEndpoint;
+      }
+    });
+    when(mockClient.getBlockingStub()).thenAnswer(
+        new Answer<AergoRPCServiceBlockingStub>() {
+          @Override
+          public AergoRPCServiceBlockingStub answer(final InvocationOnMock invocation) {
+            final GrpcEndpoint pinned = ContextHolder.current().get(GRPC_REQUEST_ENDPOINT);
+            return secondEndpoint.equals(pinned) ? second : first;
+          }
+        });
+    return mockClient;
+  }
+
+  protected Transaction otherTransactionOf(final AergoKey other) {
+    return other.sign(RawTransaction
+        .newBuilder(ChainIdHash.of(BytesValue.EMPTY))
+        .from(other.getAddress())
+        .to(other.getAddress())
+        .amount(Aer.ZERO)
+        .nonce(1L)
+        .build());
+  }
+
+  @Test
+  public void testCommitBatchOfSenders() {
+    runOnOtherThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // given
+          final AergoRPCServiceBlockingStub mockBlockingStub = mock(
+              AergoRPCServiceBlockingStub.class);
+          when(mockBlockingStub.commitTX(any(Blockchain.TxList.class))).thenAnswer(okAnswer());
+          final AergoRPCServiceBlockingStub otherBlockingStub = mock(
+              AergoRPCServiceBlockingStub.class);
+          when(otherBlockingStub.commitTX(any(Blockchain.TxList.class))).thenAnswer(okAnswer());
+          final AergoKey other = new AergoKeyGenerator().create();
+          final GrpcClientImpl mockClient =
+              routingClientOf(mockBlockingStub, otherBlockingStub, other.getAddress());
+          final Context context = EmptyContext.getInstance().withValue(GRPC_CLIENT, mockClient);
+          ContextHolder.attach(context);
+          final Transaction otherTransaction = otherTransactionOf(other);
+
+          // then
+          final TransactionMethods transactionMethods = new TransactionMethods();
+          final List<Transaction> transactions =
+              Arrays.asList(anyTransaction, otherTransaction, anyTransaction);
+          final List<CommitResult> commitResults = transactionMethods.getCommitBatch()
+              .invoke(Arrays.<Object>asList(transactions));
+          verify(mockBlockingStub, times(1)).commitTX(any(Blockchain.TxList.class));
+          verify(otherBlockingStub, times(1)).commitTX(any(Blockchain.TxList.class));
+          assertEquals(3, commitResults.size());
+          for (int i = 0; i < transactions.size(); ++i) {
+            assertEquals(transactions.get(i).getHash(), commitResults.get(i).getHash());
+          }
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          ContextHolder.remove();
+        }
+      }
+    });
+  }
+
+  @Test
+  public void testCommitBatchOfSendersOnSameEndpoint() {
+    runOnOtherThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // given
+          final AergoRPCServiceBlockingStub mockBlockingStub = mock(
+              AergoRPCServiceBlockingStub.class);
+          when(mockBlockingStub.commitTX(any(Blockchain.TxList.class))).thenAnswer(okAnswer());
+          final GrpcClientImpl mockClient = mock(GrpcClientImpl.class);
+          when(mockClient.selectEndpoint())
+              .thenReturn(new GrpcEndpoint(HostnameAndPort.of("node1:7845")));
+          when(mockClient.getBlockingStub()).thenReturn(mockBlockingStub);
+          final Context context = EmptyContext.getInstance().withValue(GRPC_CLIENT, mockClient);
+          ContextHolder.attach(context);
+          final Transaction otherTransaction =
+              otherTransactionOf(new AergoKeyGenerator().create());
+
+          // then
+          final TransactionMethods transactionMethods = new TransactionMethods();
+          final List<Transaction> transactions =
+              Arrays.asList(anyTransaction, otherTransaction, anyTransaction);
+          final List<CommitResult> commitResults = transactionMethods.getCommitBatch()
+              .invoke(Arrays.<Object>asList(transactions));
+          verify(mockBlockingStub, times(1)).commitTX(any(Blockchain.TxList.class));
+          assertEquals(3, commitResults.size());
+          for (int i = 0; i < transactions.size(); ++i) {
+            assertEquals(transactions.get(i).getHash(), commitResults.get(i).getHash());
+          }
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          ContextHolder.remove();
+        }
+      }
+    });
+  }
+
+  @Test
+  public void testCommitBatchKeepingCommittedOnFailure() {
+    runOnOtherThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // given
+          final AergoRPCServiceBlockingStub mockBlockingStub = mock(
+              AergoRPCServiceBlockingStub.class);
+          when(mockBlockingStub.commitTX(any(Blockchain.TxList.class))).thenAnswer(okAnswer());
+          final AergoRPCServiceBlockingStub otherBlockingStub = mock(
+              AergoRPCServiceBlockingStub.class);
+          when(otherBlockingStub.commitTX(any(Blockchain.TxList.class)))
+              .thenThrow(new StatusRuntimeException(Status.UNAVAILABLE));
+          final AergoKey other = new AergoKeyGenerator().create();
+          final GrpcClientImpl mockClient =
+              routingClientOf(mockBlockingStub, otherBlockingStub, other.getAddress());
+          final Context context = EmptyContext.getInstance().withValue(GRPC_CLIENT, mockClient);
+          ContextHolder.attach(context);
+          final Transaction otherTransaction = otherTransactionOf(other);
+
+          // then
+          final TransactionMethods transactionMethods = new TransactionMethods();
+          final List<Transaction> transactions = Arrays.asList(anyTransaction, otherTransaction);
+          final List<CommitResult> commitResults = transactionMethods.getCommitBatch()
+              .invoke(Arrays.<Object>asList(transactions));
+          assertEquals(2, commitResults.size());
+          assertEquals(CommitResult.CommitStatus.OK, commitResults.get(0).getStatus());
+          assertEquals(CommitResult.CommitStatus.INTERNAL_ERROR,
+              commitResults.get(1).getStatus());
+          assertEquals(otherTransaction.getHash(), commitResults.get(1).getHash());
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          ContextHolder.remove();
+        }
+      }
+    });
+  }
+
   @Test
   public void testSendTxByAddress() {
     runOnOtherThread(new Runnable() {
@@ -4,8 +4,11 @@
 
 package hera.client;
 
+import static hera.client.ClientContextKeys.GRPC_VALUE_RESPONSE_CACHE;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import hera.AbstractTestCase;
@@ -15,10 +18,13 @@ import hera.EmptyContext;
 import hera.Invocation;
 import hera.Requester;
 import hera.api.model.BytesValue;
+import hera.api.model.CommitResult;
 import hera.api.model.Name;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
 
@@ -42,6 +48,33 @@ public class TransactionTemplateTest extends AbstractTestCase {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void shouldCacheOnlyConfirmedTransaction() throws Exception {
+    // given
+    final ContextStorage<Context> cached = new UnmodifiableContextStorage(EmptyContext
+        .getInstance().withValue(GRPC_VALUE_RESPONSE_CACHE, new ResponseCache(1024L * 1024L)));
+    final TransactionTemplate transactionTemplate = new TransactionTemplate(cached);
+    final Requester mockRequester = mock(Requester.class);
+    final Transaction confirmed = Transaction.newBuilder()
+        .rawTransaction(anyTransaction.getRawTransaction())
+        .signature(anyTransaction.getSignature())
+        .hash(anyTransaction.getHash())
+        .confirmed(true)
+        .build();
+    when(mockRequester.request(ArgumentMatchers.<Invocation<Transaction>>any()))
+        .thenReturn(anyTransaction, confirmed);
+    transactionTemplate.requester = mockRequester;
+
+    // when
+    assertEquals(anyTransaction, transactionTemplate.getTransaction(anyTxHash));
+    assertEquals(confirmed, transactionTemplate.getTransaction(anyTxHash));
+    assertEquals(confirmed, transactionTemplate.getTransaction(anyTxHash));
+
+    // then
+    verify(mockRequester, times(2)).request(ArgumentMatchers.<Invocation<Transaction>>any());
+    assertEquals(1L, cached.get().get(GRPC_VALUE_RESPONSE_CACHE).getStats().getHitCount());
+  }
+
   @Test
   public void testGetTxReceipt() throws Exception {
     // given
@@ -72,6 +105,21 @@ public class TransactionTemplateTest extends AbstractTestCase {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void testCommitBatch() throws Exception {
+    // given
+    final TransactionTemplate transactionTemplate = new TransactionTemplate(contextStorage);
+    final Requester mockRequester = mock(Requester.class);
+    final List<CommitResult> expected = Arrays.asList(CommitResult.newBuilder().build());
+    when(mockRequester.request(ArgumentMatchers.<Invocation<List<CommitResult>>>any()))
+        .thenReturn(expected);
+    transactionTemplate.requester = mockRequester;
+
+    // then
+    final List<CommitResult> actual = transactionTemplate.commit(Arrays.asList(anyTransaction));
+    assertEquals(expected, actual);
+  }
+
   @Test
   public void testSendTxByAddress() throws Exception {
     // given
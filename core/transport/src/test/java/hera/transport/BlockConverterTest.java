@@ -4,10 +4,16 @@
 
 package hera.transport;
 
+import static hera.util.TransportUtils.copyFrom;
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 import hera.AbstractTestCase;
 import hera.api.model.Block;
+import hera.api.model.BytesValue;
+import hera.api.model.Transaction;
 import org.junit.Test;
 import types.Blockchain;
 import types.Blockchain.BlockBody;
@@ -27,4 +33,30 @@ public class BlockConverterTest extends AbstractTestCase {
     assertNotNull(converted);
   }
 
+  @Test
+  public void shouldConvertTransactionOnAccess() {
+    // given
+    final ModelConverter<Block, Blockchain.Block> converter = new BlockConverterFactory().create();
+    final BytesValue blockHash = BytesValue.of(randomUUID().toString().getBytes());
+    final BytesValue txHash = BytesValue.of(randomUUID().toString().getBytes());
+    final Blockchain.Block rpcBlock = Blockchain.Block.newBuilder()
+        .setHash(copyFrom(blockHash))
+        .setBody(BlockBody.newBuilder()
+            .addTxs(Tx.newBuilder().build())
+            .addTxs(Tx.newBuilder().setHash(copyFrom(txHash)).build())
+            .build())
+        .build();
+
+    // then
+    final Block converted = converter.convertToDomainModel(rpcBlock);
+    assertEquals(2, converted.getTxCount());
+    assertEquals(rpcBlock.getSerializedSize(), converted.getSerializedSize());
+    assertEquals(txHash, converted.getTxHashes().get(1).getBytesValue());
+    final Transaction transaction = converted.getTransactions().get(1);
+    assertSame(transaction, converted.getTransactions().get(1));
+    assertEquals(txHash, transaction.getHash().getBytesValue());
+    assertEquals(blockHash, transaction.getBlockHash().getBytesValue());
+    assertEquals(1, transaction.getIndexInBlock());
+  }
+
 }
@@ -0,0 +1,32 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import hera.AbstractTestCase;
+import hera.api.model.CommitResult;
+import org.junit.Test;
+import types.Rpc;
+
+public class CommitResultConverterTest extends AbstractTestCase {
+
+  @Test
+  public void testConvert() {
+    final ModelConverter<CommitResult, Rpc.CommitResult> converter =
+        new CommitResultConverterFactory().create();
+
+    final Rpc.CommitResult rpcCommitResult = Rpc.CommitResult.newBuilder()
+        .setError(Rpc.CommitStatus.TX_INSUFFICIENT_BALANCE)
+        .setDetail("insufficient balance")
+        .build();
+    final CommitResult domainCommitResult = converter.convertToDomainModel(rpcCommitResult);
+    assertNotNull(domainCommitResult);
+    assertEquals(CommitResult.CommitStatus.INSUFFICIENT_BALANCE, domainCommitResult.getStatus());
+    assertEquals("insufficient balance", domainCommitResult.getDetail());
+  }
+
+}